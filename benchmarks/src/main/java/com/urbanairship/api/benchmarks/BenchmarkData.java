@@ -0,0 +1,86 @@
+/*
+ * Copyright (c) 2013-2016.  Urban Airship and Contributors
+ */
+
+package com.urbanairship.api.benchmarks;
+
+/**
+ * Builds the synthetic API response bodies used by the parsing and dispatch benchmarks.
+ */
+final class BenchmarkData {
+
+    private BenchmarkData() {
+    }
+
+    static String channelListing(int channels) {
+        StringBuilder json = new StringBuilder("{\"ok\":true,\"next_page\":\"https://go.urbanairship.com/api/channels?start=next\",\"channels\":[");
+        for (int i = 0; i < channels; i++) {
+            if (i > 0) {
+                json.append(',');
+            }
+            channel(json, i);
+        }
+        return json.append("]}").toString();
+    }
+
+    static String namedUserListing(int namedUsers) {
+        StringBuilder json = new StringBuilder("{\"ok\":true,\"next_page\":\"https://go.urbanairship.com/api/named_users?start=next\",\"named_users\":[");
+        for (int i = 0; i < namedUsers; i++) {
+            if (i > 0) {
+                json.append(',');
+            }
+            json.append("{\"named_user_id\":\"user-").append(i).append("\",")
+                .append("\"tags\":{\"crm\":[\"gold\",\"member-").append(i % 50).append("\"]},")
+                .append("\"channels\":[");
+            channel(json, i * 2);
+            json.append(',');
+            channel(json, i * 2 + 1);
+            json.append("]}");
+        }
+        return json.append("]}").toString();
+    }
+
+    static String pushListing(int pushes) {
+        StringBuilder json = new StringBuilder("{\"next_page\":\"https://go.urbanairship.com/api/reports/responses/list?start=next\",\"pushes\":[");
+        for (int i = 0; i < pushes; i++) {
+            if (i > 0) {
+                json.append(',');
+            }
+            json.append("{\"push_uuid\":\"").append(uuid(i)).append("\",")
+                .append("\"push_time\":\"2016-07-31 23:56:52\",")
+                .append("\"push_type\":\"BROADCAST_PUSH\",")
+                .append("\"direct_responses\":").append(i % 7).append(',')
+                .append("\"sends\":").append(i * 13)
+                .append('}');
+        }
+        return json.append("]}").toString();
+    }
+
+    static String pushResponse() {
+        return "{\"ok\":true,\"operation_id\":\"" + uuid(0) + "\",\"push_ids\":[\"" + uuid(1) + "\"]}";
+    }
+
+    private static void channel(StringBuilder json, int i) {
+        boolean ios = i % 2 == 0;
+        json.append("{\"channel_id\":\"").append(uuid(i)).append("\",")
+            .append("\"device_type\":\"").append(ios ? "ios" : "android").append("\",")
+            .append("\"installed\":true,")
+            .append("\"opt_in\":").append(i % 3 != 0).append(',')
+            .append("\"background\":true,")
+            .append("\"push_address\":\"").append(Integer.toHexString(i * 7919)).append("FFFFFFFF\",")
+            .append("\"created\":\"2014-03-06T18:52:59\",")
+            .append("\"last_registration\":\"2016-05-01T18:00:27\",")
+            .append("\"alias\":\"alias-").append(i).append("\",")
+            .append("\"tags\":[\"sports\",\"news\",\"tag-").append(i % 100).append("\"],")
+            .append("\"tag_groups\":{\"crm\":[\"gold\"],\"timezone\":[\"America/Los_Angeles\"]}");
+        if (ios) {
+            json.append(",\"ios\":{\"badge\":").append(i % 10)
+                .append(",\"quiettime\":{\"start\":\"22:00\",\"end\":\"06:00\"},\"tz\":\"America/Los_Angeles\"}");
+        }
+        json.append('}');
+    }
+
+    private static String uuid(int i) {
+        return String.format("%08x-fa3c-11e2-97ce-14feb5d317b8", i);
+    }
+}
@@ -0,0 +1,129 @@
+/*
+ * Copyright (c) 2013-2016.  Urban Airship and Contributors
+ */
+
+package com.urbanairship.api.benchmarks;
+
+import com.google.common.base.Charsets;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpHandler;
+import com.sun.net.httpserver.HttpServer;
+import com.urbanairship.api.client.Response;
+import com.urbanairship.api.client.UrbanAirshipClient;
+import com.urbanairship.api.push.PushRequest;
+import com.urbanairship.api.push.model.DeviceType;
+import com.urbanairship.api.push.model.DeviceTypeData;
+import com.urbanairship.api.push.model.PushPayload;
+import com.urbanairship.api.push.model.audience.Selectors;
+import com.urbanairship.api.push.model.notification.Notifications;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * End to end push sends through {@link UrbanAirshipClient#executeAsync} against an in-process stub HTTP server,
+ * covering request building, dispatch, response handling and parsing. The stub answers immediately, so the
+ * numbers are dominated by client overhead and loopback I/O.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ExecuteAsyncBenchmark {
+
+    private static final int PIPELINE_DEPTH = 16;
+
+    private HttpServer server;
+    private ExecutorService serverExecutor;
+    private UrbanAirshipClient client;
+    private PushRequest request;
+
+    @Setup
+    public void setup() throws IOException {
+        final byte[] pushResponse = BenchmarkData.pushResponse().getBytes(Charsets.UTF_8);
+
+        // The stub writes the response headers and body separately; without TCP_NODELAY every response waits on
+        // a delayed ACK and the benchmark would measure that instead of the client.
+        System.setProperty("sun.net.httpserver.nodelay", "true");
+
+        serverExecutor = Executors.newFixedThreadPool(4);
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.createContext("/api/push/", new HttpHandler() {
+            @Override
+            public void handle(HttpExchange exchange) throws IOException {
+                try (InputStream in = exchange.getRequestBody()) {
+                    byte[] buffer = new byte[8192];
+                    while (in.read(buffer) != -1) {
+                        // Drain the request body before answering.
+                    }
+                }
+                exchange.getResponseHeaders().set("Content-Type", "application/vnd.urbanairship+json; version=3");
+                exchange.sendResponseHeaders(202, pushResponse.length);
+                try (OutputStream out = exchange.getResponseBody()) {
+                    out.write(pushResponse);
+                }
+            }
+        });
+        server.setExecutor(serverExecutor);
+        server.start();
+
+        client = UrbanAirshipClient.newBuilder()
+            .setBaseUri("http://127.0.0.1:" + server.getAddress().getPort())
+            .setKey("key")
+            .setSecret("secret")
+            .build();
+
+        request = PushRequest.newRequest(PushPayload.newBuilder()
+            .setAudience(Selectors.iosChannel("9c36e8c7-5a73-47c0-9716-99fd3d4197d5"))
+            .setDeviceTypes(DeviceTypeData.of(DeviceType.IOS))
+            .setNotification(Notifications.alert("Hello"))
+            .build());
+    }
+
+    @TearDown
+    public void tearDown() {
+        client.close();
+        server.stop(0);
+        serverExecutor.shutdownNow();
+    }
+
+    @Benchmark
+    public Response executeAsync() throws Exception {
+        return client.executeAsync(request).get();
+    }
+
+    @Benchmark
+    public List<Response> executeAsyncPipelined() throws Exception {
+        List<Future<Response>> futures = new ArrayList<>(PIPELINE_DEPTH);
+        for (int i = 0; i < PIPELINE_DEPTH; i++) {
+            futures.add(client.executeAsync(request));
+        }
+
+        List<Response> responses = new ArrayList<>(PIPELINE_DEPTH);
+        for (Future<Response> future : futures) {
+            responses.add(future.get());
+        }
+        return responses;
+    }
+}
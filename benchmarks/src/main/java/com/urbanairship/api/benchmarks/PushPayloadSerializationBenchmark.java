@@ -0,0 +1,127 @@
+/*
+ * Copyright (c) 2013-2016.  Urban Airship and Contributors
+ */
+
+package com.urbanairship.api.benchmarks;
+
+import com.urbanairship.api.push.model.DeviceType;
+import com.urbanairship.api.push.model.DeviceTypeData;
+import com.urbanairship.api.push.model.PushPayload;
+import com.urbanairship.api.push.model.audience.Selectors;
+import com.urbanairship.api.push.model.notification.Notification;
+import com.urbanairship.api.push.model.notification.android.AndroidDevicePayload;
+import com.urbanairship.api.push.model.notification.android.BigTextStyle;
+import com.urbanairship.api.push.model.notification.ios.IOSBadgeData;
+import com.urbanairship.api.push.model.notification.ios.IOSDevicePayload;
+import com.urbanairship.api.push.model.notification.mpns.MPNSDevicePayload;
+import com.urbanairship.api.push.model.notification.mpns.MPNSPush;
+import com.urbanairship.api.push.model.notification.mpns.MPNSToastData;
+import com.urbanairship.api.push.model.notification.wns.WNSBinding;
+import com.urbanairship.api.push.model.notification.wns.WNSDevicePayload;
+import com.urbanairship.api.push.model.notification.wns.WNSPush;
+import com.urbanairship.api.push.model.notification.wns.WNSToastData;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Serialization of push payloads to the request body, for each platform's notification shape and for a
+ * payload carrying the overrides of every platform at once.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PushPayloadSerializationBenchmark {
+
+    @Param({"IOS", "ANDROID", "WNS", "MPNS", "ALL"})
+    public String shape;
+
+    private PushPayload payload;
+
+    @Setup
+    public void setup() {
+        Notification.Builder notification = Notification.newBuilder().setAlert("Your order has shipped");
+        DeviceTypeData.Builder deviceTypes = DeviceTypeData.newBuilder();
+
+        if (shape.equals("IOS") || shape.equals("ALL")) {
+            notification.addDeviceTypeOverride(DeviceType.IOS, IOSDevicePayload.newBuilder()
+                .setAlert("Your order has shipped")
+                .setTitle("Order update")
+                .setBadge(IOSBadgeData.newBuilder().setType(IOSBadgeData.Type.INCREMENT).setValue(1).build())
+                .setSound("default")
+                .setCategory("order")
+                .addExtraEntry("order_id", "1234567890")
+                .addExtraEntry("url", "https://example.com/orders/1234567890")
+                .build());
+            deviceTypes.addDeviceType(DeviceType.IOS);
+        }
+        if (shape.equals("ANDROID") || shape.equals("ALL")) {
+            notification.addDeviceTypeOverride(DeviceType.ANDROID, AndroidDevicePayload.newBuilder()
+                .setAlert("Your order has shipped")
+                .setTitle("Order update")
+                .setSummary("1 item")
+                .setStyle(BigTextStyle.newBuilder()
+                    .setContent("Your order 1234567890 left our warehouse today.")
+                    .setTitle("Order update")
+                    .setSummary("1 item")
+                    .build())
+                .setDeliveryPriority("high")
+                .addExtraEntry("order_id", "1234567890")
+                .addExtraEntry("url", "https://example.com/orders/1234567890")
+                .build());
+            deviceTypes.addDeviceType(DeviceType.ANDROID);
+        }
+        if (shape.equals("WNS") || shape.equals("ALL")) {
+            notification.addDeviceTypeOverride(DeviceType.WNS, WNSDevicePayload.newBuilder()
+                .setBody(WNSPush.newBuilder()
+                    .setType(WNSPush.Type.TOAST)
+                    .setToast(WNSToastData.newBuilder()
+                        .setBinding(WNSBinding.newBuilder()
+                            .setTemplate("ToastText02")
+                            .addText("Order update")
+                            .addText("Your order has shipped")
+                            .build())
+                        .build())
+                    .build())
+                .build());
+            deviceTypes.addDeviceType(DeviceType.WNS);
+        }
+        if (shape.equals("MPNS") || shape.equals("ALL")) {
+            notification.addDeviceTypeOverride(DeviceType.MPNS, MPNSDevicePayload.newBuilder()
+                .setBody(MPNSPush.newBuilder()
+                    .setType(MPNSPush.Type.TOAST)
+                    .setToast(MPNSToastData.newBuilder()
+                        .setText1("Order update")
+                        .setText2("Your order has shipped")
+                        .setParam("/orders/1234567890")
+                        .build())
+                    .build())
+                .build());
+            deviceTypes.addDeviceType(DeviceType.MPNS);
+        }
+
+        payload = PushPayload.newBuilder()
+            .setAudience(Selectors.and(Selectors.tag("shipped"), Selectors.namedUser("user-1234")))
+            .setDeviceTypes(deviceTypes.build())
+            .setNotification(notification.build())
+            .build();
+    }
+
+    @Benchmark
+    public byte[] serialize() {
+        return payload.toJSONBytes();
+    }
+}
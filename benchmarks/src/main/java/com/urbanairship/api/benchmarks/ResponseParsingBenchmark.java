@@ -0,0 +1,83 @@
+/*
+ * Copyright (c) 2013-2016.  Urban Airship and Contributors
+ */
+
+package com.urbanairship.api.benchmarks;
+
+import com.google.common.base.Charsets;
+import com.urbanairship.api.channel.ChannelRequest;
+import com.urbanairship.api.client.ResponseParser;
+import com.urbanairship.api.client.StreamingResponseParser;
+import com.urbanairship.api.nameduser.NamedUserListingRequest;
+import com.urbanairship.api.reports.PushListingRequest;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.ByteArrayInputStream;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Deserialization of large listing response bodies with the parsers the listing requests hand to the client,
+ * both from a buffered string and from the raw response bytes as the streaming response handler does.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ResponseParsingBenchmark {
+
+    @Param({"CHANNELS", "NAMED_USERS", "PUSHES"})
+    public String listing;
+
+    @Param({"100", "1000"})
+    public int size;
+
+    private String body;
+    private byte[] bodyBytes;
+    private StreamingResponseParser<?> parser;
+
+    @Setup
+    public void setup() {
+        ResponseParser<?> responseParser;
+        switch (listing) {
+            case "CHANNELS":
+                body = BenchmarkData.channelListing(size);
+                responseParser = ChannelRequest.newRequest().getResponseParser();
+                break;
+            case "NAMED_USERS":
+                body = BenchmarkData.namedUserListing(size);
+                responseParser = NamedUserListingRequest.newRequest().getResponseParser();
+                break;
+            case "PUSHES":
+                body = BenchmarkData.pushListing(size);
+                responseParser = PushListingRequest.newRequest().getResponseParser();
+                break;
+            default:
+                throw new IllegalArgumentException("Unknown listing " + listing);
+        }
+
+        bodyBytes = body.getBytes(Charsets.UTF_8);
+        parser = (StreamingResponseParser<?>) responseParser;
+    }
+
+    @Benchmark
+    public Object parseString() throws Exception {
+        return parser.parse(body);
+    }
+
+    @Benchmark
+    public Object parseStream() throws Exception {
+        return parser.parse(new ByteArrayInputStream(bodyBytes));
+    }
+}
@@ -0,0 +1,87 @@
+/*
+ * Copyright (c) 2013-2016.  Urban Airship and Contributors
+ */
+
+package com.urbanairship.api.benchmarks;
+
+import com.urbanairship.api.push.model.audience.Selector;
+import com.urbanairship.api.push.model.audience.Selectors;
+import com.urbanairship.api.push.parse.PushObjectMapper;
+import org.codehaus.jackson.map.ObjectMapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Parsing and serialization of audience selectors. The tree is an OR of AND groups over tag, tag group and
+ * negated segment selectors, with {@code leaves} value selectors in total.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SelectorBenchmark {
+
+    private static final int GROUP_SIZE = 4;
+
+    @Param({"4", "64", "1024"})
+    public int leaves;
+
+    private final ObjectMapper mapper = PushObjectMapper.getInstance();
+
+    private Selector selector;
+    private String json;
+
+    @Setup
+    public void setup() throws Exception {
+        List<Selector> groups = new ArrayList<>();
+        List<Selector> group = new ArrayList<>();
+        for (int i = 0; i < leaves; i++) {
+            switch (i % 3) {
+                case 0:
+                    group.add(Selectors.tag("tag-" + i));
+                    break;
+                case 1:
+                    group.add(Selectors.tagWithGroup("tag-" + i, "crm"));
+                    break;
+                default:
+                    group.add(Selectors.not(Selectors.segment("segment-" + i)));
+                    break;
+            }
+            if (group.size() == GROUP_SIZE) {
+                groups.add(Selectors.and(group));
+                group = new ArrayList<>();
+            }
+        }
+        if (!group.isEmpty()) {
+            groups.add(Selectors.and(group));
+        }
+
+        selector = groups.size() == 1 ? groups.get(0) : Selectors.or(groups);
+        json = mapper.writeValueAsString(selector);
+    }
+
+    @Benchmark
+    public Selector parse() throws Exception {
+        return mapper.readValue(json, Selector.class);
+    }
+
+    @Benchmark
+    public String serialize() throws Exception {
+        return mapper.writeValueAsString(selector);
+    }
+}
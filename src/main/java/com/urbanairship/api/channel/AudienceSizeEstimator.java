@@ -0,0 +1,515 @@
+/*
+ * Copyright (c) 2013-2016.  Urban Airship and Contributors
+ */
+
+package com.urbanairship.api.channel;
+
+import com.google.common.base.Optional;
+import com.google.common.base.Preconditions;
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.ImmutableSet;
+import com.google.common.collect.Iterables;
+import com.google.common.hash.HashFunction;
+import com.google.common.hash.Hashing;
+import com.urbanairship.api.channel.model.ChannelType;
+import com.urbanairship.api.channel.model.ChannelView;
+import com.urbanairship.api.push.model.DeviceType;
+import com.urbanairship.api.push.model.DeviceTypeData;
+import com.urbanairship.api.push.model.PushPayload;
+import com.urbanairship.api.push.model.audience.CompoundSelector;
+import com.urbanairship.api.push.model.audience.Selector;
+import com.urbanairship.api.push.model.audience.Selectors;
+import com.urbanairship.api.push.model.audience.ValueSelector;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Estimates how many channels an audience reaches from a fixed size sketch of the channels per tag, tag group tag
+ * and platform, e.g. when a {@link ChannelAudienceIndex} of every channel would not fit in memory.
+ *
+ * Each sketch keeps the smallest hashes of the channel IDs it has seen, up to {@code nominalEntries} of them
+ * (a KMV, or theta, sketch). Unlike cardinality sketches that only merge, these can be intersected and subtracted,
+ * so any AND, OR and NOT of tags can be estimated: ANDs intersect their children's sketches, ORs unite them, and
+ * NOTs subtract from the sketch of every channel. Every node is also limited to its applicable device types.
+ *
+ * Counts are exact while fewer channels than {@code nominalEntries} have been added. Past that, estimates have a
+ * relative standard error of about {@code 1 / sqrt(nominalEntries)} of the largest set an expression combines, so
+ * small intersections of large tags are the least accurate. Only tag selectors, including tags with a group and
+ * tags of the "device" class, and all, and, or and not can be estimated; other selectors throw an
+ * IllegalArgumentException.
+ *
+ * Only installed and opted in channels are counted. Estimators can be written to a stream and read back, and are
+ * immutable and can be shared between threads.
+ */
+public class AudienceSizeEstimator {
+
+    private static final int FORMAT_VERSION = 1;
+    private static final String DEVICE_TAG_CLASS = "device";
+    private static final HashFunction HASH_FUNCTION = Hashing.murmur3_128();
+
+    private static final Map<ChannelType, DeviceType> DEVICE_TYPES = ImmutableMap.of(
+        ChannelType.IOS, DeviceType.IOS,
+        ChannelType.ANDROID, DeviceType.ANDROID,
+        ChannelType.ADM, DeviceType.AMAZON);
+
+    private final int nominalEntries;
+    private final Sketch all;
+    private final Map<DeviceType, Sketch> platforms;
+    private final Map<String, Sketch> tags;
+    private final Map<String, Map<String, Sketch>> tagGroups;
+
+    private AudienceSizeEstimator(int nominalEntries, Sketch all, Map<DeviceType, Sketch> platforms, Map<String, Sketch> tags,
+                                  Map<String, Map<String, Sketch>> tagGroups) {
+        this.nominalEntries = nominalEntries;
+        this.all = all;
+        this.platforms = platforms;
+        this.tags = tags;
+        this.tagGroups = tagGroups;
+    }
+
+    /**
+     * New AudienceSizeEstimator builder.
+     *
+     * @return Builder
+     */
+    public static Builder newBuilder() {
+        return new Builder();
+    }
+
+    /**
+     * Get the number of hashes each sketch keeps.
+     *
+     * @return int
+     */
+    public int getNominalEntries() {
+        return nominalEntries;
+    }
+
+    /**
+     * Estimate the number of installed and opted in channels.
+     *
+     * @return The estimated number of channels.
+     */
+    public long estimate() {
+        return all.estimate();
+    }
+
+    /**
+     * Estimate the number of installed and opted in channels an audience, e.g. segment criteria, selects.
+     *
+     * @param audience The audience selector.
+     * @return The estimated number of channels.
+     */
+    public long estimate(Selector audience) {
+        Preconditions.checkNotNull(audience, "Audience cannot be null");
+        return evaluate(audience).estimate();
+    }
+
+    /**
+     * Estimate the number of installed and opted in channels a push would be sent to, taking its device types into
+     * account.
+     *
+     * @param payload The push payload.
+     * @return The estimated number of channels.
+     */
+    public long estimate(PushPayload payload) {
+        Preconditions.checkNotNull(payload, "Payload cannot be null");
+        return restrict(evaluate(payload.getAudience()), payload.getDeviceTypes()).estimate();
+    }
+
+    private Sketch evaluate(Selector selector) {
+        Sketch result;
+        switch (selector.getType()) {
+            case ALL:
+                result = all;
+                break;
+            case AND:
+                result = null;
+                for (Selector child : ((CompoundSelector) selector).getChildren()) {
+                    result = result == null ? evaluate(child) : Sketch.intersection(result, evaluate(child));
+                }
+                break;
+            case OR:
+                result = null;
+                for (Selector child : ((CompoundSelector) selector).getChildren()) {
+                    result = result == null ? evaluate(child) : Sketch.union(result, evaluate(child), nominalEntries);
+                }
+                break;
+            case NOT:
+                result = Sketch.difference(all, evaluate(Iterables.getOnlyElement(((CompoundSelector) selector).getChildren())));
+                break;
+            case TAG:
+                result = tag((ValueSelector) selector);
+                break;
+            default:
+                throw new IllegalArgumentException("Selector type '" + selector.getType().getIdentifier() + "' cannot be estimated");
+        }
+        return restrict(result, selector.getApplicableDeviceTypes());
+    }
+
+    private Sketch tag(ValueSelector selector) {
+        Map<String, String> attributes = selector.getAttributes().or(Collections.<String, String>emptyMap());
+        Sketch sketch;
+        if (attributes.containsKey(Selectors.GROUP_ATTR)) {
+            Map<String, Sketch> group = tagGroups.get(attributes.get(Selectors.GROUP_ATTR));
+            sketch = group != null ? group.get(selector.getValue()) : null;
+        } else {
+            String tagClass = attributes.get(Selectors.CLASS_ATTR);
+            Preconditions.checkArgument(tagClass == null || tagClass.equals(DEVICE_TAG_CLASS),
+                "Tags of class '" + tagClass + "' cannot be estimated");
+            sketch = tags.get(selector.getValue());
+        }
+        return sketch != null ? sketch : Sketch.EMPTY;
+    }
+
+    private Sketch restrict(Sketch sketch, DeviceTypeData deviceTypes) {
+        if (deviceTypes.isAll()) {
+            return sketch;
+        }
+        Sketch allowed = Sketch.EMPTY;
+        for (DeviceType deviceType : deviceTypes.getDeviceTypes().get()) {
+            Sketch platform = platforms.get(deviceType);
+            if (platform != null) {
+                allowed = Sketch.union(allowed, platform, nominalEntries);
+            }
+        }
+        return Sketch.intersection(sketch, allowed);
+    }
+
+    /**
+     * Write the estimator's sketches to a stream. The stream is not closed.
+     *
+     * @param out The output stream.
+     * @throws IOException If the sketches cannot be written.
+     */
+    public void writeTo(OutputStream out) throws IOException {
+        DataOutputStream data = new DataOutputStream(out);
+        data.writeInt(FORMAT_VERSION);
+        data.writeInt(nominalEntries);
+        all.writeTo(data);
+
+        data.writeInt(platforms.size());
+        for (Map.Entry<DeviceType, Sketch> platform : platforms.entrySet()) {
+            data.writeUTF(platform.getKey().getIdentifier());
+            platform.getValue().writeTo(data);
+        }
+        writeSketches(data, tags);
+        data.writeInt(tagGroups.size());
+        for (Map.Entry<String, Map<String, Sketch>> group : tagGroups.entrySet()) {
+            data.writeUTF(group.getKey());
+            writeSketches(data, group.getValue());
+        }
+        data.flush();
+    }
+
+    /**
+     * Read an estimator written by {@link #writeTo(OutputStream)}. The stream is not closed.
+     *
+     * @param in The input stream.
+     * @return AudienceSizeEstimator
+     * @throws IOException If the stream cannot be read or is not an estimator.
+     */
+    public static AudienceSizeEstimator readFrom(InputStream in) throws IOException {
+        DataInputStream data = new DataInputStream(in);
+        int version = data.readInt();
+        if (version != FORMAT_VERSION) {
+            throw new IOException("Unsupported audience size estimator format " + version);
+        }
+        int nominalEntries = data.readInt();
+        Sketch all = Sketch.readFrom(data);
+
+        Map<DeviceType, Sketch> platforms = new EnumMap<>(DeviceType.class);
+        for (int i = data.readInt(); i > 0; i--) {
+            String identifier = data.readUTF();
+            Optional<DeviceType> deviceType = DeviceType.find(identifier);
+            if (!deviceType.isPresent()) {
+                throw new IOException("Unknown device type " + identifier);
+            }
+            platforms.put(deviceType.get(), Sketch.readFrom(data));
+        }
+        Map<String, Sketch> tags = readSketches(data);
+        Map<String, Map<String, Sketch>> tagGroups = new HashMap<>();
+        for (int i = data.readInt(); i > 0; i--) {
+            String group = data.readUTF();
+            tagGroups.put(group, readSketches(data));
+        }
+        return new AudienceSizeEstimator(nominalEntries, all, platforms, tags, tagGroups);
+    }
+
+    private static void writeSketches(DataOutputStream data, Map<String, Sketch> sketches) throws IOException {
+        data.writeInt(sketches.size());
+        for (Map.Entry<String, Sketch> sketch : sketches.entrySet()) {
+            data.writeUTF(sketch.getKey());
+            sketch.getValue().writeTo(data);
+        }
+    }
+
+    private static Map<String, Sketch> readSketches(DataInputStream data) throws IOException {
+        Map<String, Sketch> sketches = new HashMap<>();
+        for (int i = data.readInt(); i > 0; i--) {
+            String key = data.readUTF();
+            sketches.put(key, Sketch.readFrom(data));
+        }
+        return sketches;
+    }
+
+    /**
+     * The smallest hashes below theta of a set of channels, sorted. Hashes are non-negative longs, and theta is the
+     * fraction of the hash space the sketch has seen, scaled to Long.MAX_VALUE.
+     */
+    private static final class Sketch {
+
+        private static final Sketch EMPTY = new Sketch(Long.MAX_VALUE, new long[0], 0);
+
+        private long theta;
+        private long[] hashes;
+        private int size;
+
+        private Sketch(long theta, long[] hashes, int size) {
+            this.theta = theta;
+            this.hashes = hashes;
+            this.size = size;
+        }
+
+        private static Sketch newSketch() {
+            return new Sketch(Long.MAX_VALUE, new long[8], 0);
+        }
+
+        /**
+         * Add a hash, dropping the largest hash and lowering theta once there are more than nominalEntries.
+         */
+        private void update(long hash, int nominalEntries) {
+            if (hash >= theta) {
+                return;
+            }
+            int index = Arrays.binarySearch(hashes, 0, size, hash);
+            if (index >= 0) {
+                return;
+            }
+            index = -index - 1;
+            if (size == hashes.length) {
+                hashes = Arrays.copyOf(hashes, Math.min(size * 2, nominalEntries + 1));
+            }
+            System.arraycopy(hashes, index, hashes, index + 1, size - index);
+            hashes[index] = hash;
+            size++;
+            if (size > nominalEntries) {
+                size--;
+                theta = hashes[size];
+            }
+        }
+
+        private Sketch compact() {
+            return new Sketch(theta, Arrays.copyOf(hashes, size), size);
+        }
+
+        private long estimate() {
+            if (theta == Long.MAX_VALUE) {
+                return size;
+            }
+            return Math.round(size * ((double) Long.MAX_VALUE / theta));
+        }
+
+        private static Sketch union(Sketch a, Sketch b, int nominalEntries) {
+            long theta = Math.min(a.theta, b.theta);
+            long[] merged = new long[a.size + b.size];
+            int size = 0;
+            int i = 0;
+            int j = 0;
+            while (i < a.size || j < b.size) {
+                long hash;
+                if (j == b.size || (i < a.size && a.hashes[i] < b.hashes[j])) {
+                    hash = a.hashes[i++];
+                } else if (i == a.size || b.hashes[j] < a.hashes[i]) {
+                    hash = b.hashes[j++];
+                } else {
+                    hash = a.hashes[i++];
+                    j++;
+                }
+                if (hash >= theta) {
+                    break;
+                }
+                if (size == nominalEntries) {
+                    theta = hash;
+                    break;
+                }
+                merged[size++] = hash;
+            }
+            return new Sketch(theta, merged, size);
+        }
+
+        private static Sketch intersection(Sketch a, Sketch b) {
+            long theta = Math.min(a.theta, b.theta);
+            long[] common = new long[Math.min(a.size, b.size)];
+            int size = 0;
+            for (int i = 0, j = 0; i < a.size && j < b.size; ) {
+                if (a.hashes[i] >= theta || b.hashes[j] >= theta) {
+                    break;
+                } else if (a.hashes[i] < b.hashes[j]) {
+                    i++;
+                } else if (b.hashes[j] < a.hashes[i]) {
+                    j++;
+                } else {
+                    common[size++] = a.hashes[i];
+                    i++;
+                    j++;
+                }
+            }
+            return new Sketch(theta, common, size);
+        }
+
+        private static Sketch difference(Sketch a, Sketch b) {
+            long theta = Math.min(a.theta, b.theta);
+            long[] remaining = new long[a.size];
+            int size = 0;
+            int j = 0;
+            for (int i = 0; i < a.size && a.hashes[i] < theta; i++) {
+                while (j < b.size && b.hashes[j] < a.hashes[i]) {
+                    j++;
+                }
+                if (j == b.size || b.hashes[j] != a.hashes[i]) {
+                    remaining[size++] = a.hashes[i];
+                }
+            }
+            return new Sketch(theta, remaining, size);
+        }
+
+        private void writeTo(DataOutputStream data) throws IOException {
+            data.writeLong(theta);
+            data.writeInt(size);
+            for (int i = 0; i < size; i++) {
+                data.writeLong(hashes[i]);
+            }
+        }
+
+        private static Sketch readFrom(DataInputStream data) throws IOException {
+            long theta = data.readLong();
+            int size = data.readInt();
+            if (theta <= 0 || size < 0) {
+                throw new IOException("Invalid sketch");
+            }
+            long[] hashes = new long[size];
+            for (int i = 0; i < size; i++) {
+                hashes[i] = data.readLong();
+            }
+            return new Sketch(theta, hashes, size);
+        }
+    }
+
+    public static class Builder {
+
+        private int nominalEntries = 4096;
+        private Sketch all = null;
+        private final Map<DeviceType, Sketch> platforms = new EnumMap<>(DeviceType.class);
+        private final Map<String, Sketch> tags = new HashMap<>();
+        private final Map<String, Map<String, Sketch>> tagGroups = new HashMap<>();
+
+        private Builder() {
+        }
+
+        /**
+         * Set the number of hashes each sketch keeps, 4096 by default. Larger sketches are more accurate and take
+         * up to 8 bytes per entry per tag. Must be set before channels are added.
+         *
+         * @param value int
+         * @return Builder
+         */
+        public Builder setNominalEntries(int value) {
+            Preconditions.checkState(all == null, "Nominal entries must be set before channels are added");
+            Preconditions.checkArgument(value >= 16, "Nominal entries must be at least 16");
+            this.nominalEntries = value;
+            return this;
+        }
+
+        /**
+         * Add a channel to the sketches. Channels that are not installed and opted in are skipped, and adding a
+         * channel more than once has no effect.
+         *
+         * @param channel ChannelView
+         * @return Builder
+         */
+        public Builder addChannel(ChannelView channel) {
+            Preconditions.checkNotNull(channel, "Channel cannot be null");
+            if (all == null) {
+                all = Sketch.newSketch();
+            }
+            if (!channel.isInstalled() || !channel.isOptIn()) {
+                return this;
+            }
+
+            long hash = HASH_FUNCTION.hashString(channel.getChannelId(), StandardCharsets.UTF_8).asLong() >>> 1;
+            all.update(hash, nominalEntries);
+            update(platforms, DEVICE_TYPES.get(channel.getChannelType()), hash);
+            for (String tag : channel.getTags()) {
+                update(tags, tag, hash);
+            }
+            for (Map.Entry<String, ImmutableSet<String>> group : channel.getTagGroups().entrySet()) {
+                if (!tagGroups.containsKey(group.getKey())) {
+                    tagGroups.put(group.getKey(), new HashMap<String, Sketch>());
+                }
+                for (String tag : group.getValue()) {
+                    update(tagGroups.get(group.getKey()), tag, hash);
+                }
+            }
+            return this;
+        }
+
+        /**
+         * Add channels to the sketches, e.g. a {@link ChannelListingIterable}.
+         *
+         * @param channels Iterable of ChannelView
+         * @return Builder
+         */
+        public Builder addAllChannels(Iterable<ChannelView> channels) {
+            for (ChannelView channel : channels) {
+                addChannel(channel);
+            }
+            return this;
+        }
+
+        private <K> void update(Map<K, Sketch> sketches, K key, long hash) {
+            Sketch sketch = sketches.get(key);
+            if (sketch == null) {
+                sketch = Sketch.newSketch();
+                sketches.put(key, sketch);
+            }
+            sketch.update(hash, nominalEntries);
+        }
+
+        /**
+         * Build the estimator.
+         *
+         * @return AudienceSizeEstimator
+         */
+        public AudienceSizeEstimator build() {
+            Map<DeviceType, Sketch> compactPlatforms = new EnumMap<>(DeviceType.class);
+            for (Map.Entry<DeviceType, Sketch> platform : platforms.entrySet()) {
+                compactPlatforms.put(platform.getKey(), platform.getValue().compact());
+            }
+            Map<String, Map<String, Sketch>> compactGroups = new HashMap<>();
+            for (Map.Entry<String, Map<String, Sketch>> group : tagGroups.entrySet()) {
+                compactGroups.put(group.getKey(), compact(group.getValue()));
+            }
+            return new AudienceSizeEstimator(nominalEntries, all != null ? all.compact() : Sketch.EMPTY, compactPlatforms,
+                compact(tags), compactGroups);
+        }
+
+        private static Map<String, Sketch> compact(Map<String, Sketch> sketches) {
+            Map<String, Sketch> compacted = new HashMap<>(sketches.size() * 4 / 3 + 1);
+            for (Map.Entry<String, Sketch> sketch : sketches.entrySet()) {
+                compacted.put(sketch.getKey(), sketch.getValue().compact());
+            }
+            return compacted;
+        }
+    }
+}
@@ -0,0 +1,424 @@
+/*
+ * Copyright (c) 2013-2016.  Urban Airship and Contributors
+ */
+
+package com.urbanairship.api.channel;
+
+import com.google.common.base.Optional;
+import com.google.common.base.Preconditions;
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.ImmutableSet;
+import com.google.common.collect.Iterables;
+import com.urbanairship.api.channel.model.ChannelType;
+import com.urbanairship.api.channel.model.ChannelView;
+import com.urbanairship.api.push.model.DeviceType;
+import com.urbanairship.api.push.model.DeviceTypeData;
+import com.urbanairship.api.push.model.PushPayload;
+import com.urbanairship.api.push.model.audience.CompoundSelector;
+import com.urbanairship.api.push.model.audience.Selector;
+import com.urbanairship.api.push.model.audience.SelectorType;
+import com.urbanairship.api.push.model.audience.Selectors;
+import com.urbanairship.api.push.model.audience.ValueSelector;
+import com.urbanairship.api.push.model.audience.ValueSetSelector;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+
+/**
+ * Evaluates audience selectors locally against a snapshot of channels, e.g. from a {@link ChannelListingIterable},
+ * to tell how many channels a push would reach without sending it.
+ *
+ * Channels are indexed by tag, tag group, alias, channel ID and platform. Each key maps to the channels that have
+ * it, stored as a bitmap, or as a sorted array of channel numbers when that is smaller, e.g. for aliases. Selectors
+ * are evaluated with bitmap operations: ANDs intersect their children, ORs unite them, and NOTs take the
+ * complement. Every node is also limited to its applicable device types.
+ *
+ * The following selectors can be evaluated:
+ * <pre>
+ * 1. all, and, or and not.
+ * 2. tag, including tags with a group and tags of the "device" class.
+ * 3. alias.
+ * 4. ios_channel, android_channel and amazon_channel.
+ * </pre>
+ * Other selectors, such as segments or static lists, depend on data a channel does not carry, and evaluating them
+ * throws an IllegalArgumentException.
+ *
+ * Only installed and opted in channels are counted or returned. A channel added more than once is indexed once, as
+ * first added. Indexes are immutable and can be shared between threads.
+ */
+public class ChannelAudienceIndex {
+
+    private static final String DEVICE_TAG_CLASS = "device";
+
+    private static final Map<ChannelType, DeviceType> DEVICE_TYPES = ImmutableMap.of(
+        ChannelType.IOS, DeviceType.IOS,
+        ChannelType.ANDROID, DeviceType.ANDROID,
+        ChannelType.ADM, DeviceType.AMAZON);
+
+    private final String[] channelIds;
+    private final Map<String, Integer> channelNumbers;
+    private final Map<DeviceType, BitSet> platforms;
+    private final BitSet reachable;
+    private final Map<String, Postings> tags;
+    private final Map<String, Map<String, Postings>> tagGroups;
+    private final Map<String, Postings> aliases;
+
+    private ChannelAudienceIndex(Builder builder) {
+        this.channelIds = builder.channelIds.toArray(new String[builder.channelIds.size()]);
+        this.channelNumbers = new HashMap<>(builder.channelNumbers);
+        this.platforms = new EnumMap<>(DeviceType.class);
+        for (Map.Entry<DeviceType, BitSet> platform : builder.platforms.entrySet()) {
+            platforms.put(platform.getKey(), (BitSet) platform.getValue().clone());
+        }
+        this.reachable = (BitSet) builder.reachable.clone();
+        this.tags = Postings.compact(builder.tags, channelIds.length);
+        this.aliases = Postings.compact(builder.aliases, channelIds.length);
+
+        Map<String, Map<String, Postings>> groups = new HashMap<>();
+        for (Map.Entry<String, Map<String, IntList>> group : builder.tagGroups.entrySet()) {
+            groups.put(group.getKey(), Postings.compact(group.getValue(), channelIds.length));
+        }
+        this.tagGroups = groups;
+    }
+
+    /**
+     * New ChannelAudienceIndex builder.
+     *
+     * @return Builder
+     */
+    public static Builder newBuilder() {
+        return new Builder();
+    }
+
+    /**
+     * Get the number of channels indexed, whether or not they are reachable.
+     *
+     * @return int
+     */
+    public int size() {
+        return channelIds.length;
+    }
+
+    /**
+     * Count the installed and opted in channels an audience selects.
+     *
+     * @param audience The audience selector.
+     * @return The number of channels.
+     */
+    public int count(Selector audience) {
+        return select(audience, DeviceTypeData.all()).cardinality();
+    }
+
+    /**
+     * Count the installed and opted in channels a push would be sent to, taking its device types into account.
+     *
+     * @param payload The push payload.
+     * @return The number of channels.
+     */
+    public int count(PushPayload payload) {
+        return select(payload.getAudience(), payload.getDeviceTypes()).cardinality();
+    }
+
+    /**
+     * Get the IDs of the installed and opted in channels an audience selects, in the order they were added.
+     *
+     * @param audience The audience selector.
+     * @return Iterator of channel IDs
+     */
+    public Iterator<String> channelIds(Selector audience) {
+        return iterator(select(audience, DeviceTypeData.all()));
+    }
+
+    /**
+     * Get the IDs of the installed and opted in channels a push would be sent to, in the order they were added.
+     *
+     * @param payload The push payload.
+     * @return Iterator of channel IDs
+     */
+    public Iterator<String> channelIds(PushPayload payload) {
+        return iterator(select(payload.getAudience(), payload.getDeviceTypes()));
+    }
+
+    private BitSet select(Selector audience, DeviceTypeData deviceTypes) {
+        Preconditions.checkNotNull(audience, "Audience cannot be null");
+        BitSet selected = evaluate(audience);
+        restrict(selected, deviceTypes);
+        selected.and(reachable);
+        return selected;
+    }
+
+    private Iterator<String> iterator(final BitSet selected) {
+        return new Iterator<String>() {
+            private int next = selected.nextSetBit(0);
+
+            @Override
+            public boolean hasNext() {
+                return next >= 0;
+            }
+
+            @Override
+            public String next() {
+                if (next < 0) {
+                    throw new NoSuchElementException();
+                }
+                String channelId = channelIds[next];
+                next = selected.nextSetBit(next + 1);
+                return channelId;
+            }
+
+            @Override
+            public void remove() {
+                throw new UnsupportedOperationException();
+            }
+        };
+    }
+
+    /**
+     * Evaluate a selector into a new bitmap of the channels it selects.
+     */
+    private BitSet evaluate(Selector selector) {
+        BitSet selected = new BitSet(channelIds.length);
+        switch (selector.getType()) {
+            case ALL:
+                selected.set(0, channelIds.length);
+                break;
+            case AND:
+                boolean first = true;
+                for (Selector child : ((CompoundSelector) selector).getChildren()) {
+                    if (first) {
+                        selected = evaluate(child);
+                        first = false;
+                    } else {
+                        selected.and(evaluate(child));
+                    }
+                }
+                break;
+            case OR:
+                // Packed values are looked up directly, without creating a selector per value.
+                if (selector instanceof ValueSetSelector) {
+                    ValueSetSelector values = (ValueSetSelector) selector;
+                    for (String value : values.getValues()) {
+                        addValue(values.getValueType(), value, Optional.<Map<String, String>>absent(), selected);
+                    }
+                    if (values.getValueType().getPlatform().isPresent()) {
+                        restrict(selected, DeviceTypeData.of(values.getValueType().getPlatform().get()));
+                    }
+                } else {
+                    for (Selector child : ((CompoundSelector) selector).getChildren()) {
+                        selected.or(evaluate(child));
+                    }
+                }
+                break;
+            case NOT:
+                selected = evaluate(Iterables.getOnlyElement(((CompoundSelector) selector).getChildren()));
+                selected.flip(0, channelIds.length);
+                break;
+            default:
+                Preconditions.checkArgument(selector instanceof ValueSelector,
+                    "Selector type '" + selector.getType().getIdentifier() + "' cannot be evaluated locally");
+                ValueSelector value = (ValueSelector) selector;
+                addValue(value.getType(), value.getValue(), value.getAttributes(), selected);
+        }
+        restrict(selected, selector.getApplicableDeviceTypes());
+        return selected;
+    }
+
+    private void addValue(SelectorType type, String value, Optional<Map<String, String>> attributes, BitSet selected) {
+        Map<String, String> attrs = attributes.or(Collections.<String, String>emptyMap());
+        Postings postings;
+        switch (type) {
+            case TAG:
+                if (attrs.containsKey(Selectors.GROUP_ATTR)) {
+                    Map<String, Postings> group = tagGroups.get(attrs.get(Selectors.GROUP_ATTR));
+                    postings = group != null ? group.get(value) : null;
+                } else {
+                    String tagClass = attrs.get(Selectors.CLASS_ATTR);
+                    Preconditions.checkArgument(tagClass == null || tagClass.equals(DEVICE_TAG_CLASS),
+                        "Tags of class '" + tagClass + "' cannot be evaluated locally");
+                    postings = tags.get(value);
+                }
+                break;
+            case ALIAS:
+                postings = aliases.get(value);
+                break;
+            case IOS_CHANNEL:
+            case ANDROID_CHANNEL:
+            case AMAZON_CHANNEL:
+                Integer channel = channelNumbers.get(value);
+                if (channel != null) {
+                    selected.set(channel);
+                }
+                return;
+            default:
+                throw new IllegalArgumentException("Selector type '" + type.getIdentifier() + "' cannot be evaluated locally");
+        }
+        if (postings != null) {
+            postings.addTo(selected);
+        }
+    }
+
+    /**
+     * Clear the channels whose platform is not one of the device types.
+     */
+    private void restrict(BitSet selected, DeviceTypeData deviceTypes) {
+        if (deviceTypes.isAll()) {
+            return;
+        }
+        BitSet allowed = new BitSet(channelIds.length);
+        for (DeviceType deviceType : deviceTypes.getDeviceTypes().get()) {
+            BitSet platform = platforms.get(deviceType);
+            if (platform != null) {
+                allowed.or(platform);
+            }
+        }
+        selected.and(allowed);
+    }
+
+    /**
+     * The channels with a key, as a bitmap if dense and as sorted channel numbers otherwise.
+     */
+    private static final class Postings {
+        private final BitSet bitmap;
+        private final int[] channels;
+
+        private Postings(BitSet bitmap, int[] channels) {
+            this.bitmap = bitmap;
+            this.channels = channels;
+        }
+
+        private static Map<String, Postings> compact(Map<String, IntList> lists, int channelCount) {
+            Map<String, Postings> postings = new HashMap<>(lists.size() * 4 / 3 + 1);
+            for (Map.Entry<String, IntList> entry : lists.entrySet()) {
+                IntList list = entry.getValue();
+                // A bitmap takes a bit per channel indexed, an array 32 bits per channel with the key.
+                if ((long) list.size * 32 > channelCount) {
+                    BitSet bitmap = new BitSet(channelCount);
+                    for (int i = 0; i < list.size; i++) {
+                        bitmap.set(list.values[i]);
+                    }
+                    postings.put(entry.getKey(), new Postings(bitmap, null));
+                } else {
+                    postings.put(entry.getKey(), new Postings(null, Arrays.copyOf(list.values, list.size)));
+                }
+            }
+            return postings;
+        }
+
+        private void addTo(BitSet selected) {
+            if (bitmap != null) {
+                selected.or(bitmap);
+            } else {
+                for (int channel : channels) {
+                    selected.set(channel);
+                }
+            }
+        }
+    }
+
+    private static final class IntList {
+        private int[] values = new int[4];
+        private int size = 0;
+
+        private void add(int value) {
+            if (size == values.length) {
+                values = Arrays.copyOf(values, size * 2);
+            }
+            values[size++] = value;
+        }
+    }
+
+    public static class Builder {
+
+        private final List<String> channelIds = new ArrayList<>();
+        private final Map<String, Integer> channelNumbers = new HashMap<>();
+        private final Map<DeviceType, BitSet> platforms = new EnumMap<>(DeviceType.class);
+        private final BitSet reachable = new BitSet();
+        private final Map<String, IntList> tags = new HashMap<>();
+        private final Map<String, Map<String, IntList>> tagGroups = new HashMap<>();
+        private final Map<String, IntList> aliases = new HashMap<>();
+
+        private Builder() {
+        }
+
+        /**
+         * Add a channel to the index.
+         *
+         * @param channel ChannelView
+         * @return Builder
+         */
+        public Builder addChannel(ChannelView channel) {
+            Preconditions.checkNotNull(channel, "Channel cannot be null");
+            if (channelNumbers.containsKey(channel.getChannelId())) {
+                return this;
+            }
+
+            int number = channelIds.size();
+            channelIds.add(channel.getChannelId());
+            channelNumbers.put(channel.getChannelId(), number);
+
+            DeviceType deviceType = DEVICE_TYPES.get(channel.getChannelType());
+            if (!platforms.containsKey(deviceType)) {
+                platforms.put(deviceType, new BitSet());
+            }
+            platforms.get(deviceType).set(number);
+
+            if (channel.isInstalled() && channel.isOptIn()) {
+                reachable.set(number);
+            }
+            for (String tag : channel.getTags()) {
+                add(tags, tag, number);
+            }
+            for (Map.Entry<String, ImmutableSet<String>> group : channel.getTagGroups().entrySet()) {
+                if (!tagGroups.containsKey(group.getKey())) {
+                    tagGroups.put(group.getKey(), new HashMap<String, IntList>());
+                }
+                for (String tag : group.getValue()) {
+                    add(tagGroups.get(group.getKey()), tag, number);
+                }
+            }
+            if (channel.getAlias().isPresent()) {
+                add(aliases, channel.getAlias().get(), number);
+            }
+            return this;
+        }
+
+        /**
+         * Add channels to the index, e.g. a {@link ChannelListingIterable}.
+         *
+         * @param channels Iterable of ChannelView
+         * @return Builder
+         */
+        public Builder addAllChannels(Iterable<ChannelView> channels) {
+            for (ChannelView channel : channels) {
+                addChannel(channel);
+            }
+            return this;
+        }
+
+        private static void add(Map<String, IntList> lists, String key, int number) {
+            IntList list = lists.get(key);
+            if (list == null) {
+                list = new IntList();
+                lists.put(key, list);
+            }
+            list.add(number);
+        }
+
+        /**
+         * Build the index.
+         *
+         * @return ChannelAudienceIndex
+         */
+        public ChannelAudienceIndex build() {
+            return new ChannelAudienceIndex(this);
+        }
+    }
+}
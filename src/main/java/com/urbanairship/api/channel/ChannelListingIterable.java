@@ -0,0 +1,108 @@
+/*
+ * Copyright (c) 2013-2016.  Urban Airship and Contributors
+ */
+
+package com.urbanairship.api.channel;
+
+import com.google.common.base.Preconditions;
+import com.urbanairship.api.channel.model.ChannelView;
+import com.urbanairship.api.client.PagedIterable;
+import com.urbanairship.api.client.UrbanAirshipClient;
+
+/**
+ * Iterable over every channel of a channel listing. Pages are requested lazily through the
+ * {@link com.urbanairship.api.client.UrbanAirshipClient} by following the listing's next page links.
+ *
+ * While the caller consumes one page, up to {@code maxPrefetchedPages} following pages are fetched in the
+ * background. See {@link com.urbanairship.api.client.PagedIterable} for the traversal details.
+ */
+public class ChannelListingIterable implements Iterable<ChannelView> {
+
+    private final PagedIterable<ChannelView> channels;
+
+    private ChannelListingIterable(PagedIterable<ChannelView> channels) {
+        this.channels = channels;
+    }
+
+    /**
+     * New ChannelListingIterable builder.
+     *
+     * @return Builder
+     */
+    public static Builder newBuilder() {
+        return new Builder();
+    }
+
+    /**
+     * Start a new traversal of the channel listing. The first page is requested immediately.
+     *
+     * @return PagedIterator
+     */
+    @Override
+    public PagedIterable.PagedIterator<ChannelView> iterator() {
+        return channels.iterator();
+    }
+
+    public static class Builder {
+
+        private UrbanAirshipClient client = null;
+        private ChannelRequest request = null;
+        private int maxPrefetchedPages = 1;
+
+        private Builder() {
+        }
+
+        /**
+         * Set the client used to request the listing pages.
+         *
+         * @param client UrbanAirshipClient
+         * @return Builder
+         */
+        public Builder setClient(UrbanAirshipClient client) {
+            this.client = client;
+            return this;
+        }
+
+        /**
+         * Set the request for the first page -- defaults to a listing of all channels.
+         *
+         * @param request ChannelRequest
+         * @return Builder
+         */
+        public Builder setRequest(ChannelRequest request) {
+            this.request = request;
+            return this;
+        }
+
+        /**
+         * Set the maximum number of pages fetched ahead of the page being consumed -- defaults to 1.
+         *
+         * @param maxPrefetchedPages int
+         * @return Builder
+         */
+        public Builder setMaxPrefetchedPages(int maxPrefetchedPages) {
+            this.maxPrefetchedPages = maxPrefetchedPages;
+            return this;
+        }
+
+        /**
+         * Build the ChannelListingIterable object.
+         *
+         * <pre>
+         * 1. The client must be set.
+         * 2. The maximum number of prefetched pages must be at least 1.
+         * </pre>
+         *
+         * @return ChannelListingIterable
+         */
+        public ChannelListingIterable build() {
+            Preconditions.checkNotNull(client, "Client must be set");
+
+            return new ChannelListingIterable(PagedIterable.<ChannelView>newBuilder()
+                .setClient(client)
+                .setRequest(request == null ? ChannelRequest.newRequest() : request)
+                .setMaxPrefetchedPages(maxPrefetchedPages)
+                .build());
+        }
+    }
+}
@@ -5,31 +5,38 @@
 package com.urbanairship.api.channel;
 
 import com.google.common.base.Preconditions;
+import com.google.common.collect.ImmutableMap;
 import com.google.common.net.HttpHeaders;
 import com.urbanairship.api.channel.model.ChannelResponse;
 import com.urbanairship.api.channel.parse.ChannelObjectMapper;
+import com.urbanairship.api.client.CacheableRequest;
+import com.urbanairship.api.client.JsonResponseParser;
 import com.urbanairship.api.client.Request;
 import com.urbanairship.api.client.RequestUtils;
 import com.urbanairship.api.client.ResponseParser;
 import org.apache.http.entity.ContentType;
 
-import java.io.IOException;
 import java.net.URI;
-import java.util.HashMap;
 import java.util.Map;
 
 /**
  * The ChannelRequest class builds channel listing requests to be executed in
  * the {@link com.urbanairship.api.client.UrbanAirshipClient}.
  */
-public class ChannelRequest implements Request<ChannelResponse> {
+public class ChannelRequest implements CacheableRequest<ChannelResponse> {
 
     private final static String API_CHANNELS_LIST = "/api/channels/";
+    private static final Map<String, String> HEADERS = ImmutableMap.of(
+        HttpHeaders.CONTENT_TYPE, CONTENT_TYPE_JSON,
+        HttpHeaders.ACCEPT, UA_VERSION_JSON
+    );
 
     private final String path;
+    private final boolean lookup;
 
-    private ChannelRequest(String path) {
+    private ChannelRequest(String path, boolean lookup) {
         this.path = path;
+        this.lookup = lookup;
     }
 
     /**
@@ -39,7 +46,7 @@ public class ChannelRequest implements Request<ChannelResponse> {
      * @return ChannelRequest
      */
     public static ChannelRequest newRequest(String channel) {
-        return new ChannelRequest(API_CHANNELS_LIST + channel);
+        return new ChannelRequest(API_CHANNELS_LIST + channel, true);
     }
 
     /**
@@ -48,7 +55,7 @@ public class ChannelRequest implements Request<ChannelResponse> {
      * @return ChannelRequest
      */
     public static ChannelRequest newRequest() {
-        return new ChannelRequest(API_CHANNELS_LIST);
+        return new ChannelRequest(API_CHANNELS_LIST, false);
     }
 
     /**
@@ -59,7 +66,7 @@ public class ChannelRequest implements Request<ChannelResponse> {
      */
     public static ChannelRequest newRequest(URI nextPage) {
         Preconditions.checkNotNull(nextPage, "Next page URI cannot be null");
-        return new ChannelRequest(nextPage.getPath() + "?" + nextPage.getQuery());
+        return new ChannelRequest(RequestUtils.nextPagePath(nextPage), false);
     }
 
     @Override
@@ -69,10 +76,7 @@ public class ChannelRequest implements Request<ChannelResponse> {
 
     @Override
     public Map<String, String> getRequestHeaders() {
-        Map<String, String> headers = new HashMap<String, String>();
-        headers.put(HttpHeaders.CONTENT_TYPE, CONTENT_TYPE_JSON);
-        headers.put(HttpHeaders.ACCEPT, UA_VERSION_JSON);
-        return headers;
+        return HEADERS;
     }
 
     @Override
@@ -80,6 +84,11 @@ public class ChannelRequest implements Request<ChannelResponse> {
         return HttpMethod.GET;
     }
 
+    @Override
+    public boolean isCacheable() {
+        return lookup;
+    }
+
     @Override
     public String getRequestBody() {
         return null;
@@ -92,11 +101,6 @@ public class ChannelRequest implements Request<ChannelResponse> {
 
     @Override
     public ResponseParser<ChannelResponse> getResponseParser() {
-        return new ResponseParser<ChannelResponse>() {
-            @Override
-            public ChannelResponse parse(String response) throws IOException {
-                return ChannelObjectMapper.getInstance().readValue(response, ChannelResponse.class);
-            }
-        };
+        return new JsonResponseParser<>(ChannelObjectMapper.getInstance(), ChannelResponse.class);
     }
 }
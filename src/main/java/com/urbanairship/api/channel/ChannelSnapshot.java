@@ -0,0 +1,627 @@
+/*
+ * Copyright (c) 2013-2016.  Urban Airship and Contributors
+ */
+
+package com.urbanairship.api.channel;
+
+import com.google.common.base.Charsets;
+import com.google.common.base.Preconditions;
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.ImmutableSet;
+import com.urbanairship.api.channel.model.ChannelType;
+import com.urbanairship.api.channel.model.ChannelView;
+import com.urbanairship.api.channel.model.ios.IosSettings;
+import org.joda.time.DateTime;
+import org.joda.time.DateTimeZone;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.UUID;
+
+/**
+ * A compact, read only snapshot of channels, e.g. from a {@link ChannelListingIterable}, for holding millions of
+ * channels in memory.
+ *
+ * Channels are stored by column rather than as {@link ChannelView}s:
+ * <pre>
+ * 1. Channel IDs in the canonical UUID form are stored as two longs.
+ * 2. Tags and tag group names are dictionary encoded, and each channel's tags are stored as ints.
+ * 3. Timestamps are stored as epoch milliseconds, and booleans as bits.
+ * 4. Channel types are stored as ordinals.
+ * 5. Push addresses and aliases are packed into shared byte pages. Hexadecimal push addresses, e.g. APNs device
+ *    tokens, are stored decoded, taking half the bytes.
+ * 6. iOS settings are dictionary encoded.
+ * </pre>
+ *
+ * {@link #get(int)} and iteration create a ChannelView on demand, equal to the one added except that timestamps are
+ * in UTC, as the API deserializers parse them. The column accessors, e.g. {@link #hasTag(int, String)}, read a
+ * channel without creating one. Snapshots are immutable and can be shared between threads.
+ */
+public class ChannelSnapshot implements Iterable<ChannelView> {
+
+    private static final long ABSENT = Long.MIN_VALUE;
+    private static final int NO_SETTINGS = -1;
+    private static final char[] LOWER_HEX = "0123456789abcdef".toCharArray();
+    private static final char[] UPPER_HEX = "0123456789ABCDEF".toCharArray();
+    private static final ChannelType[] CHANNEL_TYPES = ChannelType.values();
+
+    private final int size;
+    private final long[] idHighs;
+    private final long[] idLows;
+    private final Map<Integer, String> otherIds;
+    private final byte[] channelTypes;
+    private final BitSet installed;
+    private final BitSet optIn;
+    private final BitSet hasBackground;
+    private final BitSet background;
+    private final long[] created;
+    private final long[] lastRegistrations;
+    private final ByteColumn pushAddresses;
+    private final BitSet hexAddresses;
+    private final BitSet upperHexAddresses;
+    private final ByteColumn aliases;
+    private final int[] iosSettingsCodes;
+    private final IosSettings[] iosSettings;
+    private final String[] dictionary;
+    private final Map<String, Integer> codes;
+    private final int[] tagOffsets;
+    private final int[] tags;
+    private final int[] groupOffsets;
+    private final int[] groups;
+
+    private ChannelSnapshot(Builder builder) {
+        this.size = builder.size;
+        this.idHighs = Arrays.copyOf(builder.idHighs, size);
+        this.idLows = Arrays.copyOf(builder.idLows, size);
+        this.otherIds = new HashMap<>(builder.otherIds);
+        this.channelTypes = Arrays.copyOf(builder.channelTypes, size);
+        this.installed = (BitSet) builder.installed.clone();
+        this.optIn = (BitSet) builder.optIn.clone();
+        this.hasBackground = (BitSet) builder.hasBackground.clone();
+        this.background = (BitSet) builder.background.clone();
+        this.created = Arrays.copyOf(builder.created, size);
+        this.lastRegistrations = Arrays.copyOf(builder.lastRegistrations, size);
+        this.pushAddresses = builder.pushAddresses.copy();
+        this.hexAddresses = (BitSet) builder.hexAddresses.clone();
+        this.upperHexAddresses = (BitSet) builder.upperHexAddresses.clone();
+        this.aliases = builder.aliases.copy();
+        this.iosSettingsCodes = Arrays.copyOf(builder.iosSettingsCodes, size);
+        this.iosSettings = builder.iosSettings.toArray(new IosSettings[builder.iosSettings.size()]);
+        this.dictionary = builder.dictionary.toArray(new String[builder.dictionary.size()]);
+        this.codes = new HashMap<>(builder.codes);
+        this.tagOffsets = Arrays.copyOf(builder.tagOffsets, size + 1);
+        this.tags = Arrays.copyOf(builder.tags.values, builder.tags.size);
+        this.groupOffsets = Arrays.copyOf(builder.groupOffsets, size + 1);
+        this.groups = Arrays.copyOf(builder.groups.values, builder.groups.size);
+    }
+
+    /**
+     * New ChannelSnapshot builder.
+     *
+     * @return Builder
+     */
+    public static Builder newBuilder() {
+        return new Builder();
+    }
+
+    /**
+     * Get the number of channels.
+     *
+     * @return int
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Create a view of a channel.
+     *
+     * @param index The channel's index, in the order channels were added.
+     * @return ChannelView
+     */
+    public ChannelView get(int index) {
+        Preconditions.checkElementIndex(index, size);
+
+        ChannelView.Builder builder = ChannelView.newBuilder()
+            .setChannelId(getChannelId(index))
+            .setChannelType(getChannelType(index))
+            .setInstalled(isInstalled(index))
+            .setOptIn(isOptIn(index))
+            .setCreated(new DateTime(created[index], DateTimeZone.UTC))
+            .setPushAddress(getPushAddress(index))
+            .setAlias(getAlias(index))
+            .setIosSettings(iosSettingsCodes[index] == NO_SETTINGS ? null : iosSettings[iosSettingsCodes[index]]);
+        if (hasBackground.get(index)) {
+            builder.setBackground(background.get(index));
+        }
+        if (lastRegistrations[index] != ABSENT) {
+            builder.setLastRegistration(new DateTime(lastRegistrations[index], DateTimeZone.UTC));
+        }
+
+        ImmutableSet.Builder<String> channelTags = ImmutableSet.builder();
+        for (int i = tagOffsets[index]; i < tagOffsets[index + 1]; i++) {
+            channelTags.add(dictionary[tags[i]]);
+        }
+        builder.addAllTags(channelTags.build());
+
+        ImmutableMap.Builder<String, ImmutableSet<String>> tagGroups = ImmutableMap.builder();
+        for (int i = groupOffsets[index]; i < groupOffsets[index + 1]; ) {
+            String group = dictionary[groups[i++]];
+            int count = groups[i++];
+            ImmutableSet.Builder<String> groupTags = ImmutableSet.builder();
+            for (int end = i + count; i < end; i++) {
+                groupTags.add(dictionary[groups[i]]);
+            }
+            tagGroups.put(group, groupTags.build());
+        }
+        return builder.addAllTagGroups(tagGroups.build()).build();
+    }
+
+    /**
+     * Iterate over views of the channels, in the order they were added. Views are created one at a time.
+     *
+     * @return Iterator of ChannelView
+     */
+    @Override
+    public Iterator<ChannelView> iterator() {
+        return new Iterator<ChannelView>() {
+            private int next = 0;
+
+            @Override
+            public boolean hasNext() {
+                return next < size;
+            }
+
+            @Override
+            public ChannelView next() {
+                if (next >= size) {
+                    throw new NoSuchElementException();
+                }
+                return get(next++);
+            }
+
+            @Override
+            public void remove() {
+                throw new UnsupportedOperationException();
+            }
+        };
+    }
+
+    /**
+     * Get a channel's ID.
+     *
+     * @param index The channel's index.
+     * @return String
+     */
+    public String getChannelId(int index) {
+        Preconditions.checkElementIndex(index, size);
+        String other = otherIds.get(index);
+        return other != null ? other : new UUID(idHighs[index], idLows[index]).toString();
+    }
+
+    /**
+     * Get a channel's type.
+     *
+     * @param index The channel's index.
+     * @return ChannelType
+     */
+    public ChannelType getChannelType(int index) {
+        Preconditions.checkElementIndex(index, size);
+        return CHANNEL_TYPES[channelTypes[index]];
+    }
+
+    /**
+     * Whether a channel is installed.
+     *
+     * @param index The channel's index.
+     * @return boolean
+     */
+    public boolean isInstalled(int index) {
+        Preconditions.checkElementIndex(index, size);
+        return installed.get(index);
+    }
+
+    /**
+     * Whether a channel is opted in.
+     *
+     * @param index The channel's index.
+     * @return boolean
+     */
+    public boolean isOptIn(int index) {
+        Preconditions.checkElementIndex(index, size);
+        return optIn.get(index);
+    }
+
+    /**
+     * Get a channel's push address.
+     *
+     * @param index The channel's index.
+     * @return String, or null if the channel has none
+     */
+    public String getPushAddress(int index) {
+        Preconditions.checkElementIndex(index, size);
+        byte[] bytes = pushAddresses.get(index);
+        if (bytes == null || !hexAddresses.get(index)) {
+            return bytes == null ? null : new String(bytes, Charsets.UTF_8);
+        }
+
+        char[] digits = upperHexAddresses.get(index) ? UPPER_HEX : LOWER_HEX;
+        char[] hex = new char[bytes.length * 2];
+        for (int i = 0; i < bytes.length; i++) {
+            hex[2 * i] = digits[(bytes[i] >> 4) & 0xf];
+            hex[2 * i + 1] = digits[bytes[i] & 0xf];
+        }
+        return new String(hex);
+    }
+
+    /**
+     * Get a channel's alias.
+     *
+     * @param index The channel's index.
+     * @return String, or null if the channel has none
+     */
+    public String getAlias(int index) {
+        Preconditions.checkElementIndex(index, size);
+        byte[] bytes = aliases.get(index);
+        return bytes == null ? null : new String(bytes, Charsets.UTF_8);
+    }
+
+    /**
+     * Estimate the memory held by the snapshot, for sizing heaps. Object headers and strings are approximated.
+     *
+     * @return long, in bytes
+     */
+    public long estimateSizeInBytes() {
+        long bytes = 16L * idHighs.length + channelTypes.length + 8L * (created.length + lastRegistrations.length)
+            + 4L * (iosSettingsCodes.length + tagOffsets.length + tags.length + groupOffsets.length + groups.length)
+            + (installed.size() + optIn.size() + hasBackground.size() + background.size()
+                + hexAddresses.size() + upperHexAddresses.size()) / 8
+            + pushAddresses.estimateSizeInBytes() + aliases.estimateSizeInBytes()
+            + 64L * iosSettings.length;
+        for (String value : dictionary) {
+            // The string and its entry in the codes map.
+            bytes += 96 + 2L * value.length();
+        }
+        for (String id : otherIds.values()) {
+            bytes += 96 + 2L * id.length();
+        }
+        return bytes;
+    }
+
+    /**
+     * Whether a channel has a tag outside of tag groups.
+     *
+     * @param index The channel's index.
+     * @param tag The tag.
+     * @return boolean
+     */
+    public boolean hasTag(int index, String tag) {
+        Preconditions.checkElementIndex(index, size);
+        Integer code = codes.get(tag);
+        if (code == null) {
+            return false;
+        }
+        for (int i = tagOffsets[index]; i < tagOffsets[index + 1]; i++) {
+            if (tags[i] == code) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Whether a channel has a tag in a tag group.
+     *
+     * @param index The channel's index.
+     * @param group The tag group.
+     * @param tag The tag.
+     * @return boolean
+     */
+    public boolean hasTag(int index, String group, String tag) {
+        Preconditions.checkElementIndex(index, size);
+        Integer groupCode = codes.get(group);
+        Integer tagCode = codes.get(tag);
+        if (groupCode == null || tagCode == null) {
+            return false;
+        }
+        for (int i = groupOffsets[index]; i < groupOffsets[index + 1]; ) {
+            int code = groups[i++];
+            int count = groups[i++];
+            if (code == groupCode) {
+                for (int end = i + count; i < end; i++) {
+                    if (groups[i] == tagCode) {
+                        return true;
+                    }
+                }
+                return false;
+            }
+            i += count;
+        }
+        return false;
+    }
+
+    /**
+     * Whether a push address is a non-empty, even length hexadecimal string in a single case, which is stored
+     * decoded and restored exactly. Returns the digits of its case, or null.
+     */
+    private static char[] hexDigitsOf(String address) {
+        if (address.isEmpty() || address.length() % 2 != 0) {
+            return null;
+        }
+        boolean lower = false;
+        boolean upper = false;
+        for (int i = 0; i < address.length(); i++) {
+            char c = address.charAt(i);
+            if (c >= 'a' && c <= 'f') {
+                lower = true;
+            } else if (c >= 'A' && c <= 'F') {
+                upper = true;
+            } else if (c < '0' || c > '9') {
+                return null;
+            }
+        }
+        return lower && upper ? null : upper ? UPPER_HEX : LOWER_HEX;
+    }
+
+    private static byte[] decodeHex(String address) {
+        byte[] bytes = new byte[address.length() / 2];
+        for (int i = 0; i < bytes.length; i++) {
+            bytes[i] = (byte) (Character.digit(address.charAt(2 * i), 16) << 4 | Character.digit(address.charAt(2 * i + 1), 16));
+        }
+        return bytes;
+    }
+
+    /**
+     * A column of optional byte values packed one after the other into fixed size pages, so that a value costs
+     * its bytes and an offset instead of an object. Values may span pages.
+     */
+    private static final class ByteColumn {
+        private static final int PAGE_BITS = 16;
+        private static final int PAGE_SIZE = 1 << PAGE_BITS;
+
+        private byte[][] pages = new byte[0][];
+        private long length = 0;
+        private long[] offsets = new long[17];
+        private final BitSet present = new BitSet();
+        private int size = 0;
+
+        private void add(byte[] value) {
+            if (size + 1 == offsets.length) {
+                offsets = Arrays.copyOf(offsets, offsets.length * 2);
+            }
+            if (value != null) {
+                present.set(size);
+                for (byte b : value) {
+                    int page = (int) (length >>> PAGE_BITS);
+                    if (page == pages.length) {
+                        pages = Arrays.copyOf(pages, Math.max(4, pages.length * 2));
+                    }
+                    if (pages[page] == null) {
+                        pages[page] = new byte[PAGE_SIZE];
+                    }
+                    pages[page][(int) (length & (PAGE_SIZE - 1))] = b;
+                    length++;
+                }
+            }
+            offsets[++size] = length;
+        }
+
+        private byte[] get(int index) {
+            if (!present.get(index)) {
+                return null;
+            }
+            long start = offsets[index];
+            byte[] value = new byte[(int) (offsets[index + 1] - start)];
+            for (int i = 0; i < value.length; i++) {
+                long position = start + i;
+                value[i] = pages[(int) (position >>> PAGE_BITS)][(int) (position & (PAGE_SIZE - 1))];
+            }
+            return value;
+        }
+
+        /**
+         * Copy of the column without unused capacity.
+         */
+        private ByteColumn copy() {
+            ByteColumn copy = new ByteColumn();
+            int pageCount = (int) ((length + PAGE_SIZE - 1) >>> PAGE_BITS);
+            copy.pages = new byte[pageCount][];
+            for (int page = 0; page < pageCount; page++) {
+                int pageLength = (int) Math.min(PAGE_SIZE, length - ((long) page << PAGE_BITS));
+                copy.pages[page] = Arrays.copyOf(pages[page], pageLength);
+            }
+            copy.length = length;
+            copy.offsets = Arrays.copyOf(offsets, size + 1);
+            copy.present.or(present);
+            copy.size = size;
+            return copy;
+        }
+
+        private long estimateSizeInBytes() {
+            long bytes = 8L * offsets.length + present.size() / 8;
+            for (byte[] page : pages) {
+                bytes += page == null ? 0 : 16 + page.length;
+            }
+            return bytes;
+        }
+    }
+
+    private static final class IntList {
+        private int[] values = new int[64];
+        private int size = 0;
+
+        private void add(int value) {
+            if (size == values.length) {
+                values = Arrays.copyOf(values, size * 2);
+            }
+            values[size++] = value;
+        }
+    }
+
+    public static class Builder {
+
+        private int size = 0;
+        private long[] idHighs = new long[16];
+        private long[] idLows = new long[16];
+        private final Map<Integer, String> otherIds = new HashMap<>();
+        private byte[] channelTypes = new byte[16];
+        private final BitSet installed = new BitSet();
+        private final BitSet optIn = new BitSet();
+        private final BitSet hasBackground = new BitSet();
+        private final BitSet background = new BitSet();
+        private long[] created = new long[16];
+        private long[] lastRegistrations = new long[16];
+        private final ByteColumn pushAddresses = new ByteColumn();
+        private final BitSet hexAddresses = new BitSet();
+        private final BitSet upperHexAddresses = new BitSet();
+        private final ByteColumn aliases = new ByteColumn();
+        private int[] iosSettingsCodes = new int[16];
+        private final List<IosSettings> iosSettings = new ArrayList<>();
+        private final Map<IosSettings, Integer> iosSettingsCodesBySettings = new HashMap<>();
+        private final List<String> dictionary = new ArrayList<>();
+        private final Map<String, Integer> codes = new HashMap<>();
+        private int[] tagOffsets = new int[17];
+        private final IntList tags = new IntList();
+        private int[] groupOffsets = new int[17];
+        private final IntList groups = new IntList();
+
+        private Builder() {
+        }
+
+        /**
+         * Add a channel to the snapshot.
+         *
+         * @param channel ChannelView
+         * @return Builder
+         */
+        public Builder addChannel(ChannelView channel) {
+            Preconditions.checkNotNull(channel, "Channel cannot be null");
+            if (size == idHighs.length) {
+                grow(size * 2);
+            }
+            int index = size;
+
+            String channelId = channel.getChannelId();
+            UUID uuid = parseCanonicalUuid(channelId);
+            if (uuid != null) {
+                idHighs[index] = uuid.getMostSignificantBits();
+                idLows[index] = uuid.getLeastSignificantBits();
+            } else {
+                otherIds.put(index, channelId);
+            }
+            channelTypes[index] = (byte) channel.getChannelType().ordinal();
+            installed.set(index, channel.isInstalled());
+            optIn.set(index, channel.isOptIn());
+            if (channel.getBackground().isPresent()) {
+                hasBackground.set(index);
+                background.set(index, channel.getBackground().get());
+            }
+            created[index] = channel.getCreated().getMillis();
+            lastRegistrations[index] = channel.getLastRegistration().isPresent() ? channel.getLastRegistration().get().getMillis() : ABSENT;
+            addPushAddress(index, channel.getPushAddress().orNull());
+            aliases.add(channel.getAlias().isPresent() ? channel.getAlias().get().getBytes(Charsets.UTF_8) : null);
+            iosSettingsCodes[index] = channel.getIosSettings().isPresent() ? encode(channel.getIosSettings().get()) : NO_SETTINGS;
+
+            for (String tag : channel.getTags()) {
+                tags.add(encode(tag));
+            }
+            tagOffsets[index + 1] = tags.size;
+            for (Map.Entry<String, ImmutableSet<String>> group : channel.getTagGroups().entrySet()) {
+                groups.add(encode(group.getKey()));
+                groups.add(group.getValue().size());
+                for (String tag : group.getValue()) {
+                    groups.add(encode(tag));
+                }
+            }
+            groupOffsets[index + 1] = groups.size;
+
+            size++;
+            return this;
+        }
+
+        /**
+         * Add channels to the snapshot, e.g. a {@link ChannelListingIterable}.
+         *
+         * @param channels Iterable of ChannelView
+         * @return Builder
+         */
+        public Builder addAllChannels(Iterable<ChannelView> channels) {
+            for (ChannelView channel : channels) {
+                addChannel(channel);
+            }
+            return this;
+        }
+
+        private void addPushAddress(int index, String address) {
+            char[] digits = address == null ? null : hexDigitsOf(address);
+            if (digits == null) {
+                pushAddresses.add(address == null ? null : address.getBytes(Charsets.UTF_8));
+                return;
+            }
+            hexAddresses.set(index);
+            upperHexAddresses.set(index, digits == UPPER_HEX);
+            pushAddresses.add(decodeHex(address));
+        }
+
+        private int encode(IosSettings settings) {
+            Integer code = iosSettingsCodesBySettings.get(settings);
+            if (code == null) {
+                code = iosSettings.size();
+                iosSettings.add(settings);
+                iosSettingsCodesBySettings.put(settings, code);
+            }
+            return code;
+        }
+
+        private int encode(String value) {
+            Integer code = codes.get(value);
+            if (code == null) {
+                code = dictionary.size();
+                dictionary.add(value);
+                codes.put(value, code);
+            }
+            return code;
+        }
+
+        /**
+         * Parse an ID that round trips through UUID, or return null.
+         */
+        private static UUID parseCanonicalUuid(String id) {
+            if (id.length() != 36) {
+                return null;
+            }
+            try {
+                UUID uuid = UUID.fromString(id);
+                return uuid.toString().equals(id) ? uuid : null;
+            } catch (IllegalArgumentException e) {
+                return null;
+            }
+        }
+
+        private void grow(int capacity) {
+            idHighs = Arrays.copyOf(idHighs, capacity);
+            idLows = Arrays.copyOf(idLows, capacity);
+            channelTypes = Arrays.copyOf(channelTypes, capacity);
+            created = Arrays.copyOf(created, capacity);
+            lastRegistrations = Arrays.copyOf(lastRegistrations, capacity);
+            iosSettingsCodes = Arrays.copyOf(iosSettingsCodes, capacity);
+            tagOffsets = Arrays.copyOf(tagOffsets, capacity + 1);
+            groupOffsets = Arrays.copyOf(groupOffsets, capacity + 1);
+        }
+
+        /**
+         * Build the snapshot.
+         *
+         * @return ChannelSnapshot
+         */
+        public ChannelSnapshot build() {
+            return new ChannelSnapshot(this);
+        }
+    }
+}
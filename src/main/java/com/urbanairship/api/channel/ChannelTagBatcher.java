@@ -0,0 +1,558 @@
+/*
+ * Copyright (c) 2013-2016.  Urban Airship and Contributors
+ */
+
+package com.urbanairship.api.channel;
+
+import com.google.common.base.Objects;
+import com.google.common.base.Preconditions;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.ImmutableSet;
+import com.google.common.util.concurrent.JdkFutureAdapters;
+import com.google.common.util.concurrent.ListenableFuture;
+import com.google.common.util.concurrent.MoreExecutors;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import com.urbanairship.api.channel.model.ChannelType;
+import com.urbanairship.api.client.Response;
+import com.urbanairship.api.client.ResponseCallback;
+import com.urbanairship.api.client.UrbanAirshipClient;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Collects channel tag mutations from any number of threads and sends them as a few {@link ChannelTagRequest}s.
+ *
+ * Mutations are merged per channel and tag group in the order they are received: adding a tag cancels a pending
+ * removal of it and the other way around, and setting a group replaces every pending change to that group. On
+ * flush, channels with identical pending changes share a request, with up to {@code maxChannelsPerRequest}
+ * channels each. Since a request cannot both set and add or remove tags, set groups and added or removed tags are
+ * sent in separate requests.
+ *
+ * Pending mutations are flushed every {@code flushInterval}, as soon as {@code maxChannelsPerRequest} channels
+ * have pending changes, and when the batcher is closed.
+ *
+ * Requests are serialized per channel so that the API applies its changes in order: while a request for a channel
+ * is in flight, new changes to that channel stay pending and are flushed once the request completes.
+ */
+public class ChannelTagBatcher implements Closeable {
+
+    private static final Logger log = LoggerFactory.getLogger(ChannelTagBatcher.class);
+
+    private final UrbanAirshipClient client;
+    private final int maxChannelsPerRequest;
+    private final ResponseCallback callback;
+    private final ScheduledExecutorService scheduler;
+    private final boolean ownsScheduler;
+    private final ScheduledFuture<?> flushTimer;
+
+    private final Runnable flushTask = new Runnable() {
+        @Override
+        public void run() {
+            try {
+                flush();
+            } catch (RuntimeException e) {
+                log.error("Failed to flush channel tag mutations", e);
+            }
+        }
+    };
+
+    private Map<Channel, PendingChanges> pending = new LinkedHashMap<>();
+    // The number of requests in flight per channel.
+    private final Map<Channel, Integer> inFlight = new HashMap<>();
+    // The number of pending channels that wait for a request in flight, and cannot be flushed yet.
+    private int pendingInFlight = 0;
+    private boolean flushScheduled = false;
+    private boolean closed = false;
+
+    private ChannelTagBatcher(Builder builder) {
+        this.client = builder.client;
+        this.maxChannelsPerRequest = builder.maxChannelsPerRequest;
+        this.callback = builder.callback;
+
+        this.ownsScheduler = builder.scheduler == null;
+        this.scheduler = ownsScheduler
+            ? Executors.newSingleThreadScheduledExecutor(new ThreadFactoryBuilder()
+                .setNameFormat("ChannelTagBatcher-%d")
+                .setDaemon(true)
+                .build())
+            : builder.scheduler;
+        this.flushTimer = scheduler.scheduleWithFixedDelay(flushTask, builder.flushIntervalMs, builder.flushIntervalMs, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * New ChannelTagBatcher builder.
+     *
+     * @return Builder
+     */
+    public static Builder newBuilder() {
+        return new Builder();
+    }
+
+    /**
+     * Add tags of a tag group to a channel.
+     *
+     * @param channelType The channel type.
+     * @param channelId The channel ID.
+     * @param tagGroup The tag group.
+     * @param tags The tags to add.
+     * @return ChannelTagBatcher
+     */
+    public ChannelTagBatcher addTags(ChannelType channelType, String channelId, String tagGroup, Set<String> tags) {
+        synchronized (this) {
+            changesOf(channelType, channelId).add(tagGroup, tags);
+        }
+        onChange();
+        return this;
+    }
+
+    /**
+     * Remove tags of a tag group from a channel.
+     *
+     * @param channelType The channel type.
+     * @param channelId The channel ID.
+     * @param tagGroup The tag group.
+     * @param tags The tags to remove.
+     * @return ChannelTagBatcher
+     */
+    public ChannelTagBatcher removeTags(ChannelType channelType, String channelId, String tagGroup, Set<String> tags) {
+        synchronized (this) {
+            changesOf(channelType, channelId).remove(tagGroup, tags);
+        }
+        onChange();
+        return this;
+    }
+
+    /**
+     * Set the tags of a tag group of a channel, replacing any pending change to that group.
+     *
+     * @param channelType The channel type.
+     * @param channelId The channel ID.
+     * @param tagGroup The tag group.
+     * @param tags The tags of the group.
+     * @return ChannelTagBatcher
+     */
+    public ChannelTagBatcher setTags(ChannelType channelType, String channelId, String tagGroup, Set<String> tags) {
+        synchronized (this) {
+            changesOf(channelType, channelId).set(tagGroup, tags);
+        }
+        onChange();
+        return this;
+    }
+
+    /**
+     * Get the number of channels with pending changes.
+     *
+     * @return int
+     */
+    public synchronized int getPendingChannels() {
+        return pending.size();
+    }
+
+    /**
+     * Send every pending change now. Changes to channels with a request in flight stay pending until it completes.
+     *
+     * @return The futures of the sent requests.
+     */
+    public ImmutableList<Future<Response>> flush() {
+        // Channels with identical changes share requests.
+        Map<Mutation, List<Channel>> channelsByMutation = new LinkedHashMap<>();
+        synchronized (this) {
+            flushScheduled = false;
+            Iterator<Map.Entry<Channel, PendingChanges>> entries = pending.entrySet().iterator();
+            while (entries.hasNext()) {
+                Map.Entry<Channel, PendingChanges> entry = entries.next();
+                Channel channel = entry.getKey();
+                if (inFlight.containsKey(channel)) {
+                    continue;
+                }
+                entries.remove();
+
+                List<Mutation> mutations = entry.getValue().toMutations();
+                for (Mutation mutation : mutations) {
+                    List<Channel> channels = channelsByMutation.get(mutation);
+                    if (channels == null) {
+                        channels = new ArrayList<>();
+                        channelsByMutation.put(mutation, channels);
+                    }
+                    channels.add(channel);
+                }
+                if (!mutations.isEmpty()) {
+                    inFlight.put(channel, mutations.size());
+                }
+            }
+        }
+        if (channelsByMutation.isEmpty()) {
+            return ImmutableList.of();
+        }
+
+        ImmutableList.Builder<Future<Response>> futures = ImmutableList.builder();
+        for (Map.Entry<Mutation, List<Channel>> entry : channelsByMutation.entrySet()) {
+            List<Channel> channels = entry.getValue();
+            for (int from = 0; from < channels.size(); from += maxChannelsPerRequest) {
+                final List<Channel> requestChannels = channels.subList(from, Math.min(channels.size(), from + maxChannelsPerRequest));
+                ChannelTagRequest request = entry.getKey().toRequest(requestChannels);
+                try {
+                    ListenableFuture<Response> future = JdkFutureAdapters.listenInPoolThread(client.executeAsync(request, callback));
+                    future.addListener(new Runnable() {
+                        @Override
+                        public void run() {
+                            onCompleted(requestChannels);
+                        }
+                    }, MoreExecutors.directExecutor());
+                    futures.add(future);
+                } catch (IOException e) {
+                    log.error("Failed to send channel tag mutations", e);
+                    onCompleted(requestChannels);
+                    if (callback != null) {
+                        callback.error(e);
+                    }
+                }
+            }
+        }
+        return futures.build();
+    }
+
+    /**
+     * Flush pending changes and stop the flush timer. Changes to channels with a request in flight are sent once it
+     * completes. The client is not closed.
+     */
+    @Override
+    public void close() {
+        synchronized (this) {
+            closed = true;
+        }
+        flushTimer.cancel(false);
+        flush();
+        if (ownsScheduler) {
+            scheduler.shutdown();
+        }
+    }
+
+    private PendingChanges changesOf(ChannelType channelType, String channelId) {
+        Preconditions.checkState(!closed, "Channel tag batcher is closed");
+        Channel channel = new Channel(channelType, channelId);
+        PendingChanges changes = pending.get(channel);
+        if (changes == null) {
+            changes = new PendingChanges();
+            pending.put(channel, changes);
+            if (inFlight.containsKey(channel)) {
+                pendingInFlight++;
+            }
+        }
+        return changes;
+    }
+
+    /**
+     * Schedule a flush once enough channels have pending changes that can be sent, i.e. without a request in
+     * flight. The flush runs on the scheduler so that callers never send requests themselves.
+     */
+    private void onChange() {
+        synchronized (this) {
+            if (flushScheduled || pending.size() - pendingInFlight < maxChannelsPerRequest) {
+                return;
+            }
+            flushScheduled = true;
+        }
+
+        try {
+            scheduler.execute(flushTask);
+        } catch (RejectedExecutionException e) {
+            flushTask.run();
+        }
+    }
+
+    /**
+     * Release the channels of a completed request, and flush the changes that arrived while it was in flight.
+     */
+    private void onCompleted(List<Channel> channels) {
+        boolean flushNeeded = false;
+        synchronized (this) {
+            for (Channel channel : channels) {
+                int remaining = inFlight.get(channel) - 1;
+                if (remaining > 0) {
+                    inFlight.put(channel, remaining);
+                } else {
+                    inFlight.remove(channel);
+                    if (pending.containsKey(channel)) {
+                        pendingInFlight--;
+                        flushNeeded = true;
+                    }
+                }
+            }
+        }
+        if (!flushNeeded) {
+            return;
+        }
+
+        // Once the batcher is closed its scheduler may be shut down, so the flush runs right here.
+        try {
+            scheduler.execute(flushTask);
+        } catch (RejectedExecutionException e) {
+            flushTask.run();
+        }
+    }
+
+    private static final class Channel {
+
+        private final ChannelType type;
+        private final String id;
+
+        private Channel(ChannelType type, String id) {
+            this.type = Preconditions.checkNotNull(type, "Channel type required");
+            this.id = Preconditions.checkNotNull(id, "Channel ID required");
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof Channel)) {
+                return false;
+            }
+            Channel that = (Channel) o;
+            return type == that.type && id.equals(that.id);
+        }
+
+        @Override
+        public int hashCode() {
+            return 31 * type.hashCode() + id.hashCode();
+        }
+    }
+
+    /**
+     * Pending changes of one channel. Guarded by the batcher lock.
+     */
+    private static final class PendingChanges {
+
+        private final Map<String, Set<String>> add = new HashMap<>();
+        private final Map<String, Set<String>> remove = new HashMap<>();
+        private final Map<String, Set<String>> set = new HashMap<>();
+
+        private void add(String group, Set<String> tags) {
+            if (set.containsKey(group)) {
+                set.get(group).addAll(tags);
+            } else {
+                tagsOf(add, group).addAll(tags);
+                tagsOf(remove, group).removeAll(tags);
+            }
+        }
+
+        private void remove(String group, Set<String> tags) {
+            if (set.containsKey(group)) {
+                set.get(group).removeAll(tags);
+            } else {
+                tagsOf(remove, group).addAll(tags);
+                tagsOf(add, group).removeAll(tags);
+            }
+        }
+
+        private void set(String group, Set<String> tags) {
+            add.remove(group);
+            remove.remove(group);
+            set.put(group, new HashSet<>(tags));
+        }
+
+        private List<Mutation> toMutations() {
+            List<Mutation> mutations = new ArrayList<>(2);
+            if (!set.isEmpty()) {
+                mutations.add(new Mutation(ImmutableMap.<String, ImmutableSet<String>>of(), ImmutableMap.<String, ImmutableSet<String>>of(), copyOf(set)));
+            }
+
+            ImmutableMap<String, ImmutableSet<String>> added = copyOf(add);
+            ImmutableMap<String, ImmutableSet<String>> removed = copyOf(remove);
+            if (!added.isEmpty() || !removed.isEmpty()) {
+                mutations.add(new Mutation(added, removed, ImmutableMap.<String, ImmutableSet<String>>of()));
+            }
+            return mutations;
+        }
+
+        private static Set<String> tagsOf(Map<String, Set<String>> groups, String group) {
+            Set<String> tags = groups.get(group);
+            if (tags == null) {
+                tags = new HashSet<>();
+                groups.put(group, tags);
+            }
+            return tags;
+        }
+
+        private ImmutableMap<String, ImmutableSet<String>> copyOf(Map<String, Set<String>> groups) {
+            ImmutableMap.Builder<String, ImmutableSet<String>> copy = ImmutableMap.builder();
+            for (Map.Entry<String, Set<String>> entry : groups.entrySet()) {
+                // An empty set group clears it, while empty added or removed tags are no change at all.
+                if (!entry.getValue().isEmpty() || groups == set) {
+                    copy.put(entry.getKey(), ImmutableSet.copyOf(entry.getValue()));
+                }
+            }
+            return copy.build();
+        }
+    }
+
+    /**
+     * The body of a channel tag request, without its audience.
+     */
+    private static final class Mutation {
+
+        private final ImmutableMap<String, ImmutableSet<String>> add;
+        private final ImmutableMap<String, ImmutableSet<String>> remove;
+        private final ImmutableMap<String, ImmutableSet<String>> set;
+
+        private Mutation(ImmutableMap<String, ImmutableSet<String>> add, ImmutableMap<String, ImmutableSet<String>> remove,
+                         ImmutableMap<String, ImmutableSet<String>> set) {
+            this.add = add;
+            this.remove = remove;
+            this.set = set;
+        }
+
+        private ChannelTagRequest toRequest(List<Channel> channels) {
+            ChannelTagRequest request = ChannelTagRequest.newRequest();
+            for (Channel channel : channels) {
+                switch (channel.type) {
+                    case IOS:
+                        request.addIOSChannel(channel.id);
+                        break;
+                    case ANDROID:
+                        request.addAndroidChannel(channel.id);
+                        break;
+                    case ADM:
+                        request.addAmazonChannel(channel.id);
+                        break;
+                }
+            }
+            // The request keeps and extends the sets it is given, so each gets its own copy.
+            for (Map.Entry<String, ImmutableSet<String>> entry : add.entrySet()) {
+                request.addTags(entry.getKey(), new HashSet<>(entry.getValue()));
+            }
+            for (Map.Entry<String, ImmutableSet<String>> entry : remove.entrySet()) {
+                request.removeTags(entry.getKey(), new HashSet<>(entry.getValue()));
+            }
+            for (Map.Entry<String, ImmutableSet<String>> entry : set.entrySet()) {
+                request.setTags(entry.getKey(), new HashSet<>(entry.getValue()));
+            }
+            return request;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof Mutation)) {
+                return false;
+            }
+            Mutation that = (Mutation) o;
+            return add.equals(that.add) && remove.equals(that.remove) && set.equals(that.set);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hashCode(add, remove, set);
+        }
+    }
+
+    public static class Builder {
+
+        private UrbanAirshipClient client = null;
+        private int maxChannelsPerRequest = 1000;
+        private long flushIntervalMs = 1000;
+        private ResponseCallback callback = null;
+        private ScheduledExecutorService scheduler = null;
+
+        private Builder() {
+        }
+
+        /**
+         * Set the client used to send the requests.
+         *
+         * @param client UrbanAirshipClient
+         * @return Builder
+         */
+        public Builder setClient(UrbanAirshipClient client) {
+            this.client = client;
+            return this;
+        }
+
+        /**
+         * Set the maximum number of channels per request -- defaults to 1000, the API limit.
+         *
+         * @param maxChannelsPerRequest int
+         * @return Builder
+         */
+        public Builder setMaxChannelsPerRequest(int maxChannelsPerRequest) {
+            this.maxChannelsPerRequest = maxChannelsPerRequest;
+            return this;
+        }
+
+        /**
+         * Set the interval between timed flushes -- defaults to 1 second.
+         *
+         * @param flushInterval long
+         * @param unit The time unit of the interval.
+         * @return Builder
+         */
+        public Builder setFlushInterval(long flushInterval, TimeUnit unit) {
+            this.flushIntervalMs = unit.toMillis(flushInterval);
+            return this;
+        }
+
+        /**
+         * Set an optional callback notified of the response or error of every request.
+         *
+         * @param callback ResponseCallback
+         * @return Builder
+         */
+        public Builder setCallback(ResponseCallback callback) {
+            this.callback = callback;
+            return this;
+        }
+
+        /**
+         * Set the scheduler running the flushes -- defaults to a single thread scheduler owned by the batcher. A
+         * scheduler set here is not shut down when the batcher is closed.
+         *
+         * @param scheduler ScheduledExecutorService
+         * @return Builder
+         */
+        public Builder setScheduler(ScheduledExecutorService scheduler) {
+            this.scheduler = scheduler;
+            return this;
+        }
+
+        /**
+         * Build the ChannelTagBatcher object.
+         *
+         * <pre>
+         * 1. The client must be set.
+         * 2. The maximum number of channels per request must be at least 1.
+         * 3. The flush interval must be positive.
+         * </pre>
+         *
+         * @return ChannelTagBatcher
+         */
+        public ChannelTagBatcher build() {
+            Preconditions.checkNotNull(client, "Client must be set");
+            Preconditions.checkArgument(maxChannelsPerRequest > 0, "Max channels per request must be at least 1");
+            Preconditions.checkArgument(flushIntervalMs > 0, "Flush interval must be positive");
+
+            return new ChannelTagBatcher(this);
+        }
+    }
+}
@@ -5,9 +5,11 @@
 package com.urbanairship.api.channel;
 
 import com.google.common.base.Preconditions;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
 import com.google.common.net.HttpHeaders;
 import com.urbanairship.api.channel.parse.ChannelObjectMapper;
-import com.urbanairship.api.client.Request;
+import com.urbanairship.api.client.CacheInvalidatingRequest;
 import com.urbanairship.api.client.RequestUtils;
 import com.urbanairship.api.client.ResponseParser;
 import org.apache.http.entity.ContentType;
@@ -15,6 +17,7 @@ import org.apache.http.entity.ContentType;
 import java.io.IOException;
 import java.net.URI;
 import java.util.Arrays;
+import java.util.Collection;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Map;
@@ -24,7 +27,7 @@ import java.util.Set;
  * The ChannelTagRequest class builds channels tag mutation requests to be executed in
  * the {@link com.urbanairship.api.client.UrbanAirshipClient}.
  */
-public class ChannelTagRequest implements Request<String> {
+public class ChannelTagRequest implements CacheInvalidatingRequest<String> {
 
     private final static String API_CHANNELS_TAGS_PATH = "/api/channels/tags/";
     private static final String IOS_CHANNEL_KEY = "ios_channel";
@@ -34,6 +37,10 @@ public class ChannelTagRequest implements Request<String> {
     private static final String ADD_KEY = "add";
     private static final String REMOVE_KEY = "remove";
     private static final String SET_KEY = "set";
+    private static final Map<String, String> HEADERS = ImmutableMap.of(
+        HttpHeaders.CONTENT_TYPE, CONTENT_TYPE_JSON,
+        HttpHeaders.ACCEPT, UA_VERSION_JSON
+    );
 
     private final Map<String, Set<String>> audience = new HashMap<String, Set<String>>();
     private final Map<String, Set<String>> addTags = new HashMap<String, Set<String>>();;
@@ -184,10 +191,7 @@ public class ChannelTagRequest implements Request<String> {
 
     @Override
     public Map<String, String> getRequestHeaders() {
-        Map<String, String> headers = new HashMap<String, String>();
-        headers.put(HttpHeaders.CONTENT_TYPE, CONTENT_TYPE_JSON);
-        headers.put(HttpHeaders.ACCEPT, UA_VERSION_JSON);
-        return headers;
+        return HEADERS;
     }
 
     @Override
@@ -230,6 +234,17 @@ public class ChannelTagRequest implements Request<String> {
         return RequestUtils.resolveURI(baseUri, API_CHANNELS_TAGS_PATH);
     }
 
+    @Override
+    public Collection<URI> getInvalidatedUris(URI baseUri) {
+        ImmutableList.Builder<URI> uris = ImmutableList.builder();
+        for (Set<String> channels : audience.values()) {
+            for (String channel : channels) {
+                uris.add(ChannelRequest.newRequest(channel).getUri(baseUri));
+            }
+        }
+        return uris.build();
+    }
+
     @Override
     public ResponseParser<String> getResponseParser() {
         return new ResponseParser<String>() {
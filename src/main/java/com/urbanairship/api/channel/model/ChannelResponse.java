@@ -8,11 +8,12 @@ import com.google.common.base.Objects;
 import com.google.common.base.Optional;
 import com.google.common.base.Preconditions;
 import com.google.common.collect.ImmutableList;
+import com.urbanairship.api.client.PagedResponse;
 
 /**
  * Channel listing response object
  */
-public class ChannelResponse {
+public class ChannelResponse implements PagedResponse<ChannelView> {
     private final boolean ok;
     private final Optional<String> nextPage;
     private final Optional<ChannelView> channelObject;
@@ -52,6 +53,7 @@ public class ChannelResponse {
      *
      * @return An Optional String
      */
+    @Override
     public Optional<String> getNextPage() {
         return nextPage;
     }
@@ -74,6 +76,16 @@ public class ChannelResponse {
         return channelObjects;
     }
 
+    /**
+     * Get the objects listed in this page.
+     *
+     * @return An ImmutableList of ChannelView objects
+     */
+    @Override
+    public ImmutableList<ChannelView> getPageItems() {
+        return channelObjects.or(ImmutableList.<ChannelView>of());
+    }
+
     @Override
     public String toString() {
         return "APIListAllChannelsResponse{" +
@@ -0,0 +1,350 @@
+/*
+ * Copyright (c) 2013-2016.  Urban Airship and Contributors
+ */
+
+package com.urbanairship.api.client;
+
+import com.google.common.base.Optional;
+import com.google.common.base.Preconditions;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+
+import java.net.URI;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Admission controller that adapts the number of requests in flight to what the API tolerates, with a separate
+ * limit per API path prefix.
+ *
+ * Limits follow an additive increase, multiplicative decrease scheme. Every successful request that finishes
+ * while its limit is in use grows the limit by {@code 1 / limit}, so a fully used limit grows by about one per
+ * round trip. A request answered with a 429 or 503, retried on the way, or whose latency rises above the
+ * tolerated multiple of the lowest recent latency multiplies the limit by the backoff ratio. At most one
+ * decrease happens per round trip, so a burst of failures of requests sent together only counts once.
+ *
+ * Requests over the limit are queued per prefix, without blocking the calling thread.
+ */
+public class AdaptiveConcurrencyLimiter implements AdmissionController {
+
+    private static final double BASELINE_DRIFT = 0.01;
+
+    private final ImmutableList<String> pathPrefixes;
+    private final double initialLimit;
+    private final double minLimit;
+    private final double maxLimit;
+    private final double backoffRatio;
+    private final double latencyTolerance;
+
+    private final Map<String, PrefixLimit> limits = new HashMap<>();
+    private final Set<Admission> admitted = Collections.newSetFromMap(new IdentityHashMap<Admission, Boolean>());
+
+    private AdaptiveConcurrencyLimiter(Builder builder) {
+        this.pathPrefixes = builder.pathPrefixes.build();
+        this.initialLimit = builder.initialLimit;
+        this.minLimit = builder.minLimit;
+        this.maxLimit = builder.maxLimit;
+        this.backoffRatio = builder.backoffRatio;
+        this.latencyTolerance = builder.latencyTolerance;
+    }
+
+    /**
+     * New AdaptiveConcurrencyLimiter builder.
+     *
+     * @return Builder
+     */
+    public static Builder newBuilder() {
+        return new Builder();
+    }
+
+    @Override
+    public void submit(Admission admission) {
+        List<Admission> ready;
+        synchronized (this) {
+            PrefixLimit limit = limitOf(admission.getUri());
+            limit.queue.add(admission);
+            ready = drain(limit);
+        }
+        proceed(ready);
+    }
+
+    @Override
+    public void release(Admission admission) {
+        List<Admission> ready;
+        synchronized (this) {
+            PrefixLimit limit = limitOf(admission.getUri());
+            if (!admitted.remove(admission)) {
+                limit.queue.remove(admission);
+                return;
+            }
+
+            limit.inFlight--;
+            update(limit, admission);
+            ready = drain(limit);
+        }
+        proceed(ready);
+    }
+
+    /**
+     * Get the path prefix that requests to a URI are limited by: the longest configured prefix matching the URI
+     * path, otherwise its first two path segments, e.g. {@code /api/channels/}.
+     *
+     * @param uri The request URI.
+     * @return The path prefix.
+     */
+    public String getPathPrefix(URI uri) {
+        String path = uri.getPath() == null ? "/" : uri.getPath();
+
+        String matched = null;
+        for (String prefix : pathPrefixes) {
+            if (path.startsWith(prefix) && (matched == null || prefix.length() > matched.length())) {
+                matched = prefix;
+            }
+        }
+        if (matched != null) {
+            return matched;
+        }
+
+        int end = 0;
+        for (int segments = 0; segments < 2; segments++) {
+            int next = path.indexOf('/', end + 1);
+            if (next < 0) {
+                return path.endsWith("/") ? path : path + "/";
+            }
+            end = next;
+        }
+        return path.substring(0, end + 1);
+    }
+
+    /**
+     * Get the current limit of a path prefix.
+     *
+     * @param pathPrefix The path prefix.
+     * @return The limit, absent if no request with that prefix was seen.
+     */
+    public synchronized Optional<Integer> getLimit(String pathPrefix) {
+        PrefixLimit limit = limits.get(pathPrefix);
+        return limit == null ? Optional.<Integer>absent() : Optional.of(limit.permits());
+    }
+
+    /**
+     * Get the current limit of every path prefix seen so far.
+     *
+     * @return An immutable map of path prefix to limit.
+     */
+    public synchronized ImmutableMap<String, Integer> getLimits() {
+        ImmutableMap.Builder<String, Integer> builder = ImmutableMap.builder();
+        for (Map.Entry<String, PrefixLimit> entry : limits.entrySet()) {
+            builder.put(entry.getKey(), entry.getValue().permits());
+        }
+        return builder.build();
+    }
+
+    /**
+     * Get the number of requests of a path prefix in flight.
+     *
+     * @param pathPrefix The path prefix.
+     * @return int
+     */
+    public synchronized int getInFlight(String pathPrefix) {
+        PrefixLimit limit = limits.get(pathPrefix);
+        return limit == null ? 0 : limit.inFlight;
+    }
+
+    /**
+     * Get the number of requests of a path prefix waiting to be admitted.
+     *
+     * @param pathPrefix The path prefix.
+     * @return int
+     */
+    public synchronized int getQueueDepth(String pathPrefix) {
+        PrefixLimit limit = limits.get(pathPrefix);
+        return limit == null ? 0 : limit.queue.size();
+    }
+
+    private PrefixLimit limitOf(URI uri) {
+        String prefix = getPathPrefix(uri);
+        PrefixLimit limit = limits.get(prefix);
+        if (limit == null) {
+            limit = new PrefixLimit(initialLimit);
+            limits.put(prefix, limit);
+        }
+        return limit;
+    }
+
+    /**
+     * Adjust a limit with the outcome of a finished request. Must be called while holding the lock.
+     */
+    private void update(PrefixLimit limit, Admission admission) {
+        Optional<Integer> status = admission.getStatusCode();
+        if (!status.isPresent()) {
+            // Cancelled or failed without a response, says nothing about the API.
+            return;
+        }
+
+        long now = System.nanoTime();
+        long latency = admission.getLatency(TimeUnit.NANOSECONDS);
+        boolean rejected = status.get() == 429 || status.get() == 503 || admission.getRetryCount() > 0;
+        boolean slow = limit.baselineNanos > 0 && latency > limit.baselineNanos * latencyTolerance;
+
+        if (!rejected && latency > 0) {
+            limit.baselineNanos = limit.baselineNanos == 0 || latency < limit.baselineNanos
+                ? latency
+                : (long) (limit.baselineNanos * (1 - BASELINE_DRIFT) + latency * BASELINE_DRIFT);
+        }
+
+        if (rejected || slow) {
+            if (now - limit.lastDecreaseNanos > Math.max(limit.baselineNanos, latency)) {
+                limit.limit = Math.max(minLimit, limit.limit * backoffRatio);
+                limit.lastDecreaseNanos = now;
+            }
+        } else if (limit.inFlight + 1 >= limit.permits() / 2) {
+            limit.limit = Math.min(maxLimit, limit.limit + 1 / limit.limit);
+        }
+    }
+
+    /**
+     * Admit queued requests of a prefix while its limit allows. Must be called while holding the lock.
+     */
+    private List<Admission> drain(PrefixLimit limit) {
+        List<Admission> ready = new ArrayList<>();
+        while (limit.inFlight < limit.permits() && !limit.queue.isEmpty()) {
+            Admission admission = limit.queue.poll();
+            limit.inFlight++;
+            admitted.add(admission);
+            ready.add(admission);
+        }
+        return ready;
+    }
+
+    private static void proceed(List<Admission> ready) {
+        for (Admission admission : ready) {
+            admission.proceed();
+        }
+    }
+
+    private static class PrefixLimit {
+
+        private final ArrayDeque<Admission> queue = new ArrayDeque<>();
+        private double limit;
+        private int inFlight = 0;
+        private long baselineNanos = 0;
+        private long lastDecreaseNanos = System.nanoTime() - TimeUnit.DAYS.toNanos(1);
+
+        private PrefixLimit(double limit) {
+            this.limit = limit;
+        }
+
+        private int permits() {
+            return (int) limit;
+        }
+    }
+
+    public static class Builder {
+
+        private final ImmutableList.Builder<String> pathPrefixes = ImmutableList.builder();
+        private double initialLimit = 20;
+        private double minLimit = 1;
+        private double maxLimit = 500;
+        private double backoffRatio = 0.7;
+        private double latencyTolerance = 2.0;
+
+        private Builder() {
+        }
+
+        /**
+         * Add a path prefix with a limit of its own, e.g. {@code /api/push/validate/}. Requests not matching any
+         * added prefix are limited by the first two segments of their path.
+         *
+         * @param pathPrefix The path prefix.
+         * @return Builder
+         */
+        public Builder addPathPrefix(String pathPrefix) {
+            this.pathPrefixes.add(pathPrefix);
+            return this;
+        }
+
+        /**
+         * Set the limit each path prefix starts with -- defaults to 20.
+         *
+         * @param initialLimit int
+         * @return Builder
+         */
+        public Builder setInitialLimit(int initialLimit) {
+            this.initialLimit = initialLimit;
+            return this;
+        }
+
+        /**
+         * Set the lowest limit -- defaults to 1.
+         *
+         * @param minLimit int
+         * @return Builder
+         */
+        public Builder setMinLimit(int minLimit) {
+            this.minLimit = minLimit;
+            return this;
+        }
+
+        /**
+         * Set the highest limit -- defaults to 500.
+         *
+         * @param maxLimit int
+         * @return Builder
+         */
+        public Builder setMaxLimit(int maxLimit) {
+            this.maxLimit = maxLimit;
+            return this;
+        }
+
+        /**
+         * Set the ratio a limit is multiplied by on overload -- defaults to 0.7.
+         *
+         * @param backoffRatio double
+         * @return Builder
+         */
+        public Builder setBackoffRatio(double backoffRatio) {
+            this.backoffRatio = backoffRatio;
+            return this;
+        }
+
+        /**
+         * Set how many times the lowest recent latency a request may take before it counts as overload --
+         * defaults to 2.
+         *
+         * @param latencyTolerance double
+         * @return Builder
+         */
+        public Builder setLatencyTolerance(double latencyTolerance) {
+            this.latencyTolerance = latencyTolerance;
+            return this;
+        }
+
+        /**
+         * Build the AdaptiveConcurrencyLimiter object.
+         *
+         * <pre>
+         * 1. The min limit must be at least 1, and the initial limit between the min and max limits.
+         * 2. The backoff ratio must be between 0 and 1.
+         * 3. The latency tolerance must be greater than 1.
+         * </pre>
+         *
+         * @return AdaptiveConcurrencyLimiter
+         */
+        public AdaptiveConcurrencyLimiter build() {
+            Preconditions.checkArgument(minLimit >= 1, "Min limit must be at least 1");
+            Preconditions.checkArgument(minLimit <= initialLimit && initialLimit <= maxLimit, "Initial limit must be between the min and max limits");
+            Preconditions.checkArgument(backoffRatio > 0 && backoffRatio < 1, "Backoff ratio must be between 0 and 1");
+            Preconditions.checkArgument(latencyTolerance > 1, "Latency tolerance must be greater than 1");
+
+            return new AdaptiveConcurrencyLimiter(this);
+        }
+    }
+}
@@ -0,0 +1,73 @@
+/*
+ * Copyright (c) 2013-2016.  Urban Airship and Contributors
+ */
+
+package com.urbanairship.api.client;
+
+import com.google.common.base.Optional;
+
+import java.net.URI;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * A request waiting to be admitted by an {@link AdmissionController}.
+ */
+public interface Admission {
+
+    /**
+     * Get the request to be sent.
+     *
+     * @return The Urban Airship request.
+     */
+    Request<?> getRequest();
+
+    /**
+     * Get the resolved request URI.
+     *
+     * @return The request URI.
+     */
+    URI getUri();
+
+    /**
+     * Get the endpoint family of the request.
+     *
+     * @return EndpointFamily
+     */
+    EndpointFamily getFamily();
+
+    /**
+     * Whether the request has already completed, failed or been cancelled. Such admissions can be dropped.
+     *
+     * @return boolean
+     */
+    boolean isDone();
+
+    /**
+     * Get the HTTP status code of the last attempt. Only meaningful once the request is released.
+     *
+     * @return The status code, absent if no response was received.
+     */
+    Optional<Integer> getStatusCode();
+
+    /**
+     * Get the time from sending the last attempt until the request finished, including response parsing. Only
+     * meaningful once the request is released.
+     *
+     * @param unit The time unit of the result.
+     * @return long
+     */
+    long getLatency(TimeUnit unit);
+
+    /**
+     * Get the number of times the request was retried.
+     *
+     * @return int
+     */
+    int getRetryCount();
+
+    /**
+     * Send the request. Must be called at most once, and must not be called while holding a lock the
+     * controller also takes in {@link AdmissionController#release(Admission)}.
+     */
+    void proceed();
+}
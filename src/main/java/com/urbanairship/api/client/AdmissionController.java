@@ -0,0 +1,31 @@
+/*
+ * Copyright (c) 2013-2016.  Urban Airship and Contributors
+ */
+
+package com.urbanairship.api.client;
+
+/**
+ * Decides when the {@link UrbanAirshipClient} may send a request. Set with
+ * {@link UrbanAirshipClient.Builder#setAdmissionController(AdmissionController)}.
+ *
+ * Every request is submitted before it is sent, and it is only sent once the controller calls
+ * {@link Admission#proceed()}. Controllers must never block the submitting thread; requests that cannot be
+ * admitted yet are held and admitted later. Retries of an admitted request are not submitted again.
+ */
+public interface AdmissionController {
+
+    /**
+     * Submit a request for admission.
+     *
+     * @param admission The request waiting to be admitted.
+     */
+    void submit(Admission admission);
+
+    /**
+     * Called exactly once for every submitted request once it completes, fails or is cancelled, whether it was
+     * admitted or not.
+     *
+     * @param admission The finished request.
+     */
+    void release(Admission admission);
+}
@@ -0,0 +1,84 @@
+/*
+ * Copyright (c) 2013-2016.  Urban Airship and Contributors
+ */
+
+package com.urbanairship.api.client;
+
+import java.io.InputStream;
+import java.util.List;
+
+/**
+ * InputStream over the raw response body parts collected by the ResponseAsyncHandler. Each part is
+ * released as soon as it has been fully read, so a parser consuming the stream only keeps the unread
+ * remainder of the body reachable.
+ */
+class BodyPartsInputStream extends InputStream {
+
+    private final List<byte[]> parts;
+    private int partIndex = 0;
+    private int position = 0;
+
+    BodyPartsInputStream(List<byte[]> parts) {
+        this.parts = parts;
+    }
+
+    @Override
+    public int read() {
+        byte[] part = currentPart();
+        if (part == null) {
+            return -1;
+        }
+        return part[position++] & 0xff;
+    }
+
+    @Override
+    public int read(byte[] buffer, int offset, int length) {
+        if (length == 0) {
+            return 0;
+        }
+
+        int read = 0;
+        while (read < length) {
+            byte[] part = currentPart();
+            if (part == null) {
+                break;
+            }
+            int count = Math.min(length - read, part.length - position);
+            System.arraycopy(part, position, buffer, offset + read, count);
+            position += count;
+            read += count;
+        }
+
+        return read == 0 ? -1 : read;
+    }
+
+    @Override
+    public int available() {
+        byte[] part = currentPart();
+        return part == null ? 0 : part.length - position;
+    }
+
+    @Override
+    public void close() {
+        while (partIndex < parts.size()) {
+            parts.set(partIndex++, null);
+        }
+    }
+
+    /**
+     * Returns the part currently being read, releasing exhausted parts along the way.
+     *
+     * @return The current part, or null once the body has been fully consumed.
+     */
+    private byte[] currentPart() {
+        while (partIndex < parts.size()) {
+            byte[] part = parts.get(partIndex);
+            if (part != null && position < part.length) {
+                return part;
+            }
+            parts.set(partIndex++, null);
+            position = 0;
+        }
+        return null;
+    }
+}
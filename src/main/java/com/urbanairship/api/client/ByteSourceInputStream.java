@@ -0,0 +1,175 @@
+/*
+ * Copyright (c) 2013-2016.  Urban Airship and Contributors
+ */
+
+package com.urbanairship.api.client;
+
+import com.google.common.base.Preconditions;
+import com.google.common.io.ByteSource;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * InputStream over a ByteSource, optionally gzip compressing the source on the fly. Only a bounded buffer of
+ * compressed bytes is held in memory, whatever the size of the source.
+ *
+ * {@link #reset()} reopens the source and restarts the stream from the beginning, which allows request bodies
+ * built on this stream to be replayed when a request is retried.
+ */
+public class ByteSourceInputStream extends InputStream {
+
+    private static final int BUFFER_SIZE = 8192;
+
+    private final ByteSource source;
+    private final boolean gzip;
+
+    private InputStream in = null;
+    private CompressedBuffer compressed = null;
+    private GZIPOutputStream compressor = null;
+    private byte[] chunk = null;
+    private boolean finished = false;
+
+    private ByteSourceInputStream(ByteSource source, boolean gzip) {
+        Preconditions.checkNotNull(source, "Byte source cannot be null");
+        this.source = source;
+        this.gzip = gzip;
+    }
+
+    /**
+     * Create a stream of the source bytes.
+     *
+     * @param source ByteSource
+     * @return ByteSourceInputStream
+     */
+    public static ByteSourceInputStream of(ByteSource source) {
+        return new ByteSourceInputStream(source, false);
+    }
+
+    /**
+     * Create a stream of the gzip compressed source bytes.
+     *
+     * @param source ByteSource
+     * @return ByteSourceInputStream
+     */
+    public static ByteSourceInputStream gzipped(ByteSource source) {
+        return new ByteSourceInputStream(source, true);
+    }
+
+    @Override
+    public int read() throws IOException {
+        byte[] b = new byte[1];
+        int n;
+        while ((n = read(b, 0, 1)) == 0) {
+            // Keep reading until a byte or the end of the stream is reached.
+        }
+        return n < 0 ? -1 : b[0] & 0xff;
+    }
+
+    @Override
+    public int read(byte[] b, int off, int len) throws IOException {
+        Preconditions.checkPositionIndexes(off, off + len, b.length);
+        if (len == 0) {
+            return 0;
+        }
+
+        open();
+        if (!gzip) {
+            return in.read(b, off, len);
+        }
+
+        while (compressed.available() == 0) {
+            if (finished) {
+                return -1;
+            }
+
+            int n = in.read(chunk);
+            if (n < 0) {
+                compressor.finish();
+                finished = true;
+            } else {
+                compressor.write(chunk, 0, n);
+            }
+        }
+        return compressed.drain(b, off, len);
+    }
+
+    @Override
+    public boolean markSupported() {
+        return true;
+    }
+
+    /**
+     * Marks are only supported at the beginning of the stream, so this is a no-op.
+     *
+     * @param readLimit Ignored.
+     */
+    @Override
+    public void mark(int readLimit) {
+    }
+
+    /**
+     * Restart the stream from the beginning of the source.
+     *
+     * @throws IOException
+     */
+    @Override
+    public void reset() throws IOException {
+        close();
+    }
+
+    @Override
+    public void close() throws IOException {
+        InputStream current = in;
+        in = null;
+        compressed = null;
+        compressor = null;
+        chunk = null;
+        finished = false;
+        if (current != null) {
+            current.close();
+        }
+    }
+
+    private void open() throws IOException {
+        if (in != null) {
+            return;
+        }
+
+        in = source.openStream();
+        if (gzip) {
+            chunk = new byte[BUFFER_SIZE];
+            compressed = new CompressedBuffer();
+            compressor = new GZIPOutputStream(compressed, BUFFER_SIZE);
+        }
+    }
+
+    /**
+     * Holds the compressed bytes not read yet. The buffer is rewound once drained so it stays bounded.
+     */
+    private static class CompressedBuffer extends ByteArrayOutputStream {
+
+        private int position = 0;
+
+        private CompressedBuffer() {
+            super(BUFFER_SIZE);
+        }
+
+        private int available() {
+            return count - position;
+        }
+
+        private int drain(byte[] b, int off, int len) {
+            int n = Math.min(len, available());
+            System.arraycopy(buf, position, b, off, n);
+            position += n;
+            if (position == count) {
+                position = 0;
+                reset();
+            }
+            return n;
+        }
+    }
+}
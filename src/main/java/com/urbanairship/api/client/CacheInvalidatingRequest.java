@@ -0,0 +1,26 @@
+/*
+ * Copyright (c) 2013-2016.  Urban Airship and Contributors
+ */
+
+package com.urbanairship.api.client;
+
+import java.net.URI;
+import java.util.Collection;
+
+/**
+ * A request that changes resources other than its own URI, e.g. a channel tag mutation that changes the
+ * lookups of its channels. The client's {@link ResponseCache} drops the cached responses of those URIs when the
+ * request is sent and again when it completes.
+ *
+ * @param <T> The response type.
+ */
+public interface CacheInvalidatingRequest<T> extends Request<T> {
+
+    /**
+     * Get the URIs of the cacheable lookups this request changes.
+     *
+     * @param baseUri The client's base URI.
+     * @return Collection of URIs
+     */
+    Collection<URI> getInvalidatedUris(URI baseUri);
+}
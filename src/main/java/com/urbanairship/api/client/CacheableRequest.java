@@ -0,0 +1,22 @@
+/*
+ * Copyright (c) 2013-2016.  Urban Airship and Contributors
+ */
+
+package com.urbanairship.api.client;
+
+/**
+ * A GET request whose parsed response may be served from the client's {@link ResponseCache}, e.g. a lookup of
+ * a single channel or template. Requests are only cached when the client was built with a response cache.
+ *
+ * @param <T> The response type.
+ */
+public interface CacheableRequest<T> extends Request<T> {
+
+    /**
+     * Whether this request's response may be cached. Requests of the same class may differ, e.g. a lookup may
+     * be cached while a listing is not.
+     *
+     * @return boolean
+     */
+    boolean isCacheable();
+}
@@ -14,14 +14,17 @@ public class ClientException extends RuntimeException {
     private final Optional<RequestError> error;
     private final Integer statusCode;
     private final String statusText;
+    private final Optional<RequestTimings> timings;
 
     private ClientException(String message,
                             Integer statusCode,
-                            Optional<RequestError> error) {
+                            Optional<RequestError> error,
+                            Optional<RequestTimings> timings) {
         super(message);
         this.statusCode = statusCode;
         this.statusText = message;
         this.error = error;
+        this.timings = timings;
     }
 
     /**
@@ -60,6 +63,15 @@ public class ClientException extends RuntimeException {
         return statusText;
     }
 
+    /**
+     * Get the lifecycle timings of the request attempt that failed.
+     *
+     * @return Optional timings, present for errors received by the client.
+     */
+    public Optional<RequestTimings> getTimings() {
+        return timings;
+    }
+
     @Override
     public String toString() {
         StringBuilder stringBuilder = new StringBuilder();
@@ -84,6 +96,7 @@ public class ClientException extends RuntimeException {
         private Integer statusCode;
         private String message;
         private RequestError requestError = null;
+        private RequestTimings timings = null;
 
         /**
          * Set the error message.
@@ -119,6 +132,17 @@ public class ClientException extends RuntimeException {
             return this;
         }
 
+        /**
+         * Set the request lifecycle timings.
+         *
+         * @param timings The timings.
+         * @return Builder
+         */
+        public Builder setTimings(RequestTimings timings) {
+            this.timings = timings;
+            return this;
+        }
+
         /**
          * Build the ClientException instance.
          *
@@ -127,7 +151,8 @@ public class ClientException extends RuntimeException {
         public ClientException build() {
             return new ClientException(message,
                     statusCode,
-                    Optional.fromNullable(requestError));
+                    Optional.fromNullable(requestError),
+                    Optional.fromNullable(timings));
         }
     }
 }
@@ -0,0 +1,24 @@
+/*
+ * Copyright (c) 2013-2016.  Urban Airship and Contributors
+ */
+
+package com.urbanairship.api.client;
+
+/**
+ * Receives the metrics of every request executed by the {@link UrbanAirshipClient}. Set with
+ * {@link UrbanAirshipClient.Builder#setClientMetrics(ClientMetrics)}.
+ *
+ * Listeners are called on the thread that finishes the request, usually an I/O thread of the HTTP client, so
+ * they must be thread safe and must not block. Exceptions thrown by a listener are logged and ignored.
+ * {@link HistogramClientMetrics} is a ready to use implementation.
+ */
+public interface ClientMetrics {
+
+    /**
+     * Called exactly once for every request once it completes, fails or is cancelled, after all of its
+     * attempts.
+     *
+     * @param metrics The metrics of the finished request.
+     */
+    void onRequestCompleted(RequestMetrics metrics);
+}
@@ -0,0 +1,22 @@
+/*
+ * Copyright (c) 2013-2016.  Urban Airship and Contributors
+ */
+
+package com.urbanairship.api.client;
+
+/**
+ * A request that provides its body already encoded with the charset of its content type. The
+ * {@link UrbanAirshipClient} sends these bytes as is instead of encoding {@link #getRequestBody()}.
+ *
+ * @param <T> The response type.
+ */
+public interface EncodedBodyRequest<T> extends Request<T> {
+
+    /**
+     * Get the encoded request body. Implementations may return the same array on every call, so callers
+     * must not modify it.
+     *
+     * @return The request body bytes, or null if the request has no body.
+     */
+    byte[] getRequestBodyBytes();
+}
@@ -0,0 +1,58 @@
+/*
+ * Copyright (c) 2013-2016.  Urban Airship and Contributors
+ */
+
+package com.urbanairship.api.client;
+
+import com.google.common.collect.ImmutableList;
+
+import java.net.URI;
+
+/**
+ * Groups of API endpoints that share a server side rate limit. Used by {@link RequestGovernor} to throttle
+ * each group of endpoints separately.
+ */
+public enum EndpointFamily {
+
+    PUSH("/api/push/", "/api/schedules/", "/api/templates/push/"),
+    CHANNELS("/api/channels/"),
+    NAMED_USERS("/api/named_users/"),
+    REPORTS("/api/reports/", "/api/push/stats/"),
+    OTHER;
+
+    private final ImmutableList<String> pathPrefixes;
+
+    EndpointFamily(String... pathPrefixes) {
+        this.pathPrefixes = ImmutableList.copyOf(pathPrefixes);
+    }
+
+    public ImmutableList<String> getPathPrefixes() {
+        return pathPrefixes;
+    }
+
+    /**
+     * Find the family of a request URI. When several prefixes match, the longest one wins, so that
+     * {@code /api/push/stats/} is a report rather than a push.
+     *
+     * @param uri The request URI.
+     * @return The endpoint family, {@link #OTHER} if no prefix matches.
+     */
+    public static EndpointFamily of(URI uri) {
+        String path = uri.getPath();
+        if (path == null) {
+            return OTHER;
+        }
+
+        EndpointFamily family = OTHER;
+        int matched = 0;
+        for (EndpointFamily candidate : values()) {
+            for (String prefix : candidate.pathPrefixes) {
+                if (prefix.length() > matched && path.startsWith(prefix)) {
+                    family = candidate;
+                    matched = prefix.length();
+                }
+            }
+        }
+        return family;
+    }
+}
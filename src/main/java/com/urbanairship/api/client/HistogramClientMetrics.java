@@ -0,0 +1,349 @@
+/*
+ * Copyright (c) 2013-2016.  Urban Airship and Contributors
+ */
+
+package com.urbanairship.api.client;
+
+import com.google.common.base.Objects;
+import com.google.common.base.Preconditions;
+import com.google.common.collect.ImmutableMap;
+import com.google.common.util.concurrent.AtomicLongMap;
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.Recorder;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * {@link ClientMetrics} that keeps HDR histograms of the request metrics per endpoint, an endpoint being a
+ * request class and path template.
+ *
+ * Recording is wait free, so the listener adds little overhead to the I/O threads. Snapshots are cumulative
+ * since the listener was created and can be taken at any time, e.g. by a metrics scraper. Times are recorded
+ * in microseconds and sizes in bytes.
+ *
+ * Path templates only replace segments with digits, so requests to named resources such as static lists each
+ * have their own template. To keep memory bounded, once {@code maxEndpoints} endpoints have been seen, requests
+ * to new endpoints are recorded under the {@link #OTHER_PATH_TEMPLATE} endpoint of their request class.
+ */
+public class HistogramClientMetrics implements ClientMetrics {
+
+    /**
+     * The path template of the endpoints that requests are recorded under once the endpoint limit is reached.
+     */
+    public static final String OTHER_PATH_TEMPLATE = "{other}";
+
+    private final int significantDigits;
+    private final int maxEndpoints;
+    private final ConcurrentMap<Endpoint, EndpointRecorder> recorders = new ConcurrentHashMap<>();
+
+    private HistogramClientMetrics(Builder builder) {
+        this.significantDigits = builder.significantDigits;
+        this.maxEndpoints = builder.maxEndpoints;
+    }
+
+    /**
+     * New HistogramClientMetrics builder.
+     *
+     * @return Builder
+     */
+    public static Builder newBuilder() {
+        return new Builder();
+    }
+
+    @Override
+    public void onRequestCompleted(RequestMetrics metrics) {
+        Endpoint endpoint = new Endpoint(metrics.getRequestClass(), metrics.getPathTemplate());
+        EndpointRecorder recorder = recorders.get(endpoint);
+        if (recorder == null && recorders.size() >= maxEndpoints) {
+            endpoint = new Endpoint(metrics.getRequestClass(), OTHER_PATH_TEMPLATE);
+            recorder = recorders.get(endpoint);
+        }
+        if (recorder == null) {
+            EndpointRecorder created = new EndpointRecorder(significantDigits);
+            recorder = recorders.putIfAbsent(endpoint, created);
+            if (recorder == null) {
+                recorder = created;
+            }
+        }
+        recorder.record(metrics);
+    }
+
+    /**
+     * Get a snapshot of the metrics of every endpoint that has seen a request.
+     *
+     * @return An immutable map of snapshots by endpoint.
+     */
+    public ImmutableMap<Endpoint, Snapshot> getSnapshots() {
+        ImmutableMap.Builder<Endpoint, Snapshot> snapshots = ImmutableMap.builder();
+        for (Map.Entry<Endpoint, EndpointRecorder> entry : recorders.entrySet()) {
+            snapshots.put(entry.getKey(), entry.getValue().snapshot());
+        }
+        return snapshots.build();
+    }
+
+    /**
+     * A request class and path template.
+     */
+    public static final class Endpoint {
+
+        private final Class<?> requestClass;
+        private final String pathTemplate;
+
+        public Endpoint(Class<?> requestClass, String pathTemplate) {
+            this.requestClass = requestClass;
+            this.pathTemplate = pathTemplate;
+        }
+
+        /**
+         * Get the request class.
+         *
+         * @return Class
+         */
+        public Class<?> getRequestClass() {
+            return requestClass;
+        }
+
+        /**
+         * Get the path template.
+         *
+         * @return String
+         */
+        public String getPathTemplate() {
+            return pathTemplate;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (o == null || getClass() != o.getClass()) {
+                return false;
+            }
+            Endpoint that = (Endpoint) o;
+            return Objects.equal(requestClass, that.requestClass) && Objects.equal(pathTemplate, that.pathTemplate);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hashCode(requestClass, pathTemplate);
+        }
+
+        @Override
+        public String toString() {
+            return requestClass.getSimpleName() + " " + pathTemplate;
+        }
+    }
+
+    /**
+     * The cumulative metrics of one endpoint. The histograms are copies owned by the snapshot.
+     */
+    public static final class Snapshot {
+
+        private final long count;
+        private final ImmutableMap<Integer, Long> statusCounts;
+        private final Histogram[] histograms;
+
+        private Snapshot(long count, ImmutableMap<Integer, Long> statusCounts, Histogram[] histograms) {
+            this.count = count;
+            this.statusCounts = statusCounts;
+            this.histograms = histograms;
+        }
+
+        /**
+         * Get the number of finished requests.
+         *
+         * @return long
+         */
+        public long getCount() {
+            return count;
+        }
+
+        /**
+         * Get the number of requests by the status code of their last attempt. Requests that never received a
+         * response are not counted.
+         *
+         * @return ImmutableMap of counts by status code.
+         */
+        public ImmutableMap<Integer, Long> getStatusCounts() {
+            return statusCounts;
+        }
+
+        /**
+         * Get the queue times, in microseconds.
+         *
+         * @return Histogram
+         */
+        public Histogram getQueueTime() {
+            return histograms[Metric.QUEUE_TIME.ordinal()];
+        }
+
+        /**
+         * Get the times to first byte of requests that received a response, in microseconds.
+         *
+         * @return Histogram
+         */
+        public Histogram getTimeToFirstByte() {
+            return histograms[Metric.TIME_TO_FIRST_BYTE.ordinal()];
+        }
+
+        /**
+         * Get the total latencies, in microseconds.
+         *
+         * @return Histogram
+         */
+        public Histogram getLatency() {
+            return histograms[Metric.LATENCY.ordinal()];
+        }
+
+        /**
+         * Get the response parse times, in microseconds.
+         *
+         * @return Histogram
+         */
+        public Histogram getParseTime() {
+            return histograms[Metric.PARSE_TIME.ordinal()];
+        }
+
+        /**
+         * Get the request body sizes of requests with a known body size, in bytes.
+         *
+         * @return Histogram
+         */
+        public Histogram getRequestBytes() {
+            return histograms[Metric.REQUEST_BYTES.ordinal()];
+        }
+
+        /**
+         * Get the response body sizes, in bytes.
+         *
+         * @return Histogram
+         */
+        public Histogram getResponseBytes() {
+            return histograms[Metric.RESPONSE_BYTES.ordinal()];
+        }
+
+        /**
+         * Get the retry counts.
+         *
+         * @return Histogram
+         */
+        public Histogram getRetries() {
+            return histograms[Metric.RETRIES.ordinal()];
+        }
+    }
+
+    private enum Metric {
+        QUEUE_TIME,
+        TIME_TO_FIRST_BYTE,
+        LATENCY,
+        PARSE_TIME,
+        REQUEST_BYTES,
+        RESPONSE_BYTES,
+        RETRIES
+    }
+
+    /**
+     * The recorders of one endpoint. Values are recorded into interval recorders without locking and folded
+     * into the cumulative histograms when a snapshot is taken.
+     */
+    private static final class EndpointRecorder {
+
+        private final Recorder[] recorders = new Recorder[Metric.values().length];
+        private final Histogram[] intervals = new Histogram[Metric.values().length];
+        private final Histogram[] cumulative = new Histogram[Metric.values().length];
+        private final AtomicLong count = new AtomicLong();
+        private final AtomicLongMap<Integer> statusCounts = AtomicLongMap.create();
+
+        private EndpointRecorder(int significantDigits) {
+            for (int i = 0; i < recorders.length; i++) {
+                recorders[i] = new Recorder(significantDigits);
+                cumulative[i] = new Histogram(significantDigits);
+            }
+        }
+
+        private void record(RequestMetrics metrics) {
+            record(Metric.QUEUE_TIME, metrics.getQueueTime(TimeUnit.MICROSECONDS));
+            record(Metric.LATENCY, metrics.getLatency(TimeUnit.MICROSECONDS));
+            record(Metric.PARSE_TIME, metrics.getParseTime(TimeUnit.MICROSECONDS));
+            record(Metric.RESPONSE_BYTES, metrics.getResponseBytes());
+            record(Metric.RETRIES, metrics.getRetryCount());
+            if (metrics.getStatusCode().isPresent()) {
+                record(Metric.TIME_TO_FIRST_BYTE, metrics.getTimeToFirstByte(TimeUnit.MICROSECONDS));
+                statusCounts.incrementAndGet(metrics.getStatusCode().get());
+            }
+            if (metrics.getRequestBytes().isPresent()) {
+                record(Metric.REQUEST_BYTES, metrics.getRequestBytes().get());
+            }
+            count.incrementAndGet();
+        }
+
+        private void record(Metric metric, long value) {
+            recorders[metric.ordinal()].recordValue(Math.max(0, value));
+        }
+
+        private synchronized Snapshot snapshot() {
+            Histogram[] copies = new Histogram[cumulative.length];
+            for (int i = 0; i < cumulative.length; i++) {
+                intervals[i] = recorders[i].getIntervalHistogram(intervals[i]);
+                cumulative[i].add(intervals[i]);
+                copies[i] = cumulative[i].copy();
+            }
+            return new Snapshot(count.get(), ImmutableMap.copyOf(statusCounts.asMap()), copies);
+        }
+    }
+
+    public static class Builder {
+
+        private int significantDigits = 2;
+        private int maxEndpoints = 256;
+
+        private Builder() {
+        }
+
+        /**
+         * Set the number of significant decimal digits kept by the histograms -- defaults to 2.
+         *
+         * @param significantDigits int
+         * @return Builder
+         */
+        public Builder setSignificantDigits(int significantDigits) {
+            this.significantDigits = significantDigits;
+            return this;
+        }
+
+        /**
+         * Set the number of endpoints with their own histograms -- defaults to 256. Requests to further endpoints
+         * are recorded under the {@link #OTHER_PATH_TEMPLATE} endpoint of their request class.
+         *
+         * @param maxEndpoints int
+         * @return Builder
+         */
+        public Builder setMaxEndpoints(int maxEndpoints) {
+            this.maxEndpoints = maxEndpoints;
+            return this;
+        }
+
+        /**
+         * Build the HistogramClientMetrics object.
+         *
+         * <pre>
+         * 1. The number of significant digits must be between 0 and 5.
+         * 2. The maximum number of endpoints must be at least 1.
+         * </pre>
+         *
+         * @return HistogramClientMetrics
+         */
+        public HistogramClientMetrics build() {
+            Preconditions.checkArgument(significantDigits >= 0 && significantDigits <= 5,
+                "Significant digits must be between 0 and 5");
+            Preconditions.checkArgument(maxEndpoints > 0, "Max endpoints must be at least 1");
+
+            return new HistogramClientMetrics(this);
+        }
+    }
+}
@@ -0,0 +1,44 @@
+/*
+ * Copyright (c) 2013-2016.  Urban Airship and Contributors
+ */
+
+package com.urbanairship.api.client;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+
+/**
+ * A ResponseParser that consumes the response body as it is received, so the body is never held in memory.
+ *
+ * When the parser returned by {@link Request#getResponseParser()} implements this interface, the
+ * {@link com.urbanairship.api.client.UrbanAirshipClient} passes each body part of a successful response to
+ * {@link #write(ByteBuffer)} as soon as it arrives, then calls {@link #finish()} once the response is complete.
+ * If the response fails part way, {@link #abort(Throwable)} is called instead of {@link #finish()}.
+ *
+ * @param <T> The response type.
+ */
+public interface IncrementalResponseParser<T> extends ResponseParser<T> {
+
+    /**
+     * Consume the next part of the response body.
+     *
+     * @param bodyPart The raw body part bytes.
+     * @throws IOException
+     */
+    void write(ByteBuffer bodyPart) throws IOException;
+
+    /**
+     * Complete the response once every body part has been written.
+     *
+     * @return The parsed response, or null if the response has no body.
+     * @throws IOException
+     */
+    T finish() throws IOException;
+
+    /**
+     * Release any resources held by the parser after a failed response.
+     *
+     * @param cause The failure.
+     */
+    void abort(Throwable cause);
+}
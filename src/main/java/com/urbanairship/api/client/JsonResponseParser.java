@@ -0,0 +1,61 @@
+/*
+ * Copyright (c) 2013-2016.  Urban Airship and Contributors
+ */
+
+package com.urbanairship.api.client;
+
+import com.google.common.base.Preconditions;
+import org.codehaus.jackson.map.ObjectMapper;
+import org.codehaus.jackson.type.JavaType;
+import org.codehaus.jackson.type.TypeReference;
+
+import java.io.IOException;
+import java.io.InputStream;
+
+/**
+ * StreamingResponseParser backed by one of the API object mappers. Response bodies are bound to the
+ * target type directly from the response byte stream.
+ *
+ * @param <T> The response type.
+ */
+public class JsonResponseParser<T> implements StreamingResponseParser<T> {
+
+    private final ObjectMapper mapper;
+    private final JavaType type;
+
+    /**
+     * JsonResponseParser constructor.
+     *
+     * @param mapper The object mapper used to read the response.
+     * @param type The response class.
+     */
+    public JsonResponseParser(ObjectMapper mapper, Class<T> type) {
+        this(mapper, mapper.getTypeFactory().constructType(type));
+    }
+
+    /**
+     * JsonResponseParser constructor for generic response types, such as lists of responses.
+     *
+     * @param mapper The object mapper used to read the response.
+     * @param type The response type reference.
+     */
+    public JsonResponseParser(ObjectMapper mapper, TypeReference<T> type) {
+        this(mapper, mapper.getTypeFactory().constructType(type));
+    }
+
+    private JsonResponseParser(ObjectMapper mapper, JavaType type) {
+        Preconditions.checkNotNull(mapper, "Object mapper cannot be null");
+        this.mapper = mapper;
+        this.type = type;
+    }
+
+    @Override
+    public T parse(String response) throws IOException {
+        return mapper.readValue(response, type);
+    }
+
+    @Override
+    public T parse(InputStream response) throws IOException {
+        return mapper.readValue(response, type);
+    }
+}
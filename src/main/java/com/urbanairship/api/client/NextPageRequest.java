@@ -0,0 +1,75 @@
+/*
+ * Copyright (c) 2013-2016.  Urban Airship and Contributors
+ */
+
+package com.urbanairship.api.client;
+
+import com.google.common.base.Preconditions;
+import org.apache.http.entity.ContentType;
+
+import java.net.URI;
+import java.util.Map;
+
+/**
+ * The NextPageRequest class builds the request for the next page of any listing request. Everything but the
+ * request URI is taken from the request of the first page.
+ *
+ * @param <T> The response type.
+ */
+public class NextPageRequest<T> implements Request<T> {
+
+    private final Request<T> request;
+    private final String path;
+
+    private NextPageRequest(Request<T> request, String path) {
+        this.request = request;
+        this.path = path;
+    }
+
+    /**
+     * Create a request for the next page of a listing.
+     *
+     * @param request The listing request, or a previous next page request.
+     * @param nextPage The next page URI given by the listing response.
+     * @return NextPageRequest
+     */
+    public static <T> NextPageRequest<T> newRequest(Request<T> request, URI nextPage) {
+        Preconditions.checkNotNull(request, "Listing request cannot be null");
+        Preconditions.checkNotNull(nextPage, "Next page URI cannot be null");
+
+        if (request instanceof NextPageRequest) {
+            request = ((NextPageRequest<T>) request).request;
+        }
+        return new NextPageRequest<>(request, RequestUtils.nextPagePath(nextPage));
+    }
+
+    @Override
+    public HttpMethod getHttpMethod() {
+        return request.getHttpMethod();
+    }
+
+    @Override
+    public String getRequestBody() {
+        return request.getRequestBody();
+    }
+
+    @Override
+    public ContentType getContentType() {
+        return request.getContentType();
+    }
+
+    @Override
+    public Map<String, String> getRequestHeaders() {
+        return request.getRequestHeaders();
+    }
+
+    @Override
+    public URI getUri(URI baseUri) {
+        return RequestUtils.resolveURI(baseUri, path);
+    }
+
+    @Override
+    public ResponseParser<T> getResponseParser() {
+        return request.getResponseParser();
+    }
+}
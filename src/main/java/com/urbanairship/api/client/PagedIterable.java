@@ -0,0 +1,311 @@
+/*
+ * Copyright (c) 2013-2016.  Urban Airship and Contributors
+ */
+
+package com.urbanairship.api.client;
+
+import com.google.common.base.Optional;
+import com.google.common.base.Preconditions;
+import com.google.common.collect.ImmutableList;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.net.URI;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.concurrent.Future;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Iterable over every object of a paged listing. Works with any request whose response implements
+ * {@link PagedResponse}; the request for each following page is built with {@link NextPageRequest}.
+ *
+ * Pages are requested asynchronously through the {@link UrbanAirshipClient}. While the caller consumes one
+ * page, up to {@code maxPrefetchedPages} following pages are fetched in the background. Once that many pages
+ * are buffered, fetching pauses until the caller catches up, so at most {@code maxPrefetchedPages + 1} pages
+ * are held in memory at any time.
+ *
+ * Each call to {@link #iterator()} starts a new traversal from the initial request.
+ *
+ * @param <E> The type of the listed objects.
+ */
+public class PagedIterable<E> implements Iterable<E> {
+
+    private final UrbanAirshipClient client;
+    private final Request<? extends PagedResponse<E>> request;
+    private final int maxPrefetchedPages;
+
+    private PagedIterable(UrbanAirshipClient client, Request<? extends PagedResponse<E>> request, int maxPrefetchedPages) {
+        this.client = client;
+        this.request = request;
+        this.maxPrefetchedPages = maxPrefetchedPages;
+    }
+
+    /**
+     * New PagedIterable builder.
+     *
+     * @return Builder
+     */
+    public static <E> Builder<E> newBuilder() {
+        return new Builder<>();
+    }
+
+    /**
+     * Start a new traversal of the listing. The first page is requested immediately.
+     *
+     * @return PagedIterator
+     */
+    @Override
+    public PagedIterator<E> iterator() {
+        return new PagedIterator<>(client, request, maxPrefetchedPages);
+    }
+
+    /**
+     * Iterator over the objects of a paged listing. Failed page requests are rethrown from {@link #hasNext()}
+     * as a RuntimeException. Closing the iterator cancels any page request still in flight.
+     *
+     * @param <E> The type of the listed objects.
+     */
+    public static class PagedIterator<E> implements Iterator<E>, Closeable {
+
+        private final UrbanAirshipClient client;
+        private final Request<? extends PagedResponse<E>> request;
+        private final int maxPrefetchedPages;
+
+        private final ReentrantLock lock = new ReentrantLock();
+        private final Condition pageAvailable = lock.newCondition();
+        private final Deque<List<E>> pages = new ArrayDeque<>();
+
+        private Iterator<E> current = ImmutableList.<E>of().iterator();
+        private Optional<? extends Request<? extends PagedResponse<E>>> pendingRequest;
+        private PageCallback inFlight = null;
+        private Future<Response> inFlightFuture = null;
+        private Throwable failure = null;
+        private boolean closed = false;
+
+        private PagedIterator(UrbanAirshipClient client, Request<? extends PagedResponse<E>> request, int maxPrefetchedPages) {
+            this.client = client;
+            this.request = request;
+            this.maxPrefetchedPages = maxPrefetchedPages;
+            this.pendingRequest = Optional.of(request);
+
+            lock.lock();
+            try {
+                dispatch();
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        @Override
+        public boolean hasNext() {
+            while (!current.hasNext()) {
+                lock.lock();
+                try {
+                    while (pages.isEmpty() && failure == null && (inFlight != null || pendingRequest.isPresent())) {
+                        dispatch();
+                        pageAvailable.awaitUninterruptibly();
+                    }
+
+                    if (failure != null) {
+                        throw new RuntimeException("Failed to retrieve listing page", failure);
+                    }
+                    if (pages.isEmpty()) {
+                        return false;
+                    }
+
+                    current = pages.poll().iterator();
+                    dispatch();
+                } finally {
+                    lock.unlock();
+                }
+            }
+            return true;
+        }
+
+        @Override
+        public E next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            return current.next();
+        }
+
+        @Override
+        public void remove() {
+            throw new UnsupportedOperationException("Listings are read only");
+        }
+
+        /**
+         * Stop the traversal, cancelling any in flight page request and releasing buffered pages.
+         */
+        @Override
+        public void close() {
+            lock.lock();
+            try {
+                closed = true;
+                pendingRequest = Optional.absent();
+                pages.clear();
+                current = ImmutableList.<E>of().iterator();
+                if (inFlightFuture != null) {
+                    inFlightFuture.cancel(true);
+                }
+                inFlight = null;
+                inFlightFuture = null;
+                pageAvailable.signalAll();
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        /**
+         * Sends the pending page request if nothing is in flight and the page buffer has room. Must be called
+         * while holding the lock.
+         */
+        private void dispatch() {
+            if (closed || inFlight != null || !pendingRequest.isPresent() || pages.size() >= maxPrefetchedPages) {
+                return;
+            }
+
+            Request<? extends PagedResponse<E>> pageRequest = pendingRequest.get();
+            pendingRequest = Optional.absent();
+            PageCallback callback = new PageCallback();
+            inFlight = callback;
+            try {
+                Future<Response> future = client.executeAsync(pageRequest, callback);
+                // The response may already have completed on another thread.
+                if (inFlight == callback) {
+                    inFlightFuture = future;
+                }
+            } catch (IOException e) {
+                inFlight = null;
+                failure = e;
+                pageAvailable.signalAll();
+            }
+        }
+
+        private void onPage(PageCallback callback, Optional<? extends PagedResponse<E>> response) {
+            lock.lock();
+            try {
+                if (inFlight != callback) {
+                    return;
+                }
+                inFlight = null;
+                inFlightFuture = null;
+
+                if (response.isPresent()) {
+                    List<E> items = response.get().getPageItems();
+                    if (!items.isEmpty()) {
+                        pages.add(items);
+                    }
+                    if (response.get().getNextPage().isPresent()) {
+                        pendingRequest = Optional.of(NextPageRequest.newRequest(request, URI.create(response.get().getNextPage().get())));
+                    }
+                }
+
+                dispatch();
+                pageAvailable.signalAll();
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        private void onError(PageCallback callback, Throwable throwable) {
+            lock.lock();
+            try {
+                if (inFlight != callback) {
+                    return;
+                }
+                inFlight = null;
+                inFlightFuture = null;
+                failure = throwable;
+                pageAvailable.signalAll();
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        /**
+         * Response callback for one page request. Callbacks of cancelled requests are ignored.
+         */
+        private class PageCallback implements ResponseCallback {
+
+            @Override
+            @SuppressWarnings("unchecked")
+            public void completed(Response response) {
+                onPage(this, (Optional<? extends PagedResponse<E>>) response.getBody());
+            }
+
+            @Override
+            public void error(Throwable throwable) {
+                onError(this, throwable);
+            }
+        }
+    }
+
+    public static class Builder<E> {
+
+        private UrbanAirshipClient client = null;
+        private Request<? extends PagedResponse<E>> request = null;
+        private int maxPrefetchedPages = 1;
+
+        private Builder() {
+        }
+
+        /**
+         * Set the client used to request the listing pages.
+         *
+         * @param client UrbanAirshipClient
+         * @return Builder
+         */
+        public Builder<E> setClient(UrbanAirshipClient client) {
+            this.client = client;
+            return this;
+        }
+
+        /**
+         * Set the request for the first page of the listing.
+         *
+         * @param request A listing request.
+         * @return Builder
+         */
+        public Builder<E> setRequest(Request<? extends PagedResponse<E>> request) {
+            this.request = request;
+            return this;
+        }
+
+        /**
+         * Set the maximum number of pages fetched ahead of the page being consumed -- defaults to 1.
+         *
+         * @param maxPrefetchedPages int
+         * @return Builder
+         */
+        public Builder<E> setMaxPrefetchedPages(int maxPrefetchedPages) {
+            this.maxPrefetchedPages = maxPrefetchedPages;
+            return this;
+        }
+
+        /**
+         * Build the PagedIterable object.
+         *
+         * <pre>
+         * 1. The client must be set.
+         * 2. The first page request must be set.
+         * 3. The maximum number of prefetched pages must be at least 1.
+         * </pre>
+         *
+         * @return PagedIterable
+         */
+        public PagedIterable<E> build() {
+            Preconditions.checkNotNull(client, "Client must be set");
+            Preconditions.checkNotNull(request, "Listing request must be set");
+            Preconditions.checkArgument(maxPrefetchedPages > 0, "Max prefetched pages must be at least 1");
+
+            return new PagedIterable<>(client, request, maxPrefetchedPages);
+        }
+    }
+}
@@ -0,0 +1,31 @@
+/*
+ * Copyright (c) 2013-2016.  Urban Airship and Contributors
+ */
+
+package com.urbanairship.api.client;
+
+import com.google.common.base.Optional;
+
+import java.util.List;
+
+/**
+ * Common interface of listing responses that are split into pages linked by a next page URI.
+ *
+ * @param <E> The type of the listed objects.
+ */
+public interface PagedResponse<E> {
+
+    /**
+     * Get the next page URI, if there is a next page.
+     *
+     * @return An Optional String
+     */
+    Optional<String> getNextPage();
+
+    /**
+     * Get the objects listed in this page.
+     *
+     * @return A List of the listed objects, empty if the page has none.
+     */
+    List<E> getPageItems();
+}
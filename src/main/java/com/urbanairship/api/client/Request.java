@@ -35,6 +35,11 @@ public interface Request<T> {
 
     ContentType getContentType();
 
+    /**
+     * Get the request headers. Implementations may return a shared immutable map, so copy it before adding headers.
+     *
+     * @return Map of header names to values
+     */
     Map<String, String> getRequestHeaders();
 
     URI getUri(URI baseUri) throws URISyntaxException;
@@ -0,0 +1,273 @@
+/*
+ * Copyright (c) 2013-2016.  Urban Airship and Contributors
+ */
+
+package com.urbanairship.api.client;
+
+import com.google.common.base.Optional;
+import com.google.common.util.concurrent.AbstractFuture;
+import com.ning.http.client.AsyncHttpClient;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.net.URI;
+import java.util.Set;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * The future of a request executed by the {@link UrbanAirshipClient}, across all of its attempts.
+ *
+ * Each attempt is sent through the HTTP client. When an attempt is to be retried, the next attempt is scheduled
+ * on the client's retry scheduler, so no I/O thread ever waits for a backoff delay. Cancelling the future
+ * cancels the current attempt or the pending retry.
+ *
+ * The client callback is notified exactly once, whether the request completes, fails in the HTTP client, fails
+ * to be sent or retried, or is cancelled.
+ *
+ * When the client has an {@link AdmissionController}, the first attempt is only sent once the controller admits
+ * the request, and the controller is notified once the request is finished. When the client has
+ * {@link ClientMetrics} or a {@link SlowRequestListener}, they are notified once the request is finished.
+ */
+class RequestExecution<T> extends AbstractFuture<Response> implements Runnable, Admission {
+
+    private static final Logger log = LoggerFactory.getLogger(RequestExecution.class);
+
+    private final AsyncHttpClient client;
+    private final Request<T> uaRequest;
+    private final URI uri;
+    private final EndpointFamily family;
+    private final com.ning.http.client.Request request;
+    private final ResponseAsyncHandler<T> handler;
+    private final ScheduledExecutorService scheduler;
+    private final Set<RequestExecution<?>> outstanding;
+    private final Optional<AdmissionController> admissionController;
+    private final RequestListeners listeners;
+    private final Optional<Long> requestBytes;
+    private final AtomicBoolean finished = new AtomicBoolean(false);
+    private final long createdNanos = System.nanoTime();
+
+    private volatile Future<?> attempt = null;
+    private volatile long firstAttemptNanos = 0;
+    private volatile long attemptNanos = 0;
+    private volatile long timeToFirstByteNanos = 0;
+    private volatile long finishedNanos = 0;
+    private volatile int statusCode = -1;
+
+    RequestExecution(AsyncHttpClient client, Request<T> uaRequest, URI uri, com.ning.http.client.Request request,
+                     ResponseAsyncHandler<T> handler, ScheduledExecutorService scheduler,
+                     Set<RequestExecution<?>> outstanding, Optional<AdmissionController> admissionController,
+                     RequestListeners listeners, Optional<Long> requestBytes) {
+        this.client = client;
+        this.uaRequest = uaRequest;
+        this.uri = uri;
+        this.family = EndpointFamily.of(uri);
+        this.request = request;
+        this.handler = handler;
+        this.scheduler = scheduler;
+        this.outstanding = outstanding;
+        this.admissionController = admissionController;
+        this.listeners = listeners;
+        this.requestBytes = requestBytes;
+    }
+
+    /**
+     * Send the first attempt, or submit the request for admission.
+     */
+    void start() {
+        outstanding.add(this);
+        handler.setExecution(this);
+        if (admissionController.isPresent()) {
+            admissionController.get().submit(this);
+        } else {
+            run();
+        }
+    }
+
+    @Override
+    public Request<?> getRequest() {
+        return uaRequest;
+    }
+
+    @Override
+    public URI getUri() {
+        return uri;
+    }
+
+    @Override
+    public EndpointFamily getFamily() {
+        return family;
+    }
+
+    @Override
+    public Optional<Integer> getStatusCode() {
+        int status = statusCode;
+        return status < 0 ? Optional.<Integer>absent() : Optional.of(status);
+    }
+
+    @Override
+    public long getLatency(TimeUnit unit) {
+        long started = attemptNanos;
+        long finished = finishedNanos;
+        return started == 0 || finished == 0 ? 0 : unit.convert(finished - started, TimeUnit.NANOSECONDS);
+    }
+
+    @Override
+    public int getRetryCount() {
+        return handler.getRetryCount();
+    }
+
+    @Override
+    public void proceed() {
+        run();
+    }
+
+    /**
+     * Send the next attempt, unless the request has been cancelled in the meantime.
+     */
+    @Override
+    public void run() {
+        if (isDone()) {
+            return;
+        }
+
+        try {
+            long now = System.nanoTime();
+            if (firstAttemptNanos == 0) {
+                firstAttemptNanos = now;
+            }
+            attemptNanos = now;
+            handler.onAttemptStarted(now);
+            attempt = client.executeRequest(request, handler);
+        } catch (RuntimeException e) {
+            fail(e);
+            return;
+        }
+
+        // The future may have been cancelled while the attempt was being sent.
+        if (isCancelled()) {
+            attempt.cancel(true);
+        }
+    }
+
+    /**
+     * Schedule the next attempt.
+     *
+     * @param delayMs The delay before the next attempt, in milliseconds.
+     */
+    void retry(long delayMs) {
+        if (isDone()) {
+            return;
+        }
+
+        try {
+            attempt = scheduler.schedule(this, delayMs, TimeUnit.MILLISECONDS);
+        } catch (RejectedExecutionException e) {
+            fail(new CancellationException("Retry scheduler shut down before the request could be retried"));
+        }
+    }
+
+    /**
+     * Record the status code of the current attempt.
+     *
+     * @param statusCode The HTTP status code.
+     */
+    void onStatus(int statusCode) {
+        this.timeToFirstByteNanos = System.nanoTime() - attemptNanos;
+        this.statusCode = statusCode;
+    }
+
+    void complete(Response response) {
+        finish();
+        handler.notifyCompleted(response);
+        set(response);
+    }
+
+    void fail(Throwable throwable) {
+        finish();
+        handler.notifyError(throwable);
+        setException(throwable);
+    }
+
+    @Override
+    public boolean cancel(boolean mayInterruptIfRunning) {
+        if (!super.cancel(mayInterruptIfRunning)) {
+            return false;
+        }
+
+        Future<?> current = attempt;
+        if (current != null) {
+            current.cancel(mayInterruptIfRunning);
+        }
+        finish();
+        handler.notifyError(new CancellationException("Request cancelled"));
+        return true;
+    }
+
+    private void finish() {
+        if (!finished.compareAndSet(false, true)) {
+            return;
+        }
+
+        finishedNanos = System.nanoTime();
+        outstanding.remove(this);
+        if (admissionController.isPresent()) {
+            admissionController.get().release(this);
+        }
+        if (listeners.getMetrics().isPresent()) {
+            report(listeners.getMetrics().get());
+        }
+        if (listeners.getSlowRequestListener().isPresent()
+            && finishedNanos - createdNanos >= listeners.getSlowRequestThresholdNanos()) {
+            try {
+                listeners.getSlowRequestListener().get().onSlowRequest(uaRequest, uri, handler.getTimings(getQueueNanos()));
+            } catch (RuntimeException e) {
+                log.warn("Slow request listener failed", e);
+            }
+        }
+    }
+
+    /**
+     * Get the time from executing the request until its first attempt was sent, or until it finished if it was
+     * never sent.
+     *
+     * @return long
+     */
+    long getQueueNanos() {
+        long started = firstAttemptNanos;
+        if (started != 0) {
+            return started - createdNanos;
+        }
+        long finished = finishedNanos;
+        return finished == 0 ? System.nanoTime() - createdNanos : finished - createdNanos;
+    }
+
+    private void report(ClientMetrics listener) {
+        RequestMetrics.Builder builder = RequestMetrics.newBuilder()
+            .setRequestClass(uaRequest.getClass())
+            .setPathTemplate(RequestUtils.pathTemplate(uri))
+            .setRetryCount(handler.getRetryCount())
+            .setQueueTime(getQueueNanos(), TimeUnit.NANOSECONDS)
+            .setLatency(finishedNanos - createdNanos, TimeUnit.NANOSECONDS)
+            .setResponseBytes(handler.getResponseBytes())
+            .setParseTime(handler.getParseNanos(), TimeUnit.NANOSECONDS);
+
+        int status = statusCode;
+        if (status >= 0) {
+            builder.setStatusCode(status).setTimeToFirstByte(timeToFirstByteNanos, TimeUnit.NANOSECONDS);
+        }
+        if (requestBytes.isPresent()) {
+            builder.setRequestBytes(requestBytes.get());
+        }
+
+        try {
+            listener.onRequestCompleted(builder.build());
+        } catch (RuntimeException e) {
+            log.warn("Client metrics listener failed", e);
+        }
+    }
+}
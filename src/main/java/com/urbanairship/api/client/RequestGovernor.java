@@ -0,0 +1,322 @@
+/*
+ * Copyright (c) 2013-2016.  Urban Airship and Contributors
+ */
+
+package com.urbanairship.api.client;
+
+import com.google.common.base.Preconditions;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+
+import java.io.Closeable;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Admission controller that limits the number of requests in flight and the rate of requests per
+ * {@link EndpointFamily}. Each family with a rate limit has its own token bucket.
+ *
+ * Requests that cannot be sent yet are queued per family and never block the calling thread. Whenever a
+ * request finishes or a token becomes available, the oldest queued request that may be sent is admitted.
+ * A request holds its in-flight slot until it completes, including any retries.
+ */
+public class RequestGovernor implements AdmissionController, Closeable {
+
+    private final int maxInFlight;
+    private final Map<EndpointFamily, TokenBucket> buckets;
+    private final Map<EndpointFamily, ArrayDeque<Admission>> queues = new EnumMap<>(EndpointFamily.class);
+    private final Map<Admission, Long> enqueuedNanos = new IdentityHashMap<>();
+    private final Set<Admission> admitted = Collections.newSetFromMap(new IdentityHashMap<Admission, Boolean>());
+    private final ScheduledExecutorService scheduler;
+    private final boolean ownsScheduler;
+
+    private final Runnable drainTask = new Runnable() {
+        @Override
+        public void run() {
+            synchronized (RequestGovernor.this) {
+                wakeup = null;
+            }
+            drain();
+        }
+    };
+
+    private ScheduledFuture<?> wakeup = null;
+    private long wakeupNanos = 0;
+    private long admittedCount = 0;
+    private long totalWaitNanos = 0;
+    private long maxWaitNanos = 0;
+
+    private RequestGovernor(Builder builder) {
+        this.maxInFlight = builder.maxInFlight;
+
+        long now = System.nanoTime();
+        this.buckets = new EnumMap<>(EndpointFamily.class);
+        for (Map.Entry<EndpointFamily, Double> entry : builder.permitsPerSecond.entrySet()) {
+            buckets.put(entry.getKey(), new TokenBucket(entry.getValue(), builder.bursts.get(entry.getKey()), now));
+        }
+        for (EndpointFamily family : EndpointFamily.values()) {
+            queues.put(family, new ArrayDeque<Admission>());
+        }
+
+        this.ownsScheduler = builder.scheduler == null;
+        this.scheduler = ownsScheduler
+            ? Executors.newSingleThreadScheduledExecutor(new ThreadFactoryBuilder()
+                .setNameFormat("RequestGovernor-%d")
+                .setDaemon(true)
+                .build())
+            : builder.scheduler;
+    }
+
+    /**
+     * New RequestGovernor builder.
+     *
+     * @return Builder
+     */
+    public static Builder newBuilder() {
+        return new Builder();
+    }
+
+    @Override
+    public void submit(Admission admission) {
+        synchronized (this) {
+            queues.get(admission.getFamily()).add(admission);
+            enqueuedNanos.put(admission, System.nanoTime());
+        }
+        drain();
+    }
+
+    @Override
+    public void release(Admission admission) {
+        synchronized (this) {
+            if (!admitted.remove(admission)) {
+                queues.get(admission.getFamily()).remove(admission);
+                enqueuedNanos.remove(admission);
+                return;
+            }
+        }
+        drain();
+    }
+
+    /**
+     * Get the number of requests waiting to be admitted.
+     *
+     * @return int
+     */
+    public synchronized int getQueueDepth() {
+        return enqueuedNanos.size();
+    }
+
+    /**
+     * Get the number of requests of one endpoint family waiting to be admitted.
+     *
+     * @param family The endpoint family.
+     * @return int
+     */
+    public synchronized int getQueueDepth(EndpointFamily family) {
+        return queues.get(family).size();
+    }
+
+    /**
+     * Get the number of admitted requests that have not finished yet.
+     *
+     * @return int
+     */
+    public synchronized int getInFlight() {
+        return admitted.size();
+    }
+
+    /**
+     * Get the number of requests admitted so far.
+     *
+     * @return long
+     */
+    public synchronized long getAdmittedCount() {
+        return admittedCount;
+    }
+
+    /**
+     * Get the total time admitted requests spent queued.
+     *
+     * @param unit The time unit of the result.
+     * @return long
+     */
+    public synchronized long getTotalWaitTime(TimeUnit unit) {
+        return unit.convert(totalWaitNanos, TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * Get the longest time an admitted request spent queued.
+     *
+     * @param unit The time unit of the result.
+     * @return long
+     */
+    public synchronized long getMaxWaitTime(TimeUnit unit) {
+        return unit.convert(maxWaitNanos, TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * Shut down the governor's scheduler if it owns one. Queued requests are not admitted afterwards unless a
+     * running request finishes.
+     */
+    @Override
+    public void close() {
+        if (ownsScheduler) {
+            scheduler.shutdownNow();
+        }
+    }
+
+    /**
+     * Admit queued requests, oldest first, while in-flight slots and tokens are available. Requests are sent
+     * outside of the lock.
+     */
+    private void drain() {
+        List<Admission> ready = new ArrayList<>();
+
+        synchronized (this) {
+            long now = System.nanoTime();
+            long nextTokenNanos = -1;
+
+            while (admitted.size() < maxInFlight) {
+                Admission oldest = null;
+                nextTokenNanos = -1;
+
+                for (ArrayDeque<Admission> queue : queues.values()) {
+                    Admission head = queue.peek();
+                    if (head == null) {
+                        continue;
+                    }
+
+                    TokenBucket bucket = buckets.get(head.getFamily());
+                    long wait = bucket == null ? 0 : bucket.nanosUntilAvailable(now);
+                    if (wait > 0) {
+                        nextTokenNanos = nextTokenNanos < 0 ? wait : Math.min(nextTokenNanos, wait);
+                    } else if (oldest == null || enqueuedNanos.get(head) - enqueuedNanos.get(oldest) < 0) {
+                        oldest = head;
+                    }
+                }
+
+                if (oldest == null) {
+                    break;
+                }
+
+                TokenBucket bucket = buckets.get(oldest.getFamily());
+                if (bucket != null) {
+                    bucket.tryAcquire(now);
+                }
+                queues.get(oldest.getFamily()).poll();
+                long waited = now - enqueuedNanos.remove(oldest);
+                admitted.add(oldest);
+                admittedCount++;
+                totalWaitNanos += waited;
+                maxWaitNanos = Math.max(maxWaitNanos, waited);
+                ready.add(oldest);
+            }
+
+            if (nextTokenNanos > 0 && admitted.size() < maxInFlight) {
+                scheduleWakeup(now, nextTokenNanos);
+            }
+        }
+
+        for (Admission admission : ready) {
+            admission.proceed();
+        }
+    }
+
+    /**
+     * Schedule a drain once the next token is available, unless an earlier one is already scheduled. Must be
+     * called while holding the lock.
+     */
+    private void scheduleWakeup(long now, long delayNanos) {
+        if (wakeup != null && !wakeup.isDone() && wakeupNanos - (now + delayNanos) <= 0) {
+            return;
+        }
+        if (wakeup != null) {
+            wakeup.cancel(false);
+        }
+
+        try {
+            wakeup = scheduler.schedule(drainTask, delayNanos, TimeUnit.NANOSECONDS);
+            wakeupNanos = now + delayNanos;
+        } catch (RejectedExecutionException e) {
+            wakeup = null;
+        }
+    }
+
+    public static class Builder {
+
+        private int maxInFlight = Integer.MAX_VALUE;
+        private final Map<EndpointFamily, Double> permitsPerSecond = new EnumMap<>(EndpointFamily.class);
+        private final Map<EndpointFamily, Integer> bursts = new EnumMap<>(EndpointFamily.class);
+        private ScheduledExecutorService scheduler = null;
+
+        private Builder() {
+        }
+
+        /**
+         * Set the maximum number of requests in flight at once -- defaults to no limit.
+         *
+         * @param maxInFlight int
+         * @return Builder
+         */
+        public Builder setMaxInFlight(int maxInFlight) {
+            this.maxInFlight = maxInFlight;
+            return this;
+        }
+
+        /**
+         * Set the rate limit of an endpoint family -- defaults to no limit.
+         *
+         * @param family The endpoint family.
+         * @param permitsPerSecond The sustained number of requests per second.
+         * @param burst The number of requests that may be sent at once after a quiet period.
+         * @return Builder
+         */
+        public Builder setRateLimit(EndpointFamily family, double permitsPerSecond, int burst) {
+            this.permitsPerSecond.put(family, permitsPerSecond);
+            this.bursts.put(family, burst);
+            return this;
+        }
+
+        /**
+         * Set the scheduler used to admit requests once tokens are available -- defaults to a single thread
+         * scheduler owned by the governor. A scheduler set here is not shut down when the governor is closed.
+         *
+         * @param scheduler The scheduler.
+         * @return Builder
+         */
+        public Builder setScheduler(ScheduledExecutorService scheduler) {
+            this.scheduler = scheduler;
+            return this;
+        }
+
+        /**
+         * Build the RequestGovernor object.
+         *
+         * <pre>
+         * 1. The maximum number of requests in flight must be at least 1.
+         * 2. Rate limits must be positive, with a burst of at least 1.
+         * </pre>
+         *
+         * @return RequestGovernor
+         */
+        public RequestGovernor build() {
+            Preconditions.checkArgument(maxInFlight > 0, "Max in flight requests must be at least 1");
+            for (EndpointFamily family : permitsPerSecond.keySet()) {
+                Preconditions.checkArgument(permitsPerSecond.get(family) > 0, "Rate limit must be positive");
+                Preconditions.checkArgument(bursts.get(family) > 0, "Rate limit burst must be at least 1");
+            }
+
+            return new RequestGovernor(this);
+        }
+    }
+}
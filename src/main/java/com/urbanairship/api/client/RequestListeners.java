@@ -0,0 +1,36 @@
+/*
+ * Copyright (c) 2013-2016.  Urban Airship and Contributors
+ */
+
+package com.urbanairship.api.client;
+
+import com.google.common.base.Optional;
+
+/**
+ * The listeners the {@link UrbanAirshipClient} notifies when a request finishes.
+ */
+final class RequestListeners {
+
+    private final Optional<ClientMetrics> metrics;
+    private final Optional<SlowRequestListener> slowRequestListener;
+    private final long slowRequestThresholdNanos;
+
+    RequestListeners(Optional<ClientMetrics> metrics, Optional<SlowRequestListener> slowRequestListener,
+                     long slowRequestThresholdNanos) {
+        this.metrics = metrics;
+        this.slowRequestListener = slowRequestListener;
+        this.slowRequestThresholdNanos = slowRequestThresholdNanos;
+    }
+
+    Optional<ClientMetrics> getMetrics() {
+        return metrics;
+    }
+
+    Optional<SlowRequestListener> getSlowRequestListener() {
+        return slowRequestListener;
+    }
+
+    long getSlowRequestThresholdNanos() {
+        return slowRequestThresholdNanos;
+    }
+}
@@ -0,0 +1,340 @@
+/*
+ * Copyright (c) 2013-2016.  Urban Airship and Contributors
+ */
+
+package com.urbanairship.api.client;
+
+import com.google.common.base.Objects;
+import com.google.common.base.Optional;
+import com.google.common.base.Preconditions;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The metrics of one request executed by the {@link UrbanAirshipClient}, reported to {@link ClientMetrics}.
+ *
+ * Requests are identified by their request class and path template; the path template is the request path with
+ * every segment that contains a digit, such as a channel ID, replaced by {@code {id}}. Time to first byte,
+ * response bytes and parse time describe the last attempt.
+ */
+public final class RequestMetrics {
+
+    private final Class<?> requestClass;
+    private final String pathTemplate;
+    private final Optional<Integer> statusCode;
+    private final int retryCount;
+    private final long queueNanos;
+    private final long timeToFirstByteNanos;
+    private final long latencyNanos;
+    private final long parseNanos;
+    private final Optional<Long> requestBytes;
+    private final long responseBytes;
+
+    private RequestMetrics(Builder builder) {
+        this.requestClass = builder.requestClass;
+        this.pathTemplate = builder.pathTemplate;
+        this.statusCode = Optional.fromNullable(builder.statusCode);
+        this.retryCount = builder.retryCount;
+        this.queueNanos = builder.queueNanos;
+        this.timeToFirstByteNanos = builder.timeToFirstByteNanos;
+        this.latencyNanos = builder.latencyNanos;
+        this.parseNanos = builder.parseNanos;
+        this.requestBytes = Optional.fromNullable(builder.requestBytes);
+        this.responseBytes = builder.responseBytes;
+    }
+
+    /**
+     * New RequestMetrics builder.
+     *
+     * @return Builder
+     */
+    public static Builder newBuilder() {
+        return new Builder();
+    }
+
+    /**
+     * Get the class of the executed request, e.g. PushRequest.
+     *
+     * @return Class
+     */
+    public Class<?> getRequestClass() {
+        return requestClass;
+    }
+
+    /**
+     * Get the request path with its IDs replaced by {@code {id}}, e.g. {@code /api/channels/{id}}.
+     *
+     * @return String
+     */
+    public String getPathTemplate() {
+        return pathTemplate;
+    }
+
+    /**
+     * Get the HTTP status code of the last attempt.
+     *
+     * @return The status code, absent if no response was received.
+     */
+    public Optional<Integer> getStatusCode() {
+        return statusCode;
+    }
+
+    /**
+     * Get the number of times the request was retried.
+     *
+     * @return int
+     */
+    public int getRetryCount() {
+        return retryCount;
+    }
+
+    /**
+     * Get the time the request waited for admission before its first attempt was sent.
+     *
+     * @param unit The time unit of the result.
+     * @return long
+     */
+    public long getQueueTime(TimeUnit unit) {
+        return unit.convert(queueNanos, TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * Get the time from sending the last attempt until its response status was received.
+     *
+     * @param unit The time unit of the result.
+     * @return long, 0 if no response was received.
+     */
+    public long getTimeToFirstByte(TimeUnit unit) {
+        return unit.convert(timeToFirstByteNanos, TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * Get the total time from executing the request until it finished, including queueing, retries, backoff
+     * delays and response parsing.
+     *
+     * @param unit The time unit of the result.
+     * @return long
+     */
+    public long getLatency(TimeUnit unit) {
+        return unit.convert(latencyNanos, TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * Get the time spent parsing the response body.
+     *
+     * @param unit The time unit of the result.
+     * @return long, 0 if no body was parsed.
+     */
+    public long getParseTime(TimeUnit unit) {
+        return unit.convert(parseNanos, TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * Get the size of the request body.
+     *
+     * @return The number of bytes, absent for streamed bodies whose size is not known up front.
+     */
+    public Optional<Long> getRequestBytes() {
+        return requestBytes;
+    }
+
+    /**
+     * Get the size of the response body received for the last attempt.
+     *
+     * @return long
+     */
+    public long getResponseBytes() {
+        return responseBytes;
+    }
+
+    @Override
+    public String toString() {
+        return "RequestMetrics{" +
+            "requestClass=" + requestClass.getSimpleName() +
+            ", pathTemplate='" + pathTemplate + '\'' +
+            ", statusCode=" + statusCode +
+            ", retryCount=" + retryCount +
+            ", queueNanos=" + queueNanos +
+            ", timeToFirstByteNanos=" + timeToFirstByteNanos +
+            ", latencyNanos=" + latencyNanos +
+            ", parseNanos=" + parseNanos +
+            ", requestBytes=" + requestBytes +
+            ", responseBytes=" + responseBytes +
+            '}';
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (o == null || getClass() != o.getClass()) {
+            return false;
+        }
+        RequestMetrics that = (RequestMetrics) o;
+        return retryCount == that.retryCount &&
+            queueNanos == that.queueNanos &&
+            timeToFirstByteNanos == that.timeToFirstByteNanos &&
+            latencyNanos == that.latencyNanos &&
+            parseNanos == that.parseNanos &&
+            responseBytes == that.responseBytes &&
+            Objects.equal(requestClass, that.requestClass) &&
+            Objects.equal(pathTemplate, that.pathTemplate) &&
+            Objects.equal(statusCode, that.statusCode) &&
+            Objects.equal(requestBytes, that.requestBytes);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hashCode(requestClass, pathTemplate, statusCode, retryCount, queueNanos, timeToFirstByteNanos,
+            latencyNanos, parseNanos, requestBytes, responseBytes);
+    }
+
+    public static class Builder {
+
+        private Class<?> requestClass = null;
+        private String pathTemplate = null;
+        private Integer statusCode = null;
+        private int retryCount = 0;
+        private long queueNanos = 0;
+        private long timeToFirstByteNanos = 0;
+        private long latencyNanos = 0;
+        private long parseNanos = 0;
+        private Long requestBytes = null;
+        private long responseBytes = 0;
+
+        private Builder() {
+        }
+
+        /**
+         * Set the request class.
+         *
+         * @param requestClass Class
+         * @return Builder
+         */
+        public Builder setRequestClass(Class<?> requestClass) {
+            this.requestClass = requestClass;
+            return this;
+        }
+
+        /**
+         * Set the path template.
+         *
+         * @param pathTemplate String
+         * @return Builder
+         */
+        public Builder setPathTemplate(String pathTemplate) {
+            this.pathTemplate = pathTemplate;
+            return this;
+        }
+
+        /**
+         * Set the status code of the last attempt.
+         *
+         * @param statusCode int
+         * @return Builder
+         */
+        public Builder setStatusCode(int statusCode) {
+            this.statusCode = statusCode;
+            return this;
+        }
+
+        /**
+         * Set the retry count.
+         *
+         * @param retryCount int
+         * @return Builder
+         */
+        public Builder setRetryCount(int retryCount) {
+            this.retryCount = retryCount;
+            return this;
+        }
+
+        /**
+         * Set the queue time.
+         *
+         * @param duration long
+         * @param unit TimeUnit
+         * @return Builder
+         */
+        public Builder setQueueTime(long duration, TimeUnit unit) {
+            this.queueNanos = unit.toNanos(duration);
+            return this;
+        }
+
+        /**
+         * Set the time to first byte.
+         *
+         * @param duration long
+         * @param unit TimeUnit
+         * @return Builder
+         */
+        public Builder setTimeToFirstByte(long duration, TimeUnit unit) {
+            this.timeToFirstByteNanos = unit.toNanos(duration);
+            return this;
+        }
+
+        /**
+         * Set the total latency.
+         *
+         * @param duration long
+         * @param unit TimeUnit
+         * @return Builder
+         */
+        public Builder setLatency(long duration, TimeUnit unit) {
+            this.latencyNanos = unit.toNanos(duration);
+            return this;
+        }
+
+        /**
+         * Set the parse time.
+         *
+         * @param duration long
+         * @param unit TimeUnit
+         * @return Builder
+         */
+        public Builder setParseTime(long duration, TimeUnit unit) {
+            this.parseNanos = unit.toNanos(duration);
+            return this;
+        }
+
+        /**
+         * Set the request body size.
+         *
+         * @param requestBytes long
+         * @return Builder
+         */
+        public Builder setRequestBytes(long requestBytes) {
+            this.requestBytes = requestBytes;
+            return this;
+        }
+
+        /**
+         * Set the response body size.
+         *
+         * @param responseBytes long
+         * @return Builder
+         */
+        public Builder setResponseBytes(long responseBytes) {
+            this.responseBytes = responseBytes;
+            return this;
+        }
+
+        /**
+         * Build the RequestMetrics object.
+         *
+         * <pre>
+         * 1. The request class must be set.
+         * 2. The path template must be set.
+         * </pre>
+         *
+         * @return RequestMetrics
+         */
+        public RequestMetrics build() {
+            Preconditions.checkNotNull(requestClass, "Request class must be set");
+            Preconditions.checkNotNull(pathTemplate, "Path template must be set");
+
+            return new RequestMetrics(this);
+        }
+    }
+}
@@ -6,13 +6,18 @@ package com.urbanairship.api.client;
 
 import com.google.common.base.Optional;
 import com.google.common.base.Predicate;
+import com.google.common.primitives.Longs;
 import com.ning.http.client.filter.FilterContext;
 import com.ning.http.client.filter.FilterException;
 import com.ning.http.client.filter.ResponseFilter;
-import org.apache.commons.lang.math.RandomUtils;
+import org.joda.time.format.DateTimeFormat;
+import org.joda.time.format.DateTimeFormatter;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.util.Locale;
+import java.util.concurrent.ThreadLocalRandom;
+
 /**
  * ResponseFilter in charge of async request retries on server errors. The filter is applied before the response reaches the
  * ResponseAsyncHandler, but calls upon the handler of a given request to track the retry count.
@@ -21,13 +26,18 @@ import org.slf4j.LoggerFactory;
  * If the client user decides to do so, a retry predicate may be created and passed in by the {@link com.urbanairship.api.client.UrbanAirshipClient} builder.
  * The default predicate logic allows for retries on all non-POST 5xxs. The maximum non-post request retry limit is also
  * configured in the {@link com.urbanairship.api.client.UrbanAirshipClient} builder and defaults to 10.
- * If the count is below the max retry limit and the predicate allows for a retry, the request will be replayed with an
- * exponential backoff. If the limit is reached and the predicate allows for a retry, a ServerException is thrown.
+ * If the count is below the max retry limit and the predicate allows for a retry, the request will be retried after an
+ * exponential backoff with full jitter, or after the delay given by the response's Retry-After header, capped by the max
+ * retry delay. The filter never waits itself: the retry is scheduled by the client once the response is complete.
+ * If the limit is reached and the predicate allows for a retry, a ServerException is thrown.
  */
 public class RequestRetryFilter implements ResponseFilter {
 
     private static final Logger log = LoggerFactory.getLogger(RequestRetryFilter.class);
-    private static final int BASE_RETRY_TIME_MS = 5;
+    private static final String RETRY_AFTER_KEY = "Retry-After";
+    private static final DateTimeFormatter HTTP_DATE_FORMAT = DateTimeFormat.forPattern("EEE, dd MMM yyyy HH:mm:ss 'GMT'")
+        .withZoneUTC()
+        .withLocale(Locale.US);
     private static final Predicate<FilterContext> DEFAULT_PREDICATE = new Predicate<FilterContext>() {
         @Override
         public boolean apply(FilterContext input) {
@@ -35,12 +45,23 @@ public class RequestRetryFilter implements ResponseFilter {
         }
     };
 
+    public static final long DEFAULT_BASE_RETRY_DELAY_MS = 5;
+    public static final long DEFAULT_MAX_RETRY_DELAY_MS = 30000;
+
     private final int maxRetries;
     private final Predicate<FilterContext> retryPredicate;
+    private final long baseRetryDelayMs;
+    private final long maxRetryDelayMs;
 
     public RequestRetryFilter(int maxRetries, Optional<Predicate<FilterContext>> retryPredicate) {
+        this(maxRetries, retryPredicate, DEFAULT_BASE_RETRY_DELAY_MS, DEFAULT_MAX_RETRY_DELAY_MS);
+    }
+
+    public RequestRetryFilter(int maxRetries, Optional<Predicate<FilterContext>> retryPredicate, long baseRetryDelayMs, long maxRetryDelayMs) {
         this.maxRetries = maxRetries;
         this.retryPredicate = retryPredicate.isPresent() ? retryPredicate.get() : DEFAULT_PREDICATE;
+        this.baseRetryDelayMs = baseRetryDelayMs;
+        this.maxRetryDelayMs = maxRetryDelayMs;
     }
 
     @Override
@@ -49,18 +70,11 @@ public class RequestRetryFilter implements ResponseFilter {
         if (ctx.getAsyncHandler() instanceof ResponseAsyncHandler) {
             ResponseAsyncHandler asyncHandler = (ResponseAsyncHandler) ctx.getAsyncHandler();
             if (asyncHandler.getRetryCount() < maxRetries && retryPredicate.apply(ctx)) {
-                try {
-                    int sleepTime = BASE_RETRY_TIME_MS * Math.max(1, RandomUtils.nextInt(1 << (asyncHandler.getRetryCount() + 1)));
-                    log.info(String.format("Request failed with status code %s - waiting for %s ms before retrying request", statusCode, sleepTime));
-                    Thread.sleep(sleepTime);
-                } catch (InterruptedException e) {
-                    Thread.currentThread().interrupt();
+                long delayMs = getRetryDelay(ctx, asyncHandler.getRetryCount());
+                if (asyncHandler.retryAfter(delayMs)) {
+                    log.info("Request failed with status code {} - retrying request in {} ms", statusCode, delayMs);
+                    return ctx;
                 }
-                asyncHandler.incrementRetryCount();
-                return new FilterContext.FilterContextBuilder<>(ctx)
-                    .request(ctx.getRequest())
-                    .replayRequest(true)
-                    .build();
             }
 
             if (asyncHandler.getRetryCount() >= maxRetries && retryPredicate.apply(ctx)) {
@@ -71,4 +85,55 @@ public class RequestRetryFilter implements ResponseFilter {
 
         return ctx;
     }
+
+    /**
+     * Computes the delay before the next attempt: the Retry-After delay if the response has one, otherwise a random
+     * delay between 0 and the exponential backoff for the attempt. Both are capped by the max retry delay.
+     *
+     * @param ctx The filter context.
+     * @param retryCount The number of retries so far.
+     * @return The delay in milliseconds.
+     */
+    long getRetryDelay(FilterContext<?> ctx, int retryCount) {
+        Optional<Long> retryAfter = getRetryAfter(ctx);
+        if (retryAfter.isPresent()) {
+            return Math.min(retryAfter.get(), maxRetryDelayMs);
+        }
+
+        long backoff = baseRetryDelayMs << Math.min(retryCount + 1, 30);
+        if (backoff <= 0 || backoff > maxRetryDelayMs) {
+            backoff = maxRetryDelayMs;
+        }
+        return ThreadLocalRandom.current().nextLong(backoff + 1);
+    }
+
+    /**
+     * Reads the Retry-After header, given either in seconds or as an HTTP date.
+     *
+     * @param ctx The filter context.
+     * @return The optional delay in milliseconds.
+     */
+    private Optional<Long> getRetryAfter(FilterContext<?> ctx) {
+        if (ctx.getResponseHeaders() == null) {
+            return Optional.absent();
+        }
+
+        String value = ctx.getResponseHeaders().getHeaders().getFirstValue(RETRY_AFTER_KEY);
+        if (value == null) {
+            return Optional.absent();
+        }
+
+        value = value.trim();
+        Long seconds = Longs.tryParse(value);
+        if (seconds != null) {
+            return Optional.of(Math.max(0, seconds) * 1000);
+        }
+
+        try {
+            return Optional.of(Math.max(0, HTTP_DATE_FORMAT.parseMillis(value) - System.currentTimeMillis()));
+        } catch (IllegalArgumentException e) {
+            log.warn("Ignoring invalid Retry-After header {}", value);
+            return Optional.absent();
+        }
+    }
 }
@@ -0,0 +1,147 @@
+/*
+ * Copyright (c) 2013-2016.  Urban Airship and Contributors
+ */
+
+package com.urbanairship.api.client;
+
+import com.google.common.base.Optional;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * The lifecycle timings of the last attempt of a request, attached to its {@link Response} or
+ * {@link ClientException} and passed to a {@link SlowRequestListener}.
+ *
+ * Each {@link Phase} is recorded as the time elapsed since the attempt was handed to the HTTP client. Phases that
+ * did not happen are absent, e.g. the connect phases when a pooled connection was reused, or the TLS handshake for
+ * plain HTTP. The time a request spent queued for admission before its first attempt is kept separately.
+ */
+public final class RequestTimings {
+
+    /**
+     * The lifecycle phases of an attempt, in the order they normally happen.
+     */
+    public enum Phase {
+        /** The HTTP client looked for a pooled connection. */
+        POOL_LOOKUP,
+        /** A pooled connection was reused. */
+        CONNECTION_POOLED,
+        /** A new connection is being opened. */
+        CONNECT_STARTED,
+        /** The host name of the new connection was resolved. */
+        DNS_RESOLVED,
+        /** The TLS handshake of the new connection completed. */
+        TLS_HANDSHAKE_COMPLETED,
+        /** The new connection is ready to send the request. */
+        CONNECTED,
+        /** The request is being written to the connection. */
+        REQUEST_SENT,
+        /** The response status was received. */
+        FIRST_BYTE,
+        /** Parsing of the response body started. */
+        PARSE_STARTED,
+        /** Parsing of the response body completed. */
+        PARSE_COMPLETED,
+        /** The response or error was built. */
+        COMPLETED
+    }
+
+    private static final long ABSENT = -1;
+
+    private final long queueNanos;
+    private final long[] elapsedNanos;
+
+    RequestTimings(long queueNanos, long[] elapsedNanos) {
+        this.queueNanos = queueNanos;
+        this.elapsedNanos = elapsedNanos;
+    }
+
+    /**
+     * Get the time the request waited for admission before its first attempt was sent.
+     *
+     * @param unit The time unit of the result.
+     * @return long
+     */
+    public long getQueueTime(TimeUnit unit) {
+        return unit.convert(queueNanos, TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * Get the time from starting the attempt until the given phase.
+     *
+     * @param phase The phase.
+     * @param unit The time unit of the result.
+     * @return The elapsed time, absent if the phase did not happen.
+     */
+    public Optional<Long> getElapsed(Phase phase, TimeUnit unit) {
+        long elapsed = elapsedNanos[phase.ordinal()];
+        return elapsed == ABSENT ? Optional.<Long>absent() : Optional.of(unit.convert(elapsed, TimeUnit.NANOSECONDS));
+    }
+
+    /**
+     * Get the time between two phases, e.g. {@code REQUEST_SENT} and {@code FIRST_BYTE} for the server time.
+     *
+     * @param from The earlier phase.
+     * @param to The later phase.
+     * @param unit The time unit of the result.
+     * @return The time between the phases, absent if either phase did not happen.
+     */
+    public Optional<Long> getDuration(Phase from, Phase to, TimeUnit unit) {
+        long start = elapsedNanos[from.ordinal()];
+        long end = elapsedNanos[to.ordinal()];
+        if (start == ABSENT || end == ABSENT) {
+            return Optional.absent();
+        }
+        return Optional.of(unit.convert(end - start, TimeUnit.NANOSECONDS));
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder builder = new StringBuilder("RequestTimings{queueMicros=")
+            .append(TimeUnit.NANOSECONDS.toMicros(queueNanos));
+        for (Phase phase : Phase.values()) {
+            long elapsed = elapsedNanos[phase.ordinal()];
+            if (elapsed != ABSENT) {
+                builder.append(", ").append(phase).append('=').append(TimeUnit.NANOSECONDS.toMicros(elapsed));
+            }
+        }
+        return builder.append('}').toString();
+    }
+
+    /**
+     * Records the phase timestamps of the current attempt. Phases may be recorded from the calling thread and the
+     * I/O threads, so timestamps are kept in an atomic array and reset when the next attempt starts.
+     */
+    static final class Recorder {
+
+        private final AtomicLongArray marks = new AtomicLongArray(Phase.values().length);
+
+        private volatile long attemptNanos = 0;
+
+        void start(long nanos) {
+            for (int i = 0; i < marks.length(); i++) {
+                marks.set(i, 0);
+            }
+            attemptNanos = nanos;
+        }
+
+        void mark(Phase phase) {
+            marks.set(phase.ordinal(), System.nanoTime());
+        }
+
+        void markFirst(Phase phase) {
+            marks.compareAndSet(phase.ordinal(), 0, System.nanoTime());
+        }
+
+        RequestTimings snapshot(long queueNanos) {
+            long start = attemptNanos;
+            long[] elapsed = new long[marks.length()];
+            for (int i = 0; i < elapsed.length; i++) {
+                long mark = marks.get(i);
+                elapsed[i] = start == 0 || mark == 0 ? ABSENT : Math.max(0, mark - start);
+            }
+            return new RequestTimings(queueNanos, elapsed);
+        }
+    }
+}
@@ -4,6 +4,8 @@
 
 package com.urbanairship.api.client;
 
+import com.google.common.base.Preconditions;
+
 import java.net.URI;
 import java.net.URISyntaxException;
 
@@ -16,19 +18,85 @@ public class RequestUtils {
      * @return URI
      */
     public static URI resolveURI(URI baseURI, String path) {
-        URI uri = baseURI;
-
-        if (!uri.getPath().endsWith("/")) {
-            try {
-                uri = new URI(uri.toString() + "/");
-            } catch (URISyntaxException e) {
-                throw new RuntimeException(e);
-            }
-        }
         if (path.startsWith("/"))  {
             path = path.substring(1);
         }
 
-        return uri.resolve(path);
+        return directoryURI(baseURI).resolve(path);
+    }
+
+    /**
+     * A method to append a trailing slash to a base URI path, so that paths resolve beneath it. A base URI that
+     * already ends with a slash is returned as is, which lets a client normalize its base URI once instead of on
+     * every request.
+     * @param baseURI URI
+     * @return URI
+     */
+    public static URI directoryURI(URI baseURI) {
+        if (baseURI.getPath().endsWith("/")) {
+            return baseURI;
+        }
+
+        try {
+            return new URI(baseURI.toString() + "/");
+        } catch (URISyntaxException e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    /**
+     * A method to build the request path, including the query, of a listing's next page URI.
+     * @param nextPage URI
+     * @return String
+     */
+    public static String nextPagePath(URI nextPage) {
+        Preconditions.checkNotNull(nextPage, "Next page URI cannot be null");
+
+        String query = nextPage.getRawQuery();
+        return query == null ? nextPage.getRawPath() : nextPage.getRawPath() + "?" + query;
+    }
+
+    /**
+     * A method to build the path template of a request URI, for grouping metrics by endpoint. Every path segment
+     * that contains a digit, such as a channel ID or push ID, is replaced by {@code {id}} and the query is dropped.
+     * Named segments, such as static list names, are kept.
+     * @param uri URI
+     * @return String
+     */
+    public static String pathTemplate(URI uri) {
+        String path = uri.getRawPath();
+        if (path == null || path.isEmpty()) {
+            return "/";
+        }
+
+        StringBuilder template = null;
+        int segmentStart = 0;
+        for (int i = 0; i <= path.length(); i++) {
+            if (i < path.length() && path.charAt(i) != '/') {
+                continue;
+            }
+            if (containsDigit(path, segmentStart, i)) {
+                if (template == null) {
+                    template = new StringBuilder(path.length()).append(path, 0, segmentStart);
+                }
+                template.append("{id}");
+            } else if (template != null) {
+                template.append(path, segmentStart, i);
+            }
+            if (template != null && i < path.length()) {
+                template.append('/');
+            }
+            segmentStart = i + 1;
+        }
+        return template == null ? path : template.toString();
+    }
+
+    private static boolean containsDigit(String path, int start, int end) {
+        for (int i = start; i < end; i++) {
+            if (Character.isDigit(path.charAt(i))) {
+                return true;
+            }
+        }
+        return false;
     }
 }
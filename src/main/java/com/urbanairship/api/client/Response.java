@@ -22,6 +22,7 @@ public class Response<T> {
     private final Optional<T> body;
     private final ImmutableMap<String, Collection<String>> headers;
     private final int status;
+    private final Optional<RequestTimings> timings;
 
     /**
      * Default constructor.
@@ -31,9 +32,14 @@ public class Response<T> {
      * @param status Response status.
      */
     Response(T body, Map<String, Collection<String>> headers, int status) {
+        this(body, headers, status, null);
+    }
+
+    private Response(T body, Map<String, Collection<String>> headers, int status, RequestTimings timings) {
         this.body = Optional.fromNullable(body);
         this.headers = ImmutableMap.copyOf(headers);
         this.status = status;
+        this.timings = Optional.fromNullable(timings);
     }
 
     /**
@@ -63,6 +69,16 @@ public class Response<T> {
         return status;
     }
 
+    /**
+     * Gets the lifecycle timings of the request attempt that produced this response. Timings are not part of
+     * the response's equality.
+     *
+     * @return Optional timings, present for responses received by the client.
+     */
+    public Optional<RequestTimings> getTimings() {
+        return timings;
+    }
+
     @Override
     public boolean equals(Object o) {
         if (this == o) return true;
@@ -98,6 +114,7 @@ public class Response<T> {
         private T body = null;
         private Map<String, Collection<String>> headers;
         private int status;
+        private RequestTimings timings = null;
 
         /**
          * Set the response body.
@@ -132,12 +149,23 @@ public class Response<T> {
             return this;
         }
 
+        /**
+         * Set the request lifecycle timings.
+         *
+         * @param timings The timings.
+         * @return Builder
+         */
+        public Builder setTimings(RequestTimings timings) {
+            this.timings = timings;
+            return this;
+        }
+
         /**
          * Build the Response instance.
          * @return The response instance.
          */
         public Response build() {
-            return new Response<>(body, headers, status);
+            return new Response<>(body, headers, status, timings);
         }
     }
 }
@@ -6,36 +6,48 @@ package com.urbanairship.api.client;
 
 import com.google.common.base.Optional;
 import com.ning.http.client.AsyncHandler;
+import com.ning.http.client.AsyncHandlerExtensions;
 import com.ning.http.client.HttpResponseBodyPart;
 import com.ning.http.client.HttpResponseHeaders;
 import com.ning.http.client.HttpResponseStatus;
-import org.apache.commons.lang.StringUtils;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.io.ByteArrayOutputStream;
+import java.net.InetAddress;
 import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
 import java.util.Collection;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicInteger;
 
 /**
- * Asynchronous API response handler.
+ * Asynchronous API response handler. Records the lifecycle timings of each attempt through the HTTP client's
+ * handler extension callbacks and attaches them to the response or client exception.
  * @param <T> The response type.
  */
-class ResponseAsyncHandler<T> implements AsyncHandler<Response> {
+class ResponseAsyncHandler<T> implements AsyncHandler<Response>, AsyncHandlerExtensions {
     private static final Logger log = LoggerFactory.getLogger(ResponseAsyncHandler.class);
     private static final String CONTENT_TYPE_KEY = "Content-type";
 
-    private final Response.Builder<T> responseBuilder = new Response.Builder<>();
-    private final ClientException.Builder exceptionBuilder = ClientException.newBuilder();
-
     private final Optional<ResponseCallback> clientCallback;
     private final ResponseParser<T> parser;
-    private final StringBuilder bodyBuilder = new StringBuilder();
+    private final boolean conditional;
+    private final List<byte[]> bodyParts = new ArrayList<>();
+    private final RequestTimings.Recorder timings = new RequestTimings.Recorder();
+    private final AtomicBoolean notified = new AtomicBoolean(false);
+
+    private Response.Builder<T> responseBuilder = new Response.Builder<>();
+    private ClientException.Builder exceptionBuilder = ClientException.newBuilder();
+    private Optional<RequestExecution<T>> execution = Optional.absent();
 
     private AtomicInteger retryCount = new AtomicInteger(0);
+    private volatile long retryDelayMs = -1;
+    private volatile long responseBytes = 0;
+    private volatile long parseNanos = 0;
     private String exceptionContentType;
     private boolean isSuccessful;
 
@@ -46,15 +58,47 @@ class ResponseAsyncHandler<T> implements AsyncHandler<Response> {
      * @param parser The response parser.
      */
     public ResponseAsyncHandler(Optional<ResponseCallback> clientCallback, ResponseParser<T> parser) {
+        this(clientCallback, parser, false);
+    }
+
+    /**
+     * ResponseAsyncHandler constructor.
+     *
+     * @param clientCallback An optional ResponseCallback for handling the response on completion or error.
+     * @param parser The response parser.
+     * @param conditional Whether the request carries If-None-Match or If-Modified-Since, making 304 Not Modified
+     *                    a successful response.
+     */
+    public ResponseAsyncHandler(Optional<ResponseCallback> clientCallback, ResponseParser<T> parser, boolean conditional) {
         this.clientCallback = clientCallback;
         this.parser = parser;
+        this.conditional = conditional;
     }
 
     @Override
     public STATE onStatusReceived(HttpResponseStatus responseStatus) throws Exception {
+        timings.mark(RequestTimings.Phase.FIRST_BYTE);
+        if (execution.isPresent()) {
+            execution.get().onStatus(responseStatus.getStatusCode());
+        }
+
+        // A retried request is not processed any further; the next attempt is scheduled on completion.
+        if (retryDelayMs >= 0) {
+            return STATE.ABORT;
+        }
+
+        // Start from a clean state, the handler is reused by every attempt of the request.
+        responseBuilder = new Response.Builder<>();
+        exceptionBuilder = ClientException.newBuilder();
+        exceptionContentType = null;
+        bodyParts.clear();
+        responseBytes = 0;
+        parseNanos = 0;
+
         Integer statusCode = responseStatus.getStatusCode();
 
-        if (statusCode >= 200 && statusCode < 300) {
+        // 304 Not Modified only answers the conditional requests of the response cache.
+        if (statusCode >= 200 && statusCode < 300 || statusCode == 304 && conditional) {
             responseBuilder.setStatus(responseStatus.getStatusCode());
             isSuccessful = true;
         } else {
@@ -80,42 +124,148 @@ class ResponseAsyncHandler<T> implements AsyncHandler<Response> {
 
     @Override
     public STATE onBodyPartReceived(HttpResponseBodyPart bodyPart) throws Exception {
-        String body = new String(bodyPart.getBodyPartBytes(), StandardCharsets.UTF_8);
+        responseBytes += bodyPart.length();
 
         if (!isSuccessful) {
             // The response body for an error won't be very big, so we can throw here without needing to aggregate.
-            RequestError error = RequestError.errorFromResponse(body, exceptionContentType);
+            RequestError error = RequestError.errorFromResponse(new String(bodyPart.getBodyPartBytes(), StandardCharsets.UTF_8), exceptionContentType);
             exceptionBuilder.setRequestError(error);
+            timings.mark(RequestTimings.Phase.COMPLETED);
+            exceptionBuilder.setTimings(getTimings());
             throw exceptionBuilder.build();
         }
 
-        bodyBuilder.append(body);
+        if (parser instanceof IncrementalResponseParser) {
+            timings.markFirst(RequestTimings.Phase.PARSE_STARTED);
+            long started = System.nanoTime();
+            ((IncrementalResponseParser<T>) parser).write(bodyPart.getBodyByteBuffer());
+            parseNanos += System.nanoTime() - started;
+            return STATE.CONTINUE;
+        }
+
+        byte[] body = bodyPart.getBodyPartBytes();
+        // Keep the raw bytes; decoding per part would corrupt multibyte characters split across parts.
+        if (body.length > 0) {
+            bodyParts.add(body);
+        }
         return STATE.CONTINUE;
     }
 
     @Override
     public Response onCompleted() throws Exception {
-        if (StringUtils.isNotBlank(bodyBuilder.toString())) {
-            responseBuilder.setBody(parser.parse(bodyBuilder.toString()));
+        long delayMs = retryDelayMs;
+        if (delayMs >= 0) {
+            retryDelayMs = -1;
+            retryCount.incrementAndGet();
+            execution.get().retry(delayMs);
+            return null;
         }
 
+        long started = System.nanoTime();
+        if (parser instanceof IncrementalResponseParser) {
+            T body = ((IncrementalResponseParser<T>) parser).finish();
+            if (body != null) {
+                responseBuilder.setBody(body);
+            }
+            parseNanos += System.nanoTime() - started;
+            timings.mark(RequestTimings.Phase.PARSE_COMPLETED);
+        } else if (!isBlankBody()) {
+            timings.mark(RequestTimings.Phase.PARSE_STARTED);
+            responseBuilder.setBody(parseBody());
+            parseNanos += System.nanoTime() - started;
+            timings.mark(RequestTimings.Phase.PARSE_COMPLETED);
+        }
+
+        timings.mark(RequestTimings.Phase.COMPLETED);
+        responseBuilder.setTimings(getTimings());
         Response response = responseBuilder.build();
-        if (clientCallback.isPresent()) {
-            clientCallback.get().completed(response);
+        if (execution.isPresent()) {
+            execution.get().complete(response);
+        } else {
+            notifyCompleted(response);
         }
 
-        log.debug("Response processing completed for " + response.getBody());
+        log.debug("Response processing completed for {}", response.getBody());
         return response;
     }
 
     @Override
     public void onThrowable(Throwable t) {
         log.error("Exception thrown during response processing", t);
-        if (clientCallback.isPresent()) {
-            clientCallback.get().error(t);
+        if (parser instanceof IncrementalResponseParser) {
+            ((IncrementalResponseParser<T>) parser).abort(t);
+        }
+        if (execution.isPresent()) {
+            execution.get().fail(t);
+        } else {
+            notifyError(t);
         }
     }
 
+    /**
+     * Notify the client callback of the response, unless it has already been notified of the outcome.
+     *
+     * @param response The response.
+     */
+    void notifyCompleted(Response response) {
+        if (clientCallback.isPresent() && notified.compareAndSet(false, true)) {
+            clientCallback.get().completed(response);
+        }
+    }
+
+    /**
+     * Notify the client callback of the error, unless it has already been notified of the outcome. Failures
+     * and cancellations outside of the HTTP client are reported through here as well.
+     *
+     * @param throwable The error.
+     */
+    void notifyError(Throwable throwable) {
+        if (clientCallback.isPresent() && notified.compareAndSet(false, true)) {
+            clientCallback.get().error(throwable);
+        }
+    }
+
+    /**
+     * Parses the aggregated body parts, streaming them into the parser when it supports it.
+     *
+     * @return The parsed response body.
+     * @throws Exception
+     */
+    private T parseBody() throws Exception {
+        if (parser instanceof StreamingResponseParser) {
+            try (BodyPartsInputStream stream = new BodyPartsInputStream(bodyParts)) {
+                return ((StreamingResponseParser<T>) parser).parse(stream);
+            }
+        }
+
+        int length = 0;
+        for (byte[] part : bodyParts) {
+            length += part.length;
+        }
+        ByteArrayOutputStream body = new ByteArrayOutputStream(length);
+        for (byte[] part : bodyParts) {
+            body.write(part);
+        }
+        bodyParts.clear();
+        return parser.parse(new String(body.toByteArray(), StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Checks whether the received body is empty or only contains whitespace.
+     *
+     * @return {@code true} if there is no body content to parse.
+     */
+    private boolean isBlankBody() {
+        for (byte[] part : bodyParts) {
+            for (byte b : part) {
+                if (!Character.isWhitespace(b)) {
+                    return false;
+                }
+            }
+        }
+        return true;
+    }
+
     /**
      * Retrieves the response headers.
      * @param httpResponse The HttpResponse.
@@ -144,4 +294,103 @@ class ResponseAsyncHandler<T> implements AsyncHandler<Response> {
     public void incrementRetryCount() {
         retryCount.incrementAndGet();
     }
+
+    /**
+     * Retry the request once the current response is complete. The retry count is incremented when the
+     * retry is scheduled.
+     *
+     * @param delayMs The delay before the next attempt, in milliseconds.
+     * @return {@code false} if the request is not executed through the client and cannot be retried.
+     */
+    boolean retryAfter(long delayMs) {
+        if (!execution.isPresent()) {
+            return false;
+        }
+        retryDelayMs = delayMs;
+        return true;
+    }
+
+    /**
+     * Get the number of response body bytes received for the current attempt.
+     *
+     * @return long
+     */
+    long getResponseBytes() {
+        return responseBytes;
+    }
+
+    /**
+     * Get the time spent parsing the response body of the current attempt, in nanoseconds.
+     *
+     * @return long
+     */
+    long getParseNanos() {
+        return parseNanos;
+    }
+
+    /**
+     * Get the lifecycle timings of the current attempt.
+     *
+     * @return RequestTimings
+     */
+    RequestTimings getTimings() {
+        return getTimings(execution.isPresent() ? execution.get().getQueueNanos() : 0);
+    }
+
+    RequestTimings getTimings(long queueNanos) {
+        return timings.snapshot(queueNanos);
+    }
+
+    /**
+     * Reset the lifecycle timings for a new attempt.
+     *
+     * @param nanos The time the attempt is handed to the HTTP client.
+     */
+    void onAttemptStarted(long nanos) {
+        timings.start(nanos);
+    }
+
+    @Override
+    public void onOpenConnection() {
+        timings.mark(RequestTimings.Phase.CONNECT_STARTED);
+    }
+
+    @Override
+    public void onConnectionOpen() {
+        timings.mark(RequestTimings.Phase.CONNECTED);
+    }
+
+    @Override
+    public void onPoolConnection() {
+        timings.mark(RequestTimings.Phase.POOL_LOOKUP);
+    }
+
+    @Override
+    public void onConnectionPooled() {
+        timings.mark(RequestTimings.Phase.CONNECTION_POOLED);
+    }
+
+    @Override
+    public void onSendRequest(Object request) {
+        timings.mark(RequestTimings.Phase.REQUEST_SENT);
+    }
+
+    @Override
+    public void onRetry() {
+        log.debug("HTTP client is replaying the request on a new connection");
+    }
+
+    @Override
+    public void onDnsResolved(InetAddress address) {
+        timings.mark(RequestTimings.Phase.DNS_RESOLVED);
+    }
+
+    @Override
+    public void onSslHandshakeCompleted() {
+        timings.mark(RequestTimings.Phase.TLS_HANDSHAKE_COMPLETED);
+    }
+
+    void setExecution(RequestExecution<T> execution) {
+        this.execution = Optional.of(execution);
+    }
 }
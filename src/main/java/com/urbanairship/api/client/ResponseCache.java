@@ -0,0 +1,503 @@
+/*
+ * Copyright (c) 2013-2016.  Urban Airship and Contributors
+ */
+
+package com.urbanairship.api.client;
+
+import com.google.common.annotations.VisibleForTesting;
+import com.google.common.base.Function;
+import com.google.common.base.Preconditions;
+import com.google.common.base.Ticker;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import com.google.common.util.concurrent.FutureCallback;
+import com.google.common.util.concurrent.Futures;
+import com.google.common.util.concurrent.ListenableFuture;
+import com.google.common.util.concurrent.MoreExecutors;
+
+import java.io.IOException;
+import java.net.URI;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Bounded cache of parsed responses to {@link CacheableRequest} lookups, keyed by request URI.
+ *
+ * A response is served from the cache without any request while it is fresh, i.e. younger than the time to
+ * live. Once stale, it is still served for the stale while revalidate window while a single background
+ * request refreshes it. After that, the response is revalidated with a conditional request using its
+ * {@code ETag} and {@code Last-Modified} headers; a 304 Not Modified serves the cached response, and responses
+ * without validators are requested again. When full, the least recently used response is evicted.
+ *
+ * Responses marked {@code Cache-Control: no-store} are never cached. Any non-GET request invalidates its own URI
+ * and, for a {@link CacheInvalidatingRequest}, the URIs it declares, e.g. the lookups of the channels of a tag
+ * mutation. They are invalidated both when the request is sent and when it completes.
+ *
+ * Entries are keyed by URI only, so a cache belongs to the single client it was given to; building another
+ * client with it fails.
+ */
+public class ResponseCache {
+
+    private static final Map<String, String> NO_HEADERS = ImmutableMap.of();
+    private static final int MAX_TOMBSTONES = 1024;
+
+    private final long timeToLiveNanos;
+    private final long staleWhileRevalidateNanos;
+    private final Ticker ticker;
+    private final Map<URI, Entry> entries;
+
+    private final AtomicLong hitCount = new AtomicLong();
+    private final AtomicLong missCount = new AtomicLong();
+    private final AtomicLong revalidationCount = new AtomicLong();
+    private final AtomicLong notModifiedCount = new AtomicLong();
+    private final AtomicBoolean bound = new AtomicBoolean(false);
+
+    // Incremented by every invalidation. Each invalidated URI keeps a tombstone with the generation it was
+    // invalidated at, so that responses to it requested before then are not stored after it, while responses
+    // to other URIs are. Responses requested before the floor, raised by invalidateAll and by dropping the
+    // oldest tombstone, are not stored at all.
+    private long generation = 0;
+    private long floor = 0;
+    private final LinkedHashMap<URI, Long> tombstones = new LinkedHashMap<>();
+
+    private ResponseCache(int maxEntries, long timeToLiveNanos, long staleWhileRevalidateNanos, Ticker ticker) {
+        this.timeToLiveNanos = timeToLiveNanos;
+        this.staleWhileRevalidateNanos = staleWhileRevalidateNanos;
+        this.ticker = ticker;
+        this.entries = new LruMap<>(maxEntries);
+    }
+
+    /**
+     * New ResponseCache builder.
+     *
+     * @return Builder
+     */
+    public static Builder newBuilder() {
+        return new Builder();
+    }
+
+    /**
+     * Get the number of requests served from a fresh or stale cached response without waiting on a request.
+     *
+     * @return long
+     */
+    public long getHitCount() {
+        return hitCount.get();
+    }
+
+    /**
+     * Get the number of cacheable requests without a usable cached response.
+     *
+     * @return long
+     */
+    public long getMissCount() {
+        return missCount.get();
+    }
+
+    /**
+     * Get the number of conditional and background requests sent to revalidate cached responses.
+     *
+     * @return long
+     */
+    public long getRevalidationCount() {
+        return revalidationCount.get();
+    }
+
+    /**
+     * Get the number of revalidations answered with 304 Not Modified.
+     *
+     * @return long
+     */
+    public long getNotModifiedCount() {
+        return notModifiedCount.get();
+    }
+
+    /**
+     * Get the number of cached responses.
+     *
+     * @return int
+     */
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    /**
+     * Remove the cached response of a URI.
+     *
+     * @param uri The request URI.
+     */
+    public void invalidate(URI uri) {
+        invalidate(ImmutableList.of(uri));
+    }
+
+    /**
+     * Remove every cached response.
+     */
+    public synchronized void invalidateAll() {
+        generation++;
+        floor = generation;
+        entries.clear();
+        tombstones.clear();
+    }
+
+    /**
+     * Bind the cache to the client being built with it.
+     */
+    void bind() {
+        Preconditions.checkState(bound.compareAndSet(false, true), "Response cache is already used by another client");
+    }
+
+    /**
+     * Execute a request through the cache.
+     *
+     * @param client The client sending requests on a miss or revalidation.
+     * @param request The request.
+     * @param uri The resolved request URI.
+     * @param callback An optional callback, may be null.
+     * @return A response future.
+     * @throws IOException
+     */
+    <T> ListenableFuture<Response> execute(UrbanAirshipClient client, Request<T> request, URI uri, ResponseCallback callback) throws IOException {
+        if (request.getHttpMethod() != Request.HttpMethod.GET) {
+            return invalidating(client, request, uri, callback);
+        }
+        if (!(request instanceof CacheableRequest) || !((CacheableRequest<?>) request).isCacheable()) {
+            return client.send(request, uri, callback, NO_HEADERS);
+        }
+
+        Entry entry;
+        long generation;
+        synchronized (this) {
+            entry = entries.get(uri);
+            generation = this.generation;
+        }
+
+        if (entry != null) {
+            long age = ticker.read() - entry.storedNanos;
+            if (age < timeToLiveNanos) {
+                hitCount.incrementAndGet();
+                return serve(entry.response, callback);
+            }
+            if (age < timeToLiveNanos + staleWhileRevalidateNanos) {
+                hitCount.incrementAndGet();
+                if (entry.revalidating.compareAndSet(false, true)) {
+                    revalidateInBackground(client, request, uri, entry, generation);
+                }
+                return serve(entry.response, callback);
+            }
+            if (entry.hasValidators()) {
+                return revalidate(client, request, uri, entry, generation, callback);
+            }
+        }
+
+        missCount.incrementAndGet();
+        return store(client.send(request, uri, callback, NO_HEADERS), uri, null, generation);
+    }
+
+    /**
+     * Send a write, invalidating the URIs it changes before it is sent, and again once it completes so that lookups
+     * cached while it was in flight are dropped too.
+     */
+    private <T> ListenableFuture<Response> invalidating(UrbanAirshipClient client, Request<T> request, URI uri, ResponseCallback callback) throws IOException {
+        final ImmutableList<URI> uris = request instanceof CacheInvalidatingRequest
+            ? ImmutableList.<URI>builder().add(uri).addAll(((CacheInvalidatingRequest<?>) request).getInvalidatedUris(client.getBaseUri())).build()
+            : ImmutableList.of(uri);
+        invalidate(uris);
+
+        ListenableFuture<Response> result = client.send(request, uri, callback, NO_HEADERS);
+        result.addListener(new Runnable() {
+            @Override
+            public void run() {
+                invalidate(uris);
+            }
+        }, MoreExecutors.directExecutor());
+        return result;
+    }
+
+    private synchronized void invalidate(Collection<URI> uris) {
+        generation++;
+        for (URI uri : uris) {
+            entries.remove(uri);
+            tombstones.remove(uri);
+            if (tombstones.size() == MAX_TOMBSTONES) {
+                Iterator<Long> oldest = tombstones.values().iterator();
+                floor = Math.max(floor, oldest.next());
+                oldest.remove();
+            }
+            tombstones.put(uri, generation);
+        }
+    }
+
+    /**
+     * Whether a URI was not invalidated since a request to it was sent at a generation. Guarded by the cache lock.
+     */
+    private boolean isCurrent(URI uri, long generation) {
+        Long invalidated = tombstones.get(uri);
+        return generation >= floor && (invalidated == null || invalidated <= generation);
+    }
+
+    /**
+     * Send a conditional request for an expired response, serving the cached response on 304 Not Modified.
+     */
+    private <T> ListenableFuture<Response> revalidate(UrbanAirshipClient client, Request<T> request, URI uri, Entry entry,
+                                                      long generation, final ResponseCallback callback) throws IOException {
+        revalidationCount.incrementAndGet();
+        ListenableFuture<Response> result = store(client.send(request, uri, null, entry.getConditionalHeaders()), uri, entry, generation);
+
+        if (callback != null) {
+            Futures.addCallback(result, new FutureCallback<Response>() {
+                @Override
+                public void onSuccess(Response response) {
+                    callback.completed(response);
+                }
+
+                @Override
+                public void onFailure(Throwable throwable) {
+                    callback.error(throwable);
+                }
+            }, MoreExecutors.directExecutor());
+        }
+        return result;
+    }
+
+    /**
+     * Refresh a stale response while it is served, keeping it if the refresh fails.
+     */
+    private <T> void revalidateInBackground(UrbanAirshipClient client, Request<T> request, URI uri, final Entry entry, long generation) {
+        revalidationCount.incrementAndGet();
+        try {
+            ListenableFuture<Response> result = store(client.send(request, uri, null, entry.getConditionalHeaders()), uri, entry, generation);
+            result.addListener(new Runnable() {
+                @Override
+                public void run() {
+                    entry.revalidating.set(false);
+                }
+            }, MoreExecutors.directExecutor());
+        } catch (IOException | RuntimeException e) {
+            entry.revalidating.set(false);
+        }
+    }
+
+    /**
+     * Store the response of a request once it completes, before the returned future completes.
+     *
+     * @param future The response future.
+     * @param uri The request URI.
+     * @param revalidated The entry being revalidated, or null on a miss.
+     * @param generation The cache generation when the request was sent.
+     * @return A future of the response to serve, the revalidated entry's response on 304 Not Modified.
+     */
+    private ListenableFuture<Response> store(ListenableFuture<Response> future, final URI uri, final Entry revalidated, final long generation) {
+        if (revalidated != null) {
+            Futures.addCallback(future, new FutureCallback<Response>() {
+                @Override
+                public void onSuccess(Response response) {
+                }
+
+                @Override
+                public void onFailure(Throwable throwable) {
+                    for (Throwable cause = throwable; cause != null; cause = cause.getCause()) {
+                        if (cause instanceof ClientException && ((ClientException) cause).getStatusCode() == 404) {
+                            remove(uri, revalidated, generation);
+                            return;
+                        }
+                    }
+                }
+            }, MoreExecutors.directExecutor());
+        }
+
+        return Futures.transform(future, new Function<Response, Response>() {
+            @Override
+            public Response apply(Response response) {
+                if (response.getStatus() == 304 && revalidated != null) {
+                    notModifiedCount.incrementAndGet();
+                    put(uri, revalidated.refresh(response, ticker.read()), generation);
+                    return revalidated.response;
+                }
+                if (response.getStatus() < 200 || response.getStatus() >= 300) {
+                    return response;
+                }
+
+                String cacheControl = getHeader(response, "Cache-Control");
+                if (cacheControl != null && cacheControl.toLowerCase().contains("no-store")) {
+                    if (revalidated != null) {
+                        remove(uri, revalidated, generation);
+                    }
+                    return response;
+                }
+                put(uri, new Entry(response, getHeader(response, "ETag"), getHeader(response, "Last-Modified"), ticker.read()), generation);
+                return response;
+            }
+        }, MoreExecutors.directExecutor());
+    }
+
+    private static ListenableFuture<Response> serve(Response response, ResponseCallback callback) {
+        if (callback != null) {
+            callback.completed(response);
+        }
+        return Futures.immediateFuture(response);
+    }
+
+    private synchronized void put(URI uri, Entry entry, long generation) {
+        if (isCurrent(uri, generation)) {
+            entries.put(uri, entry);
+        }
+    }
+
+    private synchronized void remove(URI uri, Entry entry, long generation) {
+        if (isCurrent(uri, generation) && entries.get(uri) == entry) {
+            entries.remove(uri);
+        }
+    }
+
+    /**
+     * Get the first value of a response header, ignoring the header name's case.
+     */
+    private static String getHeader(Response<?> response, String name) {
+        Map<String, Collection<String>> headers = response.getHeaders();
+        for (Map.Entry<String, Collection<String>> header : headers.entrySet()) {
+            if (header.getKey().equalsIgnoreCase(name) && !header.getValue().isEmpty()) {
+                String value = header.getValue().iterator().next();
+                return value == null || value.trim().isEmpty() ? null : value;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Map that evicts its least recently used entry beyond a maximum size.
+     */
+    private static final class LruMap<K, V> extends LinkedHashMap<K, V> {
+
+        private static final long serialVersionUID = 1L;
+
+        private final int maxEntries;
+
+        private LruMap(int maxEntries) {
+            super(16, 0.75f, true);
+            this.maxEntries = maxEntries;
+        }
+
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<K, V> eldest) {
+            return size() > maxEntries;
+        }
+    }
+
+    private static class Entry {
+
+        private final Response response;
+        private final String eTag;
+        private final String lastModified;
+        private final long storedNanos;
+        private final AtomicBoolean revalidating = new AtomicBoolean(false);
+
+        private Entry(Response response, String eTag, String lastModified, long storedNanos) {
+            this.response = response;
+            this.eTag = eTag;
+            this.lastModified = lastModified;
+            this.storedNanos = storedNanos;
+        }
+
+        private boolean hasValidators() {
+            return eTag != null || lastModified != null;
+        }
+
+        private Map<String, String> getConditionalHeaders() {
+            ImmutableMap.Builder<String, String> headers = ImmutableMap.builder();
+            if (eTag != null) {
+                headers.put("If-None-Match", eTag);
+            }
+            if (lastModified != null) {
+                headers.put("If-Modified-Since", lastModified);
+            }
+            return headers.build();
+        }
+
+        /**
+         * Copy of this entry with a new storage time, and any validators sent with the 304 Not Modified response.
+         */
+        private Entry refresh(Response notModified, long nanos) {
+            String newETag = getHeader(notModified, "ETag");
+            String newLastModified = getHeader(notModified, "Last-Modified");
+            return new Entry(response, newETag == null ? eTag : newETag, newLastModified == null ? lastModified : newLastModified, nanos);
+        }
+    }
+
+    public static class Builder {
+
+        private int maxEntries = 1000;
+        private long timeToLiveNanos = TimeUnit.MINUTES.toNanos(1);
+        private long staleWhileRevalidateNanos = 0;
+        private Ticker ticker = Ticker.systemTicker();
+
+        private Builder() {
+        }
+
+        /**
+         * Set the maximum number of cached responses -- defaults to 1000.
+         *
+         * @param maxEntries int
+         * @return Builder
+         */
+        public Builder setMaxEntries(int maxEntries) {
+            this.maxEntries = maxEntries;
+            return this;
+        }
+
+        /**
+         * Set how long a response is served without revalidation -- defaults to 1 minute.
+         *
+         * @param duration The time to live.
+         * @param unit The time unit of the duration.
+         * @return Builder
+         */
+        public Builder setTimeToLive(long duration, TimeUnit unit) {
+            this.timeToLiveNanos = unit.toNanos(duration);
+            return this;
+        }
+
+        /**
+         * Set how long after its time to live a response is still served while it is refreshed in the
+         * background -- defaults to 0, stale responses are revalidated before being served.
+         *
+         * @param duration The stale while revalidate window.
+         * @param unit The time unit of the duration.
+         * @return Builder
+         */
+        public Builder setStaleWhileRevalidate(long duration, TimeUnit unit) {
+            this.staleWhileRevalidateNanos = unit.toNanos(duration);
+            return this;
+        }
+
+        @VisibleForTesting
+        Builder setTicker(Ticker ticker) {
+            this.ticker = ticker;
+            return this;
+        }
+
+        /**
+         * Build the ResponseCache object.
+         *
+         * <pre>
+         * 1. The maximum number of entries must be at least 1.
+         * 2. The time to live and stale while revalidate window cannot be negative.
+         * </pre>
+         *
+         * @return ResponseCache
+         */
+        public ResponseCache build() {
+            Preconditions.checkArgument(maxEntries > 0, "Max entries must be at least 1");
+            Preconditions.checkArgument(timeToLiveNanos >= 0, "Time to live cannot be negative");
+            Preconditions.checkArgument(staleWhileRevalidateNanos >= 0, "Stale while revalidate window cannot be negative");
+            Preconditions.checkNotNull(ticker, "Ticker must be set");
+
+            return new ResponseCache(maxEntries, timeToLiveNanos, staleWhileRevalidateNanos, ticker);
+        }
+    }
+}
@@ -0,0 +1,28 @@
+/*
+ * Copyright (c) 2013-2016.  Urban Airship and Contributors
+ */
+
+package com.urbanairship.api.client;
+
+import java.net.URI;
+
+/**
+ * Receives the lifecycle timings of requests that took longer than a threshold, for sampling the breakdown of
+ * tail latency. Set with {@link UrbanAirshipClient.Builder#setSlowRequestListener(SlowRequestListener, long,
+ * java.util.concurrent.TimeUnit)}.
+ *
+ * Listeners are called on the thread that finishes the request, usually an I/O thread of the HTTP client, so
+ * they must be thread safe and must not block. Exceptions thrown by a listener are logged and ignored.
+ */
+public interface SlowRequestListener {
+
+    /**
+     * Called once a request finishes whose total latency, including queueing and retries, reached the
+     * threshold.
+     *
+     * @param request The slow request.
+     * @param uri The resolved request URI.
+     * @param timings The timings of the request's last attempt.
+     */
+    void onSlowRequest(Request<?> request, URI uri, RequestTimings timings);
+}
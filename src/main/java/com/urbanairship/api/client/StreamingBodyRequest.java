@@ -0,0 +1,27 @@
+/*
+ * Copyright (c) 2013-2016.  Urban Airship and Contributors
+ */
+
+package com.urbanairship.api.client;
+
+import com.ning.http.client.BodyGenerator;
+
+import java.io.IOException;
+
+/**
+ * A request whose body is streamed to the server instead of being held in memory. The
+ * {@link UrbanAirshipClient} sends the generated body in place of {@link #getRequestBody()}.
+ *
+ * @param <T> The response type.
+ */
+public interface StreamingBodyRequest<T> extends Request<T> {
+
+    /**
+     * Get the generator of the request body. A retried request is replayed with the same generator, so any
+     * stream it reads from must be able to restart from the beginning.
+     *
+     * @return BodyGenerator
+     * @throws IOException
+     */
+    BodyGenerator getRequestBodyGenerator() throws IOException;
+}
@@ -0,0 +1,29 @@
+/*
+ * Copyright (c) 2013-2016.  Urban Airship and Contributors
+ */
+
+package com.urbanairship.api.client;
+
+import java.io.IOException;
+import java.io.InputStream;
+
+/**
+ * A ResponseParser that is able to read the response body straight from the raw response bytes.
+ *
+ * When the parser returned by {@link Request#getResponseParser()} implements this interface, the
+ * {@link com.urbanairship.api.client.UrbanAirshipClient} hands the received body parts to the parser as a single
+ * UTF-8 byte stream instead of decoding and aggregating them into a String first.
+ *
+ * @param <T> The response type.
+ */
+public interface StreamingResponseParser<T> extends ResponseParser<T> {
+
+    /**
+     * Parse the response body from a stream of UTF-8 encoded bytes.
+     *
+     * @param response The response body stream.
+     * @return The parsed response.
+     * @throws IOException
+     */
+    T parse(InputStream response) throws IOException;
+}
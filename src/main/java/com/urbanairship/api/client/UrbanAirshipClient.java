@@ -9,6 +9,7 @@ import com.google.common.base.Optional;
 import com.google.common.base.Preconditions;
 import com.google.common.base.Predicate;
 import com.google.common.io.BaseEncoding;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
 import com.ning.http.client.AsyncHttpClient;
 import com.ning.http.client.AsyncHttpClientConfig;
 import com.ning.http.client.ProxyServer;
@@ -23,9 +24,15 @@ import java.io.InputStream;
 import java.net.URI;
 import java.net.URISyntaxException;
 import java.util.Map;
+import java.util.Collections;
 import java.util.Properties;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
 import java.util.concurrent.Future;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
 
 /**
  * The UrbanAirshipClient class handles HTTP requests to the Urban Airship API.
@@ -36,17 +43,41 @@ public class UrbanAirshipClient implements Closeable {
 
     private final String appKey;
     private final String appSecret;
+    private final String authorization;
     private final URI baseUri;
+    // The base URI with a trailing slash, which request paths resolve against without copying it first.
+    private final URI requestBaseUri;
     private final AsyncHttpClient client;
+    private final ScheduledExecutorService retryScheduler;
+    private final boolean ownsRetryScheduler;
+    private final Optional<AdmissionController> admissionController;
+    private final RequestListeners listeners;
+    private final Optional<ResponseCache> responseCache;
+    private final Set<RequestExecution<?>> executions = Collections.newSetFromMap(new ConcurrentHashMap<RequestExecution<?>, Boolean>());
 
     private UrbanAirshipClient(Builder builder) {
         this.appKey = builder.key;
         this.appSecret = builder.secret;
+        this.authorization = "Basic " + BaseEncoding.base64().encode((appKey + ":" + appSecret).getBytes());
         this.baseUri = URI.create(builder.baseUri);
+        this.requestBaseUri = RequestUtils.directoryURI(baseUri);
+
+        this.ownsRetryScheduler = builder.retryScheduler == null;
+        this.retryScheduler = ownsRetryScheduler
+            ? Executors.newSingleThreadScheduledExecutor(new ThreadFactoryBuilder()
+                .setNameFormat("UrbanAirshipClient-retry-%d")
+                .setDaemon(true)
+                .build())
+            : builder.retryScheduler;
+        this.admissionController = Optional.fromNullable(builder.admissionController);
+        this.listeners = new RequestListeners(Optional.fromNullable(builder.clientMetrics),
+            Optional.fromNullable(builder.slowRequestListener), builder.slowRequestThresholdNanos);
+        this.responseCache = Optional.fromNullable(builder.responseCache);
 
         AsyncHttpClientConfig.Builder clientConfigBuilder = builder.clientConfigBuilder;
         clientConfigBuilder.setUserAgent(getUserAgent());
-        clientConfigBuilder.addResponseFilter(new RequestRetryFilter(builder.maxRetries, Optional.fromNullable(builder.retryPredicate)));
+        clientConfigBuilder.addResponseFilter(new RequestRetryFilter(builder.maxRetries, Optional.fromNullable(builder.retryPredicate),
+            builder.baseRetryDelayMs, builder.maxRetryDelayMs));
 
         Optional<ProxyServer> proxyServer = convertProxyInfo(Optional.fromNullable(builder.proxyInfo));
         if (proxyServer.isPresent()) {
@@ -91,6 +122,15 @@ public class UrbanAirshipClient implements Closeable {
         return baseUri;
     }
 
+    /**
+     * Get the response cache, if the client was built with one.
+     *
+     * @return Optional response cache.
+     */
+    public Optional<ResponseCache> getResponseCache() {
+        return responseCache;
+    }
+
     /**
      * Get the underlying HTTP client.
      *
@@ -108,16 +148,34 @@ public class UrbanAirshipClient implements Closeable {
      * @return A client response future.
      */
     public <T> Future<Response> executeAsync(final Request<T> request, final ResponseCallback callback) throws IOException {
-        AsyncHttpClient.BoundRequestBuilder requestBuilder;
-        String uri;
+        URI requestUri;
 
         try {
-            uri = request.getUri(baseUri).toString();
+            requestUri = request.getUri(requestBaseUri);
         } catch (URISyntaxException e) {
             log.error("Failed to generate a request URI from base URI " + baseUri.toString(), e);
             throw new RuntimeException(e);
         }
 
+        if (responseCache.isPresent()) {
+            return responseCache.get().execute(this, request, requestUri, callback);
+        }
+        return send(request, requestUri, callback, Collections.<String, String>emptyMap());
+    }
+
+    /**
+     * Send a request, bypassing the response cache.
+     *
+     * @param request An Urban Airship request object.
+     * @param requestUri The resolved request URI.
+     * @param callback A ResponseCallback instance, may be null.
+     * @param extraHeaders Headers added to the request's own headers, e.g. conditional request headers.
+     * @return The request execution.
+     */
+    <T> RequestExecution<T> send(Request<T> request, URI requestUri, ResponseCallback callback, Map<String, String> extraHeaders) throws IOException {
+        AsyncHttpClient.BoundRequestBuilder requestBuilder;
+        String uri = requestUri.toString();
+
         switch (request.getHttpMethod()) {
             case GET:
                 requestBuilder = client.prepareGet(uri);
@@ -143,24 +201,38 @@ public class UrbanAirshipClient implements Closeable {
                 requestBuilder.addHeader(entry.getKey(), entry.getValue());
             }
         }
+        for (Map.Entry<String, String> entry : extraHeaders.entrySet()) {
+            requestBuilder.setHeader(entry.getKey(), entry.getValue());
+        }
 
         // Auth
-        requestBuilder.setHeader(
-            "Authorization",
-            "Basic " + BaseEncoding.base64().encode((appKey + ":" + appSecret).getBytes())
-        );
+        requestBuilder.setHeader("Authorization", authorization);
 
 
         // Body
-        String body = request.getRequestBody();
-        ContentType contentType = request.getContentType();
-        if (body != null && contentType != null) {
-            requestBuilder.setBody(body.getBytes(contentType.getCharset()));
-        }
+        Optional<Long> requestBytes = Optional.absent();
+        if (request instanceof StreamingBodyRequest) {
+            requestBuilder.setBody(((StreamingBodyRequest<T>) request).getRequestBodyGenerator());
+            log.debug("Executing Urban Airship request to {} with a streamed body.", uri);
+        } else {
+            ContentType contentType = request.getContentType();
+            byte[] body = encodeBody(request, contentType);
+            if (body != null) {
+                requestBuilder.setBody(body);
+            }
+            requestBytes = Optional.of(body == null ? 0L : body.length);
 
-        log.debug(String.format("Executing Urban Airship request to %s with body %s.", uri, request.getRequestBody()));
-        ResponseAsyncHandler<T> handler = new ResponseAsyncHandler<>(Optional.fromNullable(callback), request.getResponseParser());
-        return requestBuilder.execute(handler);
+            if (log.isDebugEnabled()) {
+                log.debug("Executing Urban Airship request to {} with body {}.", uri, body == null ? null : new String(body, contentType.getCharset()));
+            }
+        }
+        // 304 Not Modified only answers conditional requests.
+        boolean conditional = extraHeaders.containsKey("If-None-Match") || extraHeaders.containsKey("If-Modified-Since");
+        ResponseAsyncHandler<T> handler = new ResponseAsyncHandler<>(Optional.fromNullable(callback), request.getResponseParser(), conditional);
+        RequestExecution<T> execution = new RequestExecution<>(client, request, requestUri, requestBuilder.build(), handler,
+            retryScheduler, executions, admissionController, listeners, requestBytes);
+        execution.start();
+        return execution;
     }
 
     /**
@@ -203,12 +275,45 @@ public class UrbanAirshipClient implements Closeable {
     }
 
     /**
-     * Close the underlying HTTP client's thread pool.
+     * Close the underlying HTTP client's thread pool. Requests still in flight or waiting to be retried are
+     * cancelled.
      */
     @Override
     public void close() {
         log.info("Closing client");
+        cancelExecutions();
+        if (ownsRetryScheduler) {
+            retryScheduler.shutdownNow();
+        }
         client.close();
+        // A callback of a cancelled request may have started another one before the HTTP client was closed.
+        cancelExecutions();
+    }
+
+    private void cancelExecutions() {
+        for (RequestExecution<?> execution : executions) {
+            execution.cancel(true);
+        }
+    }
+
+    /**
+     * Encode the request body once, using the pre-encoded bytes of the request when available.
+     *
+     * @param request An Urban Airship request object.
+     * @param contentType The request content type.
+     * @return The encoded body, or null if the request has no body or content type.
+     */
+    private static <T> byte[] encodeBody(Request<T> request, ContentType contentType) {
+        if (contentType == null) {
+            return null;
+        }
+
+        if (request instanceof EncodedBodyRequest) {
+            return ((EncodedBodyRequest<T>) request).getRequestBodyBytes();
+        }
+
+        String body = request.getRequestBody();
+        return body == null ? null : body.getBytes(contentType.getCharset());
     }
 
     /**
@@ -309,6 +414,14 @@ public class UrbanAirshipClient implements Closeable {
         private AsyncHttpClientConfig.Builder clientConfigBuilder = new AsyncHttpClientConfig.Builder();
         private ProxyInfo proxyInfo = null;
         private Predicate<FilterContext> retryPredicate = null;
+        private long baseRetryDelayMs = RequestRetryFilter.DEFAULT_BASE_RETRY_DELAY_MS;
+        private long maxRetryDelayMs = RequestRetryFilter.DEFAULT_MAX_RETRY_DELAY_MS;
+        private ScheduledExecutorService retryScheduler = null;
+        private AdmissionController admissionController = null;
+        private ClientMetrics clientMetrics = null;
+        private SlowRequestListener slowRequestListener = null;
+        private long slowRequestThresholdNanos = 0;
+        private ResponseCache responseCache = null;
 
         private Builder() {
             baseUri = "https://go.urbanairship.com";
@@ -388,6 +501,93 @@ public class UrbanAirshipClient implements Closeable {
             return this;
         }
 
+        /**
+         * Set the base delay of the exponential retry backoff -- defaults to 5 milliseconds. The delay before
+         * retry n is chosen at random between 0 and {@code baseRetryDelayMs * 2^n}.
+         *
+         * @param baseRetryDelayMs The base delay in milliseconds.
+         * @return Builder
+         */
+        public Builder setBaseRetryDelay(long baseRetryDelayMs) {
+            this.baseRetryDelayMs = baseRetryDelayMs;
+            return this;
+        }
+
+        /**
+         * Set the maximum delay before a retry, including delays requested by a Retry-After header -- defaults
+         * to 30 seconds.
+         *
+         * @param maxRetryDelayMs The maximum delay in milliseconds.
+         * @return Builder
+         */
+        public Builder setMaxRetryDelay(long maxRetryDelayMs) {
+            this.maxRetryDelayMs = maxRetryDelayMs;
+            return this;
+        }
+
+        /**
+         * Set the scheduler used to delay request retries -- defaults to a single thread scheduler owned by the
+         * client. A scheduler set here is not shut down when the client is closed.
+         *
+         * @param retryScheduler The retry scheduler.
+         * @return Builder
+         */
+        public Builder setRetryScheduler(ScheduledExecutorService retryScheduler) {
+            this.retryScheduler = retryScheduler;
+            return this;
+        }
+
+        /**
+         * Set an optional admission controller, such as a {@link RequestGovernor}, deciding when requests may be
+         * sent. Requests are sent immediately by default.
+         *
+         * @param admissionController The admission controller.
+         * @return Builder
+         */
+        public Builder setAdmissionController(AdmissionController admissionController) {
+            this.admissionController = admissionController;
+            return this;
+        }
+
+        /**
+         * Set an optional listener, such as a {@link HistogramClientMetrics}, receiving the latency, size, status
+         * and retry metrics of every request.
+         *
+         * @param clientMetrics The metrics listener.
+         * @return Builder
+         */
+        public Builder setClientMetrics(ClientMetrics clientMetrics) {
+            this.clientMetrics = clientMetrics;
+            return this;
+        }
+
+        /**
+         * Set an optional listener receiving the lifecycle timings of every request whose total latency reaches
+         * the threshold.
+         *
+         * @param slowRequestListener The slow request listener.
+         * @param threshold The latency threshold.
+         * @param unit The time unit of the threshold.
+         * @return Builder
+         */
+        public Builder setSlowRequestListener(SlowRequestListener slowRequestListener, long threshold, TimeUnit unit) {
+            this.slowRequestListener = slowRequestListener;
+            this.slowRequestThresholdNanos = unit.toNanos(threshold);
+            return this;
+        }
+
+        /**
+         * Set an optional cache for the responses of {@link CacheableRequest} lookups, e.g. channel, segment and
+         * template lookups. Responses are not cached by default. A cache can only be used by one client.
+         *
+         * @param responseCache The response cache.
+         * @return Builder
+         */
+        public Builder setResponseCache(ResponseCache responseCache) {
+            this.responseCache = responseCache;
+            return this;
+        }
+
 
         /**
          * Build an UrbanAirshipClient object.  Will fail if any of the following
@@ -398,6 +598,8 @@ public class UrbanAirshipClient implements Closeable {
          * 3. The base URI has been overridden but not set.
          * 4. Max for non-POST 5xx retries must be set, already defaults to 10.
          * 5. HTTP client config builder must be set, already defaults to a new builder.
+         * 6. Retry delays must not be negative, and the base delay must be at most the max delay.
+         * 7. The response cache, if set, must not be used by another client.
          * </pre>
          *
          * @return UrbanAirshipClient
@@ -408,6 +610,11 @@ public class UrbanAirshipClient implements Closeable {
             Preconditions.checkNotNull(baseUri, "base URI needed to build APIClient");
             Preconditions.checkNotNull(maxRetries, "max non-POST retries needed to build APIClient");
             Preconditions.checkNotNull(clientConfigBuilder, "Async HTTP client config builder needed to build APIClient");
+            Preconditions.checkArgument(baseRetryDelayMs >= 0 && baseRetryDelayMs <= maxRetryDelayMs, "base retry delay must be between 0 and the max retry delay");
+            Preconditions.checkArgument(slowRequestThresholdNanos >= 0, "slow request threshold cannot be negative");
+            if (responseCache != null) {
+                responseCache.bind();
+            }
 
             return new UrbanAirshipClient(this);
         }
@@ -4,19 +4,64 @@
 
 package com.urbanairship.api.common.model;
 
+import com.google.common.base.Charsets;
 import com.urbanairship.api.common.parse.CommonObjectMapper;
+import org.codehaus.jackson.JsonEncoding;
+import org.codehaus.jackson.JsonGenerator;
+import org.codehaus.jackson.map.ObjectMapper;
 
 import java.io.IOException;
+import java.io.OutputStream;
 
 public abstract class APIModelObject {
     public String toJSON() {
         try {
-            return CommonObjectMapper.getInstance().writeValueAsString(this);
+            return getObjectMapper().writeValueAsString(this);
         } catch ( IOException e) {
             return toJSON(e);
         }
     }
 
+    /**
+     * Serialize the object straight to UTF-8 encoded JSON, without an intermediate String. The mapper's
+     * recycled buffers are used while encoding, so only the returned array is allocated.
+     *
+     * @return The JSON bytes.
+     */
+    public byte[] toJSONBytes() {
+        try {
+            return getObjectMapper().writeValueAsBytes(this);
+        } catch ( IOException e) {
+            return toJSON(e).getBytes(Charsets.UTF_8);
+        }
+    }
+
+    /**
+     * Write the object as UTF-8 encoded JSON to the given stream. The stream is flushed but not closed.
+     *
+     * @param out The output stream.
+     * @throws IOException
+     */
+    public void writeTo(OutputStream out) throws IOException {
+        ObjectMapper mapper = getObjectMapper();
+        JsonGenerator generator = mapper.getJsonFactory().createJsonGenerator(out, JsonEncoding.UTF8);
+        generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+        try {
+            mapper.writeValue(generator, this);
+        } finally {
+            generator.close();
+        }
+    }
+
+    /**
+     * The mapper used to serialize the object, overridden by the model objects of each API.
+     *
+     * @return ObjectMapper
+     */
+    protected ObjectMapper getObjectMapper() {
+        return CommonObjectMapper.getInstance();
+    }
+
     protected static String toJSON(Exception e) {
         return "{ \"exception\" : \"" + e.getClass().getName() + "\", \"message\" : \"" + e.getMessage() + "\" }";
 
@@ -3,8 +3,10 @@
  */
 package com.urbanairship.api.feedback;
 
+import com.google.common.collect.ImmutableMap;
 import com.google.common.net.HttpHeaders;
 
+import com.urbanairship.api.client.JsonResponseParser;
 import com.urbanairship.api.client.Request;
 import com.urbanairship.api.client.RequestUtils;
 import com.urbanairship.api.client.ResponseParser;
@@ -17,15 +19,17 @@ import org.apache.http.entity.ContentType;
 import org.codehaus.jackson.type.TypeReference;
 import org.joda.time.DateTime;
 
-import java.io.IOException;
 import java.net.URI;
 import java.net.URISyntaxException;
-import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 
 public class ListApidsFeedbackRequest implements Request<List<ApidsFeedbackResponse>> {
     private final static String API_APIDS_FEEDBACK_PATH = "/api/apids/feedback/";
+    private static final Map<String, String> HEADERS = ImmutableMap.of(
+        HttpHeaders.CONTENT_TYPE, CONTENT_TYPE_JSON,
+        HttpHeaders.ACCEPT, UA_VERSION_JSON
+    );
     private final DateTime since;
 
     public ListApidsFeedbackRequest(DateTime since) {
@@ -49,10 +53,7 @@ public class ListApidsFeedbackRequest implements Request<List<ApidsFeedbackRespo
 
     @Override
     public Map<String, String> getRequestHeaders() {
-        Map<String, String> headers = new HashMap<String, String>();
-        headers.put(HttpHeaders.CONTENT_TYPE, CONTENT_TYPE_JSON);
-        headers.put(HttpHeaders.ACCEPT, UA_VERSION_JSON);
-        return headers;
+        return HEADERS;
     }
 
     @Override
@@ -64,11 +65,6 @@ public class ListApidsFeedbackRequest implements Request<List<ApidsFeedbackRespo
 
     @Override
     public ResponseParser< List<ApidsFeedbackResponse> > getResponseParser() {
-        return new ResponseParser<List<ApidsFeedbackResponse>>() {
-            @Override
-            public List<ApidsFeedbackResponse> parse(String response) throws IOException {
-                return FeedbackObjectMapper.getInstance().readValue(response, new TypeReference<List<ApidsFeedbackResponse>>(){});
-            }
-        };
+        return new JsonResponseParser<>(FeedbackObjectMapper.getInstance(), new TypeReference<List<ApidsFeedbackResponse>>(){});
     }
 }
@@ -3,8 +3,10 @@
  */
 package com.urbanairship.api.feedback;
 
+import com.google.common.collect.ImmutableMap;
 import com.google.common.net.HttpHeaders;
 
+import com.urbanairship.api.client.JsonResponseParser;
 import com.urbanairship.api.client.Request;
 import com.urbanairship.api.client.RequestUtils;
 import com.urbanairship.api.client.ResponseParser;
@@ -17,16 +19,18 @@ import org.apache.http.entity.ContentType;
 import org.codehaus.jackson.type.TypeReference;
 import org.joda.time.DateTime;
 
-import java.io.IOException;
 import java.net.URI;
 import java.net.URISyntaxException;
-import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 
 public class ListDeviceTokensFeedbackRequest implements Request<List<DeviceTokensFeedbackResponse>> {
 
     private final static String API_DEVICETOKENS_FEEDBACK_PATH = "/api/device_tokens/feedback/";
+    private static final Map<String, String> HEADERS = ImmutableMap.of(
+        HttpHeaders.CONTENT_TYPE, CONTENT_TYPE_JSON,
+        HttpHeaders.ACCEPT, UA_VERSION_JSON
+    );
 
     private final DateTime since;
 
@@ -51,10 +55,7 @@ public class ListDeviceTokensFeedbackRequest implements Request<List<DeviceToken
 
     @Override
     public Map<String, String> getRequestHeaders() {
-        Map<String, String> headers = new HashMap<String, String>();
-        headers.put(HttpHeaders.CONTENT_TYPE, CONTENT_TYPE_JSON);
-        headers.put(HttpHeaders.ACCEPT, UA_VERSION_JSON);
-        return headers;
+        return HEADERS;
     }
 
     @Override
@@ -66,12 +67,6 @@ public class ListDeviceTokensFeedbackRequest implements Request<List<DeviceToken
 
     @Override
     public ResponseParser<List<DeviceTokensFeedbackResponse>> getResponseParser() {
-        return new ResponseParser<List<DeviceTokensFeedbackResponse>>() {
-            @Override
-            public List<DeviceTokensFeedbackResponse> parse(String response) throws IOException {
-                return FeedbackObjectMapper
-                        .getInstance().readValue(response, new TypeReference<List<DeviceTokensFeedbackResponse>>(){});
-            }
-        };
+        return new JsonResponseParser<>(FeedbackObjectMapper.getInstance(), new TypeReference<List<DeviceTokensFeedbackResponse>>(){});
     }
 }
\ No newline at end of file
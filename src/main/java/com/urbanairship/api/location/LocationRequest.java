@@ -5,8 +5,10 @@
 package com.urbanairship.api.location;
 
 import com.google.common.base.Preconditions;
+import com.google.common.collect.ImmutableMap;
 import com.google.common.net.HttpHeaders;
-import com.urbanairship.api.client.Request;
+import com.urbanairship.api.client.CacheableRequest;
+import com.urbanairship.api.client.JsonResponseParser;
 import com.urbanairship.api.client.RequestUtils;
 import com.urbanairship.api.client.ResponseParser;
 import com.urbanairship.api.location.model.BoundedBox;
@@ -18,11 +20,9 @@ import org.apache.http.client.utils.URIBuilder;
 import org.apache.http.entity.ContentType;
 import org.apache.http.message.BasicNameValuePair;
 
-import java.io.IOException;
 import java.net.URI;
 import java.net.URISyntaxException;
 import java.util.ArrayList;
-import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 
@@ -30,9 +30,13 @@ import java.util.Map;
  * The LocationRequest class builds location lookup requests to be executed in
  * the {@link com.urbanairship.api.client.UrbanAirshipClient}.
  */
-public class LocationRequest implements Request<LocationResponse> {
+public class LocationRequest implements CacheableRequest<LocationResponse> {
 
     private final static String API_LOCATION_PATH = "/api/location/";
+    private static final Map<String, String> HEADERS = ImmutableMap.of(
+        HttpHeaders.CONTENT_TYPE, CONTENT_TYPE_JSON,
+        HttpHeaders.ACCEPT, UA_VERSION_JSON
+    );
 
     private final String path;
     private final List<BasicNameValuePair> parameters = new ArrayList<BasicNameValuePair>();
@@ -100,6 +104,11 @@ public class LocationRequest implements Request<LocationResponse> {
         return HttpMethod.GET;
     }
 
+    @Override
+    public boolean isCacheable() {
+        return true;
+    }
+
     @Override
     public String getRequestBody() {
         return null;
@@ -112,10 +121,7 @@ public class LocationRequest implements Request<LocationResponse> {
 
     @Override
     public Map<String, String> getRequestHeaders() {
-        Map<String, String> headers = new HashMap<String, String>();
-        headers.put(HttpHeaders.CONTENT_TYPE, CONTENT_TYPE_JSON);
-        headers.put(HttpHeaders.ACCEPT, UA_VERSION_JSON);
-        return headers;
+        return HEADERS;
     }
 
     @Override
@@ -130,12 +136,7 @@ public class LocationRequest implements Request<LocationResponse> {
 
     @Override
     public ResponseParser<LocationResponse> getResponseParser() {
-        return new ResponseParser<LocationResponse>() {
-            @Override
-            public LocationResponse parse(String response) throws IOException {
-                return LocationObjectMapper.getInstance().readValue(response, LocationResponse.class);
-            }
-        };
+        return new JsonResponseParser<>(LocationObjectMapper.getInstance(), LocationResponse.class);
     }
 
 }
@@ -5,7 +5,9 @@
 package com.urbanairship.api.nameduser;
 
 import com.google.common.base.Preconditions;
+import com.google.common.collect.ImmutableMap;
 import com.google.common.net.HttpHeaders;
+import com.urbanairship.api.client.JsonResponseParser;
 import com.urbanairship.api.client.Request;
 import com.urbanairship.api.client.RequestUtils;
 import com.urbanairship.api.client.ResponseParser;
@@ -13,10 +15,8 @@ import com.urbanairship.api.nameduser.model.NamedUserListingResponse;
 import com.urbanairship.api.nameduser.parse.NamedUserObjectMapper;
 import org.apache.http.entity.ContentType;
 
-import java.io.IOException;
 import java.net.URI;
 import java.net.URISyntaxException;
-import java.util.HashMap;
 import java.util.Map;
 
 /**
@@ -26,6 +26,10 @@ import java.util.Map;
 public class NamedUserListingRequest implements Request<NamedUserListingResponse> {
 
     private final static String API_NAMED_USERS_GET = "/api/named_users/";
+    private static final Map<String, String> HEADERS = ImmutableMap.of(
+        HttpHeaders.CONTENT_TYPE, CONTENT_TYPE_JSON,
+        HttpHeaders.ACCEPT, UA_VERSION_JSON
+    );
 
     private final String path;
 
@@ -60,7 +64,7 @@ public class NamedUserListingRequest implements Request<NamedUserListingResponse
      */
     public static NamedUserListingRequest newRequest(URI nextPage) {
         Preconditions.checkNotNull(nextPage, "Next page URI cannot be null");
-        return new NamedUserListingRequest(nextPage.getPath() + "?" + nextPage.getQuery());
+        return new NamedUserListingRequest(RequestUtils.nextPagePath(nextPage));
     }
 
     @Override
@@ -70,10 +74,7 @@ public class NamedUserListingRequest implements Request<NamedUserListingResponse
 
     @Override
     public Map<String, String> getRequestHeaders() {
-        Map<String, String> headers = new HashMap<String, String>();
-        headers.put(HttpHeaders.CONTENT_TYPE, CONTENT_TYPE_JSON);
-        headers.put(HttpHeaders.ACCEPT, UA_VERSION_JSON);
-        return headers;
+        return HEADERS;
     }
 
     @Override
@@ -93,11 +94,6 @@ public class NamedUserListingRequest implements Request<NamedUserListingResponse
 
     @Override
     public ResponseParser<NamedUserListingResponse> getResponseParser() {
-        return new ResponseParser<NamedUserListingResponse>() {
-            @Override
-            public NamedUserListingResponse parse(String response) throws IOException {
-                return NamedUserObjectMapper.getInstance().readValue(response, NamedUserListingResponse.class);
-            }
-        };
+        return new JsonResponseParser<>(NamedUserObjectMapper.getInstance(), NamedUserListingResponse.class);
     }
 }
\ No newline at end of file
@@ -5,9 +5,12 @@
 package com.urbanairship.api.nameduser;
 
 import com.google.common.base.Preconditions;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
 import com.google.common.net.HttpHeaders;
+import com.urbanairship.api.channel.ChannelRequest;
 import com.urbanairship.api.channel.model.ChannelType;
-import com.urbanairship.api.client.Request;
+import com.urbanairship.api.client.CacheInvalidatingRequest;
 import com.urbanairship.api.client.RequestUtils;
 import com.urbanairship.api.client.ResponseParser;
 import com.urbanairship.api.nameduser.parse.NamedUserObjectMapper;
@@ -15,6 +18,7 @@ import org.apache.http.entity.ContentType;
 
 import java.io.IOException;
 import java.net.URI;
+import java.util.Collection;
 import java.util.HashMap;
 import java.util.Map;
 
@@ -22,7 +26,7 @@ import java.util.Map;
  * The NamedUserRequest class builds named user association and disassociation requests to be executed in
  * the {@link com.urbanairship.api.client.UrbanAirshipClient}.
  */
-public class NamedUserRequest implements Request<String> {
+public class NamedUserRequest implements CacheInvalidatingRequest<String> {
 
     private final static String API_NAMED_USERS_ASSOCIATE = "/api/named_users/associate/";
     private final static String API_NAMED_USERS_DISASSOCIATE = "/api/named_users/disassociate/";
@@ -30,6 +34,10 @@ public class NamedUserRequest implements Request<String> {
     private static final String CHANNEL_KEY = "channel_id";
     private static final String DEVICE_TYPE_KEY = "device_type";
     private static final String NAMED_USER_ID_KEY = "named_user_id";
+    private static final Map<String, String> HEADERS = ImmutableMap.of(
+        HttpHeaders.CONTENT_TYPE, CONTENT_TYPE_JSON,
+        HttpHeaders.ACCEPT, UA_VERSION_JSON
+    );
 
     private final String path;
     private final Map<String, String> payload = new HashMap<String, String>();
@@ -87,10 +95,7 @@ public class NamedUserRequest implements Request<String> {
 
     @Override
     public Map<String, String> getRequestHeaders() {
-        Map<String, String> headers = new HashMap<String, String>();
-        headers.put(HttpHeaders.CONTENT_TYPE, CONTENT_TYPE_JSON);
-        headers.put(HttpHeaders.ACCEPT, UA_VERSION_JSON);
-        return headers;
+        return HEADERS;
     }
 
     @Override
@@ -120,6 +125,12 @@ public class NamedUserRequest implements Request<String> {
         return RequestUtils.resolveURI(baseUri, path);
     }
 
+    @Override
+    public Collection<URI> getInvalidatedUris(URI baseUri) {
+        String channel = payload.get(CHANNEL_KEY);
+        return channel == null ? ImmutableList.<URI>of() : ImmutableList.of(ChannelRequest.newRequest(channel).getUri(baseUri));
+    }
+
     @Override
     public ResponseParser<String> getResponseParser() {
         return new ResponseParser<String>() {
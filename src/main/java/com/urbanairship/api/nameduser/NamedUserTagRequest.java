@@ -5,6 +5,7 @@
 package com.urbanairship.api.nameduser;
 
 import com.google.common.base.Preconditions;
+import com.google.common.collect.ImmutableMap;
 import com.google.common.net.HttpHeaders;
 import com.urbanairship.api.client.Request;
 import com.urbanairship.api.client.RequestUtils;
@@ -32,6 +33,10 @@ public class NamedUserTagRequest implements Request<String> {
     private static final String ADD_KEY = "add";
     private static final String REMOVE_KEY = "remove";
     private static final String SET_KEY = "set";
+    private static final Map<String, String> HEADERS = ImmutableMap.of(
+        HttpHeaders.CONTENT_TYPE, CONTENT_TYPE_JSON,
+        HttpHeaders.ACCEPT, UA_VERSION_JSON
+    );
 
     private final Map<String, Set<String>> audience = new HashMap<String, Set<String>>();
     private final Map<String, Set<String>> addTags = new HashMap<String, Set<String>>();
@@ -122,10 +127,7 @@ public class NamedUserTagRequest implements Request<String> {
 
     @Override
     public Map<String, String> getRequestHeaders() {
-        Map<String, String> headers = new HashMap<String, String>();
-        headers.put(HttpHeaders.CONTENT_TYPE, CONTENT_TYPE_JSON);
-        headers.put(HttpHeaders.ACCEPT, UA_VERSION_JSON);
-        return headers;
+        return HEADERS;
     }
 
     @Override
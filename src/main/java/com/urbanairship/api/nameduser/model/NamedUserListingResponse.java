@@ -8,11 +8,12 @@ import com.google.common.base.Objects;
 import com.google.common.base.Optional;
 import com.google.common.base.Preconditions;
 import com.google.common.collect.ImmutableList;
+import com.urbanairship.api.client.PagedResponse;
 
 /**
  * Named user listing response object.
  */
-public class NamedUserListingResponse {
+public class NamedUserListingResponse implements PagedResponse<NamedUserView> {
     private final boolean ok;
     private final Optional<String> nextPage;
     private final Optional<NamedUserView> namedUserView;
@@ -48,6 +49,7 @@ public class NamedUserListingResponse {
      *
      * @return An Optional String
      */
+    @Override
     public Optional<String> getNextPage() {
         return nextPage;
     }
@@ -70,6 +72,16 @@ public class NamedUserListingResponse {
         return namedUserViews;
     }
 
+    /**
+     * Get the objects listed in this page.
+     *
+     * @return An ImmutableList of NamedUserView objects
+     */
+    @Override
+    public ImmutableList<NamedUserView> getPageItems() {
+        return namedUserViews.or(ImmutableList.<NamedUserView>of());
+    }
+
     @Override
     public int hashCode() {
         return Objects.hashCode(ok, nextPage, namedUserView, namedUserViews);
@@ -0,0 +1,166 @@
+package com.urbanairship.api.push;
+
+/*
+ * Copyright (c) 2013-2016.  Urban Airship and Contributors
+ */
+
+import com.google.common.base.Charsets;
+import com.google.common.base.Preconditions;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import com.google.common.net.HttpHeaders;
+import com.urbanairship.api.client.EncodedBodyRequest;
+import com.urbanairship.api.client.JsonResponseParser;
+import com.urbanairship.api.client.RequestUtils;
+import com.urbanairship.api.client.ResponseParser;
+import com.urbanairship.api.push.model.PushPayload;
+import com.urbanairship.api.push.model.PushResponse;
+import com.urbanairship.api.push.parse.PushObjectMapper;
+import org.apache.http.entity.ContentType;
+
+import java.net.URI;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * The BatchPushRequest class sends several push payloads in one request, as a JSON array, to be executed in
+ * the {@link com.urbanairship.api.client.UrbanAirshipClient}. The push ids of the response are in the same
+ * order as the payloads.
+ *
+ * See {@link BatchPushSender} for sending a large number of payloads in bounded batches.
+ */
+public class BatchPushRequest implements EncodedBodyRequest<PushResponse> {
+
+    private final static String API_PUSH_PATH = "/api/push/";
+    private final static String API_VALIDATE_PATH = "/api/push/validate/";
+    private static final Map<String, String> HEADERS = ImmutableMap.of(
+        HttpHeaders.CONTENT_TYPE, CONTENT_TYPE_JSON,
+        HttpHeaders.ACCEPT, UA_VERSION_JSON
+    );
+
+    private final ImmutableList<PushPayload> payloads;
+    private final byte[] body;
+    private boolean validateOnly;
+
+    private BatchPushRequest(ImmutableList<PushPayload> payloads, List<byte[]> encodedPayloads) {
+        this.payloads = payloads;
+        this.body = join(encodedPayloads);
+    }
+
+    /**
+     * Create a batch push request.
+     *
+     * @param payloads The payloads, at least one.
+     * @return BatchPushRequest
+     */
+    public static BatchPushRequest newRequest(List<PushPayload> payloads) {
+        Preconditions.checkNotNull(payloads, "Payloads required when creating a batch push request");
+        Preconditions.checkArgument(!payloads.isEmpty(), "At least one payload required when creating a batch push request");
+
+        ImmutableList.Builder<byte[]> encoded = ImmutableList.builder();
+        for (PushPayload payload : payloads) {
+            encoded.add(payload.toJSONBytes());
+        }
+        return new BatchPushRequest(ImmutableList.copyOf(payloads), encoded.build());
+    }
+
+    /**
+     * Create a batch push request from payloads already serialized by the caller.
+     *
+     * @param payloads The payloads.
+     * @param encodedPayloads The serialized payloads, in the same order.
+     * @return BatchPushRequest
+     */
+    static BatchPushRequest newRequest(ImmutableList<PushPayload> payloads, List<byte[]> encodedPayloads) {
+        return new BatchPushRequest(payloads, encodedPayloads);
+    }
+
+    /**
+     * Sets if the request should only validate the payloads.
+     *
+     * @param validateOnly {@code true} to only validate the payloads, {@code false} to send the push request.
+     * @return The batch push request.
+     */
+    public BatchPushRequest setValidateOnly(boolean validateOnly) {
+        this.validateOnly = validateOnly;
+        return this;
+    }
+
+    /**
+     * Get the payloads of the request.
+     *
+     * @return The payloads, in request order.
+     */
+    public ImmutableList<PushPayload> getPayloads() {
+        return payloads;
+    }
+
+    @Override
+    public ContentType getContentType() {
+        return ContentType.APPLICATION_JSON;
+    }
+
+    @Override
+    public Map<String, String> getRequestHeaders() {
+        return HEADERS;
+    }
+
+    @Override
+    public HttpMethod getHttpMethod() {
+        return HttpMethod.POST;
+    }
+
+    @Override
+    public String getRequestBody() {
+        return new String(body, Charsets.UTF_8);
+    }
+
+    @Override
+    public byte[] getRequestBodyBytes() {
+        return body;
+    }
+
+    @Override
+    public URI getUri(URI baseUri) {
+        String path = validateOnly ? API_VALIDATE_PATH : API_PUSH_PATH;
+        return RequestUtils.resolveURI(baseUri, path);
+    }
+
+    @Override
+    public ResponseParser<PushResponse> getResponseParser() {
+        return new JsonResponseParser<>(PushObjectMapper.getInstance(), PushResponse.class);
+    }
+
+    /**
+     * Get the size of a JSON array of payloads of the given total size.
+     *
+     * @param count The number of payloads.
+     * @param payloadBytes The total size of the serialized payloads.
+     * @return The size of the array in bytes.
+     */
+    static long arraySize(int count, long payloadBytes) {
+        // Brackets and the commas between payloads.
+        return payloadBytes + 2 + Math.max(0, count - 1);
+    }
+
+    private static byte[] join(List<byte[]> encodedPayloads) {
+        long length = 0;
+        for (byte[] payload : encodedPayloads) {
+            length += payload.length;
+        }
+
+        byte[] joined = new byte[(int) arraySize(encodedPayloads.size(), length)];
+        int offset = 0;
+        joined[offset++] = '[';
+        for (int i = 0; i < encodedPayloads.size(); i++) {
+            if (i > 0) {
+                joined[offset++] = ',';
+            }
+            byte[] payload = encodedPayloads.get(i);
+            System.arraycopy(payload, 0, joined, offset, payload.length);
+            offset += payload.length;
+        }
+        joined[offset] = ']';
+        return joined;
+    }
+}
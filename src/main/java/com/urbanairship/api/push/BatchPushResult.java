@@ -0,0 +1,141 @@
+package com.urbanairship.api.push;
+
+/*
+ * Copyright (c) 2013-2016.  Urban Airship and Contributors
+ */
+
+import com.google.common.base.Optional;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import com.urbanairship.api.push.model.PushPayload;
+import com.urbanairship.api.push.model.PushResponse;
+
+/**
+ * The outcome of sending payloads with a {@link BatchPushSender}.
+ */
+public final class BatchPushResult {
+
+    private final ImmutableList<PushResponse> responses;
+    private final ImmutableMap<String, PushPayload> payloadsByPushId;
+    private final ImmutableList<Failure> failures;
+
+    BatchPushResult(ImmutableList<PushResponse> responses, ImmutableMap<String, PushPayload> payloadsByPushId, ImmutableList<Failure> failures) {
+        this.responses = responses;
+        this.payloadsByPushId = payloadsByPushId;
+        this.failures = failures;
+    }
+
+    /**
+     * Get the responses of the successful batch requests, in completion order.
+     *
+     * @return The push responses.
+     */
+    public ImmutableList<PushResponse> getResponses() {
+        return responses;
+    }
+
+    /**
+     * Merge the successful responses into one response: ok if every request succeeded, with the push ids, message
+     * ids and content urls of every response, and the operation id of the first.
+     *
+     * @return PushResponse
+     */
+    public PushResponse getMergedResponse() {
+        PushResponse.Builder merged = PushResponse.newBuilder();
+        boolean ok = isSuccessful();
+        String operationId = null;
+        for (PushResponse response : responses) {
+            ok &= response.getOk();
+            if (operationId == null && response.getOperationId().isPresent()) {
+                operationId = response.getOperationId().get();
+            }
+            if (response.getPushIds().isPresent()) {
+                merged.addAllPushIds(response.getPushIds().get());
+            }
+            if (response.getMessageIds().isPresent()) {
+                merged.addAllMessageIds(response.getMessageIds().get());
+            }
+            if (response.getContentUrls().isPresent()) {
+                merged.addAllContentUrls(response.getContentUrls().get());
+            }
+        }
+        return merged.setOperationId(operationId).setOk(ok).build();
+    }
+
+    /**
+     * Get the payload each push id was returned for.
+     *
+     * @return An immutable map of push id to payload.
+     */
+    public ImmutableMap<String, PushPayload> getPayloadsByPushId() {
+        return payloadsByPushId;
+    }
+
+    /**
+     * Get the payload a push id was returned for.
+     *
+     * @param pushId The push id.
+     * @return The payload, absent if the push id is unknown.
+     */
+    public Optional<PushPayload> getPayload(String pushId) {
+        return Optional.fromNullable(payloadsByPushId.get(pushId));
+    }
+
+    /**
+     * Get the batch requests that failed or whose push ids could not be mapped to their payloads.
+     *
+     * @return The failures.
+     */
+    public ImmutableList<Failure> getFailures() {
+        return failures;
+    }
+
+    /**
+     * Whether every batch request succeeded.
+     *
+     * @return boolean
+     */
+    public boolean isSuccessful() {
+        return failures.isEmpty();
+    }
+
+    @Override
+    public String toString() {
+        return "BatchPushResult{" +
+            "responses=" + responses +
+            ", payloadsByPushId=" + payloadsByPushId +
+            ", failures=" + failures +
+            '}';
+    }
+
+    /**
+     * A batch request that failed, or whose response could not be mapped back to its payloads, with the payloads
+     * it contained.
+     */
+    public static final class Failure {
+
+        private final ImmutableList<PushPayload> payloads;
+        private final Throwable cause;
+
+        Failure(ImmutableList<PushPayload> payloads, Throwable cause) {
+            this.payloads = payloads;
+            this.cause = cause;
+        }
+
+        public ImmutableList<PushPayload> getPayloads() {
+            return payloads;
+        }
+
+        public Throwable getCause() {
+            return cause;
+        }
+
+        @Override
+        public String toString() {
+            return "Failure{" +
+                "payloads=" + payloads.size() +
+                ", cause=" + cause +
+                '}';
+        }
+    }
+}
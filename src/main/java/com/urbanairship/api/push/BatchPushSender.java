@@ -0,0 +1,248 @@
+package com.urbanairship.api.push;
+
+/*
+ * Copyright (c) 2013-2016.  Urban Airship and Contributors
+ */
+
+import com.google.common.base.Optional;
+import com.google.common.base.Preconditions;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import com.google.common.util.concurrent.FutureCallback;
+import com.google.common.util.concurrent.Futures;
+import com.google.common.util.concurrent.JdkFutureAdapters;
+import com.google.common.util.concurrent.ListenableFuture;
+import com.google.common.util.concurrent.MoreExecutors;
+import com.urbanairship.api.client.Response;
+import com.urbanairship.api.client.UrbanAirshipClient;
+import com.urbanairship.api.push.model.PushPayload;
+import com.urbanairship.api.push.model.PushResponse;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Semaphore;
+
+/**
+ * Sends a stream of push payloads in batches. Payloads are packed, in order, into {@link BatchPushRequest}s of
+ * at most {@code maxPayloadsPerRequest} payloads and {@code maxRequestBytes} bytes; a payload larger than the byte
+ * limit is sent on its own. Up to {@code maxConcurrentRequests} batches are in flight at once, and the calling
+ * thread only waits when that many batches are pending, so payloads can be produced lazily.
+ *
+ * The push ids of each response are mapped back to the payloads of the batch by position. A batch whose response
+ * has no body, or not one push id per payload, is reported as a failure along with the batches that failed.
+ */
+public class BatchPushSender {
+
+    private final UrbanAirshipClient client;
+    private final int maxPayloadsPerRequest;
+    private final long maxRequestBytes;
+    private final int maxConcurrentRequests;
+
+    private BatchPushSender(Builder builder) {
+        this.client = builder.client;
+        this.maxPayloadsPerRequest = builder.maxPayloadsPerRequest;
+        this.maxRequestBytes = builder.maxRequestBytes;
+        this.maxConcurrentRequests = builder.maxConcurrentRequests;
+    }
+
+    /**
+     * New BatchPushSender builder.
+     *
+     * @return Builder
+     */
+    public static Builder newBuilder() {
+        return new Builder();
+    }
+
+    /**
+     * Send the payloads and wait for every batch to complete.
+     *
+     * @param payloads The payloads to send.
+     * @return The result of every batch.
+     * @throws InterruptedException If interrupted while waiting; batches already sent are not cancelled.
+     */
+    public BatchPushResult send(Iterable<PushPayload> payloads) throws InterruptedException {
+        Batches batches = new Batches();
+
+        List<PushPayload> chunk = new ArrayList<>();
+        List<byte[]> encodedChunk = new ArrayList<>();
+        long payloadBytes = 0;
+
+        for (PushPayload payload : payloads) {
+            byte[] encoded = payload.toJSONBytes();
+            boolean full = chunk.size() >= maxPayloadsPerRequest
+                || BatchPushRequest.arraySize(chunk.size() + 1, payloadBytes + encoded.length) > maxRequestBytes;
+            if (!chunk.isEmpty() && full) {
+                batches.dispatch(ImmutableList.copyOf(chunk), encodedChunk);
+                chunk.clear();
+                encodedChunk = new ArrayList<>();
+                payloadBytes = 0;
+            }
+
+            chunk.add(payload);
+            encodedChunk.add(encoded);
+            payloadBytes += encoded.length;
+        }
+        if (!chunk.isEmpty()) {
+            batches.dispatch(ImmutableList.copyOf(chunk), encodedChunk);
+        }
+
+        return batches.await();
+    }
+
+    /**
+     * The batches of one call to {@link #send(Iterable)}.
+     */
+    private class Batches {
+
+        private final Semaphore permits = new Semaphore(maxConcurrentRequests);
+        private final ImmutableList.Builder<PushResponse> responses = ImmutableList.builder();
+        private final Map<String, PushPayload> payloadsByPushId = new HashMap<>();
+        private final ImmutableList.Builder<BatchPushResult.Failure> failures = ImmutableList.builder();
+
+        private void dispatch(final ImmutableList<PushPayload> batch, List<byte[]> encoded) throws InterruptedException {
+            permits.acquire();
+            ListenableFuture<Response> future;
+            try {
+                future = JdkFutureAdapters.listenInPoolThread(client.executeAsync(BatchPushRequest.newRequest(batch, encoded)));
+            } catch (IOException | RuntimeException e) {
+                onFailure(batch, e);
+                permits.release();
+                return;
+            }
+
+            // Release the permit on whatever completes the future, including cancellation by the client.
+            Futures.addCallback(future, new FutureCallback<Response>() {
+                @Override
+                public void onSuccess(Response response) {
+                    try {
+                        onResponse(batch, response);
+                    } finally {
+                        permits.release();
+                    }
+                }
+
+                @Override
+                public void onFailure(Throwable throwable) {
+                    try {
+                        Batches.this.onFailure(batch, throwable);
+                    } finally {
+                        permits.release();
+                    }
+                }
+            }, MoreExecutors.directExecutor());
+        }
+
+        @SuppressWarnings("unchecked")
+        private synchronized void onResponse(ImmutableList<PushPayload> batch, Response response) {
+            Optional<PushResponse> body = (Optional<PushResponse>) response.getBody();
+            if (!body.isPresent()) {
+                onFailure(batch, new IllegalStateException("Push response " + response.getStatus() + " has no body"));
+                return;
+            }
+
+            responses.add(body.get());
+            Optional<ImmutableList<String>> pushIds = body.get().getPushIds();
+            int count = pushIds.isPresent() ? pushIds.get().size() : 0;
+            if (count != batch.size()) {
+                // The pushes were accepted but cannot be attributed to their payloads.
+                onFailure(batch, new IllegalStateException("Push response has " + count + " push ids for "
+                    + batch.size() + " payloads"));
+                return;
+            }
+            for (int i = 0; i < batch.size(); i++) {
+                payloadsByPushId.put(pushIds.get().get(i), batch.get(i));
+            }
+        }
+
+        private synchronized void onFailure(ImmutableList<PushPayload> batch, Throwable throwable) {
+            failures.add(new BatchPushResult.Failure(batch, throwable));
+        }
+
+        private BatchPushResult await() throws InterruptedException {
+            permits.acquire(maxConcurrentRequests);
+            permits.release(maxConcurrentRequests);
+
+            synchronized (this) {
+                return new BatchPushResult(responses.build(), ImmutableMap.copyOf(payloadsByPushId), failures.build());
+            }
+        }
+    }
+
+    public static class Builder {
+
+        private UrbanAirshipClient client = null;
+        private int maxPayloadsPerRequest = 100;
+        private long maxRequestBytes = 1024 * 1024;
+        private int maxConcurrentRequests = 4;
+
+        private Builder() {
+        }
+
+        /**
+         * Set the client used to send the batches.
+         *
+         * @param client UrbanAirshipClient
+         * @return Builder
+         */
+        public Builder setClient(UrbanAirshipClient client) {
+            this.client = client;
+            return this;
+        }
+
+        /**
+         * Set the maximum number of payloads per request -- defaults to 100.
+         *
+         * @param maxPayloadsPerRequest int
+         * @return Builder
+         */
+        public Builder setMaxPayloadsPerRequest(int maxPayloadsPerRequest) {
+            this.maxPayloadsPerRequest = maxPayloadsPerRequest;
+            return this;
+        }
+
+        /**
+         * Set the maximum size of a request body in bytes -- defaults to 1 MiB.
+         *
+         * @param maxRequestBytes long
+         * @return Builder
+         */
+        public Builder setMaxRequestBytes(long maxRequestBytes) {
+            this.maxRequestBytes = maxRequestBytes;
+            return this;
+        }
+
+        /**
+         * Set the maximum number of requests in flight at once -- defaults to 4.
+         *
+         * @param maxConcurrentRequests int
+         * @return Builder
+         */
+        public Builder setMaxConcurrentRequests(int maxConcurrentRequests) {
+            this.maxConcurrentRequests = maxConcurrentRequests;
+            return this;
+        }
+
+        /**
+         * Build the BatchPushSender object.
+         *
+         * <pre>
+         * 1. The client must be set.
+         * 2. The payload, byte and concurrency limits must be positive.
+         * </pre>
+         *
+         * @return BatchPushSender
+         */
+        public BatchPushSender build() {
+            Preconditions.checkNotNull(client, "Client must be set");
+            Preconditions.checkArgument(maxPayloadsPerRequest > 0, "Max payloads per request must be at least 1");
+            Preconditions.checkArgument(maxRequestBytes > 0, "Max request bytes must be positive");
+            Preconditions.checkArgument(maxConcurrentRequests > 0, "Max concurrent requests must be at least 1");
+
+            return new BatchPushSender(this);
+        }
+    }
+}
@@ -0,0 +1,287 @@
+package com.urbanairship.api.push;
+
+/*
+ * Copyright (c) 2013-2016.  Urban Airship and Contributors
+ */
+
+import com.google.common.base.Optional;
+import com.google.common.base.Preconditions;
+import com.google.common.collect.ImmutableList;
+import com.urbanairship.api.client.UrbanAirshipClient;
+import com.urbanairship.api.push.model.PushPayload;
+import com.urbanairship.api.push.model.audience.CompoundSelector;
+import com.urbanairship.api.push.model.audience.Selector;
+import com.urbanairship.api.push.model.audience.SelectorType;
+import com.urbanairship.api.push.model.audience.Selectors;
+import com.urbanairship.api.push.model.audience.ValueSelector;
+import com.urbanairship.api.push.model.audience.ValueSetSelector;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Splits a push whose audience is a large explicit list, such as {@code Selectors.deviceTokens(...)} or
+ * {@code Selectors.namedUsers(...)}, into several pushes with smaller audiences.
+ *
+ * Only an OR of values that each identify a distinct set of devices is split: device ids, channels, named users
+ * and aliases. The list may be the whole audience or be nested in ANDs only, so that every device is in the
+ * audience of at most one of the resulting pushes and receives the notification exactly once. Duplicate values are
+ * dropped. When several lists qualify, the largest one is split. Audiences without such a list are not split.
+ */
+public class PushAudienceSplitter {
+
+    // The JSON around each value: {"<type>":"<value>"} followed by a comma.
+    private static final int VALUE_OVERHEAD_BYTES = 8;
+
+    private final Optional<UrbanAirshipClient> client;
+    private final int maxValuesPerChunk;
+    private final long maxChunkBytes;
+    private final int maxConcurrentRequests;
+
+    private PushAudienceSplitter(Builder builder) {
+        this.client = Optional.fromNullable(builder.client);
+        this.maxValuesPerChunk = builder.maxValuesPerChunk;
+        this.maxChunkBytes = builder.maxChunkBytes;
+        this.maxConcurrentRequests = builder.maxConcurrentRequests;
+    }
+
+    /**
+     * New PushAudienceSplitter builder.
+     *
+     * @return Builder
+     */
+    public static Builder newBuilder() {
+        return new Builder();
+    }
+
+    /**
+     * Split a payload into payloads whose audience lists fit the value and byte limits.
+     *
+     * @param payload The payload to split.
+     * @return The split payloads, or the payload itself if its audience cannot or need not be split.
+     */
+    public ImmutableList<PushPayload> split(PushPayload payload) {
+        Optional<CompoundSelector> list = findLargestList(payload.getAudience());
+        if (!list.isPresent()) {
+            return ImmutableList.of(payload);
+        }
+
+        List<List<String>> chunks = chunk(list.get());
+        if (chunks.size() == 1 && chunks.get(0).size() == size(list.get())) {
+            return ImmutableList.of(payload);
+        }
+
+        SelectorType valueType = list.get().getChildren().iterator().next().getType();
+        ImmutableList.Builder<PushPayload> payloads = ImmutableList.builder();
+        for (List<String> chunk : chunks) {
+            Selector audience = replace(payload.getAudience(), list.get(), Selectors.compound(SelectorType.OR, valueType, chunk));
+            payloads.add(PushPayload.newBuilder()
+                .setAudience(audience)
+                .setDeviceTypes(payload.getDeviceTypes())
+                .setNotification(payload.getNotification().orNull())
+                .setMessage(payload.getMessage().orNull())
+                .setPushOptions(payload.getPushOptions().orNull())
+                .setInApp(payload.getInApp().orNull())
+                .build());
+        }
+        return payloads.build();
+    }
+
+    /**
+     * Split a payload and send the resulting payloads concurrently, one per request.
+     *
+     * @param payload The payload to send.
+     * @return The result of every request; see {@link BatchPushResult#getMergedResponse()} for a single response.
+     * @throws InterruptedException If interrupted while waiting for the requests.
+     */
+    public BatchPushResult send(PushPayload payload) throws InterruptedException {
+        Preconditions.checkState(client.isPresent(), "Client must be set to send pushes");
+
+        return BatchPushSender.newBuilder()
+            .setClient(client.get())
+            .setMaxPayloadsPerRequest(1)
+            .setMaxConcurrentRequests(maxConcurrentRequests)
+            .build()
+            .send(split(payload));
+    }
+
+    /**
+     * Find the largest splittable list reachable from the root through ANDs only.
+     */
+    private static Optional<CompoundSelector> findLargestList(Selector selector) {
+        if (isSplittableList(selector)) {
+            return Optional.of((CompoundSelector) selector);
+        }
+        if (selector.getType() != SelectorType.AND) {
+            return Optional.absent();
+        }
+
+        Optional<CompoundSelector> largest = Optional.absent();
+        for (Selector child : ((CompoundSelector) selector).getChildren()) {
+            Optional<CompoundSelector> candidate = findLargestList(child);
+            if (candidate.isPresent() && (!largest.isPresent() || size(candidate.get()) > size(largest.get()))) {
+                largest = candidate;
+            }
+        }
+        return largest;
+    }
+
+    private static boolean isSplittableList(Selector selector) {
+        if (selector.getType() != SelectorType.OR || !(selector instanceof CompoundSelector)) {
+            return false;
+        }
+
+        SelectorType valueType = null;
+        for (Selector child : ((CompoundSelector) selector).getChildren()) {
+            if (!(child instanceof ValueSelector) || ((ValueSelector) child).getAttributes().isPresent()) {
+                return false;
+            }
+            if (valueType == null) {
+                valueType = child.getType();
+                if (!isDisjoint(valueType)) {
+                    return false;
+                }
+            } else if (child.getType() != valueType) {
+                return false;
+            }
+        }
+        return valueType != null;
+    }
+
+    /**
+     * Whether each device matches at most one value of the type.
+     */
+    private static boolean isDisjoint(SelectorType type) {
+        return type.isDeviceId() || type == SelectorType.NAMED_USER || type == SelectorType.ALIAS;
+    }
+
+    private static int size(CompoundSelector list) {
+        if (list instanceof ValueSetSelector) {
+            return ((ValueSetSelector) list).size();
+        }
+        int size = 0;
+        for (Selector ignored : list.getChildren()) {
+            size++;
+        }
+        return size;
+    }
+
+    private List<List<String>> chunk(CompoundSelector list) {
+        Set<String> values = new LinkedHashSet<>();
+        SelectorType valueType = null;
+        for (Selector child : list.getChildren()) {
+            values.add(((ValueSelector) child).getValue());
+            valueType = child.getType();
+        }
+        int typeBytes = valueType.getIdentifier().length() + VALUE_OVERHEAD_BYTES;
+
+        List<List<String>> chunks = new ArrayList<>();
+        List<String> chunk = new ArrayList<>();
+        long chunkBytes = 0;
+        for (String value : values) {
+            long valueBytes = typeBytes + value.getBytes(StandardCharsets.UTF_8).length;
+            if (!chunk.isEmpty() && (chunk.size() >= maxValuesPerChunk || chunkBytes + valueBytes > maxChunkBytes)) {
+                chunks.add(chunk);
+                chunk = new ArrayList<>();
+                chunkBytes = 0;
+            }
+            chunk.add(value);
+            chunkBytes += valueBytes;
+        }
+        chunks.add(chunk);
+        return chunks;
+    }
+
+    /**
+     * Rebuild a selector tree with one node replaced.
+     */
+    private static Selector replace(Selector selector, Selector target, Selector replacement) {
+        if (selector == target) {
+            return replacement;
+        }
+        if (selector.getType() != SelectorType.AND) {
+            return selector;
+        }
+
+        List<Selector> children = new ArrayList<>();
+        for (Selector child : ((CompoundSelector) selector).getChildren()) {
+            children.add(replace(child, target, replacement));
+        }
+        return Selectors.compound(SelectorType.AND, children);
+    }
+
+    public static class Builder {
+
+        private UrbanAirshipClient client = null;
+        private int maxValuesPerChunk = 10000;
+        private long maxChunkBytes = 512 * 1024;
+        private int maxConcurrentRequests = 4;
+
+        private Builder() {
+        }
+
+        /**
+         * Set the client used by {@link PushAudienceSplitter#send(PushPayload)}.
+         *
+         * @param client UrbanAirshipClient
+         * @return Builder
+         */
+        public Builder setClient(UrbanAirshipClient client) {
+            this.client = client;
+            return this;
+        }
+
+        /**
+         * Set the maximum number of values in the audience list of each push -- defaults to 10000.
+         *
+         * @param maxValuesPerChunk int
+         * @return Builder
+         */
+        public Builder setMaxValuesPerChunk(int maxValuesPerChunk) {
+            this.maxValuesPerChunk = maxValuesPerChunk;
+            return this;
+        }
+
+        /**
+         * Set the maximum serialized size of the audience list of each push, in bytes -- defaults to 512 KiB.
+         *
+         * @param maxChunkBytes long
+         * @return Builder
+         */
+        public Builder setMaxChunkBytes(long maxChunkBytes) {
+            this.maxChunkBytes = maxChunkBytes;
+            return this;
+        }
+
+        /**
+         * Set the maximum number of pushes sent at once -- defaults to 4.
+         *
+         * @param maxConcurrentRequests int
+         * @return Builder
+         */
+        public Builder setMaxConcurrentRequests(int maxConcurrentRequests) {
+            this.maxConcurrentRequests = maxConcurrentRequests;
+            return this;
+        }
+
+        /**
+         * Build the PushAudienceSplitter object.
+         *
+         * <pre>
+         * 1. The value, byte and concurrency limits must be positive.
+         * </pre>
+         *
+         * @return PushAudienceSplitter
+         */
+        public PushAudienceSplitter build() {
+            Preconditions.checkArgument(maxValuesPerChunk > 0, "Max values per chunk must be at least 1");
+            Preconditions.checkArgument(maxChunkBytes > 0, "Max chunk bytes must be positive");
+            Preconditions.checkArgument(maxConcurrentRequests > 0, "Max concurrent requests must be at least 1");
+
+            return new PushAudienceSplitter(this);
+        }
+    }
+}
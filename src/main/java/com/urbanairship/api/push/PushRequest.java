@@ -4,9 +4,12 @@ package com.urbanairship.api.push;
  * Copyright (c) 2013-2016.  Urban Airship and Contributors
  */
 
+import com.google.common.base.Charsets;
 import com.google.common.base.Preconditions;
+import com.google.common.collect.ImmutableMap;
 import com.google.common.net.HttpHeaders;
-import com.urbanairship.api.client.Request;
+import com.urbanairship.api.client.EncodedBodyRequest;
+import com.urbanairship.api.client.JsonResponseParser;
 import com.urbanairship.api.client.RequestUtils;
 import com.urbanairship.api.client.ResponseParser;
 import com.urbanairship.api.push.model.PushPayload;
@@ -14,22 +17,26 @@ import com.urbanairship.api.push.model.PushResponse;
 import com.urbanairship.api.push.parse.PushObjectMapper;
 import org.apache.http.entity.ContentType;
 
-import java.io.IOException;
 import java.net.URI;
-import java.util.HashMap;
 import java.util.Map;
 
 /**
  * The PushRequest class builds push and push validation requests to be executed in
- * the {@link com.urbanairship.api.client.UrbanAirshipClient}.
+ * the {@link com.urbanairship.api.client.UrbanAirshipClient}. The payload is serialized once, on first use,
+ * and the encoded body is reused for every execution of the request.
  */
-public class PushRequest implements Request<PushResponse> {
+public class PushRequest implements EncodedBodyRequest<PushResponse> {
 
     private final static String API_PUSH_PATH = "/api/push/";
     private final static String API_VALIDATE_PATH = "/api/push/validate/";
+    private static final Map<String, String> HEADERS = ImmutableMap.of(
+        HttpHeaders.CONTENT_TYPE, CONTENT_TYPE_JSON,
+        HttpHeaders.ACCEPT, UA_VERSION_JSON
+    );
 
     private final PushPayload payload;
     private boolean validateOnly;
+    private volatile byte[] body;
 
     private PushRequest(PushPayload payload) {
         Preconditions.checkNotNull(payload, "Payload required when creating a push request");
@@ -64,10 +71,7 @@ public class PushRequest implements Request<PushResponse> {
 
     @Override
     public Map<String, String> getRequestHeaders() {
-        Map<String, String> headers = new HashMap<String, String>();
-        headers.put(HttpHeaders.CONTENT_TYPE, CONTENT_TYPE_JSON);
-        headers.put(HttpHeaders.ACCEPT, UA_VERSION_JSON);
-        return headers;
+        return HEADERS;
     }
 
     @Override
@@ -77,7 +81,17 @@ public class PushRequest implements Request<PushResponse> {
 
     @Override
     public String getRequestBody() {
-        return payload.toJSON();
+        return new String(getRequestBodyBytes(), Charsets.UTF_8);
+    }
+
+    @Override
+    public byte[] getRequestBodyBytes() {
+        byte[] bytes = body;
+        if (bytes == null) {
+            bytes = payload.toJSONBytes();
+            body = bytes;
+        }
+        return bytes;
     }
 
     @Override
@@ -88,11 +102,6 @@ public class PushRequest implements Request<PushResponse> {
 
     @Override
     public ResponseParser<PushResponse> getResponseParser() {
-        return new ResponseParser<PushResponse>() {
-            @Override
-            public PushResponse parse(String response) throws IOException {
-                return PushObjectMapper.getInstance().readValue(response, PushResponse.class);
-            }
-        };
+        return new JsonResponseParser<>(PushObjectMapper.getInstance(), PushResponse.class);
     }
 }
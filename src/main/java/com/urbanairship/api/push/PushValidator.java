@@ -0,0 +1,385 @@
+/*
+ * Copyright (c) 2013-2016.  Urban Airship and Contributors
+ */
+
+package com.urbanairship.api.push;
+
+import com.google.common.base.Optional;
+import com.google.common.base.Preconditions;
+import com.google.common.collect.ImmutableList;
+import com.urbanairship.api.client.RequestErrorDetails;
+import com.urbanairship.api.common.parse.APIParsingException;
+import com.urbanairship.api.push.model.DeviceType;
+import com.urbanairship.api.push.model.DeviceTypeData;
+import com.urbanairship.api.push.model.PushExpiry;
+import com.urbanairship.api.push.model.PushPayload;
+import com.urbanairship.api.push.model.audience.CompoundSelector;
+import com.urbanairship.api.push.model.audience.Selector;
+import com.urbanairship.api.push.model.audience.SelectorType;
+import com.urbanairship.api.push.model.audience.ValueSelector;
+import com.urbanairship.api.push.model.notification.DevicePayloadOverride;
+import com.urbanairship.api.push.model.notification.Notification;
+import com.urbanairship.api.push.model.notification.adm.ADMDevicePayload;
+import com.urbanairship.api.push.model.notification.android.AndroidDevicePayload;
+import com.urbanairship.api.push.model.notification.ios.IOSDevicePayload;
+import com.urbanairship.api.push.parse.PushObjectMapper;
+import com.urbanairship.api.push.parse.audience.Validation;
+import com.urbanairship.api.schedule.model.SchedulePayload;
+import com.urbanairship.api.schedule.model.ScheduleValidator;
+import org.joda.time.DateTime;
+
+import java.io.IOException;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.regex.Pattern;
+
+/**
+ * Validates push payloads locally, catching the common errors {@code PushRequest.setValidateOnly(true)} would
+ * report without a request: malformed audience selectors, audiences and platform overrides outside of the
+ * device types, out of range platform fields, and platform payloads over their size limit.
+ *
+ * Errors are reported as {@link RequestErrorDetails}, with the JSON path of the invalid field, e.g.
+ * {@code audience.or[1].ios_channel}. The structural checks run first and are cheap; the size checks serialize
+ * each platform's notification and are skipped in fail fast mode once an error is found. Passing validation does
+ * not guarantee the API accepts the push, e.g. audiences are not checked against existing tags or segments.
+ *
+ * Validators are immutable and can be shared between threads.
+ */
+public class PushValidator {
+
+    public static final int MAX_ANDROID_TIME_TO_LIVE_SECONDS = 2419200;
+
+    private static final Pattern UUID = Pattern.compile("[0-9a-fA-F]{8}-[0-9a-fA-F]{4}-[0-9a-fA-F]{4}-[0-9a-fA-F]{4}-[0-9a-fA-F]{12}");
+    private static final Pattern DEVICE_TOKEN = Pattern.compile("[0-9a-fA-F]{64}");
+    private static final Pattern DEVICE_PIN = Pattern.compile("[0-9a-fA-F]{8}");
+    private static final Map<DeviceType, Integer> DEFAULT_MAX_PAYLOAD_BYTES = defaultMaxPayloadBytes();
+
+    private final Map<DeviceType, Integer> maxPayloadBytes;
+    private final boolean failFast;
+
+    private PushValidator(Map<DeviceType, Integer> maxPayloadBytes, boolean failFast) {
+        this.maxPayloadBytes = maxPayloadBytes;
+        this.failFast = failFast;
+    }
+
+    /**
+     * New PushValidator builder.
+     *
+     * @return Builder
+     */
+    public static Builder newBuilder() {
+        return new Builder();
+    }
+
+    /**
+     * Validate a push payload.
+     *
+     * @param payload The push payload.
+     * @return The validation errors, empty if the payload is valid.
+     */
+    public ImmutableList<RequestErrorDetails> validate(PushPayload payload) {
+        Preconditions.checkNotNull(payload, "Push payload cannot be null");
+        Errors errors = new Errors("", failFast);
+        validate(payload, errors);
+        return errors.build();
+    }
+
+    /**
+     * Validate a schedule payload, checking that its schedule is in the future and validating its push.
+     *
+     * @param payload The schedule payload.
+     * @return The validation errors, empty if the payload is valid.
+     */
+    public ImmutableList<RequestErrorDetails> validate(SchedulePayload payload) {
+        Preconditions.checkNotNull(payload, "Schedule payload cannot be null");
+        Errors errors = new Errors("", failFast);
+        try {
+            new ScheduleValidator().validate(payload.getSchedule());
+        } catch (APIParsingException e) {
+            errors.add("schedule", e.getMessage());
+        }
+        if (!errors.isDone()) {
+            validate(payload.getPushPayload(), errors.nested("push."));
+        }
+        return errors.build();
+    }
+
+    private void validate(PushPayload payload, Errors errors) {
+        DeviceTypeData deviceTypes = payload.getDeviceTypes();
+        if (!deviceTypes.isAll() && (!deviceTypes.getDeviceTypes().isPresent() || deviceTypes.getDeviceTypes().get().isEmpty())) {
+            errors.add("device_types", "At least one device type must be set");
+            return;
+        }
+
+        validateSelector(payload.getAudience(), "audience", deviceTypes, errors);
+        if (errors.isDone()) {
+            return;
+        }
+
+        if (payload.getNotification().isPresent()) {
+            validateNotification(payload.getNotification().get(), deviceTypes, errors);
+        }
+        if (payload.getPushOptions().isPresent() && payload.getPushOptions().get().getExpiry().isPresent()) {
+            validateExpiry(payload.getPushOptions().get().getExpiry().get(), "options.expiry", errors);
+        }
+        if (payload.getInApp().isPresent() && payload.getInApp().get().getExpiry().isPresent()
+            && payload.getInApp().get().getExpiry().get().isBeforeNow()) {
+            errors.add("in_app.expiry", "In-app message expiry cannot be in the past");
+        }
+        if (errors.isDone() || !payload.getNotification().isPresent()) {
+            return;
+        }
+
+        validatePayloadSizes(payload.getNotification().get(), deviceTypes, errors);
+    }
+
+    private void validateSelector(Selector selector, String path, DeviceTypeData deviceTypes, Errors errors) {
+        SelectorType type = selector.getType();
+        try {
+            Validation.validate(selector);
+        } catch (APIParsingException e) {
+            errors.add(path, e.getMessage());
+            return;
+        }
+
+        if (selector instanceof CompoundSelector) {
+            int i = 0;
+            for (Selector child : ((CompoundSelector) selector).getChildren()) {
+                if (type == SelectorType.NOT && i > 0) {
+                    errors.add(path, "A 'not' selector can have only one child");
+                    return;
+                }
+                validateSelector(child, path + "." + type.getIdentifier() + "[" + i + "]", deviceTypes, errors);
+                if (errors.isDone()) {
+                    return;
+                }
+                i++;
+            }
+            if (i == 0) {
+                errors.add(path, String.format("Selector '%s' must have at least one child", type.getIdentifier()));
+            }
+            return;
+        }
+
+        if (!(selector instanceof ValueSelector)) {
+            return;
+        }
+
+        String valuePath = path + "." + type.getIdentifier();
+        String value = ((ValueSelector) selector).getValue();
+        if (value == null || value.trim().isEmpty()) {
+            errors.add(valuePath, String.format("Selector '%s' cannot have an empty value", type.getIdentifier()));
+            return;
+        }
+
+        Pattern format = null;
+        if (type.isChannel() || type == SelectorType.APID || type == SelectorType.WNS || type == SelectorType.MPNS) {
+            format = UUID;
+        } else if (type == SelectorType.DEVICE_TOKEN) {
+            format = DEVICE_TOKEN;
+        } else if (type == SelectorType.DEVICE_PIN) {
+            format = DEVICE_PIN;
+        }
+        if (format != null && !format.matcher(value).matches()) {
+            errors.add(valuePath, String.format("'%s' is not a valid %s", value, type.getIdentifier()));
+        }
+
+        Optional<DeviceType> platform = type.getPlatform();
+        if (platform.isPresent() && !isTargeted(deviceTypes, platform.get())) {
+            errors.add(valuePath, String.format("Selector '%s' targets %s, which is not in device_types",
+                type.getIdentifier(), platform.get().getIdentifier()));
+        }
+    }
+
+    private void validateNotification(Notification notification, DeviceTypeData deviceTypes, Errors errors) {
+        for (Map.Entry<DeviceType, DevicePayloadOverride> entry : notification.getDeviceTypePayloadOverrides().entrySet()) {
+            DeviceType deviceType = entry.getKey();
+            String path = "notification." + deviceType.getIdentifier();
+            if (!isTargeted(deviceTypes, deviceType)) {
+                errors.add(path, String.format("Notification override for %s, which is not in device_types", deviceType.getIdentifier()));
+            }
+
+            DevicePayloadOverride override = entry.getValue();
+            if (override instanceof IOSDevicePayload) {
+                validateIOS((IOSDevicePayload) override, path, errors);
+            } else if (override instanceof AndroidDevicePayload) {
+                validateAndroid((AndroidDevicePayload) override, path, errors);
+            } else if (override instanceof ADMDevicePayload && ((ADMDevicePayload) override).getExpiresAfter().isPresent()) {
+                validateExpiry(((ADMDevicePayload) override).getExpiresAfter().get(), path + ".expires_after", errors);
+            }
+            if (errors.isDone()) {
+                return;
+            }
+        }
+    }
+
+    private static void validateIOS(IOSDevicePayload ios, String path, Errors errors) {
+        if (ios.getPriority().isPresent() && ios.getPriority().get() != 5 && ios.getPriority().get() != 10) {
+            errors.add(path + ".priority", "Priority must be 5 or 10");
+        }
+        if (ios.getExpiry().isPresent()) {
+            validateExpiry(ios.getExpiry().get(), path + ".expiry", errors);
+        }
+    }
+
+    private static void validateAndroid(AndroidDevicePayload android, String path, Errors errors) {
+        if (android.getTimeToLive().isPresent()) {
+            PushExpiry timeToLive = android.getTimeToLive().get();
+            validateExpiry(timeToLive, path + ".time_to_live", errors);
+            if (timeToLive.getExpirySeconds().isPresent() && timeToLive.getExpirySeconds().get() > MAX_ANDROID_TIME_TO_LIVE_SECONDS) {
+                errors.add(path + ".time_to_live", String.format("Time to live cannot exceed %d seconds", MAX_ANDROID_TIME_TO_LIVE_SECONDS));
+            }
+        }
+    }
+
+    private static void validateExpiry(PushExpiry expiry, String path, Errors errors) {
+        if (expiry.getExpirySeconds().isPresent() && expiry.getExpirySeconds().get() < 0) {
+            errors.add(path, "Expiry cannot be negative");
+        }
+        if (expiry.getExpiryTimeStamp().isPresent() && expiry.getExpiryTimeStamp().get().isBefore(DateTime.now())) {
+            errors.add(path, "Expiry cannot be in the past");
+        }
+    }
+
+    /**
+     * Check the size of the notification each targeted platform receives: the alert and the platform's override.
+     */
+    private void validatePayloadSizes(Notification notification, DeviceTypeData deviceTypes, Errors errors) {
+        Map<DeviceType, DevicePayloadOverride> overrides = notification.getDeviceTypePayloadOverrides();
+        for (DeviceType deviceType : DeviceType.values()) {
+            if (!isTargeted(deviceTypes, deviceType) || (!notification.getAlert().isPresent() && !overrides.containsKey(deviceType))) {
+                continue;
+            }
+
+            Notification.Builder platformNotification = Notification.newBuilder();
+            if (notification.getAlert().isPresent()) {
+                platformNotification.setAlert(notification.getAlert().get());
+            }
+            if (overrides.containsKey(deviceType)) {
+                platformNotification.addDeviceTypeOverride(deviceType, overrides.get(deviceType));
+            }
+
+            int size;
+            try {
+                size = PushObjectMapper.getInstance().writeValueAsBytes(platformNotification.build()).length;
+            } catch (IOException e) {
+                errors.add("notification." + deviceType.getIdentifier(), "Notification cannot be serialized: " + e.getMessage());
+                return;
+            }
+
+            int max = maxPayloadBytes.get(deviceType);
+            if (size > max) {
+                errors.add("notification." + deviceType.getIdentifier(), String.format("%s notification is %d bytes, exceeding the limit of %d bytes",
+                    deviceType.getIdentifier(), size, max));
+                if (errors.isDone()) {
+                    return;
+                }
+            }
+        }
+    }
+
+    private static boolean isTargeted(DeviceTypeData deviceTypes, DeviceType deviceType) {
+        return deviceTypes.isAll() || deviceTypes.getDeviceTypes().get().contains(deviceType);
+    }
+
+    private static Map<DeviceType, Integer> defaultMaxPayloadBytes() {
+        Map<DeviceType, Integer> limits = new EnumMap<>(DeviceType.class);
+        limits.put(DeviceType.IOS, 4096);
+        limits.put(DeviceType.ANDROID, 4096);
+        limits.put(DeviceType.AMAZON, 6144);
+        limits.put(DeviceType.WNS, 5120);
+        limits.put(DeviceType.MPNS, 3072);
+        limits.put(DeviceType.BLACKBERRY, 8192);
+        return limits;
+    }
+
+    /**
+     * Collects the errors of one validation.
+     */
+    private static final class Errors {
+
+        private final String prefix;
+        private final boolean failFast;
+        private final ImmutableList.Builder<RequestErrorDetails> errors;
+        private boolean failed = false;
+
+        private Errors(String prefix, boolean failFast) {
+            this(prefix, failFast, ImmutableList.<RequestErrorDetails>builder());
+        }
+
+        private Errors(String prefix, boolean failFast, ImmutableList.Builder<RequestErrorDetails> errors) {
+            this.prefix = prefix;
+            this.failFast = failFast;
+            this.errors = errors;
+        }
+
+        private Errors nested(String path) {
+            return new Errors(prefix + path, failFast, errors);
+        }
+
+        private void add(String path, String error) {
+            errors.add(RequestErrorDetails.newBuilder()
+                .setPath(prefix + path)
+                .setError(error)
+                .build());
+            failed = true;
+        }
+
+        private boolean isDone() {
+            return failFast && failed;
+        }
+
+        private ImmutableList<RequestErrorDetails> build() {
+            return errors.build();
+        }
+    }
+
+    public static class Builder {
+
+        private final Map<DeviceType, Integer> maxPayloadBytes = new EnumMap<>(DEFAULT_MAX_PAYLOAD_BYTES);
+        private boolean failFast = false;
+
+        private Builder() {
+        }
+
+        /**
+         * Set the maximum size of the notification received by a platform -- defaults to 4096 bytes for iOS and
+         * Android, 6144 for Amazon, 5120 for WNS, 3072 for MPNS and 8192 for BlackBerry.
+         *
+         * @param deviceType The platform.
+         * @param maxBytes int
+         * @return Builder
+         */
+        public Builder setMaxPayloadBytes(DeviceType deviceType, int maxBytes) {
+            this.maxPayloadBytes.put(deviceType, maxBytes);
+            return this;
+        }
+
+        /**
+         * Set whether validation stops at the first error -- defaults to false, all errors are reported.
+         *
+         * @param failFast boolean
+         * @return Builder
+         */
+        public Builder setFailFast(boolean failFast) {
+            this.failFast = failFast;
+            return this;
+        }
+
+        /**
+         * Build the PushValidator object.
+         *
+         * <pre>
+         * 1. Maximum payload sizes must be positive.
+         * </pre>
+         *
+         * @return PushValidator
+         */
+        public PushValidator build() {
+            for (Map.Entry<DeviceType, Integer> entry : maxPayloadBytes.entrySet()) {
+                Preconditions.checkArgument(entry.getValue() > 0, "Max payload bytes for " + entry.getKey().getIdentifier() + " must be positive");
+            }
+            return new PushValidator(new EnumMap<>(maxPayloadBytes), failFast);
+        }
+    }
+}
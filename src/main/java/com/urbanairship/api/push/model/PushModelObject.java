@@ -6,14 +6,20 @@ package com.urbanairship.api.push.model;
 
 import com.urbanairship.api.common.model.APIModelObject;
 import com.urbanairship.api.push.parse.PushObjectMapper;
+import org.codehaus.jackson.map.ObjectMapper;
 
 public class PushModelObject extends APIModelObject {
     @Override
     public String toJSON() {
         try {
-            return PushObjectMapper.getInstance().writeValueAsString(this);
+            return getObjectMapper().writeValueAsString(this);
         } catch ( Exception e ) {
             return toJSON(e);
         }
     }
+
+    @Override
+    protected ObjectMapper getObjectMapper() {
+        return PushObjectMapper.getInstance();
+    }
 }
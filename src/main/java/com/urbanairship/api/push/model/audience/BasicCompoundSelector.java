@@ -51,6 +51,9 @@ public class BasicCompoundSelector implements CompoundSelector {
         if (this == o) {
             return true;
         }
+        if (o instanceof ValueSetSelector) {
+            return o.equals(this);
+        }
         if (o == null || getClass() != o.getClass()) {
             return false;
         }
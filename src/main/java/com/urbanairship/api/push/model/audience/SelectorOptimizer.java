@@ -0,0 +1,151 @@
+/*
+ * Copyright (c) 2013-2016.  Urban Airship and Contributors
+ */
+
+package com.urbanairship.api.push.model.audience;
+
+import com.google.common.base.Optional;
+import com.google.common.base.Preconditions;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.Iterables;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Deque;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Rewrites audience selectors into smaller equivalent selectors, e.g. before sending pushes whose audiences were
+ * built by combining {@code Selectors.and}, {@code or} and {@code not}.
+ *
+ * Compounds are rewritten bottom up:
+ * <pre>
+ * 1. Nested compounds of the same type are flattened: or(or(a, b), c) becomes or(a, b, c).
+ * 2. Duplicate children are removed: or(a, a, b) becomes or(a, b).
+ * 3. Compounds with a single child are replaced by the child: and(a) becomes a.
+ * 4. Double negations are removed: not(not(a)) becomes a.
+ * 5. Terms common to every child are hoisted: or(and(a, b), and(a, c)) becomes and(a, or(b, c)), and
+ *    or(a, and(a, b)) becomes a. The same applies to ands of ors.
+ * </pre>
+ *
+ * Every rewrite preserves the set of devices selected, and the order of the remaining children is kept. Value,
+ * location and atomic selectors are left as is, and ORs of plain values of one type are packed into a
+ * {@link ValueSetSelector}.
+ */
+public final class SelectorOptimizer {
+
+    private SelectorOptimizer() {
+    }
+
+    /**
+     * Optimize a selector.
+     *
+     * @param selector The selector.
+     * @return An equivalent selector, which may be the given selector.
+     */
+    public static Selector optimize(Selector selector) {
+        Preconditions.checkNotNull(selector, "Selector cannot be null");
+        RewritingVisitor visitor = new RewritingVisitor();
+        selector.accept(visitor);
+        return visitor.getResult();
+    }
+
+    /**
+     * Rebuilds the tree from its leaves; each compound is rewritten once its children have been.
+     */
+    private static final class RewritingVisitor implements SelectorVisitor {
+
+        private final Deque<List<Selector>> children = new ArrayDeque<>();
+        private Selector result = null;
+
+        @Override
+        public void enter(Selector s) {
+            if (s instanceof CompoundSelector) {
+                children.push(new ArrayList<Selector>());
+            }
+        }
+
+        @Override
+        public void exit(Selector s) {
+            Selector rewritten = s instanceof CompoundSelector ? compound(s.getType(), children.pop()) : s;
+            if (children.isEmpty()) {
+                result = rewritten;
+            } else {
+                children.peek().add(rewritten);
+            }
+        }
+
+        private Selector getResult() {
+            return result;
+        }
+    }
+
+    /**
+     * Build the smallest compound of the given type over already optimized children.
+     */
+    private static Selector compound(SelectorType type, Collection<Selector> children) {
+        if (type == SelectorType.NOT) {
+            Selector child = Iterables.getOnlyElement(children);
+            if (child.getType() == SelectorType.NOT && child instanceof CompoundSelector) {
+                return Iterables.getOnlyElement(((CompoundSelector) child).getChildren());
+            }
+            return Selectors.compound(type, child);
+        }
+
+        Set<Selector> flattened = new LinkedHashSet<>();
+        for (Selector child : children) {
+            flattened.addAll(terms(child, type));
+        }
+        if (flattened.size() == 1) {
+            return Iterables.getOnlyElement(flattened);
+        }
+
+        Selector hoisted = hoist(type, ImmutableList.copyOf(flattened));
+        if (hoisted != null) {
+            return hoisted;
+        }
+        Optional<ValueSetSelector> packed = ValueSetSelector.pack(type, flattened);
+        return packed.isPresent() ? packed.get() : Selectors.compound(type, flattened);
+    }
+
+    /**
+     * Factor out the terms common to every child, or return null if there are none. Each child's terms are its
+     * children if it is a compound of the opposite type, and the child itself otherwise.
+     */
+    private static Selector hoist(SelectorType type, List<Selector> children) {
+        SelectorType inner = type == SelectorType.OR ? SelectorType.AND : SelectorType.OR;
+
+        Set<Selector> common = new LinkedHashSet<>(terms(children.get(0), inner));
+        for (int i = 1; i < children.size() && !common.isEmpty(); i++) {
+            common.retainAll(terms(children.get(i), inner));
+        }
+        if (common.isEmpty()) {
+            return null;
+        }
+
+        List<Selector> remainders = new ArrayList<>();
+        for (Selector child : children) {
+            Set<Selector> remainder = new LinkedHashSet<>(terms(child, inner));
+            remainder.removeAll(common);
+            // Absorption: a child made only of common terms selects a subset of every other child.
+            if (remainder.isEmpty()) {
+                return compound(inner, common);
+            }
+            remainders.add(compound(inner, remainder));
+        }
+
+        List<Selector> factored = new ArrayList<>(common);
+        factored.add(compound(type, remainders));
+        return compound(inner, factored);
+    }
+
+    private static Collection<Selector> terms(Selector selector, SelectorType type) {
+        if (selector.getType() == type && selector instanceof CompoundSelector) {
+            return ImmutableList.copyOf(((CompoundSelector) selector).getChildren());
+        }
+        return ImmutableList.of(selector);
+    }
+}
@@ -13,6 +13,7 @@ import com.urbanairship.api.push.model.audience.location.LocationSelector;
 import com.urbanairship.api.push.model.audience.location.PresenceTimeframe;
 import com.urbanairship.api.push.model.audience.location.RecentDateRange;
 
+import java.util.Arrays;
 import java.util.Collection;
 
 /**
@@ -51,6 +52,13 @@ public class Selectors {
     }
 
     public static final Selector compound(SelectorType type, SelectorType childType, final String ... values) {
+        // ORs of plain values, e.g. lists of device tokens, are packed rather than built one selector per value.
+        if (type == SelectorType.OR) {
+            return ValueSetSelector.newBuilder()
+                .setValueType(childType)
+                .addAllValues(Arrays.asList(values))
+                .build();
+        }
         ImmutableList.Builder<Selector> children = ImmutableList.builder();
         for (String value : values) {
             children.add(BasicValueSelector.newBuilder()
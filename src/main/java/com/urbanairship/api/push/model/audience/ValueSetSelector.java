@@ -0,0 +1,227 @@
+/*
+ * Copyright (c) 2013-2016.  Urban Airship and Contributors
+ */
+
+package com.urbanairship.api.push.model.audience;
+
+import com.google.common.base.Optional;
+import com.google.common.base.Preconditions;
+import com.google.common.collect.Iterables;
+import com.urbanairship.api.push.model.DeviceTypeData;
+
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * An OR of value selectors of a single type without attributes, e.g. a list of device tokens, stored as an array
+ * of values rather than one selector per value.
+ *
+ * Children are created on demand by {@link #getChildren()} and {@link #accept(SelectorVisitor)}, so a value set
+ * is equal to, and has the same hash code as, a {@link BasicCompoundSelector} OR of the same value selectors.
+ * Value sets are serialized as an implicit OR, e.g. {"device_token": ["...", "..."]}.
+ */
+public final class ValueSetSelector implements CompoundSelector {
+
+    private static final int ABSENT_ATTRIBUTES_HASH = Optional.<Map<String, String>>absent().hashCode();
+
+    private final SelectorType valueType;
+    private final String[] values;
+    private int hash;
+
+    private ValueSetSelector(SelectorType valueType, String[] values) {
+        this.valueType = valueType;
+        this.values = values;
+    }
+
+    public static Builder newBuilder() {
+        return new Builder();
+    }
+
+    /**
+     * Pack a compound selector's children into a value set if possible.
+     *
+     * @param type The compound selector type.
+     * @param children The children.
+     * @return A value set if the type is OR and the children are value selectors of one type without attributes,
+     * absent otherwise.
+     */
+    public static Optional<ValueSetSelector> pack(SelectorType type, Iterable<Selector> children) {
+        if (type != SelectorType.OR) {
+            return Optional.absent();
+        }
+
+        Builder builder = newBuilder();
+        SelectorType childType = null;
+        for (Selector child : children) {
+            if (!(child instanceof ValueSelector) || ((ValueSelector) child).getAttributes().isPresent()) {
+                return Optional.absent();
+            }
+            if (childType == null) {
+                childType = child.getType();
+            } else if (child.getType() != childType) {
+                return Optional.absent();
+            }
+            builder.addValue(((ValueSelector) child).getValue());
+        }
+        if (childType == null || childType.getCategory() != SelectorCategory.VALUE) {
+            return Optional.absent();
+        }
+        return Optional.of(builder.setValueType(childType).build());
+    }
+
+    @Override
+    public SelectorType getType() {
+        return SelectorType.OR;
+    }
+
+    /**
+     * Get the type of every value, e.g. device_token.
+     *
+     * @return SelectorType
+     */
+    public SelectorType getValueType() {
+        return valueType;
+    }
+
+    /**
+     * Get the values, in order.
+     *
+     * @return An unmodifiable view of the values.
+     */
+    public List<String> getValues() {
+        return Collections.unmodifiableList(Arrays.asList(values));
+    }
+
+    /**
+     * Get the number of values.
+     *
+     * @return int
+     */
+    public int size() {
+        return values.length;
+    }
+
+    @Override
+    public DeviceTypeData getApplicableDeviceTypes() {
+        return DeviceTypeData.all();
+    }
+
+    @Override
+    public Iterable<Selector> getChildren() {
+        return new AbstractList<Selector>() {
+            @Override
+            public Selector get(int index) {
+                return child(index);
+            }
+
+            @Override
+            public int size() {
+                return values.length;
+            }
+        };
+    }
+
+    @Override
+    public void accept(SelectorVisitor visitor) {
+        visitor.enter(this);
+        for (int i = 0; i < values.length; i++) {
+            child(i).accept(visitor);
+        }
+        visitor.exit(this);
+    }
+
+    private Selector child(int index) {
+        return Selectors.value(valueType, values[index]);
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (o instanceof ValueSetSelector) {
+            ValueSetSelector that = (ValueSetSelector) o;
+            return valueType == that.valueType && Arrays.equals(values, that.values);
+        }
+        if (!(o instanceof CompoundSelector)) {
+            return false;
+        }
+
+        CompoundSelector that = (CompoundSelector) o;
+        return that.getType() == SelectorType.OR && Iterables.elementsEqual(getChildren(), that.getChildren());
+    }
+
+    /**
+     * Computed as {@link BasicCompoundSelector#hashCode()} would be over the children, without creating them.
+     */
+    @Override
+    public int hashCode() {
+        int result = hash;
+        if (result == 0) {
+            int children = 1;
+            for (String value : values) {
+                int child = 31 * (31 * valueType.hashCode() + value.hashCode()) + ABSENT_ATTRIBUTES_HASH;
+                children = 31 * children + child;
+            }
+            result = 31 * SelectorType.OR.hashCode() + children;
+            hash = result;
+        }
+        return result;
+    }
+
+    @Override
+    public String toString() {
+        return "ValueSetSelector{" +
+            "valueType=" + valueType.getIdentifier() +
+            ",values=" + Arrays.toString(values) +
+            '}';
+    }
+
+    public static class Builder {
+        private SelectorType valueType;
+        private final List<String> values = new ArrayList<>();
+
+        private Builder() { }
+
+        public Builder setValueType(SelectorType value) {
+            this.valueType = value;
+            return this;
+        }
+
+        public Builder addValue(String value) {
+            this.values.add(value);
+            return this;
+        }
+
+        public Builder addAllValues(Iterable<String> values) {
+            Iterables.addAll(this.values, values);
+            return this;
+        }
+
+        /**
+         * Build the selector.
+         *
+         * <pre>
+         * 1. The value type must be set and take a value.
+         * 2. There must be at least one value, and values cannot be null.
+         * </pre>
+         *
+         * @return ValueSetSelector
+         */
+        public ValueSetSelector build() {
+            Preconditions.checkNotNull(valueType, "Value type cannot be null.");
+            Preconditions.checkArgument(valueType.getCategory() == SelectorCategory.VALUE,
+                                        "Selector type '" + valueType.getIdentifier() + "' cannot take a value.");
+            Preconditions.checkArgument(!values.isEmpty(), "A compound selector must have at least one child.");
+            for (String value : values) {
+                Preconditions.checkNotNull(value, "Values cannot be null.");
+            }
+
+            return new ValueSetSelector(valueType, values.toArray(new String[values.size()]));
+        }
+    }
+}
@@ -4,6 +4,7 @@
 
 package com.urbanairship.api.push.parse.audience;
 
+import com.google.common.base.Optional;
 import com.google.common.collect.ImmutableMap;
 import com.urbanairship.api.common.parse.APIParsingException;
 import com.urbanairship.api.common.parse.JsonObjectReader;
@@ -13,7 +14,7 @@ import com.urbanairship.api.push.model.audience.BasicValueSelector;
 import com.urbanairship.api.push.model.audience.Selector;
 import com.urbanairship.api.push.model.audience.SelectorCategory;
 import com.urbanairship.api.push.model.audience.SelectorType;
-import com.urbanairship.api.push.model.audience.Selectors;
+import com.urbanairship.api.push.model.audience.ValueSetSelector;
 import com.urbanairship.api.push.model.audience.location.LocationSelector;
 import org.codehaus.jackson.JsonParser;
 import org.codehaus.jackson.JsonToken;
@@ -28,6 +29,7 @@ public class SelectorReader implements JsonObjectReader<Selector> {
     private BasicSelector.Builder basic = null;
     private BasicValueSelector.Builder value = null;
     private BasicCompoundSelector.Builder compound = null;
+    private ValueSetSelector valueSet = null;
     private ImmutableMap.Builder<String, String> extra = null;
     private LocationSelector location = null;
 
@@ -36,7 +38,7 @@ public class SelectorReader implements JsonObjectReader<Selector> {
 
     public void readValueSelector(SelectorType type, JsonParser parser, DeserializationContext context) throws IOException {
         // log.debug("readValueSelector()");
-        if (value != null || compound != null ) {
+        if (value != null || compound != null || valueSet != null) {
             APIParsingException.raise(String.format("Specified more than one type of selector ('%s' was unexpected)", type.getIdentifier()), parser);
         }
         JsonToken token = parser.getCurrentToken();
@@ -48,33 +50,37 @@ public class SelectorReader implements JsonObjectReader<Selector> {
                 .setValue(parser.getText());
 
             // Complex case, it's an implicit OR expression. Read a
-            // list of strings and transform it into an OR of value
-            // selectors.
+            // list of strings into a packed OR of value selectors,
+            // which validates its values when built.
         } else if (token == JsonToken.START_ARRAY) {
-
-            compound = BasicCompoundSelector.newBuilder()
-                .setType(SelectorType.OR);
-
-            List<String> values = readListOfStrings(parser);
-            for (String value : values) {
-                Selector child = Selectors.value(type, value);
-                Validation.validate(child);
-                compound.addSelector(child);
+            try {
+                valueSet = ValueSetSelector.newBuilder()
+                    .setValueType(type)
+                    .addAllValues(readListOfStrings(parser))
+                    .build();
+            } catch (IllegalArgumentException e) {
+                APIParsingException.raise(e.getMessage(), parser);
             }
         }
     }
 
     public void readCompoundSelector(SelectorType type, JsonParser parser, DeserializationContext context) throws IOException {
         // log.debug("readCompoundSelector() begin: " + parser.getCurrentToken());
-        if (value != null || compound != null ) {
+        if (value != null || compound != null || valueSet != null) {
             APIParsingException.raise(String.format("Specified more than one type of selector ('%s' was unexpected'", type.getIdentifier()), parser);
         }
-        compound = BasicCompoundSelector.newBuilder()
-            .setType(type);
         List<Selector> children = readListOfSelectors(parser, context);
         for (Selector child : children) {
             Validation.validate(child);
         }
+        // A homogeneous OR of plain values is kept packed, as if it had been an implicit OR.
+        Optional<ValueSetSelector> packed = ValueSetSelector.pack(type, children);
+        if (packed.isPresent()) {
+            valueSet = packed.get();
+            return;
+        }
+        compound = BasicCompoundSelector.newBuilder()
+            .setType(type);
         compound.addAllSelectors(children);
         // log.debug("readCompoundSelector() end: " + parser.getCurrentToken());
     }
@@ -147,6 +153,8 @@ public class SelectorReader implements JsonObjectReader<Selector> {
                 return Validation.validate(value.build());
             } else if (compound != null) {
                 return Validation.validate(compound.build());
+            } else if (valueSet != null) {
+                return Validation.validate(valueSet);
             } else if (location != null ) {
                 return location;
             } else {
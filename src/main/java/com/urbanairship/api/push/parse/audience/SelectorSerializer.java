@@ -8,6 +8,7 @@ import com.urbanairship.api.push.model.audience.CompoundSelector;
 import com.urbanairship.api.push.model.audience.Selector;
 import com.urbanairship.api.push.model.audience.SelectorType;
 import com.urbanairship.api.push.model.audience.ValueSelector;
+import com.urbanairship.api.push.model.audience.ValueSetSelector;
 import com.urbanairship.api.push.model.audience.location.LocationSelector;
 import org.codehaus.jackson.JsonGenerator;
 import org.codehaus.jackson.map.JsonSerializer;
@@ -31,6 +32,15 @@ public class SelectorSerializer extends JsonSerializer<Selector> {
                 }
             }
             jgen.writeEndObject();
+        } else if (s instanceof ValueSetSelector) {
+            ValueSetSelector vs = (ValueSetSelector)s;
+            jgen.writeStartObject();
+            jgen.writeArrayFieldStart(vs.getValueType().getIdentifier());
+            for (String value : vs.getValues()) {
+                jgen.writeString(value);
+            }
+            jgen.writeEndArray();
+            jgen.writeEndObject();
         } else if (s instanceof CompoundSelector) {
             CompoundSelector cs = (CompoundSelector)s;
             jgen.writeStartObject();
@@ -8,7 +8,9 @@ import com.urbanairship.api.common.parse.APIParsingException;
 import com.urbanairship.api.push.model.audience.CompoundSelector;
 import com.urbanairship.api.push.model.audience.Selector;
 import com.urbanairship.api.push.model.audience.SelectorCategory;
+import com.urbanairship.api.push.model.audience.SelectorType;
 import com.urbanairship.api.push.model.audience.ValueSelector;
+import com.urbanairship.api.push.model.audience.ValueSetSelector;
 
 public class Validation {
 
@@ -22,15 +24,20 @@ public class Validation {
     }
 
     public static ValueSelector validate(ValueSelector v) throws APIParsingException {
-        if (v.getType().getCategory() != SelectorCategory.VALUE) {
-            throw new APIParsingException(String.format("Selector type '%s' cannot take a value.", v.getType().getIdentifier()));
+        validateValue(v.getType(), v.getValue());
+        return v;
+    }
+
+    private static void validateValue(SelectorType type, String value) throws APIParsingException {
+        if (type.getCategory() != SelectorCategory.VALUE) {
+            throw new APIParsingException(String.format("Selector type '%s' cannot take a value.", type.getIdentifier()));
         }
-        switch (v.getType()) {
+        switch (type) {
           case APID:
           case WNS:
           case MPNS:
               // TODO: make this better
-              if (v.getValue().length() < 16) {
+              if (value.length() < 16) {
                   throw new APIParsingException("Invalid APID");
               }
               break;
@@ -48,13 +55,19 @@ public class Validation {
               // segment names?
               break;
         }
-        return v;
     }
 
     public static CompoundSelector validate(CompoundSelector s) throws APIParsingException {
         if (s.getType().getCategory() != SelectorCategory.COMPOUND) {
             throw new APIParsingException(String.format("Selector type '%s' cannot take an array of values.", s.getType().getIdentifier()));
         }
+        // Packed values have no selectors of their own to validate.
+        if (s instanceof ValueSetSelector) {
+            ValueSetSelector vs = (ValueSetSelector)s;
+            for (String value : vs.getValues()) {
+                validateValue(vs.getValueType(), value);
+            }
+        }
         return s;
     }
 }
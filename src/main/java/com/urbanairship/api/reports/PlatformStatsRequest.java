@@ -1,6 +1,8 @@
 package com.urbanairship.api.reports;
 
 import com.google.common.base.Preconditions;
+import com.google.common.collect.ImmutableMap;
+import com.urbanairship.api.client.JsonResponseParser;
 import com.urbanairship.api.client.Request;
 import com.urbanairship.api.client.RequestUtils;
 import com.urbanairship.api.client.ResponseParser;
@@ -13,10 +15,8 @@ import org.apache.http.client.utils.URIBuilder;
 import org.apache.http.entity.ContentType;
 import org.joda.time.DateTime;
 
-import java.io.IOException;
 import java.net.URI;
 import java.net.URISyntaxException;
-import java.util.HashMap;
 import java.util.Map;
 
 /**
@@ -25,6 +25,11 @@ import java.util.Map;
  * the {@link com.urbanairship.api.client.UrbanAirshipClient}
  */
 public class PlatformStatsRequest implements Request<PlatformStatsResponse> {
+
+    private static final Map<String, String> HEADERS = ImmutableMap.of(
+        HttpHeaders.CONTENT_TYPE, CONTENT_TYPE_JSON,
+        HttpHeaders.ACCEPT, UA_VERSION_JSON
+    );
     private final String path;
     private final boolean nextPageRequest;
     private DateTime start;
@@ -53,7 +58,7 @@ public class PlatformStatsRequest implements Request<PlatformStatsResponse> {
      */
     public static PlatformStatsRequest newRequest(URI nextPage) {
         Preconditions.checkNotNull(nextPage, "Next page URI cannot be null");
-        return new PlatformStatsRequest(nextPage.getPath() + "?" + nextPage.getQuery(), true);
+        return new PlatformStatsRequest(RequestUtils.nextPagePath(nextPage), true);
     }
 
     /**
@@ -93,10 +98,7 @@ public class PlatformStatsRequest implements Request<PlatformStatsResponse> {
 
     @Override
     public Map<String, String> getRequestHeaders() {
-        Map<String, String> headers = new HashMap<String, String>();
-        headers.put(HttpHeaders.CONTENT_TYPE, CONTENT_TYPE_JSON);
-        headers.put(HttpHeaders.ACCEPT, UA_VERSION_JSON);
-        return headers;
+        return HEADERS;
     }
 
     @Override
@@ -136,11 +138,6 @@ public class PlatformStatsRequest implements Request<PlatformStatsResponse> {
 
     @Override
     public ResponseParser<PlatformStatsResponse> getResponseParser() {
-        return new ResponseParser<PlatformStatsResponse>() {
-            @Override
-            public PlatformStatsResponse parse(String response) throws IOException {
-                return ReportsObjectMapper.getInstance().readValue(response, PlatformStatsResponse.class);
-            }
-        };
+        return new JsonResponseParser<>(ReportsObjectMapper.getInstance(), PlatformStatsResponse.class);
     }
 }
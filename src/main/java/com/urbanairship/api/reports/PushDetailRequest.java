@@ -1,8 +1,10 @@
 package com.urbanairship.api.reports;
 
 import com.google.common.base.Preconditions;
+import com.google.common.collect.ImmutableMap;
 import com.google.common.collect.ImmutableSet;
 import com.google.common.net.HttpHeaders;
+import com.urbanairship.api.client.JsonResponseParser;
 import com.urbanairship.api.client.Request;
 import com.urbanairship.api.client.RequestUtils;
 import com.urbanairship.api.client.ResponseParser;
@@ -11,7 +13,6 @@ import com.urbanairship.api.reports.parse.ReportsObjectMapper;
 import org.apache.http.entity.ContentType;
 import org.codehaus.jackson.type.TypeReference;
 
-import java.io.IOException;
 import java.net.URI;
 import java.util.Arrays;
 import java.util.HashMap;
@@ -22,6 +23,10 @@ import java.util.Set;
 public class PushDetailRequest implements Request<List<PushDetailResponse>> {
     private final static String API_PER_PUSH_DETAIL = "/api/reports/perpush/detail/";
     private final static String PUSH_IDS_KEY = "push_ids";
+    private static final Map<String, String> HEADERS = ImmutableMap.of(
+        HttpHeaders.CONTENT_TYPE, CONTENT_TYPE_JSON,
+        HttpHeaders.ACCEPT, UA_VERSION_JSON
+    );
 
     private final ImmutableSet.Builder<String> pushIds = new ImmutableSet.Builder<String>();
 
@@ -73,10 +78,7 @@ public class PushDetailRequest implements Request<List<PushDetailResponse>> {
 
     @Override
     public Map<String, String> getRequestHeaders() {
-        Map<String, String> headers = new HashMap<String, String>();
-        headers.put(HttpHeaders.CONTENT_TYPE, CONTENT_TYPE_JSON);
-        headers.put(HttpHeaders.ACCEPT, UA_VERSION_JSON);
-        return headers;
+        return HEADERS;
     }
 
     @Override
@@ -105,11 +107,6 @@ public class PushDetailRequest implements Request<List<PushDetailResponse>> {
 
     @Override
     public ResponseParser<List<PushDetailResponse>> getResponseParser() {
-        return new ResponseParser<List<PushDetailResponse>>() {
-            @Override
-            public List<PushDetailResponse> parse(String response) throws IOException {
-                return ReportsObjectMapper.getInstance().readValue(response, new TypeReference<List<PushDetailResponse>>() {});
-            }
-        };
+        return new JsonResponseParser<>(ReportsObjectMapper.getInstance(), new TypeReference<List<PushDetailResponse>>() {});
     }
 }
@@ -4,6 +4,8 @@
 
 package com.urbanairship.api.reports;
 
+import com.google.common.collect.ImmutableMap;
+import com.urbanairship.api.client.JsonResponseParser;
 import com.urbanairship.api.client.Request;
 import com.urbanairship.api.client.RequestUtils;
 import com.urbanairship.api.client.ResponseParser;
@@ -12,9 +14,7 @@ import com.urbanairship.api.reports.parse.ReportsObjectMapper;
 import org.apache.http.HttpHeaders;
 import org.apache.http.entity.ContentType;
 
-import java.io.IOException;
 import java.net.URI;
-import java.util.HashMap;
 import java.util.Map;
 
 /**
@@ -24,6 +24,10 @@ import java.util.Map;
  */
 public class PushInfoRequest implements Request<PushInfoResponse> {
     private final static String API_PUSH_RESPONSE_STATS = "/api/reports/responses/";
+    private static final Map<String, String> HEADERS = ImmutableMap.of(
+        HttpHeaders.CONTENT_TYPE, CONTENT_TYPE_JSON,
+        HttpHeaders.ACCEPT, UA_VERSION_JSON
+    );
 
     private final String path;
 
@@ -48,10 +52,7 @@ public class PushInfoRequest implements Request<PushInfoResponse> {
 
     @Override
     public Map<String, String> getRequestHeaders() {
-        Map<String, String> headers = new HashMap<String, String>();
-        headers.put(HttpHeaders.CONTENT_TYPE, CONTENT_TYPE_JSON);
-        headers.put(HttpHeaders.ACCEPT, UA_VERSION_JSON);
-        return headers;
+        return HEADERS;
     }
 
     @Override
@@ -71,11 +72,6 @@ public class PushInfoRequest implements Request<PushInfoResponse> {
 
     @Override
     public ResponseParser<PushInfoResponse> getResponseParser() {
-        return new ResponseParser<PushInfoResponse>() {
-            @Override
-            public PushInfoResponse parse(String response) throws IOException {
-                return ReportsObjectMapper.getInstance().readValue(response, PushInfoResponse.class);
-            }
-        };
+        return new JsonResponseParser<>(ReportsObjectMapper.getInstance(), PushInfoResponse.class);
     }
 }
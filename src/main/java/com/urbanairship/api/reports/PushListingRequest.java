@@ -6,6 +6,8 @@ package com.urbanairship.api.reports;
 
 import com.google.common.base.Optional;
 import com.google.common.base.Preconditions;
+import com.google.common.collect.ImmutableMap;
+import com.urbanairship.api.client.JsonResponseParser;
 import com.urbanairship.api.client.Request;
 import com.urbanairship.api.client.RequestUtils;
 import com.urbanairship.api.client.ResponseParser;
@@ -17,10 +19,8 @@ import org.apache.http.client.utils.URIBuilder;
 import org.apache.http.entity.ContentType;
 import org.joda.time.DateTime;
 
-import java.io.IOException;
 import java.net.URI;
 import java.net.URISyntaxException;
-import java.util.HashMap;
 import java.util.Map;
 
 
@@ -30,6 +30,10 @@ import java.util.Map;
  */
 public class PushListingRequest implements Request<PushListingResponse> {
     private final static String API_PUSH_RESPONSE_LISTING = "/api/reports/responses/list/";
+    private static final Map<String, String> HEADERS = ImmutableMap.of(
+        HttpHeaders.CONTENT_TYPE, CONTENT_TYPE_JSON,
+        HttpHeaders.ACCEPT, UA_VERSION_JSON
+    );
     private final String path;
     private final boolean nextPageRequest;
     private DateTime start;
@@ -59,7 +63,7 @@ public class PushListingRequest implements Request<PushListingResponse> {
      */
     public static PushListingRequest newRequest(URI nextPage) {
         Preconditions.checkNotNull(nextPage, "Next page URI cannot be null");
-        return new PushListingRequest(nextPage.getPath() + "?" + nextPage.getQuery(), true);
+        return new PushListingRequest(RequestUtils.nextPagePath(nextPage), true);
     }
 
     /**
@@ -145,10 +149,7 @@ public class PushListingRequest implements Request<PushListingResponse> {
 
     @Override
     public Map<String, String> getRequestHeaders() {
-        Map<String, String> headers = new HashMap<String, String>();
-        headers.put(HttpHeaders.CONTENT_TYPE, CONTENT_TYPE_JSON);
-        headers.put(HttpHeaders.ACCEPT, UA_VERSION_JSON);
-        return headers;
+        return HEADERS;
     }
 
     @Override
@@ -184,11 +185,6 @@ public class PushListingRequest implements Request<PushListingResponse> {
 
     @Override
     public ResponseParser<PushListingResponse> getResponseParser() {
-        return new ResponseParser<PushListingResponse>() {
-            @Override
-            public PushListingResponse parse(String response) throws IOException {
-                return ReportsObjectMapper.getInstance().readValue(response, PushListingResponse.class);
-            }
-        };
+        return new JsonResponseParser<>(ReportsObjectMapper.getInstance(), PushListingResponse.class);
     }
 }
@@ -2,6 +2,8 @@ package com.urbanairship.api.reports;
 
 import com.google.common.base.Optional;
 import com.google.common.base.Preconditions;
+import com.google.common.collect.ImmutableMap;
+import com.urbanairship.api.client.JsonResponseParser;
 import com.urbanairship.api.client.Request;
 import com.urbanairship.api.client.RequestUtils;
 import com.urbanairship.api.client.ResponseParser;
@@ -14,14 +16,15 @@ import org.apache.http.client.utils.URIBuilder;
 import org.apache.http.entity.ContentType;
 import org.joda.time.DateTime;
 
-import java.io.IOException;
 import java.net.URI;
 import java.net.URISyntaxException;
-import java.util.HashMap;
 import java.util.Map;
 
 public class PushSeriesRequest implements Request<PushSeriesResponse> {
     private final static String API_PER_PUSH_SERIES = "/api/reports/perpush/series/";
+    private static final Map<String, String> HEADERS = ImmutableMap.of(
+        HttpHeaders.ACCEPT, UA_VERSION_JSON
+    );
 
     private final String path;
     private Optional<DateTime> start;
@@ -76,9 +79,7 @@ public class PushSeriesRequest implements Request<PushSeriesResponse> {
 
     @Override
     public Map<String, String> getRequestHeaders() {
-        Map<String, String> headers = new HashMap<String, String>();
-        headers.put(HttpHeaders.ACCEPT, UA_VERSION_JSON);
-        return headers;
+        return HEADERS;
     }
 
     @Override
@@ -113,11 +114,6 @@ public class PushSeriesRequest implements Request<PushSeriesResponse> {
 
     @Override
     public ResponseParser<PushSeriesResponse> getResponseParser() {
-        return new ResponseParser<PushSeriesResponse>() {
-            @Override
-            public PushSeriesResponse parse(String response) throws IOException {
-                return ReportsObjectMapper.getInstance().readValue(response, PushSeriesResponse.class);
-            }
-        };
+        return new JsonResponseParser<>(ReportsObjectMapper.getInstance(), PushSeriesResponse.class);
     }
 }
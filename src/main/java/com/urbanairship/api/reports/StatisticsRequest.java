@@ -1,6 +1,7 @@
 package com.urbanairship.api.reports;
 
 import com.google.common.base.Preconditions;
+import com.urbanairship.api.client.JsonResponseParser;
 import com.urbanairship.api.client.Request;
 import com.urbanairship.api.client.RequestUtils;
 import com.urbanairship.api.client.ResponseParser;
@@ -12,7 +13,6 @@ import org.apache.http.entity.ContentType;
 import org.codehaus.jackson.type.TypeReference;
 import org.joda.time.DateTime;
 
-import java.io.IOException;
 import java.net.URI;
 import java.net.URISyntaxException;
 import java.util.List;
@@ -78,12 +78,7 @@ public class StatisticsRequest implements Request<List<StatisticsResponse>> {
 
     @Override
     public ResponseParser<List<StatisticsResponse>> getResponseParser() {
-        return new ResponseParser<List<StatisticsResponse>>() {
-            @Override
-            public List<StatisticsResponse> parse(String response) throws IOException {
-                return ReportsObjectMapper.getInstance().readValue(response, new TypeReference<List<StatisticsResponse>>() {});
-            }
-        };
+        return new JsonResponseParser<>(ReportsObjectMapper.getInstance(), new TypeReference<List<StatisticsResponse>>() {});
     }
 
 }
@@ -3,8 +3,9 @@ package com.urbanairship.api.reports.model;
 import com.google.common.base.Objects;
 import com.google.common.base.Optional;
 import com.google.common.collect.ImmutableList;
+import com.urbanairship.api.client.PagedResponse;
 
-public class PlatformStatsResponse {
+public class PlatformStatsResponse implements PagedResponse<PlatformStats> {
     private final Optional<String> nextPage;
     private final Optional<ImmutableList<PlatformStats>> platformStatsObjects;
 
@@ -28,6 +29,7 @@ public class PlatformStatsResponse {
      *
      * @return An optional string
      */
+    @Override
     public Optional<String> getNextPage() {
         return nextPage;
     }
@@ -41,6 +43,16 @@ public class PlatformStatsResponse {
         return platformStatsObjects;
     }
 
+    /**
+     * Get the objects listed in this page.
+     *
+     * @return An ImmutableList of PlatformStats objects
+     */
+    @Override
+    public ImmutableList<PlatformStats> getPageItems() {
+        return platformStatsObjects.or(ImmutableList.<PlatformStats>of());
+    }
+
     @Override
     public String toString() {
         return "PlatformStatsResponse{" +
@@ -7,11 +7,12 @@ package com.urbanairship.api.reports.model;
 import com.google.common.base.Objects;
 import com.google.common.base.Optional;
 import com.google.common.collect.ImmutableList;
+import com.urbanairship.api.client.PagedResponse;
 
 /**
  * Push listing response object
  */
-public class PushListingResponse {
+public class PushListingResponse implements PagedResponse<PushInfoResponse> {
 
     private final Optional<String> nextPage;
     private final Optional<ImmutableList<PushInfoResponse>> pushInfoObjects;
@@ -36,6 +37,7 @@ public class PushListingResponse {
      *
      * @return An optional String
      */
+    @Override
     public Optional<String> getNextPage() {
         return nextPage;
     }
@@ -50,6 +52,16 @@ public class PushListingResponse {
         return pushInfoObjects;
     }
 
+    /**
+     * Get the objects listed in this page.
+     *
+     * @return An ImmutableList of PushInfoResponse objects
+     */
+    @Override
+    public ImmutableList<PushInfoResponse> getPageItems() {
+        return pushInfoObjects.or(ImmutableList.<PushInfoResponse>of());
+    }
+
     @Override
     public String toString() {
         return "PushInfoResponse{" +
@@ -5,6 +5,7 @@ package com.urbanairship.api.schedule;
  */
 
 import com.google.common.base.Preconditions;
+import com.google.common.collect.ImmutableMap;
 import com.google.common.net.HttpHeaders;
 import com.urbanairship.api.client.Request;
 import com.urbanairship.api.client.RequestUtils;
@@ -14,7 +15,6 @@ import org.apache.http.entity.ContentType;
 
 import java.io.IOException;
 import java.net.URI;
-import java.util.HashMap;
 import java.util.Map;
 
 /**
@@ -23,6 +23,10 @@ import java.util.Map;
  */
 public class ScheduleDeleteRequest implements Request<String> {
 
+    private static final Map<String, String> HEADERS = ImmutableMap.of(
+        HttpHeaders.ACCEPT, UA_VERSION_JSON
+    );
+
     private final String scheduleId;
 
     private ScheduleDeleteRequest(String scheduleId) {
@@ -47,9 +51,7 @@ public class ScheduleDeleteRequest implements Request<String> {
 
     @Override
     public Map<String, String> getRequestHeaders() {
-        Map<String, String> headers = new HashMap<String, String>();
-        headers.put(HttpHeaders.ACCEPT, UA_VERSION_JSON);
-        return headers;
+        return HEADERS;
     }
 
     @Override
@@ -1,10 +1,13 @@
 package com.urbanairship.api.schedule;
 
 import com.google.common.base.Preconditions;
+import com.google.common.collect.ImmutableMap;
 import com.google.common.net.HttpHeaders;
+import com.urbanairship.api.client.JsonResponseParser;
 import com.urbanairship.api.client.Request;
 import com.urbanairship.api.client.RequestUtils;
 import com.urbanairship.api.client.ResponseParser;
+import com.urbanairship.api.client.StreamingResponseParser;
 import com.urbanairship.api.schedule.model.ListAllSchedulesResponse;
 import com.urbanairship.api.schedule.model.SchedulePayload;
 import com.urbanairship.api.schedule.parse.ScheduleObjectMapper;
@@ -12,8 +15,8 @@ import org.apache.commons.lang.StringUtils;
 import org.apache.http.entity.ContentType;
 
 import java.io.IOException;
+import java.io.InputStream;
 import java.net.URI;
-import java.util.HashMap;
 import java.util.Map;
 import java.util.UUID;
 
@@ -23,21 +26,30 @@ import java.util.UUID;
  */
 public class ScheduleListingRequest implements Request<ListAllSchedulesResponse> {
 
-    private static final ResponseParser<ListAllSchedulesResponse> LIST_PARSER = new ResponseParser<ListAllSchedulesResponse>() {
+    private static final Map<String, String> HEADERS = ImmutableMap.of(
+        HttpHeaders.CONTENT_TYPE, CONTENT_TYPE_JSON,
+        HttpHeaders.ACCEPT, UA_VERSION_JSON
+    );
+
+    private static final ResponseParser<ListAllSchedulesResponse> LIST_PARSER = new JsonResponseParser<>(ScheduleObjectMapper.getInstance(), ListAllSchedulesResponse.class);
+
+    private static final ResponseParser<ListAllSchedulesResponse> SINGLE_LOOKUP_PARSER = new StreamingResponseParser<ListAllSchedulesResponse>() {
         @Override
         public ListAllSchedulesResponse parse(String response) throws IOException {
-            return ScheduleObjectMapper.getInstance().readValue(response, ListAllSchedulesResponse.class);
+            return singleLookupResponse(ScheduleObjectMapper.getInstance().readValue(response, SchedulePayload.class));
         }
-    };
 
-    private static final ResponseParser<ListAllSchedulesResponse> SINGLE_LOOKUP_PARSER = new ResponseParser<ListAllSchedulesResponse>() {
         @Override
-        public ListAllSchedulesResponse parse(String response) throws IOException {
+        public ListAllSchedulesResponse parse(InputStream response) throws IOException {
+            return singleLookupResponse(ScheduleObjectMapper.getInstance().readValue(response, SchedulePayload.class));
+        }
+
+        private ListAllSchedulesResponse singleLookupResponse(SchedulePayload schedule) {
             return ListAllSchedulesResponse.newBuilder()
                 .setCount(1)
                 .setTotalCount(1)
                 .setOk(true)
-                .addSchedule(ScheduleObjectMapper.getInstance().readValue(response, SchedulePayload.class))
+                .addSchedule(schedule)
                 .build();
         }
     };
@@ -94,7 +106,7 @@ public class ScheduleListingRequest implements Request<ListAllSchedulesResponse>
      */
     public static ScheduleListingRequest newRequest(URI nextPage) {
         Preconditions.checkNotNull(nextPage, "Next page URI may not be null");
-        return new ScheduleListingRequest(nextPage.getPath() + "?" + nextPage.getQuery(), LIST_PARSER);
+        return new ScheduleListingRequest(RequestUtils.nextPagePath(nextPage), LIST_PARSER);
     }
 
     @Override
@@ -114,10 +126,7 @@ public class ScheduleListingRequest implements Request<ListAllSchedulesResponse>
 
     @Override
     public Map<String, String> getRequestHeaders() {
-        Map<String, String> headers = new HashMap<String, String>();
-        headers.put(HttpHeaders.CONTENT_TYPE, CONTENT_TYPE_JSON);
-        headers.put(HttpHeaders.ACCEPT, UA_VERSION_JSON);
-        return headers;
+        return HEADERS;
     }
 
     @Override
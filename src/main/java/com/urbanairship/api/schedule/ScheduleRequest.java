@@ -4,9 +4,12 @@ package com.urbanairship.api.schedule;
  * Copyright (c) 2013-2016.  Urban Airship and Contributors
  */
 
+import com.google.common.base.Charsets;
 import com.google.common.base.Preconditions;
+import com.google.common.collect.ImmutableMap;
 import com.google.common.net.HttpHeaders;
-import com.urbanairship.api.client.Request;
+import com.urbanairship.api.client.EncodedBodyRequest;
+import com.urbanairship.api.client.JsonResponseParser;
 import com.urbanairship.api.client.RequestUtils;
 import com.urbanairship.api.client.ResponseParser;
 import com.urbanairship.api.push.model.PushPayload;
@@ -17,24 +20,28 @@ import com.urbanairship.api.schedule.parse.ScheduleObjectMapper;
 import org.apache.commons.lang.StringUtils;
 import org.apache.http.entity.ContentType;
 
-import java.io.IOException;
 import java.net.URI;
-import java.util.HashMap;
 import java.util.Map;
 
 /**
  * The ScheduleRequest class builds scheduled push requests to be executed in
- * the {@link com.urbanairship.api.client.UrbanAirshipClient}.
+ * the {@link com.urbanairship.api.client.UrbanAirshipClient}. The schedule payload is serialized once, on first
+ * use, and the encoded body is reused until the request is changed.
  */
-public class ScheduleRequest implements Request<ScheduleResponse> {
+public class ScheduleRequest implements EncodedBodyRequest<ScheduleResponse> {
 
     final static String API_SCHEDULE_PATH = "/api/schedules/";
+    private static final Map<String, String> HEADERS = ImmutableMap.of(
+        HttpHeaders.CONTENT_TYPE, CONTENT_TYPE_JSON,
+        HttpHeaders.ACCEPT, UA_VERSION_JSON
+    );
 
     private final Schedule schedule;
     private final PushPayload pushPayload;
     private final String path;
     private final HttpMethod method;
     private String name;
+    private volatile byte[] body;
 
     private ScheduleRequest(Schedule schedule, PushPayload pushPayload, HttpMethod method, String path) {
         this.schedule = schedule;
@@ -73,6 +80,7 @@ public class ScheduleRequest implements Request<ScheduleResponse> {
 
     public ScheduleRequest setName(String name) {
         this.name = name;
+        this.body = null;
         return this;
     }
 
@@ -83,10 +91,7 @@ public class ScheduleRequest implements Request<ScheduleResponse> {
 
     @Override
     public Map<String, String> getRequestHeaders() {
-        Map<String, String> headers = new HashMap<String, String>();
-        headers.put(HttpHeaders.CONTENT_TYPE, CONTENT_TYPE_JSON);
-        headers.put(HttpHeaders.ACCEPT, UA_VERSION_JSON);
-        return headers;
+        return HEADERS;
     }
 
     @Override
@@ -96,12 +101,22 @@ public class ScheduleRequest implements Request<ScheduleResponse> {
 
     @Override
     public String getRequestBody() {
-        return SchedulePayload.newBuilder()
-                .setName(name)
-                .setPushPayload(pushPayload)
-                .setSchedule(schedule)
-                .build()
-                .toJSON();
+        return new String(getRequestBodyBytes(), Charsets.UTF_8);
+    }
+
+    @Override
+    public byte[] getRequestBodyBytes() {
+        byte[] bytes = body;
+        if (bytes == null) {
+            bytes = SchedulePayload.newBuilder()
+                    .setName(name)
+                    .setPushPayload(pushPayload)
+                    .setSchedule(schedule)
+                    .build()
+                    .toJSONBytes();
+            body = bytes;
+        }
+        return bytes;
     }
 
     @Override
@@ -111,11 +126,6 @@ public class ScheduleRequest implements Request<ScheduleResponse> {
 
     @Override
     public ResponseParser<ScheduleResponse> getResponseParser() {
-        return new ResponseParser<ScheduleResponse>() {
-            @Override
-            public ScheduleResponse parse(String response) throws IOException {
-                return ScheduleObjectMapper.getInstance().readValue(response, ScheduleResponse.class);
-            }
-        };
+        return new JsonResponseParser<>(ScheduleObjectMapper.getInstance(), ScheduleResponse.class);
     }
 }
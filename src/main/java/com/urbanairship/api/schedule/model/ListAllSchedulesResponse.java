@@ -6,12 +6,14 @@ package com.urbanairship.api.schedule.model;
 
 
 import com.google.common.base.Objects;
+import com.google.common.base.Optional;
 import com.google.common.base.Preconditions;
 import com.google.common.collect.ImmutableList;
+import com.urbanairship.api.client.PagedResponse;
 
 import java.util.List;
 
-public final class ListAllSchedulesResponse {
+public final class ListAllSchedulesResponse implements PagedResponse<SchedulePayload> {
 
     private final boolean ok;
     private final int count;
@@ -51,6 +53,26 @@ public final class ListAllSchedulesResponse {
         return scheduleObjects;
     }
 
+    /**
+     * Get the next page if present for a schedule listing request.
+     *
+     * @return An Optional String
+     */
+    @Override
+    public Optional<String> getNextPage() {
+        return Optional.fromNullable(nextPage);
+    }
+
+    /**
+     * Get the schedules in this page.
+     *
+     * @return ImmutableList of SchedulePayload
+     */
+    @Override
+    public ImmutableList<SchedulePayload> getPageItems() {
+        return scheduleObjects;
+    }
+
     @Override
     public int hashCode() {
         return Objects.hashCode(ok, count, totalCount, nextPage, scheduleObjects);
@@ -2,15 +2,21 @@ package com.urbanairship.api.schedule.model;
 
 import com.urbanairship.api.common.model.APIModelObject;
 import com.urbanairship.api.schedule.parse.ScheduleObjectMapper;
+import org.codehaus.jackson.map.ObjectMapper;
 
 public class ScheduleModelObject extends APIModelObject {
 
     @Override
     public String toJSON() {
         try {
-            return ScheduleObjectMapper.getInstance().writeValueAsString(this);
+            return getObjectMapper().writeValueAsString(this);
         } catch ( Exception e ) {
             return toJSON(e);
         }
     }
+
+    @Override
+    protected ObjectMapper getObjectMapper() {
+        return ScheduleObjectMapper.getInstance();
+    }
 }
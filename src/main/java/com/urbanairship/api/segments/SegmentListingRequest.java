@@ -5,7 +5,9 @@
 package com.urbanairship.api.segments;
 
 import com.google.common.base.Preconditions;
+import com.google.common.collect.ImmutableMap;
 import com.google.common.net.HttpHeaders;
+import com.urbanairship.api.client.JsonResponseParser;
 import com.urbanairship.api.client.Request;
 import com.urbanairship.api.client.RequestUtils;
 import com.urbanairship.api.client.ResponseParser;
@@ -13,9 +15,7 @@ import com.urbanairship.api.segments.model.SegmentListingResponse;
 import com.urbanairship.api.segments.parse.SegmentObjectMapper;
 import org.apache.http.entity.ContentType;
 
-import java.io.IOException;
 import java.net.URI;
-import java.util.HashMap;
 import java.util.Map;
 
 /**
@@ -24,6 +24,9 @@ import java.util.Map;
  */
 public class SegmentListingRequest implements Request<SegmentListingResponse> {
     private final static String API_SEGMENTS_PATH = "/api/segments/";
+    private static final Map<String, String> HEADERS = ImmutableMap.of(
+        HttpHeaders.ACCEPT, UA_VERSION_JSON
+    );
 
     private final String path;
 
@@ -48,7 +51,7 @@ public class SegmentListingRequest implements Request<SegmentListingResponse> {
      */
     public static SegmentListingRequest newRequest(URI nextPage) {
         Preconditions.checkNotNull(nextPage, "Next page URI cannot be null");
-        return new SegmentListingRequest(nextPage.getPath() + "?" + nextPage.getQuery());
+        return new SegmentListingRequest(RequestUtils.nextPagePath(nextPage));
     }
 
     @Override
@@ -58,9 +61,7 @@ public class SegmentListingRequest implements Request<SegmentListingResponse> {
 
     @Override
     public Map<String, String> getRequestHeaders() {
-        Map<String, String> headers = new HashMap<String, String>();
-        headers.put(HttpHeaders.ACCEPT, UA_VERSION_JSON);
-        return headers;
+        return HEADERS;
     }
 
     @Override
@@ -80,11 +81,6 @@ public class SegmentListingRequest implements Request<SegmentListingResponse> {
 
     @Override
     public ResponseParser<SegmentListingResponse> getResponseParser() {
-        return new ResponseParser<SegmentListingResponse>() {
-            @Override
-            public SegmentListingResponse parse(String response) throws IOException {
-                return SegmentObjectMapper.getInstance().readValue(response, SegmentListingResponse.class);
-            }
-        };
+        return new JsonResponseParser<>(SegmentObjectMapper.getInstance(), SegmentListingResponse.class);
     }
 }
\ No newline at end of file
@@ -5,7 +5,10 @@
 package com.urbanairship.api.segments;
 
 import com.google.common.base.Preconditions;
+import com.google.common.collect.ImmutableMap;
 import com.google.common.net.HttpHeaders;
+import com.urbanairship.api.client.CacheableRequest;
+import com.urbanairship.api.client.JsonResponseParser;
 import com.urbanairship.api.client.Request;
 import com.urbanairship.api.client.RequestUtils;
 import com.urbanairship.api.client.ResponseParser;
@@ -14,17 +17,18 @@ import com.urbanairship.api.segments.parse.SegmentObjectMapper;
 import org.apache.commons.lang.StringUtils;
 import org.apache.http.entity.ContentType;
 
-import java.io.IOException;
 import java.net.URI;
-import java.util.HashMap;
 import java.util.Map;
 
 /**
  * The SegmentLookupRequest class builds segment lookup requests to be executed in
  * the {@link com.urbanairship.api.client.UrbanAirshipClient}.
  */
-public class SegmentLookupRequest implements Request<SegmentView> {
+public class SegmentLookupRequest implements CacheableRequest<SegmentView> {
     private final static String API_SEGMENTS_PATH = "/api/segments/";
+    private static final Map<String, String> HEADERS = ImmutableMap.of(
+        HttpHeaders.ACCEPT, UA_VERSION_JSON
+    );
     private final String path;
 
     private SegmentLookupRequest(String path) {
@@ -49,9 +53,7 @@ public class SegmentLookupRequest implements Request<SegmentView> {
 
     @Override
     public Map<String, String> getRequestHeaders() {
-        Map<String, String> headers = new HashMap<String, String>();
-        headers.put(HttpHeaders.ACCEPT, UA_VERSION_JSON);
-        return headers;
+        return HEADERS;
     }
 
     @Override
@@ -59,6 +61,11 @@ public class SegmentLookupRequest implements Request<SegmentView> {
         return Request.HttpMethod.GET;
     }
 
+    @Override
+    public boolean isCacheable() {
+        return true;
+    }
+
     @Override
     public String getRequestBody() {
         return null;
@@ -71,11 +78,6 @@ public class SegmentLookupRequest implements Request<SegmentView> {
 
     @Override
     public ResponseParser<SegmentView> getResponseParser() {
-        return new ResponseParser<SegmentView>() {
-            @Override
-            public SegmentView parse(String response) throws IOException {
-                return SegmentObjectMapper.getInstance().readValue(response, SegmentView.class);
-            }
-        };
+        return new JsonResponseParser<>(SegmentObjectMapper.getInstance(), SegmentView.class);
     }
 }
\ No newline at end of file
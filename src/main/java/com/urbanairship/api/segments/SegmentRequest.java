@@ -5,6 +5,7 @@
 package com.urbanairship.api.segments;
 
 import com.google.common.base.Preconditions;
+import com.google.common.collect.ImmutableMap;
 import com.google.common.net.HttpHeaders;
 import com.urbanairship.api.client.Request;
 import com.urbanairship.api.client.RequestUtils;
@@ -17,7 +18,6 @@ import org.apache.http.entity.ContentType;
 
 import java.io.IOException;
 import java.net.URI;
-import java.util.HashMap;
 import java.util.Map;
 
 /**
@@ -26,6 +26,9 @@ import java.util.Map;
  */
 public class SegmentRequest implements Request<String> {
     private final static String API_SEGMENTS_PATH = "/api/segments/";
+    private static final Map<String, String> HEADERS = ImmutableMap.of(
+        HttpHeaders.ACCEPT, UA_VERSION_JSON
+    );
     private final SegmentView.Builder builder = SegmentView.newBuilder();
     private final String path;
 
@@ -82,9 +85,7 @@ public class SegmentRequest implements Request<String> {
 
     @Override
     public Map<String, String> getRequestHeaders() {
-        Map<String, String> headers = new HashMap<String, String>();
-        headers.put(HttpHeaders.ACCEPT, UA_VERSION_JSON);
-        return headers;
+        return HEADERS;
     }
 
     @Override
@@ -3,8 +3,9 @@ package com.urbanairship.api.segments.model;
 import com.google.common.base.Objects;
 import com.google.common.base.Optional;
 import com.google.common.collect.ImmutableList;
+import com.urbanairship.api.client.PagedResponse;
 
-public class SegmentListingResponse {
+public class SegmentListingResponse implements PagedResponse<SegmentListingView> {
     private final Optional<String> nextPage;
     private final ImmutableList<SegmentListingView> segmentListingViews;
 
@@ -28,6 +29,7 @@ public class SegmentListingResponse {
      *
      * @return An Optional String
      */
+    @Override
     public Optional<String> getNextPage() {
         return nextPage;
     }
@@ -41,6 +43,16 @@ public class SegmentListingResponse {
         return segmentListingViews;
     }
 
+    /**
+     * Get the objects listed in this page.
+     *
+     * @return An ImmutableList of SegmentListingView objects
+     */
+    @Override
+    public ImmutableList<SegmentListingView> getPageItems() {
+        return segmentListingViews;
+    }
+
     @Override
     public String toString() {
         return "SegmentListingResponse{" +
@@ -0,0 +1,18 @@
+/*
+ * Copyright (c) 2013-2016.  Urban Airship and Contributors
+ */
+
+package com.urbanairship.api.staticlists;
+
+/**
+ * Callback receiving the rows of a streamed static list download as they are parsed.
+ */
+public interface CsvRowCallback {
+
+    /**
+     * Called for each row of the list, in order.
+     *
+     * @param row The row fields.
+     */
+    void onRow(String[] row);
+}
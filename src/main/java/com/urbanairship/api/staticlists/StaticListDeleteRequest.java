@@ -5,6 +5,7 @@
 package com.urbanairship.api.staticlists;
 
 import com.google.common.base.Preconditions;
+import com.google.common.collect.ImmutableMap;
 import com.google.common.net.HttpHeaders;
 import com.urbanairship.api.client.Request;
 import com.urbanairship.api.client.RequestUtils;
@@ -14,7 +15,6 @@ import org.apache.http.entity.ContentType;
 
 import java.io.IOException;
 import java.net.URI;
-import java.util.HashMap;
 import java.util.Map;
 
 /**
@@ -23,6 +23,9 @@ import java.util.Map;
  */
 public class StaticListDeleteRequest implements Request<String> {
     private final static String API_LISTS_PATH = "/api/lists/";
+    private static final Map<String, String> HEADERS = ImmutableMap.of(
+        HttpHeaders.ACCEPT, UA_VERSION_JSON
+    );
     private final String name;
 
     private StaticListDeleteRequest(String name) {
@@ -47,9 +50,7 @@ public class StaticListDeleteRequest implements Request<String> {
 
     @Override
     public Map<String, String> getRequestHeaders() {
-        Map<String, String> headers = new HashMap<String, String>();
-        headers.put(HttpHeaders.ACCEPT, UA_VERSION_JSON);
-        return headers;
+        return HEADERS;
     }
 
     @Override
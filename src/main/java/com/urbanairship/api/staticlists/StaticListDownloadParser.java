@@ -0,0 +1,191 @@
+/*
+ * Copyright (c) 2013-2016.  Urban Airship and Contributors
+ */
+
+package com.urbanairship.api.staticlists;
+
+import com.google.common.base.Optional;
+import com.opencsv.CSVParser;
+import com.urbanairship.api.client.IncrementalResponseParser;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.CharsetDecoder;
+import java.nio.charset.CoderResult;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Streams a static list download to a file or channel, and optionally parses its rows, as the body parts
+ * arrive. A new parser is created for every execution of a {@link StaticListDownloadRequest}.
+ */
+class StaticListDownloadParser implements IncrementalResponseParser<String> {
+
+    private static final Logger log = LoggerFactory.getLogger(StaticListDownloadParser.class);
+    private static final int BUFFER_SIZE = 8192;
+
+    private final Optional<Path> path;
+    private final Optional<WritableByteChannel> channel;
+    private final Optional<CsvRowCallback> rowCallback;
+
+    private WritableByteChannel output = null;
+
+    private final CSVParser csvParser = new CSVParser();
+    private final CharsetDecoder decoder = StandardCharsets.UTF_8.newDecoder();
+    private final CharBuffer chars = CharBuffer.allocate(BUFFER_SIZE);
+    private final StringBuilder line = new StringBuilder();
+    private final List<String> pendingFields = new ArrayList<String>();
+    private ByteBuffer undecoded = ByteBuffer.allocate(0);
+
+    StaticListDownloadParser(Optional<Path> path, Optional<WritableByteChannel> channel, Optional<CsvRowCallback> rowCallback) {
+        this.path = path;
+        this.channel = channel;
+        this.rowCallback = rowCallback;
+    }
+
+    /**
+     * Handles a response that was already aggregated, as if it had been received in a single body part.
+     *
+     * @param response The response body.
+     * @return The response body.
+     * @throws IOException
+     */
+    @Override
+    public String parse(String response) throws IOException {
+        write(ByteBuffer.wrap(response.getBytes(StandardCharsets.UTF_8)));
+        finish();
+        return response;
+    }
+
+    @Override
+    public void write(ByteBuffer bodyPart) throws IOException {
+        if (channel.isPresent() || path.isPresent()) {
+            ByteBuffer bytes = bodyPart.duplicate();
+            WritableByteChannel out = output();
+            while (bytes.hasRemaining()) {
+                out.write(bytes);
+            }
+        }
+
+        if (rowCallback.isPresent()) {
+            decode(bodyPart.duplicate(), false);
+        }
+    }
+
+    @Override
+    public String finish() throws IOException {
+        try {
+            if (rowCallback.isPresent()) {
+                decode(ByteBuffer.allocate(0), true);
+                if (line.length() > 0) {
+                    emit();
+                }
+                if (csvParser.isPending()) {
+                    throw new IOException("Static list ended inside a quoted field");
+                }
+            }
+            if (path.isPresent()) {
+                // Create the file even if the list is empty.
+                output();
+            }
+        } finally {
+            closeOutput();
+        }
+        return null;
+    }
+
+    @Override
+    public void abort(Throwable cause) {
+        try {
+            closeOutput();
+        } catch (IOException e) {
+            log.warn("Failed to close static list download output", e);
+        }
+    }
+
+    private WritableByteChannel output() throws IOException {
+        if (output == null) {
+            output = channel.isPresent()
+                ? channel.get()
+                : FileChannel.open(path.get(), StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE);
+        }
+        return output;
+    }
+
+    /**
+     * Closes the output file the parser opened. Channels given by the caller are left open.
+     */
+    private void closeOutput() throws IOException {
+        if (output != null && !channel.isPresent()) {
+            output.close();
+        }
+        output = null;
+    }
+
+    /**
+     * Decodes the bytes into complete lines, keeping any partial character for the next body part.
+     */
+    private void decode(ByteBuffer bytes, boolean endOfInput) throws IOException {
+        ByteBuffer input = bytes;
+        if (undecoded.hasRemaining()) {
+            input = ByteBuffer.allocate(undecoded.remaining() + bytes.remaining());
+            input.put(undecoded).put(bytes).flip();
+        }
+
+        CoderResult result;
+        do {
+            result = decoder.decode(input, chars, endOfInput);
+            if (result.isError()) {
+                result.throwException();
+            }
+            if (endOfInput && result.isUnderflow()) {
+                decoder.flush(chars);
+            }
+            chars.flip();
+            consume(chars);
+            chars.clear();
+        } while (result.isOverflow());
+
+        undecoded = input.hasRemaining() ? ByteBuffer.allocate(input.remaining()).put(input) : ByteBuffer.allocate(0);
+        undecoded.flip();
+    }
+
+    private void consume(CharBuffer decoded) throws IOException {
+        while (decoded.hasRemaining()) {
+            char c = decoded.get();
+            if (c == '\n') {
+                emit();
+            } else {
+                line.append(c);
+            }
+        }
+    }
+
+    /**
+     * Parses the buffered line, emitting a row unless a quoted field continues on the next line.
+     */
+    private void emit() throws IOException {
+        int length = line.length();
+        if (length > 0 && line.charAt(length - 1) == '\r') {
+            line.setLength(length - 1);
+        }
+
+        // The parser returns the fields of each line separately, so the fields of a row spanning several
+        // lines are gathered until the quoted field is closed.
+        pendingFields.addAll(Arrays.asList(csvParser.parseLineMulti(line.toString())));
+        line.setLength(0);
+        if (!csvParser.isPending()) {
+            rowCallback.get().onRow(pendingFields.toArray(new String[pendingFields.size()]));
+            pendingFields.clear();
+        }
+    }
+}
@@ -6,6 +6,7 @@ package com.urbanairship.api.staticlists;
 
 import com.google.common.base.Optional;
 import com.google.common.base.Preconditions;
+import com.google.common.collect.ImmutableMap;
 import com.google.common.net.HttpHeaders;
 import com.opencsv.CSVWriter;
 import com.urbanairship.api.client.Request;
@@ -18,18 +19,29 @@ import java.io.FileOutputStream;
 import java.io.IOException;
 import java.io.OutputStreamWriter;
 import java.net.URI;
-import java.util.HashMap;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.Path;
 import java.util.Map;
 
 /*
  * The StaticListDownloadRequest class static list download request to be executed in
  * the {@link com.urbanairship.api.client.UrbanAirshipClient}.
+ *
+ * By default the whole list is returned as the response body. When an output path, an output channel or a
+ * row callback is set, the list is streamed instead: body parts are written out and parsed as they arrive,
+ * and the response has no body.
  */
 public class StaticListDownloadRequest implements Request<String> {
     private final static String API_LISTS_PATH = "/api/lists/";
+    private static final Map<String, String> HEADERS = ImmutableMap.of(
+        HttpHeaders.ACCEPT, UA_VERSION_CSV
+    );
     private final String path;
 
     private Optional<FileOutputStream> fileOutputStream = Optional.absent();
+    private Optional<Path> outputPath = Optional.absent();
+    private Optional<WritableByteChannel> outputChannel = Optional.absent();
+    private Optional<CsvRowCallback> rowCallback = Optional.absent();
 
     private StaticListDownloadRequest(String name) {
         this.path = API_LISTS_PATH + name + "/csv";
@@ -68,6 +80,44 @@ public class StaticListDownloadRequest implements Request<String> {
         return this;
     }
 
+    /**
+     * Stream the list to a file as it is downloaded. The file is created, or truncated if it exists.
+     *
+     * @param outputPath The path of the file to write to.
+     * @return StaticListDownloadRequest
+     */
+    public StaticListDownloadRequest setOutputPath(Path outputPath) {
+        Preconditions.checkNotNull(outputPath, "Output path cannot be null.");
+        this.outputPath = Optional.of(outputPath);
+        this.outputChannel = Optional.absent();
+        return this;
+    }
+
+    /**
+     * Stream the list to a channel as it is downloaded. The channel is not closed once the download completes.
+     *
+     * @param outputChannel The channel to write to.
+     * @return StaticListDownloadRequest
+     */
+    public StaticListDownloadRequest setOutputChannel(WritableByteChannel outputChannel) {
+        Preconditions.checkNotNull(outputChannel, "Output channel cannot be null.");
+        this.outputChannel = Optional.of(outputChannel);
+        this.outputPath = Optional.absent();
+        return this;
+    }
+
+    /**
+     * Parse the list as it is downloaded, passing each row to the callback.
+     *
+     * @param rowCallback The row callback.
+     * @return StaticListDownloadRequest
+     */
+    public StaticListDownloadRequest setRowCallback(CsvRowCallback rowCallback) {
+        Preconditions.checkNotNull(rowCallback, "Row callback cannot be null.");
+        this.rowCallback = Optional.of(rowCallback);
+        return this;
+    }
+
     @Override
     public ContentType getContentType() {
         return null;
@@ -75,9 +125,7 @@ public class StaticListDownloadRequest implements Request<String> {
 
     @Override
     public Map<String, String> getRequestHeaders() {
-        Map<String, String> headers = new HashMap<String, String>();
-        headers.put(HttpHeaders.ACCEPT, UA_VERSION_CSV);
-        return headers;
+        return HEADERS;
     }
 
     @Override
@@ -97,6 +145,10 @@ public class StaticListDownloadRequest implements Request<String> {
 
     @Override
     public ResponseParser<String> getResponseParser() {
+        if (outputPath.isPresent() || outputChannel.isPresent() || rowCallback.isPresent()) {
+            return new StaticListDownloadParser(outputPath, outputChannel, rowCallback);
+        }
+
         return new ResponseParser<String>() {
             @Override
             public String parse(String response) throws IOException {
@@ -5,7 +5,10 @@
 package com.urbanairship.api.staticlists;
 
 import com.google.common.base.Preconditions;
+import com.google.common.collect.ImmutableMap;
 import com.google.common.net.HttpHeaders;
+import com.urbanairship.api.client.CacheableRequest;
+import com.urbanairship.api.client.JsonResponseParser;
 import com.urbanairship.api.client.Request;
 import com.urbanairship.api.client.RequestUtils;
 import com.urbanairship.api.client.ResponseParser;
@@ -14,17 +17,18 @@ import com.urbanairship.api.staticlists.parse.StaticListsObjectMapper;
 import org.apache.commons.lang.StringUtils;
 import org.apache.http.entity.ContentType;
 
-import java.io.IOException;
 import java.net.URI;
-import java.util.HashMap;
 import java.util.Map;
 
 /**
  * The StaticListLookupRequest class builds static list lookup requests to be executed in
  * the {@link com.urbanairship.api.client.UrbanAirshipClient}.
  */
-public class StaticListLookupRequest implements Request<StaticListView> {
+public class StaticListLookupRequest implements CacheableRequest<StaticListView> {
     private final static String API_LISTS_PATH = "/api/lists/";
+    private static final Map<String, String> HEADERS = ImmutableMap.of(
+        HttpHeaders.ACCEPT, UA_VERSION_JSON
+    );
     private final String path;
 
     private StaticListLookupRequest(String path) {
@@ -49,9 +53,7 @@ public class StaticListLookupRequest implements Request<StaticListView> {
 
     @Override
     public Map<String, String> getRequestHeaders() {
-        Map<String, String> headers = new HashMap<String, String>();
-        headers.put(HttpHeaders.ACCEPT, UA_VERSION_JSON);
-        return headers;
+        return HEADERS;
     }
 
     @Override
@@ -59,6 +61,11 @@ public class StaticListLookupRequest implements Request<StaticListView> {
         return Request.HttpMethod.GET;
     }
 
+    @Override
+    public boolean isCacheable() {
+        return true;
+    }
+
     @Override
     public String getRequestBody() {
         return null;
@@ -71,11 +78,6 @@ public class StaticListLookupRequest implements Request<StaticListView> {
 
     @Override
     public ResponseParser<StaticListView> getResponseParser() {
-        return new ResponseParser<StaticListView>() {
-            @Override
-            public StaticListView parse(String response) throws IOException {
-                return StaticListsObjectMapper.getInstance().readValue(response, StaticListView.class);
-            }
-        };
+        return new JsonResponseParser<>(StaticListsObjectMapper.getInstance(), StaticListView.class);
     }
 }
\ No newline at end of file
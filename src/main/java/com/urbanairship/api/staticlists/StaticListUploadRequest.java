@@ -4,37 +4,66 @@
 
 package com.urbanairship.api.staticlists;
 
+import com.google.common.base.Charsets;
+import com.google.common.base.Optional;
 import com.google.common.base.Preconditions;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import com.google.common.io.ByteSource;
 import com.google.common.net.HttpHeaders;
+import com.ning.http.client.BodyGenerator;
+import com.ning.http.client.generators.FileBodyGenerator;
+import com.ning.http.client.generators.InputStreamBodyGenerator;
+import com.urbanairship.api.client.ByteSourceInputStream;
+import com.urbanairship.api.client.CacheInvalidatingRequest;
 import com.urbanairship.api.client.Request;
 import com.urbanairship.api.client.RequestUtils;
 import com.urbanairship.api.client.ResponseParser;
+import com.urbanairship.api.client.StreamingBodyRequest;
 import org.apache.commons.lang.StringUtils;
 import org.apache.http.entity.ContentType;
 
 import java.io.BufferedReader;
 import java.io.File;
-import java.io.FileReader;
 import java.io.IOException;
+import java.io.InputStream;
 import java.net.URI;
-import java.util.HashMap;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Collection;
 import java.util.Map;
+import java.util.concurrent.atomic.AtomicBoolean;
 
 /**
  * The StaticListUploadRequest class builds a static list upload request to be executed in
  * the {@link com.urbanairship.api.client.UrbanAirshipClient}.
+ *
+ * The CSV is streamed to the server rather than read into memory. Uncompressed files are sent straight from
+ * disk; with gzip enabled, the CSV is compressed on the fly as it is sent.
  */
-public class StaticListUploadRequest implements Request<String> {
+public class StaticListUploadRequest implements StreamingBodyRequest<String>, CacheInvalidatingRequest<String> {
     private final static String API_LISTS_PATH = "/api/lists/";
     private final static String CSV_PATH = "/csv";
+    private final static Map<String, String> HEADERS = ImmutableMap.of(
+        HttpHeaders.ACCEPT, UA_VERSION_JSON,
+        HttpHeaders.CONTENT_TYPE, CONTENT_TYPE_TEXT_CSV
+    );
+    private final static Map<String, String> GZIP_HEADERS = ImmutableMap.of(
+        HttpHeaders.ACCEPT, UA_VERSION_JSON,
+        HttpHeaders.CONTENT_TYPE, CONTENT_TYPE_TEXT_CSV,
+        HttpHeaders.CONTENT_ENCODING, CONTENT_ENCODING_GZIP
+    );
     private final String path;
 
-    private File csv;
+    private final ByteSource csv;
+    private final Optional<File> csvFile;
     private Boolean gzip = false;
 
-    private StaticListUploadRequest(String path, File csv) {
+    private StaticListUploadRequest(String path, ByteSource csv, Optional<File> csvFile) {
         this.path = path;
         this.csv = csv;
+        this.csvFile = csvFile;
     }
 
     /**
@@ -46,9 +75,79 @@ public class StaticListUploadRequest implements Request<String> {
      */
     public static StaticListUploadRequest newRequest(String name, String csvFile) {
         Preconditions.checkArgument(StringUtils.isNotEmpty(name), "List name cannot be null.");
-        File csv = new File(csvFile);
-        Preconditions.checkArgument(csv.exists() && csv.isFile(), "File does not exist: " + csvFile);
-        return new StaticListUploadRequest(API_LISTS_PATH + name + CSV_PATH, csv);
+        return newRequest(name, new File(csvFile));
+    }
+
+    /**
+     * Create a static list upload request.
+     *
+     * @param name The name of the list as a string.
+     * @param csvFile The csv file.
+     * @return StaticListUploadRequest
+     */
+    public static StaticListUploadRequest newRequest(String name, File csvFile) {
+        Preconditions.checkArgument(StringUtils.isNotEmpty(name), "List name cannot be null.");
+        Preconditions.checkArgument(csvFile.exists() && csvFile.isFile(), "File does not exist: " + csvFile);
+        return new StaticListUploadRequest(API_LISTS_PATH + name + CSV_PATH, com.google.common.io.Files.asByteSource(csvFile), Optional.of(csvFile));
+    }
+
+    /**
+     * Create a static list upload request.
+     *
+     * @param name The name of the list as a string.
+     * @param csvPath The path of the csv file.
+     * @return StaticListUploadRequest
+     */
+    public static StaticListUploadRequest newRequest(String name, final Path csvPath) {
+        if (csvPath.getFileSystem() == FileSystems.getDefault()) {
+            return newRequest(name, csvPath.toFile());
+        }
+
+        Preconditions.checkArgument(StringUtils.isNotEmpty(name), "List name cannot be null.");
+        Preconditions.checkArgument(Files.isRegularFile(csvPath), "File does not exist: " + csvPath);
+        ByteSource csv = new ByteSource() {
+            @Override
+            public InputStream openStream() throws IOException {
+                return Files.newInputStream(csvPath);
+            }
+        };
+        return new StaticListUploadRequest(API_LISTS_PATH + name + CSV_PATH, csv, Optional.<File>absent());
+    }
+
+    /**
+     * Create a static list upload request from any source of csv data. The source is opened again if the
+     * upload is retried.
+     *
+     * @param name The name of the list as a string.
+     * @param csv The csv data.
+     * @return StaticListUploadRequest
+     */
+    public static StaticListUploadRequest newRequest(String name, ByteSource csv) {
+        Preconditions.checkArgument(StringUtils.isNotEmpty(name), "List name cannot be null.");
+        Preconditions.checkNotNull(csv, "CSV source cannot be null.");
+        return new StaticListUploadRequest(API_LISTS_PATH + name + CSV_PATH, csv, Optional.<File>absent());
+    }
+
+    /**
+     * Create a static list upload request from a stream of csv data. The stream can only be read once, so a
+     * retried upload fails instead of sending the list again.
+     *
+     * @param name The name of the list as a string.
+     * @param csv The csv data.
+     * @return StaticListUploadRequest
+     */
+    public static StaticListUploadRequest newRequest(String name, final InputStream csv) {
+        Preconditions.checkNotNull(csv, "CSV stream cannot be null.");
+        final AtomicBoolean opened = new AtomicBoolean(false);
+        return newRequest(name, new ByteSource() {
+            @Override
+            public InputStream openStream() throws IOException {
+                if (opened.getAndSet(true)) {
+                    throw new IOException("CSV stream has already been consumed");
+                }
+                return csv;
+            }
+        });
     }
 
     /**
@@ -78,13 +177,7 @@ public class StaticListUploadRequest implements Request<String> {
 
     @Override
     public Map<String, String> getRequestHeaders() {
-        Map<String, String> headers = new HashMap<String, String>();
-        headers.put(HttpHeaders.ACCEPT, UA_VERSION_JSON);
-        headers.put(HttpHeaders.CONTENT_TYPE, CONTENT_TYPE_TEXT_CSV);
-        if (this.gzip) {
-            headers.put(HttpHeaders.CONTENT_ENCODING, CONTENT_ENCODING_GZIP);
-        }
-        return headers;
+        return gzip ? GZIP_HEADERS : HEADERS;
     }
 
     @Override
@@ -94,7 +187,7 @@ public class StaticListUploadRequest implements Request<String> {
 
     @Override
     public String getRequestBody() {
-        try ( BufferedReader reader = new BufferedReader(new FileReader(this.csv)) ) {
+        try ( BufferedReader reader = csv.asCharSource(Charsets.UTF_8).openBufferedStream() ) {
             StringBuffer body = new StringBuffer();
             String line;
             while ((line = reader.readLine()) != null) {
@@ -106,11 +199,28 @@ public class StaticListUploadRequest implements Request<String> {
         }
     }
 
+    @Override
+    public BodyGenerator getRequestBodyGenerator() {
+        if (gzip) {
+            return new InputStreamBodyGenerator(ByteSourceInputStream.gzipped(csv));
+        }
+        if (csvFile.isPresent()) {
+            return new FileBodyGenerator(csvFile.get());
+        }
+        return new InputStreamBodyGenerator(ByteSourceInputStream.of(csv));
+    }
+
     @Override
     public URI getUri(URI baseUri) {
         return RequestUtils.resolveURI(baseUri, path);
     }
 
+    @Override
+    public Collection<URI> getInvalidatedUris(URI baseUri) {
+        // The upload changes the list's lookup.
+        return ImmutableList.of(RequestUtils.resolveURI(baseUri, path.substring(0, path.length() - CSV_PATH.length())));
+    }
+
     @Override
     public ResponseParser<String> getResponseParser() {
         return new ResponseParser<String>() {
@@ -4,7 +4,10 @@
 
 package com.urbanairship.api.templates;
 
+import com.google.common.collect.ImmutableMap;
 import com.google.common.net.HttpHeaders;
+import com.urbanairship.api.client.CacheableRequest;
+import com.urbanairship.api.client.JsonResponseParser;
 import com.urbanairship.api.client.Request;
 import com.urbanairship.api.client.RequestUtils;
 import com.urbanairship.api.client.ResponseParser;
@@ -13,24 +16,27 @@ import com.urbanairship.api.templates.parse.TemplatesObjectMapper;
 import org.apache.http.client.utils.URIBuilder;
 import org.apache.http.entity.ContentType;
 
-import java.io.IOException;
 import java.net.URI;
 import java.net.URISyntaxException;
-import java.util.HashMap;
 import java.util.Map;
 
 /**
  * The TemplateListingRequest class builds template listing requests to be executed in
  * the {@link com.urbanairship.api.client.UrbanAirshipClient}.
  */
-public class TemplateListingRequest implements Request<TemplateListingResponse> {
+public class TemplateListingRequest implements CacheableRequest<TemplateListingResponse> {
     private final static String API_TEMPLATES_GET = "/api/templates/";
+    private static final Map<String, String> HEADERS = ImmutableMap.of(
+        HttpHeaders.ACCEPT, UA_VERSION_JSON
+    );
     private final String path;
+    private final boolean lookup;
     private Integer page;
     private Integer pageSize;
 
-    private TemplateListingRequest(String path) {
+    private TemplateListingRequest(String path, boolean lookup) {
         this.path = path;
+        this.lookup = lookup;
     }
 
     /**
@@ -39,7 +45,7 @@ public class TemplateListingRequest implements Request<TemplateListingResponse>
      * @return TemplateListingRequest
      */
     public static TemplateListingRequest newRequest() {
-        return new TemplateListingRequest(API_TEMPLATES_GET);
+        return new TemplateListingRequest(API_TEMPLATES_GET, false);
     }
 
     /**
@@ -49,7 +55,7 @@ public class TemplateListingRequest implements Request<TemplateListingResponse>
      * @return TemplateListingRequest
      */
     public static TemplateListingRequest newRequest(String templateId) {
-        return new TemplateListingRequest(API_TEMPLATES_GET + templateId);
+        return new TemplateListingRequest(API_TEMPLATES_GET + templateId, true);
     }
 
     /**
@@ -79,6 +85,11 @@ public class TemplateListingRequest implements Request<TemplateListingResponse>
         return HttpMethod.GET;
     }
 
+    @Override
+    public boolean isCacheable() {
+        return lookup;
+    }
+
     @Override
     public String getRequestBody() {
         return null;
@@ -91,9 +102,7 @@ public class TemplateListingRequest implements Request<TemplateListingResponse>
 
     @Override
     public Map<String, String> getRequestHeaders() {
-        Map<String, String> headers = new HashMap<String, String>();
-        headers.put(HttpHeaders.ACCEPT, UA_VERSION_JSON);
-        return headers;
+        return HEADERS;
     }
 
     @Override
@@ -119,11 +128,6 @@ public class TemplateListingRequest implements Request<TemplateListingResponse>
 
     @Override
     public ResponseParser<TemplateListingResponse> getResponseParser() {
-        return new ResponseParser<TemplateListingResponse>() {
-            @Override
-            public TemplateListingResponse parse(String response) throws IOException {
-                return TemplatesObjectMapper.getInstance().readValue(response, TemplateListingResponse.class);
-            }
-        };
+        return new JsonResponseParser<>(TemplatesObjectMapper.getInstance(), TemplateListingResponse.class);
     }
 }
@@ -4,8 +4,11 @@
 
 package com.urbanairship.api.templates;
 
+import com.google.common.base.Charsets;
+import com.google.common.collect.ImmutableMap;
 import com.google.common.net.HttpHeaders;
-import com.urbanairship.api.client.Request;
+import com.urbanairship.api.client.EncodedBodyRequest;
+import com.urbanairship.api.client.JsonResponseParser;
 import com.urbanairship.api.client.RequestUtils;
 import com.urbanairship.api.client.ResponseParser;
 import com.urbanairship.api.templates.model.TemplatePushPayload;
@@ -13,11 +16,9 @@ import com.urbanairship.api.templates.model.TemplateResponse;
 import com.urbanairship.api.templates.parse.TemplatesObjectMapper;
 import org.apache.http.entity.ContentType;
 
-import java.io.IOException;
 import java.net.URI;
 import java.net.URISyntaxException;
 import java.util.ArrayList;
-import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 
@@ -25,9 +26,13 @@ import java.util.Map;
  * The TemplatePushRequest object builds a template push request to be executed in the
  *  {@link com.urbanairship.api.client.UrbanAirshipClient}.
  */
-public class TemplatePushRequest implements Request<TemplateResponse> {
+public class TemplatePushRequest implements EncodedBodyRequest<TemplateResponse> {
     private final static String TEMPLATE_PUSH = "/api/templates/push/";
     private final static String TEMPLATE_PUSH_VALIDATE = TEMPLATE_PUSH + "validate/";
+    private static final Map<String, String> HEADERS = ImmutableMap.of(
+        HttpHeaders.CONTENT_TYPE, CONTENT_TYPE_JSON,
+        HttpHeaders.ACCEPT, UA_VERSION_JSON
+    );
 
     private List<TemplatePushPayload> templatePushPayloads = new ArrayList<TemplatePushPayload>();
     private boolean validateOnly = false;
@@ -83,13 +88,19 @@ public class TemplatePushRequest implements Request<TemplateResponse> {
 
     @Override
     public String getRequestBody() {
+        return new String(getRequestBodyBytes(), Charsets.UTF_8);
+    }
+
+    @Override
+    public byte[] getRequestBodyBytes() {
         try {
             if (templatePushPayloads.size() == 1) {
-                return TemplatesObjectMapper.getInstance().writeValueAsString(templatePushPayloads.get(0));
+                return TemplatesObjectMapper.getInstance().writeValueAsBytes(templatePushPayloads.get(0));
             }
-            return TemplatesObjectMapper.getInstance().writeValueAsString(templatePushPayloads);
+            return TemplatesObjectMapper.getInstance().writeValueAsBytes(templatePushPayloads);
         } catch (Exception ex) {
-            return "{ \"exception\" : \"" + ex.getClass().getName() + "\", \"message\" : \"" + ex.getMessage() + "\" }";
+            String error = "{ \"exception\" : \"" + ex.getClass().getName() + "\", \"message\" : \"" + ex.getMessage() + "\" }";
+            return error.getBytes(Charsets.UTF_8);
         }
     }
 
@@ -100,10 +111,7 @@ public class TemplatePushRequest implements Request<TemplateResponse> {
 
     @Override
     public Map<String, String> getRequestHeaders() {
-        Map<String, String> headers = new HashMap<String, String>();
-        headers.put(HttpHeaders.CONTENT_TYPE, CONTENT_TYPE_JSON);
-        headers.put(HttpHeaders.ACCEPT, UA_VERSION_JSON);
-        return headers;
+        return HEADERS;
     }
 
     @Override
@@ -114,11 +122,6 @@ public class TemplatePushRequest implements Request<TemplateResponse> {
 
     @Override
     public ResponseParser<TemplateResponse> getResponseParser() {
-        return new ResponseParser<TemplateResponse>() {
-            @Override
-            public TemplateResponse parse(String response) throws IOException {
-                return TemplatesObjectMapper.getInstance().readValue(response, TemplateResponse.class);
-            }
-        };
+        return new JsonResponseParser<>(TemplatesObjectMapper.getInstance(), TemplateResponse.class);
     }
 }
@@ -0,0 +1,206 @@
+/*
+ * Copyright (c) 2013-2016.  Urban Airship and Contributors
+ */
+
+package com.urbanairship.api.templates;
+
+import com.google.common.base.Optional;
+import com.google.common.base.Preconditions;
+import com.google.common.collect.ImmutableList;
+import com.urbanairship.api.push.model.PushPayload;
+import com.urbanairship.api.push.parse.PushObjectMapper;
+import com.urbanairship.api.templates.model.TemplatePushPayload;
+import com.urbanairship.api.templates.model.TemplateSelector;
+import com.urbanairship.api.templates.model.TemplateVariable;
+import com.urbanairship.api.templates.model.TemplateView;
+import com.urbanairship.api.templates.parse.TemplatesObjectMapper;
+import org.codehaus.jackson.io.JsonStringEncoder;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Renders template pushes locally, producing the push the API would send for a {@link TemplatePushPayload}
+ * without a request, e.g. to preview, size check or diff personalized pushes.
+ *
+ * A template is compiled once: its partial push is serialized and split around the {{VARIABLE}} placeholders
+ * of its declared variables. Rendering then only joins the literal JSON with the escaped merge values, and
+ * {@link #render(TemplatePushPayload)} parses the result with the push deserializers. Each placeholder is
+ * replaced by the merge data's substitution for the variable, or by the variable's default value; rendering
+ * fails if a placeholder has neither. Placeholders of undeclared variables are left as is.
+ *
+ * Renderers are immutable and can be shared between threads.
+ */
+public class TemplateRenderer {
+
+    private static final Pattern PLACEHOLDER = Pattern.compile("\\{\\{\\s*([^{}\\s]+)\\s*\\}\\}");
+
+    private final String templateId;
+    private final ImmutableList<String> keys;
+    private final String[] defaults;
+    private final String[] literals;
+    private final int[] placeholders;
+    private final boolean[] referenced;
+    private final int literalLength;
+
+    private TemplateRenderer(String templateId, ImmutableList<String> keys, String[] defaults, String[] literals, int[] placeholders) {
+        this.templateId = templateId;
+        this.keys = keys;
+        this.defaults = defaults;
+        this.literals = literals;
+        this.placeholders = placeholders;
+        this.referenced = new boolean[keys.size()];
+        for (int placeholder : placeholders) {
+            referenced[placeholder] = true;
+        }
+
+        int length = 0;
+        for (String literal : literals) {
+            length += literal.length();
+        }
+        this.literalLength = length;
+    }
+
+    /**
+     * Compile a template into a renderer.
+     *
+     * <pre>
+     * 1. The template must have a partial push payload.
+     * 2. Variable keys must be unique.
+     * </pre>
+     *
+     * @param template The template, e.g. from a template lookup.
+     * @return TemplateRenderer
+     * @throws IOException If the partial push payload cannot be serialized.
+     */
+    public static TemplateRenderer compile(TemplateView template) throws IOException {
+        Preconditions.checkNotNull(template, "Template cannot be null");
+        Preconditions.checkArgument(template.getPartialPushPayload().isPresent(), "Template must have a push payload");
+
+        ImmutableList.Builder<String> keys = ImmutableList.builder();
+        List<String> defaults = new ArrayList<>();
+        Map<String, Integer> indexes = new HashMap<>();
+        for (TemplateVariable variable : template.getVariables()) {
+            Preconditions.checkArgument(!indexes.containsKey(variable.getKey()), "Duplicate template variable " + variable.getKey());
+            indexes.put(variable.getKey(), indexes.size());
+            keys.add(variable.getKey());
+            defaults.add(variable.getDefaultValue());
+        }
+
+        String json = TemplatesObjectMapper.getInstance().writeValueAsString(template.getPartialPushPayload().get());
+        // The partial push is rendered into a push payload along with the audience and device types.
+        String body = json.substring(1, json.length() - 1);
+
+        List<String> literals = new ArrayList<>();
+        List<Integer> placeholders = new ArrayList<>();
+        Matcher matcher = PLACEHOLDER.matcher(body);
+        int literalStart = 0;
+        while (matcher.find()) {
+            Integer index = indexes.get(matcher.group(1));
+            if (index == null) {
+                continue;
+            }
+            literals.add(body.substring(literalStart, matcher.start()));
+            placeholders.add(index);
+            literalStart = matcher.end();
+        }
+        literals.add(body.substring(literalStart));
+
+        int[] placeholderIndexes = new int[placeholders.size()];
+        for (int i = 0; i < placeholderIndexes.length; i++) {
+            placeholderIndexes[i] = placeholders.get(i);
+        }
+        return new TemplateRenderer(template.getId(), keys.build(), defaults.toArray(new String[defaults.size()]),
+            literals.toArray(new String[literals.size()]), placeholderIndexes);
+    }
+
+    /**
+     * Get the template ID.
+     *
+     * @return String
+     */
+    public String getTemplateId() {
+        return templateId;
+    }
+
+    /**
+     * Get the keys of the template's variables.
+     *
+     * @return ImmutableList of variable keys
+     */
+    public ImmutableList<String> getVariableKeys() {
+        return keys;
+    }
+
+    /**
+     * Render a template push into a push payload.
+     *
+     * @param payload The template push payload, whose merge data must select this template.
+     * @return PushPayload
+     * @throws IOException If the rendered push cannot be parsed.
+     */
+    public PushPayload render(TemplatePushPayload payload) throws IOException {
+        return PushObjectMapper.getInstance().readValue(renderJson(payload), PushPayload.class);
+    }
+
+    /**
+     * Render a template push into the JSON of a push payload.
+     *
+     * @param payload The template push payload, whose merge data must select this template.
+     * @return The push payload JSON.
+     * @throws IOException If the audience or device types cannot be serialized.
+     */
+    public String renderJson(TemplatePushPayload payload) throws IOException {
+        Preconditions.checkNotNull(payload, "Template push payload cannot be null");
+
+        String audience = PushObjectMapper.getInstance().writeValueAsString(payload.getAudience());
+        String deviceTypes = PushObjectMapper.getInstance().writeValueAsString(payload.getDeviceTypes());
+        char[][] values = resolve(payload.getMergeData());
+
+        int length = literalLength + audience.length() + deviceTypes.length() + 32;
+        for (int placeholder : placeholders) {
+            length += values[placeholder].length;
+        }
+
+        StringBuilder json = new StringBuilder(length);
+        json.append("{\"audience\":").append(audience)
+            .append(",\"device_types\":").append(deviceTypes);
+        if (!literals[0].isEmpty() || placeholders.length > 0) {
+            json.append(',');
+        }
+        json.append(literals[0]);
+        for (int i = 0; i < placeholders.length; i++) {
+            json.append(values[placeholders[i]]).append(literals[i + 1]);
+        }
+        return json.append('}').toString();
+    }
+
+    /**
+     * Resolve and escape the value of every referenced variable once for a render.
+     */
+    private char[][] resolve(TemplateSelector mergeData) {
+        Preconditions.checkNotNull(mergeData, "Merge data cannot be null");
+        Preconditions.checkArgument(templateId == null || templateId.equals(mergeData.getTemplateId()),
+            "Merge data selects template " + mergeData.getTemplateId() + ", not " + templateId);
+
+        Map<String, String> substitutions = mergeData.getSubstitutions().or(Collections.<String, String>emptyMap());
+        JsonStringEncoder encoder = JsonStringEncoder.getInstance();
+        char[][] values = new char[keys.size()][];
+        for (int i = 0; i < values.length; i++) {
+            if (!referenced[i]) {
+                continue;
+            }
+            String key = keys.get(i);
+            Optional<String> value = Optional.fromNullable(substitutions.containsKey(key) ? substitutions.get(key) : defaults[i]);
+            Preconditions.checkArgument(value.isPresent(), "No substitution or default value for template variable " + key);
+            values[i] = encoder.quoteAsString(value.get());
+        }
+        return values;
+    }
+}
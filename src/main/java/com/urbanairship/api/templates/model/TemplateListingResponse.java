@@ -7,13 +7,14 @@ package com.urbanairship.api.templates.model;
 import com.google.common.base.Optional;
 import com.google.common.base.Preconditions;
 import com.google.common.collect.ImmutableList;
+import com.urbanairship.api.client.PagedResponse;
 
 import java.util.List;
 
 /**
  * Template listing response object.
  */
-public class TemplateListingResponse {
+public class TemplateListingResponse implements PagedResponse<TemplateView> {
 
     private final boolean ok;
     private final Optional<TemplateView> template;
@@ -69,6 +70,16 @@ public class TemplateListingResponse {
         return templates;
     }
 
+    /**
+     * Get the objects listed in this page.
+     *
+     * @return An ImmutableList of TemplateView objects
+     */
+    @Override
+    public ImmutableList<TemplateView> getPageItems() {
+        return templates.or(ImmutableList.<TemplateView>of());
+    }
+
     /**
      * Get the number of returned templates for a template listing request.
      *
@@ -92,6 +103,7 @@ public class TemplateListingResponse {
      *
      * @return An optional string representing the next page URL
      */
+    @Override
     public Optional<String> getNextPage() {
         return nextPage;
     }
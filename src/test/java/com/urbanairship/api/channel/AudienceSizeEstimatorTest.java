@@ -0,0 +1,125 @@
+package com.urbanairship.api.channel;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.ImmutableSet;
+import com.urbanairship.api.channel.model.ChannelType;
+import com.urbanairship.api.channel.model.ChannelView;
+import com.urbanairship.api.push.model.DeviceType;
+import com.urbanairship.api.push.model.DeviceTypeData;
+import com.urbanairship.api.push.model.PushPayload;
+import com.urbanairship.api.push.model.audience.Selector;
+import com.urbanairship.api.push.model.audience.Selectors;
+import com.urbanairship.api.push.model.notification.Notifications;
+import org.joda.time.DateTime;
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.util.List;
+import java.util.Random;
+
+import static com.urbanairship.api.push.model.audience.Selectors.and;
+import static com.urbanairship.api.push.model.audience.Selectors.not;
+import static com.urbanairship.api.push.model.audience.Selectors.or;
+import static com.urbanairship.api.push.model.audience.Selectors.tag;
+import static com.urbanairship.api.push.model.audience.Selectors.tagWithGroup;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class AudienceSizeEstimatorTest {
+
+    @Test
+    public void testExactWhileSmall() {
+        AudienceSizeEstimator estimator = AudienceSizeEstimator.newBuilder()
+            .addChannel(channel("ios-1", ChannelType.IOS, true, ImmutableSet.of("a", "b"), ImmutableSet.of("gold")))
+            .addChannel(channel("ios-1", ChannelType.IOS, true, ImmutableSet.of("a", "b"), ImmutableSet.of("gold")))
+            .addChannel(channel("ios-2", ChannelType.IOS, true, ImmutableSet.of("a"), ImmutableSet.<String>of()))
+            .addChannel(channel("android-1", ChannelType.ANDROID, true, ImmutableSet.of("b"), ImmutableSet.of("silver")))
+            .addChannel(channel("android-2", ChannelType.ANDROID, false, ImmutableSet.of("a", "b"), ImmutableSet.<String>of()))
+            .addChannel(channel("amazon-1", ChannelType.ADM, true, ImmutableSet.<String>of(), ImmutableSet.of("gold")))
+            .build();
+
+        assertEquals(4, estimator.estimate());
+        assertEquals(4, estimator.estimate(Selectors.all()));
+        assertEquals(2, estimator.estimate(tag("a")));
+        assertEquals(3, estimator.estimate(Selectors.tags("a", "b")));
+        assertEquals(1, estimator.estimate(and(tag("a"), tag("b"))));
+        assertEquals(2, estimator.estimate(not(tag("a"))));
+        assertEquals(2, estimator.estimate(tagWithGroup("gold", "loyalty")));
+        assertEquals(1, estimator.estimate(and(tagWithGroup("gold", "loyalty"), not(tag("a")))));
+        assertEquals(0, estimator.estimate(tag("missing")));
+
+        PushPayload payload = PushPayload.newBuilder()
+            .setAudience(tagWithGroup("gold", "loyalty"))
+            .setNotification(Notifications.alert("alert"))
+            .setDeviceTypes(DeviceTypeData.of(DeviceType.IOS, DeviceType.ANDROID))
+            .build();
+        assertEquals(1, estimator.estimate(payload));
+    }
+
+    @Test
+    public void testBoundedError() throws Exception {
+        Random random = new Random(20161018L);
+        AudienceSizeEstimator.Builder builder = AudienceSizeEstimator.newBuilder()
+            .setNominalEntries(1024);
+        int total = 50000;
+        int[] counts = new int[5];
+        for (int i = 0; i < total; i++) {
+            boolean hasA = random.nextInt(2) == 0;
+            boolean hasB = random.nextInt(4) == 0;
+            ImmutableSet.Builder<String> tags = ImmutableSet.builder();
+            if (hasA) {
+                tags.add("a");
+            }
+            if (hasB) {
+                tags.add("b");
+            }
+            counts[0] += hasA ? 1 : 0;
+            counts[1] += hasA || hasB ? 1 : 0;
+            counts[2] += hasA && hasB ? 1 : 0;
+            counts[3] += !hasA ? 1 : 0;
+            counts[4] += hasB && !hasA ? 1 : 0;
+            builder.addChannel(channel("channel-" + i, ChannelType.IOS, true, tags.build(), ImmutableSet.<String>of()));
+        }
+        AudienceSizeEstimator estimator = builder.build();
+
+        List<Selector> audiences = ImmutableList.of(tag("a"), or(tag("a"), tag("b")), and(tag("a"), tag("b")), not(tag("a")),
+            and(tag("b"), not(tag("a"))));
+        // Three standard errors of the largest set combined.
+        double tolerance = 3 * total / Math.sqrt(1024);
+        for (int i = 0; i < audiences.size(); i++) {
+            long estimate = estimator.estimate(audiences.get(i));
+            assertTrue(audiences.get(i) + " estimated " + estimate + ", was " + counts[i],
+                Math.abs(estimate - counts[i]) < tolerance);
+        }
+        assertTrue(Math.abs(estimator.estimate() - total) < tolerance);
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        estimator.writeTo(out);
+        AudienceSizeEstimator read = AudienceSizeEstimator.readFrom(new ByteArrayInputStream(out.toByteArray()));
+        assertEquals(1024, read.getNominalEntries());
+        for (Selector audience : audiences) {
+            assertEquals(estimator.estimate(audience), read.estimate(audience));
+        }
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testUnsupportedSelector() {
+        AudienceSizeEstimator.newBuilder().build().estimate(Selectors.alias("alias"));
+    }
+
+    private static ChannelView channel(String id, ChannelType type, boolean optIn, ImmutableSet<String> tags, ImmutableSet<String> loyalty) {
+        ChannelView.Builder builder = ChannelView.newBuilder()
+            .setChannelId(id)
+            .setChannelType(type)
+            .setInstalled(true)
+            .setOptIn(optIn)
+            .setCreated(new DateTime(2016, 10, 18, 0, 0))
+            .addAllTags(tags);
+        if (!loyalty.isEmpty()) {
+            builder.addAllTagGroups(ImmutableMap.of("loyalty", loyalty));
+        }
+        return builder.build();
+    }
+}
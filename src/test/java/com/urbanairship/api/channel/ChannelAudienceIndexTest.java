@@ -0,0 +1,164 @@
+package com.urbanairship.api.channel;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.ImmutableSet;
+import com.google.common.collect.Lists;
+import com.urbanairship.api.channel.model.ChannelType;
+import com.urbanairship.api.channel.model.ChannelView;
+import com.urbanairship.api.push.model.DeviceType;
+import com.urbanairship.api.push.model.DeviceTypeData;
+import com.urbanairship.api.push.model.PushPayload;
+import com.urbanairship.api.push.model.audience.CompoundSelector;
+import com.urbanairship.api.push.model.audience.Selector;
+import com.urbanairship.api.push.model.audience.SelectorType;
+import com.urbanairship.api.push.model.audience.Selectors;
+import com.urbanairship.api.push.model.audience.ValueSelector;
+import com.urbanairship.api.push.model.notification.Notifications;
+import org.joda.time.DateTime;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static com.urbanairship.api.push.model.audience.Selectors.alias;
+import static com.urbanairship.api.push.model.audience.Selectors.and;
+import static com.urbanairship.api.push.model.audience.Selectors.not;
+import static com.urbanairship.api.push.model.audience.Selectors.or;
+import static com.urbanairship.api.push.model.audience.Selectors.tag;
+import static com.urbanairship.api.push.model.audience.Selectors.tagWithGroup;
+import static com.urbanairship.api.push.model.audience.Selectors.tags;
+import static org.junit.Assert.assertEquals;
+
+public class ChannelAudienceIndexTest {
+
+    private ChannelAudienceIndex index;
+
+    @Before
+    public void setup() {
+        index = ChannelAudienceIndex.newBuilder()
+            .addChannel(channel("ios-1", ChannelType.IOS, true, "alias-1", ImmutableSet.of("a", "b"), ImmutableSet.of("gold")))
+            .addChannel(channel("ios-2", ChannelType.IOS, true, null, ImmutableSet.of("a"), ImmutableSet.<String>of()))
+            .addChannel(channel("android-1", ChannelType.ANDROID, true, "alias-1", ImmutableSet.of("b"), ImmutableSet.of("silver")))
+            .addChannel(channel("android-2", ChannelType.ANDROID, false, null, ImmutableSet.of("a", "b"), ImmutableSet.<String>of()))
+            .addChannel(channel("amazon-1", ChannelType.ADM, true, "alias-2", ImmutableSet.<String>of(), ImmutableSet.of("gold")))
+            .build();
+    }
+
+    @Test
+    public void testCounts() {
+        assertEquals(5, index.size());
+        // android-2 is opted out.
+        assertEquals(4, index.count(Selectors.all()));
+        assertEquals(2, index.count(tag("a")));
+        assertEquals(3, index.count(tags("a", "b")));
+        assertEquals(2, index.count(tagWithGroup("gold", "loyalty")));
+        assertEquals(2, index.count(Selectors.tagWithClass("b", "device")));
+        assertEquals(2, index.count(alias("alias-1")));
+        assertEquals(1, index.count(and(tag("a"), tag("b"))));
+        assertEquals(2, index.count(not(tag("a"))));
+        assertEquals(1, index.count(and(tagWithGroup("gold", "loyalty"), not(tag("a")))));
+        assertEquals(0, index.count(tag("missing")));
+    }
+
+    @Test
+    public void testDeviceTypes() {
+        assertEquals(1, index.count(Selectors.iosChannel("ios-1")));
+        // A channel selector only matches channels of its platform.
+        assertEquals(0, index.count(Selectors.androidChannel("ios-1")));
+        assertEquals(2, index.count(Selectors.iosChannels("ios-1", "ios-2", "android-1")));
+
+        PushPayload payload = PushPayload.newBuilder()
+            .setAudience(tagWithGroup("gold", "loyalty"))
+            .setNotification(Notifications.alert("alert"))
+            .setDeviceTypes(DeviceTypeData.of(DeviceType.IOS, DeviceType.ANDROID))
+            .build();
+        assertEquals(1, index.count(payload));
+        assertEquals(ImmutableList.of("ios-1"), ImmutableList.copyOf(index.channelIds(payload)));
+    }
+
+    @Test
+    public void testChannelIds() {
+        assertEquals(ImmutableList.of("ios-1", "ios-2", "android-1"), ImmutableList.copyOf(index.channelIds(or(tag("a"), alias("alias-1")))));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testUnsupportedSelector() {
+        index.count(and(tag("a"), Selectors.segment("segment")));
+    }
+
+    @Test
+    public void testMatchesChannelByChannelEvaluation() {
+        Random random = new Random(20161018L);
+        List<String> tagNames = ImmutableList.of("a", "b", "c", "d");
+        List<ChannelView> channels = new ArrayList<>();
+        ChannelAudienceIndex.Builder builder = ChannelAudienceIndex.newBuilder();
+        for (int i = 0; i < 5000; i++) {
+            ImmutableSet.Builder<String> channelTags = ImmutableSet.builder();
+            for (String name : tagNames) {
+                // Make "d" sparse so that both postings forms are used.
+                if (random.nextInt(name.equals("d") ? 1000 : 2) == 0) {
+                    channelTags.add(name);
+                }
+            }
+            ChannelView channel = channel("channel-" + i, ChannelType.values()[random.nextInt(3)], random.nextInt(10) > 0,
+                "alias-" + random.nextInt(2500), channelTags.build(), ImmutableSet.<String>of());
+            channels.add(channel);
+            builder.addChannel(channel);
+        }
+        ChannelAudienceIndex large = builder.build();
+
+        List<Selector> audiences = ImmutableList.of(
+            tag("a"),
+            tag("d"),
+            and(tag("a"), not(tag("b"))),
+            or(and(tag("a"), tag("c")), tag("d"), alias("alias-7")),
+            not(or(tag("a"), tag("b"), tag("c"))));
+        for (Selector audience : audiences) {
+            List<String> expected = new ArrayList<>();
+            for (ChannelView channel : channels) {
+                if (channel.isInstalled() && channel.isOptIn() && matches(audience, channel)) {
+                    expected.add(channel.getChannelId());
+                }
+            }
+            assertEquals(expected.size(), large.count(audience));
+            assertEquals(expected, Lists.newArrayList(large.channelIds(audience)));
+        }
+    }
+
+    private static boolean matches(Selector selector, ChannelView channel) {
+        switch (selector.getType()) {
+            case TAG:
+                return channel.getTags().contains(((ValueSelector) selector).getValue());
+            case ALIAS:
+                return channel.getAlias().get().equals(((ValueSelector) selector).getValue());
+            case NOT:
+                return !matches(((CompoundSelector) selector).getChildren().iterator().next(), channel);
+            default:
+                boolean and = selector.getType() == SelectorType.AND;
+                for (Selector child : ((CompoundSelector) selector).getChildren()) {
+                    if (matches(child, channel) != and) {
+                        return !and;
+                    }
+                }
+                return and;
+        }
+    }
+
+    private static ChannelView channel(String id, ChannelType type, boolean optIn, String alias, ImmutableSet<String> tags, ImmutableSet<String> loyalty) {
+        ChannelView.Builder builder = ChannelView.newBuilder()
+            .setChannelId(id)
+            .setChannelType(type)
+            .setInstalled(true)
+            .setOptIn(optIn)
+            .setCreated(new DateTime(2016, 10, 18, 0, 0))
+            .setAlias(alias)
+            .addAllTags(tags);
+        if (!loyalty.isEmpty()) {
+            builder.addAllTagGroups(ImmutableMap.of("loyalty", loyalty));
+        }
+        return builder.build();
+    }
+}
@@ -0,0 +1,145 @@
+package com.urbanairship.api.channel;
+
+import com.github.tomakehurst.wiremock.junit.WireMockClassRule;
+import com.urbanairship.api.channel.model.ChannelView;
+import com.urbanairship.api.client.PagedIterable;
+import com.urbanairship.api.client.UrbanAirshipClient;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.ClassRule;
+import org.junit.Rule;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static com.github.tomakehurst.wiremock.client.WireMock.aResponse;
+import static com.github.tomakehurst.wiremock.client.WireMock.findAll;
+import static com.github.tomakehurst.wiremock.client.WireMock.get;
+import static com.github.tomakehurst.wiremock.client.WireMock.getRequestedFor;
+import static com.github.tomakehurst.wiremock.client.WireMock.stubFor;
+import static com.github.tomakehurst.wiremock.client.WireMock.urlEqualTo;
+import static com.github.tomakehurst.wiremock.client.WireMock.urlMatching;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+public class ChannelListingIterableTest {
+
+    @ClassRule
+    public static WireMockClassRule wireMockRule = new WireMockClassRule();
+
+    @Rule
+    public WireMockClassRule instanceRule = wireMockRule;
+
+    private UrbanAirshipClient client;
+
+    @Before
+    public void setup() {
+        client = UrbanAirshipClient.newBuilder()
+            .setBaseUri("http://localhost:8080")
+            .setKey("key")
+            .setSecret("secret")
+            .build();
+    }
+
+    @After
+    public void takeDown() {
+        client.close();
+    }
+
+    @Test
+    public void testFollowsNextPages() throws Exception {
+        stubPage("/api/channels/", "channel-1", "http://localhost:8080/api/channels/?start=channel-2");
+        stubPage("/api/channels/?start=channel-2", "channel-2", "http://localhost:8080/api/channels/?start=channel-3");
+        stubPage("/api/channels/?start=channel-3", "channel-3", null);
+
+        ChannelListingIterable channels = ChannelListingIterable.newBuilder()
+            .setClient(client)
+            .build();
+
+        List<String> channelIds = new ArrayList<>();
+        for (ChannelView channel : channels) {
+            channelIds.add(channel.getChannelId());
+        }
+
+        assertEquals(3, channelIds.size());
+        assertEquals("channel-1", channelIds.get(0));
+        assertEquals("channel-2", channelIds.get(1));
+        assertEquals("channel-3", channelIds.get(2));
+        assertEquals(3, findAll(getRequestedFor(urlMatching("/api/channels/.*"))).size());
+    }
+
+    @Test
+    public void testPrefetchIsBounded() throws Exception {
+        stubPage("/api/channels/", "channel-1", "http://localhost:8080/api/channels/?start=channel-2");
+        stubPage("/api/channels/?start=channel-2", "channel-2", "http://localhost:8080/api/channels/?start=channel-3");
+        stubPage("/api/channels/?start=channel-3", "channel-3", "http://localhost:8080/api/channels/?start=channel-4");
+        stubPage("/api/channels/?start=channel-4", "channel-4", null);
+
+        PagedIterable.PagedIterator<ChannelView> iterator = ChannelListingIterable.newBuilder()
+            .setClient(client)
+            .setMaxPrefetchedPages(1)
+            .build()
+            .iterator();
+
+        assertTrue(iterator.hasNext());
+        assertEquals("channel-1", iterator.next().getChannelId());
+
+        // The first page is being consumed and the second page is buffered, so the third page is not requested.
+        waitForRequests(2);
+        Thread.sleep(100);
+        assertEquals(2, findAll(getRequestedFor(urlMatching("/api/channels/.*"))).size());
+
+        iterator.close();
+        assertFalse(iterator.hasNext());
+    }
+
+    @Test
+    public void testPageFailure() throws Exception {
+        stubPage("/api/channels/", "channel-1", "http://localhost:8080/api/channels/?start=channel-2");
+        stubFor(get(urlEqualTo("/api/channels/?start=channel-2"))
+            .willReturn(aResponse()
+                .withHeader("Content-type", "application/json")
+                .withBody("{\"ok\":false,\"error\":\"Not found\"}")
+                .withStatus(404)));
+
+        PagedIterable.PagedIterator<ChannelView> iterator = ChannelListingIterable.newBuilder()
+            .setClient(client)
+            .build()
+            .iterator();
+
+        assertEquals("channel-1", iterator.next().getChannelId());
+        try {
+            iterator.hasNext();
+            fail("Expected the failed page request to be rethrown");
+        } catch (RuntimeException e) {
+            assertTrue(e.getCause() != null);
+        }
+    }
+
+    private static void stubPage(String url, String channelId, String nextPage) {
+        String body = "{\"ok\":true,\"channels\":[{" +
+            "\"channel_id\":\"" + channelId + "\"," +
+            "\"device_type\":\"android\"," +
+            "\"installed\":true," +
+            "\"opt_in\":true," +
+            "\"created\":\"2014-03-06T18:52:59\"," +
+            "\"tags\":[]}]" +
+            (nextPage == null ? "" : ",\"next_page\":\"" + nextPage + "\"") +
+            "}";
+
+        stubFor(get(urlEqualTo(url))
+            .willReturn(aResponse()
+                .withHeader("Content-type", "application/json")
+                .withBody(body)
+                .withStatus(200)));
+    }
+
+    private static void waitForRequests(int count) throws InterruptedException {
+        for (int i = 0; i < 100 && findAll(getRequestedFor(urlMatching("/api/channels/.*"))).size() < count; i++) {
+            Thread.sleep(20);
+        }
+    }
+}
@@ -0,0 +1,169 @@
+package com.urbanairship.api.channel;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.ImmutableSet;
+import com.google.common.collect.Lists;
+import com.urbanairship.api.channel.model.ChannelType;
+import com.urbanairship.api.channel.model.ChannelView;
+import com.urbanairship.api.channel.model.ios.IosSettings;
+import com.urbanairship.api.push.model.audience.Selectors;
+import org.joda.time.DateTime;
+import org.joda.time.DateTimeZone;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class ChannelSnapshotTest {
+
+    private static final DateTime CREATED = new DateTime(2016, 10, 18, 12, 30, DateTimeZone.UTC);
+    // Hex addresses in a single case are stored decoded, anything else as is.
+    private static final String[] PUSH_ADDRESSES = {
+        "fe66489f304dc75b8d6e8200dff8a456e8daeacec428b427e9518741c92c6660",
+        "FE66489F304DC75B8D6E8200DFF8A456E8DAEACEC428B427E9518741C92C6660",
+        "Fe66489f304dc75b8d6e8200dff8a456e8daeacec428b427e9518741c92c6660",
+        "abc",
+        "0123",
+        "",
+        "APA91bHun4MxP5egoKMwt2KZFBaFUH-1RYqx"
+    };
+
+    @Test
+    public void testRoundTrip() {
+        List<ChannelView> channels = new ArrayList<>();
+        for (int i = 0; i < 40; i++) {
+            ChannelView.Builder builder = ChannelView.newBuilder()
+                .setChannelId(UUID.randomUUID().toString())
+                .setChannelType(ChannelType.values()[i % 3])
+                .setInstalled(i % 2 == 0)
+                .setOptIn(i % 3 == 0)
+                .setCreated(CREATED.plusMinutes(i))
+                .addAllTags(ImmutableSet.of("tag-" + i % 4, "common"));
+            if (i % 4 == 0) {
+                builder.setBackground(i % 8 == 0)
+                    .setLastRegistration(CREATED.plusDays(i))
+                    .setPushAddress(PUSH_ADDRESSES[i / 4 % PUSH_ADDRESSES.length])
+                    .setAlias("alias-" + i)
+                    .setIosSettings(IosSettings.newBuilder().setBadge(i).build())
+                    .addAllTagGroups(ImmutableMap.of("loyalty", ImmutableSet.of("gold", "tag-0"), "empty", ImmutableSet.<String>of()));
+            }
+            channels.add(builder.build());
+        }
+        // IDs that do not round trip through UUID are kept as strings.
+        channels.add(ChannelView.newBuilder()
+            .setChannelId("DF6A6B50-9843-0304-D5A5-743000000000")
+            .setChannelType(ChannelType.IOS)
+            .setInstalled(true)
+            .setOptIn(true)
+            .setCreated(CREATED)
+            .build());
+        channels.add(ChannelView.newBuilder()
+            .setChannelId("not-a-uuid")
+            .setChannelType(ChannelType.ANDROID)
+            .setInstalled(true)
+            .setOptIn(true)
+            .setCreated(CREATED)
+            .build());
+
+        ChannelSnapshot snapshot = ChannelSnapshot.newBuilder()
+            .addAllChannels(channels)
+            .build();
+
+        assertEquals(channels.size(), snapshot.size());
+        assertEquals(channels, Lists.newArrayList(snapshot));
+        for (int i = 0; i < channels.size(); i++) {
+            assertEquals(channels.get(i), snapshot.get(i));
+            assertEquals(channels.get(i).getChannelId(), snapshot.getChannelId(i));
+            assertEquals(channels.get(i).getChannelType(), snapshot.getChannelType(i));
+            assertEquals(channels.get(i).isInstalled(), snapshot.isInstalled(i));
+            assertEquals(channels.get(i).isOptIn(), snapshot.isOptIn(i));
+        }
+    }
+
+    @Test
+    public void testTagAccessors() {
+        ChannelSnapshot snapshot = ChannelSnapshot.newBuilder()
+            .addChannel(ChannelView.newBuilder()
+                .setChannelId(UUID.randomUUID().toString())
+                .setChannelType(ChannelType.IOS)
+                .setInstalled(true)
+                .setOptIn(true)
+                .setCreated(CREATED)
+                .addAllTags(ImmutableSet.of("a", "b"))
+                .addAllTagGroups(ImmutableMap.of("loyalty", ImmutableSet.of("gold"), "sports", ImmutableSet.of("a")))
+                .build())
+            .build();
+
+        assertTrue(snapshot.hasTag(0, "a"));
+        assertFalse(snapshot.hasTag(0, "gold"));
+        assertFalse(snapshot.hasTag(0, "loyalty"));
+        assertFalse(snapshot.hasTag(0, "missing"));
+        assertTrue(snapshot.hasTag(0, "loyalty", "gold"));
+        assertTrue(snapshot.hasTag(0, "sports", "a"));
+        assertFalse(snapshot.hasTag(0, "loyalty", "a"));
+        assertFalse(snapshot.hasTag(0, "missing", "gold"));
+    }
+
+    @Test
+    public void testFeedsAudienceIndex() {
+        ChannelSnapshot.Builder builder = ChannelSnapshot.newBuilder();
+        for (int i = 0; i < 100; i++) {
+            builder.addChannel(ChannelView.newBuilder()
+                .setChannelId(UUID.randomUUID().toString())
+                .setChannelType(ChannelType.ANDROID)
+                .setInstalled(true)
+                .setOptIn(true)
+                .setCreated(CREATED)
+                .addAllTags(i % 10 == 0 ? ImmutableSet.of("a") : ImmutableSet.<String>of())
+                .build());
+        }
+        ChannelSnapshot snapshot = builder.build();
+
+        ChannelAudienceIndex index = ChannelAudienceIndex.newBuilder()
+            .addAllChannels(snapshot)
+            .build();
+        assertEquals(10, index.count(Selectors.tag("a")));
+        assertEquals(ImmutableList.of(snapshot.getChannelId(0), snapshot.getChannelId(10)),
+            ImmutableList.copyOf(index.channelIds(Selectors.tag("a"))).subList(0, 2));
+    }
+
+    @Test
+    public void testFootprint() {
+        ChannelSnapshot.Builder builder = ChannelSnapshot.newBuilder();
+        int count = 20000;
+        for (int i = 0; i < count; i++) {
+            UUID id = UUID.randomUUID();
+            builder.addChannel(ChannelView.newBuilder()
+                .setChannelId(id.toString())
+                .setChannelType(ChannelType.IOS)
+                .setInstalled(true)
+                .setOptIn(i % 3 > 0)
+                .setBackground(true)
+                .setCreated(CREATED.plusSeconds(i))
+                .setLastRegistration(CREATED.plusDays(1))
+                .setPushAddress(id.toString().replace("-", "") + id.toString().replace("-", ""))
+                .setAlias("customer-" + i)
+                .setIosSettings(IosSettings.newBuilder().setBadge(i % 10).build())
+                .addAllTags(ImmutableSet.of("tag-" + i % 100, "common"))
+                .build());
+        }
+        ChannelSnapshot snapshot = builder.build();
+
+        // About 115 bytes per channel with a 32 byte device token, so 50M such channels take under 6.5 GB.
+        long bytesPerChannel = snapshot.estimateSizeInBytes() / count;
+        assertTrue("Snapshot uses " + bytesPerChannel + " bytes per channel", bytesPerChannel < 128);
+        assertEquals("customer-12", snapshot.getAlias(12));
+        assertEquals(snapshot.getChannelId(7).replace("-", "") + snapshot.getChannelId(7).replace("-", ""), snapshot.getPushAddress(7));
+    }
+
+    @Test(expected = IndexOutOfBoundsException.class)
+    public void testIndexOutOfBounds() {
+        ChannelSnapshot.newBuilder().build().get(0);
+    }
+}
@@ -0,0 +1,263 @@
+package com.urbanairship.api.channel;
+
+import com.github.tomakehurst.wiremock.junit.WireMockClassRule;
+import com.github.tomakehurst.wiremock.verification.LoggedRequest;
+import com.google.common.collect.ImmutableSet;
+import com.urbanairship.api.channel.model.ChannelType;
+import com.urbanairship.api.client.Response;
+import com.urbanairship.api.client.UrbanAirshipClient;
+import org.codehaus.jackson.JsonNode;
+import org.codehaus.jackson.map.ObjectMapper;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.ClassRule;
+import org.junit.Rule;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Future;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static com.github.tomakehurst.wiremock.client.WireMock.aResponse;
+import static com.github.tomakehurst.wiremock.client.WireMock.findAll;
+import static com.github.tomakehurst.wiremock.client.WireMock.post;
+import static com.github.tomakehurst.wiremock.client.WireMock.postRequestedFor;
+import static com.github.tomakehurst.wiremock.client.WireMock.stubFor;
+import static com.github.tomakehurst.wiremock.client.WireMock.urlEqualTo;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class ChannelTagBatcherTest {
+
+    private static final String TAGS_PATH = "/api/channels/tags/";
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+
+    @ClassRule
+    public static WireMockClassRule wireMockRule = new WireMockClassRule();
+
+    @Rule
+    public WireMockClassRule instanceRule = wireMockRule;
+
+    private UrbanAirshipClient client;
+
+    @Before
+    public void setup() {
+        client = UrbanAirshipClient.newBuilder()
+            .setBaseUri("http://localhost:8080")
+            .setKey("key")
+            .setSecret("secret")
+            .build();
+
+        stubFor(post(urlEqualTo(TAGS_PATH))
+            .willReturn(aResponse()
+                .withHeader("Content-type", "application/json")
+                .withBody("{\"ok\":true}")
+                .withStatus(200)));
+    }
+
+    @After
+    public void takeDown() {
+        client.close();
+    }
+
+    @Test
+    public void testIdenticalChangesShareRequest() throws Exception {
+        ChannelTagBatcher batcher = batcher(1000);
+        batcher.addTags(ChannelType.IOS, "ios-1", "loyalty", ImmutableSet.of("gold"));
+        batcher.addTags(ChannelType.IOS, "ios-2", "loyalty", ImmutableSet.of("gold"));
+        batcher.addTags(ChannelType.ANDROID, "android-1", "loyalty", ImmutableSet.of("gold"));
+        assertEquals(3, batcher.getPendingChannels());
+
+        await(batcher.flush());
+        batcher.close();
+
+        List<JsonNode> bodies = bodies();
+        assertEquals(1, bodies.size());
+        JsonNode body = bodies.get(0);
+        assertEquals(2, body.get("audience").get("ios_channel").size());
+        assertEquals(1, body.get("audience").get("android_channel").size());
+        assertEquals("gold", body.get("add").get("loyalty").get(0).getTextValue());
+        assertEquals(0, batcher.getPendingChannels());
+    }
+
+    @Test
+    public void testAddAndRemoveCancel() throws Exception {
+        ChannelTagBatcher batcher = batcher(1000);
+        batcher.addTags(ChannelType.IOS, "ios-1", "loyalty", ImmutableSet.of("gold", "silver"));
+        batcher.removeTags(ChannelType.IOS, "ios-1", "loyalty", ImmutableSet.of("gold"));
+
+        await(batcher.flush());
+        batcher.close();
+
+        List<JsonNode> bodies = bodies();
+        assertEquals(1, bodies.size());
+        assertEquals(MAPPER.readTree("{\"loyalty\":[\"silver\"]}"), bodies.get(0).get("add"));
+        assertEquals(MAPPER.readTree("{\"loyalty\":[\"gold\"]}"), bodies.get(0).get("remove"));
+    }
+
+    @Test
+    public void testSetIsSentSeparately() throws Exception {
+        ChannelTagBatcher batcher = batcher(1000);
+        batcher.addTags(ChannelType.IOS, "ios-1", "loyalty", ImmutableSet.of("gold"));
+        batcher.addTags(ChannelType.IOS, "ios-1", "sports", ImmutableSet.of("hockey"));
+        // Setting a group replaces the pending changes to it.
+        batcher.setTags(ChannelType.IOS, "ios-1", "sports", ImmutableSet.of("soccer"));
+        batcher.addTags(ChannelType.IOS, "ios-1", "sports", ImmutableSet.of("tennis"));
+
+        await(batcher.flush());
+        batcher.close();
+
+        List<JsonNode> bodies = bodies();
+        assertEquals(2, bodies.size());
+        for (JsonNode body : bodies) {
+            if (body.has("set")) {
+                assertFalse(body.has("add"));
+                assertFalse(body.has("remove"));
+                assertEquals(2, body.get("set").get("sports").size());
+            } else {
+                assertEquals(MAPPER.readTree("{\"loyalty\":[\"gold\"]}"), body.get("add"));
+            }
+        }
+    }
+
+    @Test
+    public void testFlushOnSize() throws Exception {
+        ChannelTagBatcher batcher = batcher(2);
+        for (int i = 0; i < 5; i++) {
+            batcher.addTags(ChannelType.ANDROID, "android-" + i, "loyalty", ImmutableSet.of("gold"));
+        }
+
+        // Two full batches are flushed without waiting for the timer.
+        for (int i = 0; i < 100 && countChannels() < 4; i++) {
+            Thread.sleep(20);
+        }
+        assertTrue(countChannels() >= 4);
+
+        batcher.close();
+        for (int i = 0; i < 100 && countChannels() < 5; i++) {
+            Thread.sleep(20);
+        }
+        assertEquals(5, countChannels());
+        for (JsonNode body : bodies()) {
+            assertTrue(body.get("audience").get("android_channel").size() <= 2);
+        }
+    }
+
+    @Test
+    public void testChannelWaitsForRequestInFlight() throws Exception {
+        stubFor(post(urlEqualTo(TAGS_PATH))
+            .willReturn(aResponse()
+                .withHeader("Content-type", "application/json")
+                .withBody("{\"ok\":true}")
+                .withStatus(200)
+                .withFixedDelay(500)));
+
+        ChannelTagBatcher batcher = batcher(1000);
+        batcher.addTags(ChannelType.IOS, "ios-1", "loyalty", ImmutableSet.of("gold"));
+        List<Future<Response>> first = batcher.flush();
+        assertEquals(1, first.size());
+
+        // ios-1 waits for the add to complete, while ios-2 is sent right away.
+        batcher.removeTags(ChannelType.IOS, "ios-1", "loyalty", ImmutableSet.of("gold"));
+        batcher.addTags(ChannelType.IOS, "ios-2", "loyalty", ImmutableSet.of("gold"));
+        List<Future<Response>> second = batcher.flush();
+        assertEquals(1, second.size());
+        assertEquals(1, batcher.getPendingChannels());
+        assertFalse(first.get(0).isDone());
+
+        await(first);
+        await(second);
+        for (int i = 0; i < 100 && bodies().size() < 3; i++) {
+            Thread.sleep(20);
+        }
+        batcher.close();
+
+        List<JsonNode> bodies = bodies();
+        assertEquals(3, bodies.size());
+        JsonNode last = bodies.get(2);
+        assertEquals("ios-1", last.get("audience").get("ios_channel").get(0).getTextValue());
+        assertEquals(MAPPER.readTree("{\"loyalty\":[\"gold\"]}"), last.get("remove"));
+        assertFalse(last.has("add"));
+    }
+
+    @Test
+    public void testChannelsInFlightDoNotTriggerFlush() throws Exception {
+        stubFor(post(urlEqualTo(TAGS_PATH))
+            .willReturn(aResponse()
+                .withHeader("Content-type", "application/json")
+                .withBody("{\"ok\":true}")
+                .withStatus(200)
+                .withFixedDelay(500)));
+
+        final AtomicInteger flushes = new AtomicInteger(0);
+        ScheduledExecutorService scheduler = new ScheduledThreadPoolExecutor(1) {
+            @Override
+            public void execute(Runnable command) {
+                flushes.incrementAndGet();
+                super.execute(command);
+            }
+        };
+        ChannelTagBatcher batcher = ChannelTagBatcher.newBuilder()
+            .setClient(client)
+            .setMaxChannelsPerRequest(2)
+            .setFlushInterval(1, TimeUnit.HOURS)
+            .setScheduler(scheduler)
+            .build();
+
+        try {
+            batcher.addTags(ChannelType.IOS, "ios-1", "loyalty", ImmutableSet.of("gold"));
+            batcher.addTags(ChannelType.IOS, "ios-2", "loyalty", ImmutableSet.of("gold"));
+            for (int i = 0; i < 100 && batcher.getPendingChannels() > 0; i++) {
+                Thread.sleep(5);
+            }
+            assertEquals(1, flushes.get());
+
+            // Both channels have a request in flight, so there is nothing to flush yet.
+            batcher.removeTags(ChannelType.IOS, "ios-1", "loyalty", ImmutableSet.of("gold"));
+            batcher.removeTags(ChannelType.IOS, "ios-2", "loyalty", ImmutableSet.of("gold"));
+            batcher.addTags(ChannelType.IOS, "ios-3", "loyalty", ImmutableSet.of("gold"));
+            assertEquals(1, flushes.get());
+
+            batcher.addTags(ChannelType.IOS, "ios-4", "loyalty", ImmutableSet.of("gold"));
+            assertEquals(2, flushes.get());
+        } finally {
+            batcher.close();
+            scheduler.shutdown();
+        }
+    }
+
+    private ChannelTagBatcher batcher(int maxChannels) {
+        return ChannelTagBatcher.newBuilder()
+            .setClient(client)
+            .setMaxChannelsPerRequest(maxChannels)
+            .setFlushInterval(1, TimeUnit.HOURS)
+            .build();
+    }
+
+    private static void await(List<Future<Response>> futures) throws Exception {
+        for (Future<Response> future : futures) {
+            assertEquals(200, future.get(5, TimeUnit.SECONDS).getStatus());
+        }
+    }
+
+    private static List<JsonNode> bodies() throws Exception {
+        List<JsonNode> bodies = new ArrayList<>();
+        for (LoggedRequest request : findAll(postRequestedFor(urlEqualTo(TAGS_PATH)))) {
+            bodies.add(MAPPER.readTree(request.getBodyAsString()));
+        }
+        return bodies;
+    }
+
+    private static int countChannels() throws Exception {
+        int channels = 0;
+        for (JsonNode body : bodies()) {
+            channels += body.get("audience").get("android_channel").size();
+        }
+        return channels;
+    }
+}
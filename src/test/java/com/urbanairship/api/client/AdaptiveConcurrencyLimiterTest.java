@@ -0,0 +1,154 @@
+package com.urbanairship.api.client;
+
+import org.junit.Test;
+
+import java.net.URI;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class AdaptiveConcurrencyLimiterTest {
+
+    private static final String PUSH = "/api/push/";
+    private static final String CHANNELS = "/api/channels/";
+
+    @Test
+    public void testPathPrefixes() {
+        AdaptiveConcurrencyLimiter limiter = AdaptiveConcurrencyLimiter.newBuilder()
+            .addPathPrefix("/api/push/validate/")
+            .build();
+
+        assertEquals("/api/channels/", limiter.getPathPrefix(URI.create("https://go.urbanairship.com/api/channels/tags/")));
+        assertEquals("/api/push/", limiter.getPathPrefix(URI.create("https://go.urbanairship.com/api/push")));
+        assertEquals("/api/push/validate/", limiter.getPathPrefix(URI.create("https://go.urbanairship.com/api/push/validate/")));
+        assertEquals("/api/reports/", limiter.getPathPrefix(URI.create("https://go.urbanairship.com/api/reports/sends/?start=1")));
+    }
+
+    @Test
+    public void testQueuesOverLimit() {
+        AdaptiveConcurrencyLimiter limiter = AdaptiveConcurrencyLimiter.newBuilder()
+            .setInitialLimit(1)
+            .build();
+
+        TestAdmission first = new TestAdmission(PUSH);
+        TestAdmission second = new TestAdmission(PUSH);
+        TestAdmission other = new TestAdmission(CHANNELS);
+        limiter.submit(first);
+        limiter.submit(second);
+        limiter.submit(other);
+
+        assertTrue(first.isAdmitted());
+        assertFalse(second.isAdmitted());
+        assertTrue(other.isAdmitted());
+        assertEquals(1, limiter.getQueueDepth(PUSH));
+
+        limiter.release(first.finished(200, 10, 0));
+
+        assertTrue(second.isAdmitted());
+        assertEquals(1, limiter.getInFlight(PUSH));
+        assertEquals(0, limiter.getQueueDepth(PUSH));
+    }
+
+    @Test
+    public void testAdditiveIncrease() {
+        AdaptiveConcurrencyLimiter limiter = AdaptiveConcurrencyLimiter.newBuilder()
+            .setInitialLimit(4)
+            .build();
+
+        for (int round = 0; round < 20; round++) {
+            int limit = limiter.getLimit(PUSH).or(4);
+            TestAdmission[] batch = new TestAdmission[limit];
+            for (int i = 0; i < limit; i++) {
+                batch[i] = new TestAdmission(PUSH);
+                limiter.submit(batch[i]);
+            }
+            for (TestAdmission admission : batch) {
+                limiter.release(admission.finished(200, 10, 0));
+            }
+        }
+
+        assertTrue(limiter.getLimit(PUSH).get() > 4);
+        assertTrue(limiter.getLimit(PUSH).get() <= 24);
+        assertEquals(0, limiter.getInFlight(PUSH));
+    }
+
+    @Test
+    public void testMultiplicativeDecreaseOnRejection() {
+        AdaptiveConcurrencyLimiter limiter = AdaptiveConcurrencyLimiter.newBuilder()
+            .setInitialLimit(10)
+            .build();
+
+        TestAdmission first = new TestAdmission(PUSH);
+        TestAdmission second = new TestAdmission(PUSH);
+        limiter.submit(first);
+        limiter.submit(second);
+
+        limiter.release(first.finished(429, 1000, 0));
+        assertEquals(7, (int) limiter.getLimit(PUSH).get());
+
+        // Requests sent in the same round trip only back off once.
+        limiter.release(second.finished(503, 1000, 0));
+        assertEquals(7, (int) limiter.getLimit(PUSH).get());
+
+        // Other prefixes keep their own limit.
+        TestAdmission channels = new TestAdmission(CHANNELS);
+        limiter.submit(channels);
+        assertEquals(10, (int) limiter.getLimit(CHANNELS).get());
+    }
+
+    @Test
+    public void testDecreaseOnRetriedRequest() {
+        AdaptiveConcurrencyLimiter limiter = AdaptiveConcurrencyLimiter.newBuilder()
+            .setInitialLimit(10)
+            .build();
+
+        TestAdmission admission = new TestAdmission(PUSH);
+        limiter.submit(admission);
+        limiter.release(admission.finished(200, 10, 2));
+
+        assertEquals(7, (int) limiter.getLimit(PUSH).get());
+    }
+
+    @Test
+    public void testDecreaseOnRisingLatency() {
+        AdaptiveConcurrencyLimiter limiter = AdaptiveConcurrencyLimiter.newBuilder()
+            .setInitialLimit(10)
+            .setLatencyTolerance(3)
+            .build();
+
+        TestAdmission fast = new TestAdmission(PUSH);
+        limiter.submit(fast);
+        limiter.release(fast.finished(200, 10, 0));
+        int limit = limiter.getLimit(PUSH).get();
+
+        TestAdmission tolerated = new TestAdmission(PUSH);
+        limiter.submit(tolerated);
+        limiter.release(tolerated.finished(200, 25, 0));
+        assertTrue(limiter.getLimit(PUSH).get() >= limit);
+
+        TestAdmission slow = new TestAdmission(PUSH);
+        limiter.submit(slow);
+        limiter.release(slow.finished(200, 100, 0));
+        assertTrue(limiter.getLimit(PUSH).get() < limit);
+    }
+
+    @Test
+    public void testCancelledRequestsDoNotAdjust() {
+        AdaptiveConcurrencyLimiter limiter = AdaptiveConcurrencyLimiter.newBuilder()
+            .setInitialLimit(1)
+            .build();
+
+        TestAdmission first = new TestAdmission(PUSH);
+        TestAdmission queued = new TestAdmission(PUSH);
+        limiter.submit(first);
+        limiter.submit(queued);
+        limiter.release(queued);
+        limiter.release(first);
+
+        assertFalse(queued.isAdmitted());
+        assertEquals(0, limiter.getQueueDepth(PUSH));
+        assertEquals(0, limiter.getInFlight(PUSH));
+        assertEquals(1, (int) limiter.getLimit(PUSH).get());
+    }
+}
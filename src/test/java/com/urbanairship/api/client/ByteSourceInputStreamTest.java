@@ -0,0 +1,62 @@
+package com.urbanairship.api.client;
+
+import com.google.common.io.ByteSource;
+import com.google.common.io.ByteStreams;
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Random;
+import java.util.zip.GZIPInputStream;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class ByteSourceInputStreamTest {
+
+    @Test
+    public void testGzipRoundTrip() throws Exception {
+        byte[] data = new byte[1 << 20];
+        Random random = new Random(42);
+        for (int i = 0; i < data.length; i++) {
+            // Mostly compressible data with some noise.
+            data[i] = (byte) (i % 64 == 0 ? random.nextInt() : 'a' + (i % 26));
+        }
+
+        byte[] compressed = ByteStreams.toByteArray(ByteSourceInputStream.gzipped(ByteSource.wrap(data)));
+
+        assertTrue(compressed.length < data.length);
+        assertArrayEquals(data, ByteStreams.toByteArray(new GZIPInputStream(new ByteArrayInputStream(compressed))));
+    }
+
+    @Test
+    public void testEmptySource() throws Exception {
+        byte[] compressed = ByteStreams.toByteArray(ByteSourceInputStream.gzipped(ByteSource.empty()));
+
+        assertEquals(0, ByteStreams.toByteArray(new GZIPInputStream(new ByteArrayInputStream(compressed))).length);
+        assertEquals(-1, ByteSourceInputStream.of(ByteSource.empty()).read());
+    }
+
+    @Test
+    public void testResetReopensSource() throws Exception {
+        final int[] opened = {0};
+        ByteSource source = new ByteSource() {
+            @Override
+            public InputStream openStream() throws IOException {
+                opened[0]++;
+                return new ByteArrayInputStream("alias,stevenh\n".getBytes("UTF-8"));
+            }
+        };
+
+        InputStream stream = ByteSourceInputStream.of(source);
+        assertTrue(stream.markSupported());
+        assertEquals('a', stream.read());
+        assertEquals('l', stream.read());
+
+        stream.reset();
+        assertEquals("alias,stevenh\n", new String(ByteStreams.toByteArray(stream), "UTF-8"));
+        assertEquals(2, opened[0]);
+    }
+}
@@ -0,0 +1,117 @@
+package com.urbanairship.api.client;
+
+import com.google.common.collect.ImmutableMap;
+import com.urbanairship.api.channel.ChannelRequest;
+import com.urbanairship.api.push.PushRequest;
+import com.urbanairship.api.staticlists.StaticListUploadRequest;
+import org.junit.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class HistogramClientMetricsTest {
+
+    private static final HistogramClientMetrics.Endpoint PUSH = new HistogramClientMetrics.Endpoint(PushRequest.class, "/api/push/");
+    private static final HistogramClientMetrics.Endpoint CHANNEL = new HistogramClientMetrics.Endpoint(ChannelRequest.class, "/api/channels/{id}");
+
+    @Test
+    public void testRecordsPerEndpoint() throws Exception {
+        HistogramClientMetrics metrics = HistogramClientMetrics.newBuilder().build();
+
+        for (int i = 1; i <= 100; i++) {
+            metrics.onRequestCompleted(RequestMetrics.newBuilder()
+                .setRequestClass(PushRequest.class)
+                .setPathTemplate("/api/push/")
+                .setStatusCode(i % 10 == 0 ? 503 : 202)
+                .setRetryCount(i % 10 == 0 ? 2 : 0)
+                .setQueueTime(i, TimeUnit.MILLISECONDS)
+                .setTimeToFirstByte(2 * i, TimeUnit.MILLISECONDS)
+                .setLatency(3 * i, TimeUnit.MILLISECONDS)
+                .setParseTime(i, TimeUnit.MICROSECONDS)
+                .setRequestBytes(1000)
+                .setResponseBytes(100)
+                .build());
+        }
+        metrics.onRequestCompleted(RequestMetrics.newBuilder()
+            .setRequestClass(ChannelRequest.class)
+            .setPathTemplate("/api/channels/{id}")
+            .setLatency(5, TimeUnit.SECONDS)
+            .build());
+
+        ImmutableMap<HistogramClientMetrics.Endpoint, HistogramClientMetrics.Snapshot> snapshots = metrics.getSnapshots();
+        assertEquals(2, snapshots.size());
+
+        HistogramClientMetrics.Snapshot push = snapshots.get(PUSH);
+        assertEquals(100, push.getCount());
+        assertEquals(ImmutableMap.of(202, 90L, 503, 10L), push.getStatusCounts());
+        assertEquals(150000, push.getLatency().getValueAtPercentile(50), 1000);
+        assertEquals(100000, push.getQueueTime().getMaxValue(), 1000);
+        assertEquals(200000, push.getTimeToFirstByte().getMaxValue(), 2000);
+        assertEquals(100, push.getParseTime().getMaxValue(), 1);
+        assertEquals(1000, push.getRequestBytes().getMean(), 10);
+        assertEquals(100, push.getResponseBytes().getTotalCount());
+        assertEquals(2, push.getRetries().getMaxValue());
+
+        // Requests without a response have no status and no time to first byte.
+        HistogramClientMetrics.Snapshot channel = snapshots.get(CHANNEL);
+        assertEquals(1, channel.getCount());
+        assertTrue(channel.getStatusCounts().isEmpty());
+        assertEquals(0, channel.getTimeToFirstByte().getTotalCount());
+        assertEquals(0, channel.getRequestBytes().getTotalCount());
+        assertEquals(5000000, channel.getLatency().getMaxValue(), 50000);
+    }
+
+    @Test
+    public void testSnapshotsAreCumulative() throws Exception {
+        HistogramClientMetrics metrics = HistogramClientMetrics.newBuilder().build();
+        RequestMetrics request = RequestMetrics.newBuilder()
+            .setRequestClass(PushRequest.class)
+            .setPathTemplate("/api/push/")
+            .setStatusCode(202)
+            .setLatency(10, TimeUnit.MILLISECONDS)
+            .build();
+
+        metrics.onRequestCompleted(request);
+        HistogramClientMetrics.Snapshot first = metrics.getSnapshots().get(PUSH);
+        metrics.onRequestCompleted(request);
+        HistogramClientMetrics.Snapshot second = metrics.getSnapshots().get(PUSH);
+
+        assertEquals(1, first.getLatency().getTotalCount());
+        assertEquals(2, second.getLatency().getTotalCount());
+        assertEquals(2, second.getCount());
+        assertFalse(first.getLatency() == second.getLatency());
+    }
+
+    @Test
+    public void testEndpointsAreBounded() throws Exception {
+        HistogramClientMetrics metrics = HistogramClientMetrics.newBuilder()
+            .setMaxEndpoints(2)
+            .build();
+        for (String name : new String[] {"vip_customers", "new_customers", "lapsed_customers", "vip_customers"}) {
+            metrics.onRequestCompleted(RequestMetrics.newBuilder()
+                .setRequestClass(StaticListUploadRequest.class)
+                .setPathTemplate("/api/lists/" + name + "/csv")
+                .setLatency(10, TimeUnit.MILLISECONDS)
+                .build());
+        }
+        metrics.onRequestCompleted(RequestMetrics.newBuilder()
+            .setRequestClass(PushRequest.class)
+            .setPathTemplate("/api/push/")
+            .setLatency(10, TimeUnit.MILLISECONDS)
+            .build());
+
+        ImmutableMap<HistogramClientMetrics.Endpoint, HistogramClientMetrics.Snapshot> snapshots = metrics.getSnapshots();
+        assertEquals(4, snapshots.size());
+        assertEquals(2, snapshots.get(new HistogramClientMetrics.Endpoint(StaticListUploadRequest.class, "/api/lists/vip_customers/csv")).getCount());
+        assertEquals(1, snapshots.get(new HistogramClientMetrics.Endpoint(StaticListUploadRequest.class, HistogramClientMetrics.OTHER_PATH_TEMPLATE)).getCount());
+        assertEquals(1, snapshots.get(new HistogramClientMetrics.Endpoint(PushRequest.class, HistogramClientMetrics.OTHER_PATH_TEMPLATE)).getCount());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testInvalidSignificantDigits() throws Exception {
+        HistogramClientMetrics.newBuilder().setSignificantDigits(6).build();
+    }
+}
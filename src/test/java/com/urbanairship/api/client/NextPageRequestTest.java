@@ -0,0 +1,49 @@
+package com.urbanairship.api.client;
+
+import com.urbanairship.api.nameduser.NamedUserListingRequest;
+import com.urbanairship.api.nameduser.model.NamedUserListingResponse;
+import com.urbanairship.api.templates.TemplateListingRequest;
+import com.urbanairship.api.templates.model.TemplateListingResponse;
+import org.junit.Test;
+
+import java.net.URI;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+
+public class NextPageRequestTest {
+
+    private final URI baseURI = URI.create("https://go.urbanairship.com");
+
+    @Test
+    public void testDelegatesToListingRequest() throws Exception {
+        NamedUserListingRequest listAllRequest = NamedUserListingRequest.newRequest();
+        NextPageRequest<NamedUserListingResponse> request =
+            NextPageRequest.newRequest(listAllRequest, URI.create("https://go.urbanairship.com/api/named_users/?limit=10&start=mfd"));
+
+        assertEquals(listAllRequest.getHttpMethod(), request.getHttpMethod());
+        assertEquals(listAllRequest.getRequestHeaders(), request.getRequestHeaders());
+        assertEquals(listAllRequest.getContentType(), request.getContentType());
+        assertEquals(listAllRequest.getRequestBody(), request.getRequestBody());
+        assertEquals(URI.create("https://go.urbanairship.com/api/named_users/?limit=10&start=mfd"), request.getUri(baseURI));
+    }
+
+    @Test
+    public void testReplacesListingParameters() throws Exception {
+        TemplateListingRequest listingRequest = TemplateListingRequest.newRequest().setPage(1).setPageSize(10);
+        NextPageRequest<TemplateListingResponse> request =
+            NextPageRequest.newRequest(listingRequest, URI.create("https://go.urbanairship.com/api/templates/?page=2&page_size=10"));
+        NextPageRequest<TemplateListingResponse> followingRequest =
+            NextPageRequest.newRequest(request, URI.create("https://go.urbanairship.com/api/templates/?page=3&page_size=10"));
+
+        assertEquals(URI.create("https://go.urbanairship.com/api/templates/?page=2&page_size=10"), request.getUri(baseURI));
+        assertEquals(URI.create("https://go.urbanairship.com/api/templates/?page=3&page_size=10"), followingRequest.getUri(baseURI));
+        assertSame(listingRequest.getResponseParser().getClass(), followingRequest.getResponseParser().getClass());
+    }
+
+    @Test
+    public void testNextPagePath() throws Exception {
+        assertEquals("/api/channels/", RequestUtils.nextPagePath(URI.create("https://go.urbanairship.com/api/channels/")));
+        assertEquals("/api/channels/?start=a%2Fb", RequestUtils.nextPagePath(URI.create("https://go.urbanairship.com/api/channels/?start=a%2Fb")));
+    }
+}
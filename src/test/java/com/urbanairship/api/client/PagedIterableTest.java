@@ -0,0 +1,92 @@
+package com.urbanairship.api.client;
+
+import com.github.tomakehurst.wiremock.junit.WireMockClassRule;
+import com.urbanairship.api.nameduser.NamedUserListingRequest;
+import com.urbanairship.api.nameduser.model.NamedUserView;
+import com.urbanairship.api.schedule.ScheduleListingRequest;
+import com.urbanairship.api.schedule.model.SchedulePayload;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.ClassRule;
+import org.junit.Rule;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static com.github.tomakehurst.wiremock.client.WireMock.aResponse;
+import static com.github.tomakehurst.wiremock.client.WireMock.get;
+import static com.github.tomakehurst.wiremock.client.WireMock.stubFor;
+import static com.github.tomakehurst.wiremock.client.WireMock.urlEqualTo;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+
+public class PagedIterableTest {
+
+    @ClassRule
+    public static WireMockClassRule wireMockRule = new WireMockClassRule();
+
+    @Rule
+    public WireMockClassRule instanceRule = wireMockRule;
+
+    private UrbanAirshipClient client;
+
+    @Before
+    public void setup() {
+        client = UrbanAirshipClient.newBuilder()
+            .setBaseUri("http://localhost:8080")
+            .setKey("key")
+            .setSecret("secret")
+            .build();
+    }
+
+    @After
+    public void takeDown() {
+        client.close();
+    }
+
+    @Test
+    public void testNamedUserListing() throws Exception {
+        stubJson("/api/named_users/", "{\"ok\":true,\"named_users\":[" +
+            "{\"named_user_id\":\"user-1\",\"tags\":{},\"channels\":[]}," +
+            "{\"named_user_id\":\"user-2\",\"tags\":{},\"channels\":[]}]," +
+            "\"next_page\":\"https://go.urbanairship.com/api/named_users/?start=user-3\"}");
+        stubJson("/api/named_users/?start=user-3", "{\"ok\":true,\"named_users\":[" +
+            "{\"named_user_id\":\"user-3\",\"tags\":{},\"channels\":[]}]}");
+
+        PagedIterable<NamedUserView> namedUsers = PagedIterable.<NamedUserView>newBuilder()
+            .setClient(client)
+            .setRequest(NamedUserListingRequest.newRequest())
+            .setMaxPrefetchedPages(3)
+            .build();
+
+        List<String> ids = new ArrayList<>();
+        for (NamedUserView namedUser : namedUsers) {
+            ids.add(namedUser.getNamedUserId());
+        }
+
+        assertEquals(3, ids.size());
+        assertEquals("user-1", ids.get(0));
+        assertEquals("user-3", ids.get(2));
+    }
+
+    @Test
+    public void testEmptyListing() throws Exception {
+        stubJson("/api/schedules/", "{\"ok\":true,\"count\":0,\"total_count\":0,\"schedules\":[]}");
+
+        PagedIterable<SchedulePayload> schedules = PagedIterable.<SchedulePayload>newBuilder()
+            .setClient(client)
+            .setRequest(ScheduleListingRequest.newRequest())
+            .build();
+
+        assertFalse(schedules.iterator().hasNext());
+    }
+
+    private static void stubJson(String url, String body) {
+        stubFor(get(urlEqualTo(url))
+            .willReturn(aResponse()
+                .withHeader("Content-type", "application/json")
+                .withBody(body)
+                .withStatus(200)));
+    }
+}
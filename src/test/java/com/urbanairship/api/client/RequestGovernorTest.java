@@ -0,0 +1,112 @@
+package com.urbanairship.api.client;
+
+import org.junit.After;
+import org.junit.Test;
+
+import java.net.URI;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class RequestGovernorTest {
+
+    private RequestGovernor governor;
+
+    @After
+    public void takeDown() {
+        if (governor != null) {
+            governor.close();
+        }
+    }
+
+    @Test
+    public void testEndpointFamilies() {
+        assertEquals(EndpointFamily.PUSH, EndpointFamily.of(URI.create("https://go.urbanairship.com/api/push/")));
+        assertEquals(EndpointFamily.PUSH, EndpointFamily.of(URI.create("https://go.urbanairship.com/api/schedules/abc")));
+        assertEquals(EndpointFamily.REPORTS, EndpointFamily.of(URI.create("https://go.urbanairship.com/api/push/stats/?id=1")));
+        assertEquals(EndpointFamily.CHANNELS, EndpointFamily.of(URI.create("https://go.urbanairship.com/api/channels/tags/")));
+        assertEquals(EndpointFamily.NAMED_USERS, EndpointFamily.of(URI.create("https://go.urbanairship.com/api/named_users/associate/")));
+        assertEquals(EndpointFamily.REPORTS, EndpointFamily.of(URI.create("https://go.urbanairship.com/api/reports/sends/")));
+        assertEquals(EndpointFamily.OTHER, EndpointFamily.of(URI.create("https://go.urbanairship.com/api/segments/")));
+    }
+
+    @Test
+    public void testMaxInFlight() {
+        governor = RequestGovernor.newBuilder()
+            .setMaxInFlight(2)
+            .build();
+
+        TestAdmission first = new TestAdmission("/api/push/");
+        TestAdmission second = new TestAdmission("/api/push/");
+        TestAdmission third = new TestAdmission("/api/channels/");
+
+        governor.submit(first);
+        governor.submit(second);
+        governor.submit(third);
+
+        assertTrue(first.isAdmitted());
+        assertTrue(second.isAdmitted());
+        assertFalse(third.isAdmitted());
+        assertEquals(2, governor.getInFlight());
+        assertEquals(1, governor.getQueueDepth());
+        assertEquals(1, governor.getQueueDepth(EndpointFamily.CHANNELS));
+
+        governor.release(first);
+
+        assertTrue(third.isAdmitted());
+        assertEquals(2, governor.getInFlight());
+        assertEquals(0, governor.getQueueDepth());
+        assertEquals(3, governor.getAdmittedCount());
+    }
+
+    @Test
+    public void testReleaseOfQueuedAdmission() {
+        governor = RequestGovernor.newBuilder()
+            .setMaxInFlight(1)
+            .build();
+
+        TestAdmission first = new TestAdmission("/api/push/");
+        TestAdmission cancelled = new TestAdmission("/api/push/");
+        TestAdmission last = new TestAdmission("/api/push/");
+
+        governor.submit(first);
+        governor.submit(cancelled);
+        governor.submit(last);
+        governor.release(cancelled);
+        assertEquals(1, governor.getQueueDepth());
+
+        governor.release(first);
+
+        assertFalse(cancelled.isAdmitted());
+        assertTrue(last.isAdmitted());
+        assertEquals(1, governor.getInFlight());
+    }
+
+    @Test
+    public void testRateLimitPerFamily() throws Exception {
+        governor = RequestGovernor.newBuilder()
+            .setRateLimit(EndpointFamily.CHANNELS, 20, 1)
+            .build();
+
+        TestAdmission[] tags = new TestAdmission[3];
+        for (int i = 0; i < tags.length; i++) {
+            tags[i] = new TestAdmission("/api/channels/tags/");
+            governor.submit(tags[i]);
+        }
+        TestAdmission push = new TestAdmission("/api/push/");
+        governor.submit(push);
+
+        // The burst admits one channel request, the other families are not limited.
+        assertTrue(tags[0].isAdmitted());
+        assertTrue(push.isAdmitted());
+        assertEquals(2, governor.getQueueDepth(EndpointFamily.CHANNELS));
+
+        assertTrue(tags[1].proceeded.await(5, TimeUnit.SECONDS));
+        assertTrue(tags[2].proceeded.await(5, TimeUnit.SECONDS));
+        assertEquals(0, governor.getQueueDepth());
+        assertTrue(governor.getMaxWaitTime(TimeUnit.MILLISECONDS) >= 50);
+        assertTrue(governor.getTotalWaitTime(TimeUnit.MILLISECONDS) >= governor.getMaxWaitTime(TimeUnit.MILLISECONDS));
+    }
+}
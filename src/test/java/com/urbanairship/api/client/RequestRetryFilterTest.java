@@ -0,0 +1,76 @@
+package com.urbanairship.api.client;
+
+import com.google.common.base.Optional;
+import com.google.common.base.Predicate;
+import com.ning.http.client.FluentCaseInsensitiveStringsMap;
+import com.ning.http.client.HttpResponseHeaders;
+import com.ning.http.client.filter.FilterContext;
+import org.joda.time.DateTime;
+import org.joda.time.DateTimeZone;
+import org.joda.time.format.DateTimeFormat;
+import org.junit.Test;
+
+import java.util.Locale;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class RequestRetryFilterTest {
+
+    private final RequestRetryFilter filter = new RequestRetryFilter(10, Optional.<Predicate<FilterContext>>absent(), 100, 5000);
+
+    @Test
+    public void testBackoffWithFullJitter() throws Exception {
+        for (int retry = 0; retry < 10; retry++) {
+            long bound = Math.min(5000, 100L << (retry + 1));
+            for (int i = 0; i < 50; i++) {
+                long delay = filter.getRetryDelay(context(null), retry);
+                assertTrue(delay >= 0 && delay <= bound);
+            }
+        }
+    }
+
+    @Test
+    public void testBackoffIsCappedForLargeRetryCounts() throws Exception {
+        long delay = filter.getRetryDelay(context(null), 200);
+        assertTrue(delay >= 0 && delay <= 5000);
+    }
+
+    @Test
+    public void testRetryAfterSeconds() throws Exception {
+        assertEquals(2000, filter.getRetryDelay(context("2"), 0));
+        assertEquals(5000, filter.getRetryDelay(context("120"), 0));
+    }
+
+    @Test
+    public void testRetryAfterDate() throws Exception {
+        String date = DateTimeFormat.forPattern("EEE, dd MMM yyyy HH:mm:ss 'GMT'")
+            .withLocale(Locale.US)
+            .print(DateTime.now(DateTimeZone.UTC).plusSeconds(3));
+
+        long delay = filter.getRetryDelay(context(date), 0);
+        assertTrue(delay > 1000 && delay <= 3000);
+    }
+
+    @Test
+    public void testInvalidRetryAfterFallsBackToBackoff() throws Exception {
+        long delay = filter.getRetryDelay(context("soon"), 0);
+        assertTrue(delay >= 0 && delay <= 200);
+    }
+
+    private static FilterContext<?> context(String retryAfter) {
+        final FluentCaseInsensitiveStringsMap headers = new FluentCaseInsensitiveStringsMap();
+        if (retryAfter != null) {
+            headers.add("Retry-After", retryAfter);
+        }
+
+        return new FilterContext.FilterContextBuilder<Object>()
+            .responseHeaders(new HttpResponseHeaders() {
+                @Override
+                public FluentCaseInsensitiveStringsMap getHeaders() {
+                    return headers;
+                }
+            })
+            .build();
+    }
+}
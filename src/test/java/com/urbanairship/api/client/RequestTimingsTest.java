@@ -0,0 +1,66 @@
+package com.urbanairship.api.client;
+
+import org.junit.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class RequestTimingsTest {
+
+    @Test
+    public void testPhases() throws Exception {
+        RequestTimings.Recorder recorder = new RequestTimings.Recorder();
+        recorder.start(System.nanoTime());
+        recorder.mark(RequestTimings.Phase.CONNECT_STARTED);
+        Thread.sleep(20);
+        recorder.mark(RequestTimings.Phase.CONNECTED);
+        recorder.mark(RequestTimings.Phase.REQUEST_SENT);
+
+        RequestTimings timings = recorder.snapshot(TimeUnit.MILLISECONDS.toNanos(5));
+
+        assertEquals(5, timings.getQueueTime(TimeUnit.MILLISECONDS));
+        assertTrue(timings.getDuration(RequestTimings.Phase.CONNECT_STARTED, RequestTimings.Phase.CONNECTED, TimeUnit.MILLISECONDS).get() >= 20);
+        assertTrue(timings.getElapsed(RequestTimings.Phase.REQUEST_SENT, TimeUnit.MILLISECONDS).get() >= 20);
+        assertFalse(timings.getElapsed(RequestTimings.Phase.CONNECTION_POOLED, TimeUnit.MILLISECONDS).isPresent());
+        assertFalse(timings.getDuration(RequestTimings.Phase.REQUEST_SENT, RequestTimings.Phase.FIRST_BYTE, TimeUnit.MILLISECONDS).isPresent());
+    }
+
+    @Test
+    public void testNewAttemptResetsPhases() throws Exception {
+        RequestTimings.Recorder recorder = new RequestTimings.Recorder();
+        recorder.start(System.nanoTime());
+        recorder.mark(RequestTimings.Phase.CONNECT_STARTED);
+        recorder.mark(RequestTimings.Phase.FIRST_BYTE);
+
+        recorder.start(System.nanoTime());
+        recorder.mark(RequestTimings.Phase.CONNECTION_POOLED);
+        RequestTimings timings = recorder.snapshot(0);
+
+        assertFalse(timings.getElapsed(RequestTimings.Phase.CONNECT_STARTED, TimeUnit.NANOSECONDS).isPresent());
+        assertFalse(timings.getElapsed(RequestTimings.Phase.FIRST_BYTE, TimeUnit.NANOSECONDS).isPresent());
+        assertTrue(timings.getElapsed(RequestTimings.Phase.CONNECTION_POOLED, TimeUnit.NANOSECONDS).isPresent());
+    }
+
+    @Test
+    public void testMarkFirstKeepsEarliest() throws Exception {
+        RequestTimings.Recorder recorder = new RequestTimings.Recorder();
+        recorder.start(System.nanoTime());
+        recorder.markFirst(RequestTimings.Phase.PARSE_STARTED);
+        long first = recorder.snapshot(0).getElapsed(RequestTimings.Phase.PARSE_STARTED, TimeUnit.NANOSECONDS).get();
+        Thread.sleep(5);
+        recorder.markFirst(RequestTimings.Phase.PARSE_STARTED);
+
+        assertEquals(first, recorder.snapshot(0).getElapsed(RequestTimings.Phase.PARSE_STARTED, TimeUnit.NANOSECONDS).get().longValue());
+    }
+
+    @Test
+    public void testNotStarted() throws Exception {
+        RequestTimings.Recorder recorder = new RequestTimings.Recorder();
+        recorder.mark(RequestTimings.Phase.FIRST_BYTE);
+
+        assertFalse(recorder.snapshot(0).getElapsed(RequestTimings.Phase.FIRST_BYTE, TimeUnit.NANOSECONDS).isPresent());
+    }
+}
@@ -0,0 +1,47 @@
+package com.urbanairship.api.client;
+
+import org.junit.Test;
+
+import java.net.URI;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+
+public class RequestUtilsTest {
+
+    @Test
+    public void testResolveURI() throws Exception {
+        assertEquals(URI.create("https://go.urbanairship.com/api/push/"),
+            RequestUtils.resolveURI(URI.create("https://go.urbanairship.com"), "/api/push/"));
+        assertEquals(URI.create("https://proxy.example.com/ua/api/push/"),
+            RequestUtils.resolveURI(URI.create("https://proxy.example.com/ua"), "api/push/"));
+    }
+
+    @Test
+    public void testDirectoryURI() throws Exception {
+        URI directory = URI.create("https://proxy.example.com/ua/");
+
+        assertEquals(directory, RequestUtils.directoryURI(URI.create("https://proxy.example.com/ua")));
+        assertSame(directory, RequestUtils.directoryURI(directory));
+        assertEquals(RequestUtils.resolveURI(URI.create("https://proxy.example.com/ua"), "/api/channels/abc"),
+            RequestUtils.resolveURI(directory, "/api/channels/abc"));
+    }
+
+    @Test
+    public void testNextPagePath() throws Exception {
+        assertEquals("/api/channels/?start=abc", RequestUtils.nextPagePath(URI.create("https://go.urbanairship.com/api/channels/?start=abc")));
+        assertEquals("/api/channels/", RequestUtils.nextPagePath(URI.create("https://go.urbanairship.com/api/channels/")));
+    }
+
+    @Test
+    public void testPathTemplate() throws Exception {
+        assertEquals("/api/push/", RequestUtils.pathTemplate(URI.create("https://go.urbanairship.com/api/push/")));
+        assertEquals("/api/channels/{id}",
+            RequestUtils.pathTemplate(URI.create("https://go.urbanairship.com/api/channels/9c36e8c7-5a73-47c0-9716-99fd3d4197d5")));
+        assertEquals("/api/reports/responses/{id}/",
+            RequestUtils.pathTemplate(URI.create("https://go.urbanairship.com/api/reports/responses/df31cae0-fa3c-11e2-97ce-14feb5d317b8/")));
+        assertEquals("/api/lists/subscribers/csv",
+            RequestUtils.pathTemplate(URI.create("https://go.urbanairship.com/api/lists/subscribers/csv?start=10")));
+        assertEquals("/", RequestUtils.pathTemplate(URI.create("https://go.urbanairship.com")));
+    }
+}
@@ -0,0 +1,185 @@
+package com.urbanairship.api.client;
+
+import com.google.common.base.Optional;
+import com.ning.http.client.FluentCaseInsensitiveStringsMap;
+import com.ning.http.client.HttpResponseBodyPart;
+import com.ning.http.client.HttpResponseHeaders;
+import com.ning.http.client.HttpResponseStatus;
+import com.urbanairship.api.channel.model.ChannelResponse;
+import com.urbanairship.api.channel.parse.ChannelObjectMapper;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+public class ResponseAsyncHandlerTest {
+
+    private static final String CHANNEL_RESPONSE = "{\"ok\":true,\"channel\":{" +
+        "\"channel_id\":\"01234567-890a-bcde-f012-34567890abc0\"," +
+        "\"device_type\":\"android\"," +
+        "\"installed\":true," +
+        "\"opt_in\":false," +
+        "\"created\":\"2014-07-12T00:45:01\"," +
+        "\"alias\":\"café ☃\"," +
+        "\"tags\":[\"über\"]}}";
+
+    @Test
+    public void testMultibyteCharacterSplitAcrossParts() throws Exception {
+        byte[] body = "\"café\"".getBytes(StandardCharsets.UTF_8);
+        // Split inside the two byte encoding of the accented character.
+        int split = 5;
+
+        ResponseAsyncHandler<String> handler = new ResponseAsyncHandler<>(Optional.<ResponseCallback>absent(), new ResponseParser<String>() {
+            @Override
+            public String parse(String response) throws IOException {
+                return response;
+            }
+        });
+
+        receive(handler, 200, Arrays.copyOfRange(body, 0, split), Arrays.copyOfRange(body, split, body.length));
+        Response response = handler.onCompleted();
+
+        assertEquals("\"café\"", response.getBody().get());
+    }
+
+    @Test
+    public void testStreamingParser() throws Exception {
+        final boolean[] streamed = {false};
+        final JsonResponseParser<ChannelResponse> delegate = new JsonResponseParser<>(ChannelObjectMapper.getInstance(), ChannelResponse.class);
+
+        ResponseAsyncHandler<ChannelResponse> handler = new ResponseAsyncHandler<>(Optional.<ResponseCallback>absent(), new StreamingResponseParser<ChannelResponse>() {
+            @Override
+            public ChannelResponse parse(InputStream response) throws IOException {
+                streamed[0] = true;
+                return delegate.parse(response);
+            }
+
+            @Override
+            public ChannelResponse parse(String response) throws IOException {
+                return delegate.parse(response);
+            }
+        });
+
+        byte[] body = CHANNEL_RESPONSE.getBytes(StandardCharsets.UTF_8);
+        byte[][] parts = new byte[body.length][];
+        for (int i = 0; i < body.length; i++) {
+            parts[i] = new byte[]{body[i]};
+        }
+
+        receive(handler, 200, parts);
+        Response response = handler.onCompleted();
+
+        assertTrue(streamed[0]);
+        assertEquals(delegate.parse(CHANNEL_RESPONSE), response.getBody().get());
+    }
+
+    @Test
+    public void testBlankBodyIsNotParsed() throws Exception {
+        ResponseAsyncHandler<ChannelResponse> handler = new ResponseAsyncHandler<>(Optional.<ResponseCallback>absent(),
+            new JsonResponseParser<>(ChannelObjectMapper.getInstance(), ChannelResponse.class));
+
+        receive(handler, 200, " \n".getBytes(StandardCharsets.UTF_8));
+        Response response = handler.onCompleted();
+
+        assertFalse(response.getBody().isPresent());
+        assertEquals(200, response.getStatus());
+    }
+
+    @Test
+    public void testNotModifiedOnlyAnswersConditionalRequests() throws Exception {
+        ResponseParser<ChannelResponse> parser = new JsonResponseParser<>(ChannelObjectMapper.getInstance(), ChannelResponse.class);
+
+        ResponseAsyncHandler<ChannelResponse> conditional = new ResponseAsyncHandler<>(Optional.<ResponseCallback>absent(), parser, true);
+        receive(conditional, 304);
+        assertEquals(304, conditional.onCompleted().getStatus());
+
+        ResponseAsyncHandler<ChannelResponse> unconditional = new ResponseAsyncHandler<>(Optional.<ResponseCallback>absent(), parser);
+        try {
+            receive(unconditional, 304, "{\"message\":\"Not Modified\"}".getBytes(StandardCharsets.UTF_8));
+            fail("Expected a ClientException");
+        } catch (ClientException e) {
+            assertEquals(304, e.getStatusCode());
+        }
+    }
+
+    private static void receive(ResponseAsyncHandler<?> handler, final int status, byte[]... parts) throws Exception {
+        handler.onStatusReceived(new HttpResponseStatus(null, null) {
+            @Override
+            public com.ning.http.client.Response prepareResponse(HttpResponseHeaders headers, List<HttpResponseBodyPart> bodyParts) {
+                return null;
+            }
+
+            @Override
+            public int getStatusCode() {
+                return status;
+            }
+
+            @Override
+            public String getStatusText() {
+                return "OK";
+            }
+
+            @Override
+            public String getProtocolName() {
+                return "HTTP";
+            }
+
+            @Override
+            public int getProtocolMajorVersion() {
+                return 1;
+            }
+
+            @Override
+            public int getProtocolMinorVersion() {
+                return 1;
+            }
+
+            @Override
+            public String getProtocolText() {
+                return "HTTP/1.1";
+            }
+        });
+
+        handler.onHeadersReceived(new HttpResponseHeaders() {
+            @Override
+            public FluentCaseInsensitiveStringsMap getHeaders() {
+                return new FluentCaseInsensitiveStringsMap().add("Content-type", "application/json");
+            }
+        });
+
+        for (final byte[] part : parts) {
+            handler.onBodyPartReceived(new HttpResponseBodyPart(false) {
+                @Override
+                public int length() {
+                    return part.length;
+                }
+
+                @Override
+                public byte[] getBodyPartBytes() {
+                    return part;
+                }
+
+                @Override
+                public int writeTo(OutputStream outputStream) throws IOException {
+                    outputStream.write(part);
+                    return part.length;
+                }
+
+                @Override
+                public ByteBuffer getBodyByteBuffer() {
+                    return ByteBuffer.wrap(part);
+                }
+            });
+        }
+    }
+}
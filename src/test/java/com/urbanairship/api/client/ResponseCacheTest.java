@@ -0,0 +1,305 @@
+package com.urbanairship.api.client;
+
+import com.github.tomakehurst.wiremock.client.ResponseDefinitionBuilder;
+import com.github.tomakehurst.wiremock.junit.WireMockClassRule;
+import com.google.common.base.Ticker;
+import com.google.common.collect.ImmutableSet;
+import com.urbanairship.api.channel.ChannelRequest;
+import com.urbanairship.api.channel.ChannelTagRequest;
+import com.urbanairship.api.channel.model.ChannelResponse;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.ClassRule;
+import org.junit.Rule;
+import org.junit.Test;
+
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static com.github.tomakehurst.wiremock.client.WireMock.aResponse;
+import static com.github.tomakehurst.wiremock.client.WireMock.equalTo;
+import static com.github.tomakehurst.wiremock.client.WireMock.findAll;
+import static com.github.tomakehurst.wiremock.client.WireMock.get;
+import static com.github.tomakehurst.wiremock.client.WireMock.getRequestedFor;
+import static com.github.tomakehurst.wiremock.client.WireMock.post;
+import static com.github.tomakehurst.wiremock.client.WireMock.stubFor;
+import static com.github.tomakehurst.wiremock.client.WireMock.urlEqualTo;
+import static com.github.tomakehurst.wiremock.client.WireMock.urlMatching;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+
+public class ResponseCacheTest {
+
+    private static final String CHANNEL_1 = "/api/channels/channel-1";
+
+    @ClassRule
+    public static WireMockClassRule wireMockRule = new WireMockClassRule();
+
+    @Rule
+    public WireMockClassRule instanceRule = wireMockRule;
+
+    private final AtomicLong nanos = new AtomicLong();
+    private final Ticker ticker = new Ticker() {
+        @Override
+        public long read() {
+            return nanos.get();
+        }
+    };
+
+    private UrbanAirshipClient client;
+    private ResponseCache cache;
+
+    @Before
+    public void setup() {
+        cache = ResponseCache.newBuilder()
+            .setMaxEntries(2)
+            .setTimeToLive(1, TimeUnit.MINUTES)
+            .setStaleWhileRevalidate(5, TimeUnit.MINUTES)
+            .setTicker(ticker)
+            .build();
+        client = UrbanAirshipClient.newBuilder()
+            .setBaseUri("http://localhost:8080")
+            .setKey("key")
+            .setSecret("secret")
+            .setResponseCache(cache)
+            .build();
+    }
+
+    @After
+    public void takeDown() {
+        client.close();
+    }
+
+    @Test
+    public void testFreshResponseIsServedFromCache() throws Exception {
+        stubChannel(CHANNEL_1, "channel-1", null);
+
+        Response first = client.execute(ChannelRequest.newRequest("channel-1"));
+        Response second = client.execute(ChannelRequest.newRequest("channel-1"));
+
+        assertSame(first, second);
+        assertEquals(1, requestCount(CHANNEL_1));
+        assertEquals(1, cache.getMissCount());
+        assertEquals(1, cache.getHitCount());
+    }
+
+    @Test
+    public void testListingIsNotCached() throws Exception {
+        stubFor(get(urlEqualTo("/api/channels/"))
+            .willReturn(aResponse()
+                .withHeader("Content-type", "application/json")
+                .withBody("{\"ok\":true,\"channels\":[]}")
+                .withStatus(200)));
+
+        client.execute(ChannelRequest.newRequest());
+        client.execute(ChannelRequest.newRequest());
+
+        assertEquals(2, findAll(getRequestedFor(urlEqualTo("/api/channels/"))).size());
+        assertEquals(0, cache.size());
+    }
+
+    @Test
+    public void testExpiredResponseIsRevalidated() throws Exception {
+        stubChannel(CHANNEL_1, "channel-1", "\"v1\"");
+        Response first = client.execute(ChannelRequest.newRequest("channel-1"));
+
+        stubFor(get(urlEqualTo(CHANNEL_1))
+            .withHeader("If-None-Match", equalTo("\"v1\""))
+            .willReturn(aResponse().withStatus(304)));
+
+        nanos.addAndGet(TimeUnit.MINUTES.toNanos(10));
+        Response second = client.execute(ChannelRequest.newRequest("channel-1"));
+
+        assertSame(first, second);
+        assertEquals(1, findAll(getRequestedFor(urlEqualTo(CHANNEL_1)).withHeader("If-None-Match", equalTo("\"v1\""))).size());
+        assertEquals(1, cache.getRevalidationCount());
+        assertEquals(1, cache.getNotModifiedCount());
+
+        // The 304 refreshed the cached response.
+        client.execute(ChannelRequest.newRequest("channel-1"));
+        assertEquals(2, requestCount(CHANNEL_1));
+    }
+
+    @Test
+    public void testStaleResponseIsServedWhileRevalidating() throws Exception {
+        stubChannel(CHANNEL_1, "channel-1", null);
+        Response first = client.execute(ChannelRequest.newRequest("channel-1"));
+
+        stubChannel(CHANNEL_1, "channel-2", null);
+        nanos.addAndGet(TimeUnit.MINUTES.toNanos(2));
+        Response stale = client.execute(ChannelRequest.newRequest("channel-1"));
+        assertSame(first, stale);
+
+        // Stale reads don't send further requests while the background refresh is in flight.
+        Response refreshed = stale;
+        for (int i = 0; i < 100 && refreshed == first; i++) {
+            Thread.sleep(20);
+            refreshed = client.execute(ChannelRequest.newRequest("channel-1"));
+        }
+
+        ChannelResponse body = (ChannelResponse) refreshed.getBody().get();
+        assertEquals("channel-2", body.getChannelView().get().getChannelId());
+        assertEquals(2, requestCount(CHANNEL_1));
+        assertEquals(1, cache.getRevalidationCount());
+    }
+
+    @Test
+    public void testLeastRecentlyUsedResponseIsEvicted() throws Exception {
+        stubChannel("/api/channels/channel-1", "channel-1", null);
+        stubChannel("/api/channels/channel-2", "channel-2", null);
+        stubChannel("/api/channels/channel-3", "channel-3", null);
+
+        client.execute(ChannelRequest.newRequest("channel-1"));
+        client.execute(ChannelRequest.newRequest("channel-2"));
+        client.execute(ChannelRequest.newRequest("channel-1"));
+        client.execute(ChannelRequest.newRequest("channel-3"));
+        assertEquals(2, cache.size());
+
+        client.execute(ChannelRequest.newRequest("channel-1"));
+        client.execute(ChannelRequest.newRequest("channel-2"));
+
+        assertEquals(1, requestCount("/api/channels/channel-1"));
+        assertEquals(2, requestCount("/api/channels/channel-2"));
+    }
+
+    @Test
+    public void testNoStoreResponseIsNotCached() throws Exception {
+        stubFor(get(urlEqualTo(CHANNEL_1))
+            .willReturn(aResponse()
+                .withHeader("Content-type", "application/json")
+                .withHeader("Cache-Control", "no-store")
+                .withBody(channelBody("channel-1"))
+                .withStatus(200)));
+
+        client.execute(ChannelRequest.newRequest("channel-1"));
+        client.execute(ChannelRequest.newRequest("channel-1"));
+
+        assertEquals(2, requestCount(CHANNEL_1));
+        assertEquals(0, cache.size());
+    }
+
+    @Test
+    public void testInvalidateAll() throws Exception {
+        stubChannel(CHANNEL_1, "channel-1", null);
+
+        client.execute(ChannelRequest.newRequest("channel-1"));
+        cache.invalidateAll();
+        client.execute(ChannelRequest.newRequest("channel-1"));
+
+        assertEquals(2, requestCount(CHANNEL_1));
+        assertEquals(2, cache.getMissCount());
+    }
+
+    @Test
+    public void testChannelTagMutationInvalidatesChannelLookups() throws Exception {
+        stubChannel(CHANNEL_1, "channel-1", null);
+        stubChannel("/api/channels/channel-2", "channel-2", null);
+        stubFor(post(urlEqualTo("/api/channels/tags/"))
+            .willReturn(aResponse()
+                .withHeader("Content-type", "application/json")
+                .withBody("{\"ok\":true}")
+                .withStatus(200)));
+
+        client.execute(ChannelRequest.newRequest("channel-1"));
+        client.execute(ChannelRequest.newRequest("channel-2"));
+        client.execute(ChannelTagRequest.newRequest()
+            .addAndroidChannel("channel-1")
+            .addTags("loyalty", ImmutableSet.of("gold")));
+        assertEquals(1, cache.size());
+
+        client.execute(ChannelRequest.newRequest("channel-1"));
+        client.execute(ChannelRequest.newRequest("channel-2"));
+        assertEquals(2, requestCount(CHANNEL_1));
+        assertEquals(1, requestCount("/api/channels/channel-2"));
+    }
+
+    @Test
+    public void testUnrelatedWriteDoesNotDropLookupInFlight() throws Exception {
+        stubDelayedChannel(CHANNEL_1, "channel-1");
+        stubTags();
+
+        Future<Response> lookup = client.executeAsync(ChannelRequest.newRequest("channel-1"));
+        client.execute(ChannelTagRequest.newRequest()
+            .addAndroidChannel("channel-2")
+            .addTags("loyalty", ImmutableSet.of("gold")));
+        assertFalse(lookup.isDone());
+        lookup.get(5, TimeUnit.SECONDS);
+
+        assertEquals(1, cache.size());
+        client.execute(ChannelRequest.newRequest("channel-1"));
+        assertEquals(1, requestCount(CHANNEL_1));
+    }
+
+    @Test
+    public void testRelatedWriteDropsLookupInFlight() throws Exception {
+        stubDelayedChannel(CHANNEL_1, "channel-1");
+        stubTags();
+
+        Future<Response> lookup = client.executeAsync(ChannelRequest.newRequest("channel-1"));
+        client.execute(ChannelTagRequest.newRequest()
+            .addAndroidChannel("channel-1")
+            .addTags("loyalty", ImmutableSet.of("gold")));
+        lookup.get(5, TimeUnit.SECONDS);
+
+        assertEquals(0, cache.size());
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void testCacheBelongsToOneClient() {
+        UrbanAirshipClient.newBuilder()
+            .setBaseUri("http://localhost:8080")
+            .setKey("other-key")
+            .setSecret("secret")
+            .setResponseCache(cache)
+            .build();
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testMaxEntriesMustBePositive() {
+        ResponseCache.newBuilder().setMaxEntries(0).build();
+    }
+
+    private static int requestCount(String url) {
+        return findAll(getRequestedFor(urlMatching(url))).size();
+    }
+
+    private static void stubChannel(String url, String channelId, String eTag) {
+        ResponseDefinitionBuilder response = aResponse()
+            .withHeader("Content-type", "application/json")
+            .withBody(channelBody(channelId))
+            .withStatus(200);
+        if (eTag != null) {
+            response.withHeader("ETag", eTag);
+        }
+        stubFor(get(urlEqualTo(url)).willReturn(response));
+    }
+
+    private static void stubDelayedChannel(String url, String channelId) {
+        stubFor(get(urlEqualTo(url))
+            .willReturn(aResponse()
+                .withHeader("Content-type", "application/json")
+                .withBody(channelBody(channelId))
+                .withStatus(200)
+                .withFixedDelay(500)));
+    }
+
+    private static void stubTags() {
+        stubFor(post(urlEqualTo("/api/channels/tags/"))
+            .willReturn(aResponse()
+                .withHeader("Content-type", "application/json")
+                .withBody("{\"ok\":true}")
+                .withStatus(200)));
+    }
+
+    private static String channelBody(String channelId) {
+        return "{\"ok\":true,\"channel\":{" +
+            "\"channel_id\":\"" + channelId + "\"," +
+            "\"device_type\":\"android\"," +
+            "\"installed\":true," +
+            "\"opt_in\":true," +
+            "\"created\":\"2014-03-06T18:52:59\"," +
+            "\"tags\":[]}}";
+    }
+}
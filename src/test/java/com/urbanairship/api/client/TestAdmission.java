@@ -0,0 +1,75 @@
+package com.urbanairship.api.client;
+
+import com.google.common.base.Optional;
+
+import java.net.URI;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Admission stub recording whether it was admitted, with a settable outcome.
+ */
+class TestAdmission implements Admission {
+
+    final CountDownLatch proceeded = new CountDownLatch(1);
+
+    private final URI uri;
+    private Optional<Integer> statusCode = Optional.absent();
+    private long latencyMs = 0;
+    private int retryCount = 0;
+
+    TestAdmission(String path) {
+        this.uri = URI.create("https://go.urbanairship.com" + path);
+    }
+
+    TestAdmission finished(int statusCode, long latencyMs, int retryCount) {
+        this.statusCode = Optional.of(statusCode);
+        this.latencyMs = latencyMs;
+        this.retryCount = retryCount;
+        return this;
+    }
+
+    boolean isAdmitted() {
+        return proceeded.getCount() == 0;
+    }
+
+    @Override
+    public Request<?> getRequest() {
+        return null;
+    }
+
+    @Override
+    public URI getUri() {
+        return uri;
+    }
+
+    @Override
+    public EndpointFamily getFamily() {
+        return EndpointFamily.of(uri);
+    }
+
+    @Override
+    public boolean isDone() {
+        return false;
+    }
+
+    @Override
+    public Optional<Integer> getStatusCode() {
+        return statusCode;
+    }
+
+    @Override
+    public long getLatency(TimeUnit unit) {
+        return unit.convert(latencyMs, TimeUnit.MILLISECONDS);
+    }
+
+    @Override
+    public int getRetryCount() {
+        return retryCount;
+    }
+
+    @Override
+    public void proceed() {
+        proceeded.countDown();
+    }
+}
@@ -4,6 +4,8 @@ import com.github.tomakehurst.wiremock.junit.WireMockClassRule;
 import com.github.tomakehurst.wiremock.verification.LoggedRequest;
 import com.google.common.base.Predicate;
 import com.google.common.collect.ImmutableSet;
+import com.google.common.io.Files;
+import com.google.common.net.HttpHeaders;
 import com.google.common.util.concurrent.ThreadFactoryBuilder;
 import com.ning.http.client.AsyncHttpClientConfig;
 import com.ning.http.client.ProxyServer;
@@ -63,6 +65,7 @@ import com.urbanairship.api.segments.SegmentLookupRequest;
 import com.urbanairship.api.segments.SegmentRequest;
 import com.urbanairship.api.segments.model.SegmentListingResponse;
 import com.urbanairship.api.segments.model.SegmentView;
+import com.urbanairship.api.staticlists.CsvRowCallback;
 import com.urbanairship.api.staticlists.StaticListDeleteRequest;
 import com.urbanairship.api.staticlists.StaticListDownloadRequest;
 import com.urbanairship.api.staticlists.StaticListListingRequest;
@@ -97,14 +100,22 @@ import java.io.FileOutputStream;
 import java.io.IOException;
 import java.net.URI;
 import java.net.URISyntaxException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
 import java.util.UUID;
+import java.util.concurrent.CancellationException;
 import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
 import java.util.concurrent.Executors;
 import java.util.concurrent.Future;
 import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import static com.github.tomakehurst.wiremock.client.WireMock.aResponse;
 import static com.github.tomakehurst.wiremock.client.WireMock.delete;
@@ -121,9 +132,11 @@ import static com.github.tomakehurst.wiremock.client.WireMock.stubFor;
 import static com.github.tomakehurst.wiremock.client.WireMock.urlEqualTo;
 import static com.github.tomakehurst.wiremock.client.WireMock.verify;
 import static com.urbanairship.api.common.parse.DateFormats.DATETIME_FORMAT_PATTERN;
+import static org.junit.Assert.assertArrayEquals;
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertSame;
 import static org.junit.Assert.assertTrue;
 import static org.junit.Assert.fail;
 
@@ -526,6 +539,342 @@ public class UrbanAirshipClientTest {
         }, 5, TimeUnit.MILLISECONDS);
     }
 
+    @Test
+    public void testAdmissionController() throws Exception {
+        RequestGovernor governor = RequestGovernor.newBuilder()
+            .setMaxInFlight(1)
+            .build();
+
+        client = UrbanAirshipClient.newBuilder()
+            .setBaseUri("http://localhost:8080")
+            .setKey("key")
+            .setSecret("secret")
+            .setAdmissionController(governor)
+            .build();
+
+        stubFor(get(urlEqualTo("/api/named_users/"))
+            .willReturn(aResponse()
+                .withHeader(CONTENT_TYPE_KEY, APP_JSON)
+                .withBody("{\"ok\":true,\"named_users\":[]}")
+                .withFixedDelay(300)
+                .withStatus(200)));
+
+        try {
+            Future<Response> first = client.executeAsync(NamedUserListingRequest.newRequest());
+            Future<Response> second = client.executeAsync(NamedUserListingRequest.newRequest());
+
+            assertEquals(1, governor.getInFlight());
+            assertEquals(1, governor.getQueueDepth(EndpointFamily.NAMED_USERS));
+
+            assertEquals(200, first.get(5, TimeUnit.SECONDS).getStatus());
+            assertEquals(200, second.get(5, TimeUnit.SECONDS).getStatus());
+            assertEquals(2, governor.getAdmittedCount());
+            assertEquals(0, governor.getInFlight());
+            assertTrue(governor.getMaxWaitTime(TimeUnit.MILLISECONDS) >= 200);
+        } finally {
+            client.close();
+            governor.close();
+        }
+    }
+
+    @Test
+    public void testRetryIsScheduled() throws Exception {
+        final AtomicInteger scheduled = new AtomicInteger(0);
+        ScheduledExecutorService retryScheduler = new ScheduledThreadPoolExecutor(1) {
+            @Override
+            public ScheduledFuture<?> schedule(Runnable command, long delay, TimeUnit unit) {
+                scheduled.incrementAndGet();
+                return super.schedule(command, delay, unit);
+            }
+        };
+
+        client = UrbanAirshipClient.newBuilder()
+            .setBaseUri("http://localhost:8080")
+            .setKey("key")
+            .setSecret("secret")
+            .setRetryScheduler(retryScheduler)
+            .build();
+
+        stubFor(get(urlEqualTo("/api/named_users/")).inScenario("retry")
+            .whenScenarioStateIs("Started")
+            .willReturn(aResponse()
+                .withHeader("Retry-After", "0")
+                .withStatus(503))
+            .willSetStateTo("Retried"));
+
+        stubFor(get(urlEqualTo("/api/named_users/")).inScenario("retry")
+            .whenScenarioStateIs("Retried")
+            .willReturn(aResponse()
+                .withHeader(CONTENT_TYPE_KEY, APP_JSON)
+                .withBody("{\"ok\":true,\"named_users\":[]}")
+                .withStatus(200)));
+
+        try {
+            Response<NamedUserListingResponse> response = client.execute(NamedUserListingRequest.newRequest());
+
+            assertEquals(200, response.getStatus());
+            assertEquals(1, scheduled.get());
+            assertEquals(2, findAll(getRequestedFor(urlEqualTo("/api/named_users/"))).size());
+        } finally {
+            client.close();
+            retryScheduler.shutdownNow();
+        }
+    }
+
+    @Test
+    public void testClientMetrics() throws Exception {
+        final List<RequestMetrics> reported = new ArrayList<>();
+        client = UrbanAirshipClient.newBuilder()
+            .setBaseUri("http://localhost:8080")
+            .setKey("key")
+            .setSecret("secret")
+            .setClientMetrics(new ClientMetrics() {
+                @Override
+                public synchronized void onRequestCompleted(RequestMetrics metrics) {
+                    reported.add(metrics);
+                }
+            })
+            .build();
+
+        String body = "{\"ok\":true,\"named_users\":[]}";
+        stubFor(get(urlEqualTo("/api/named_users/")).inScenario("metrics")
+            .whenScenarioStateIs("Started")
+            .willReturn(aResponse()
+                .withHeader("Retry-After", "0")
+                .withStatus(503))
+            .willSetStateTo("Retried"));
+
+        stubFor(get(urlEqualTo("/api/named_users/")).inScenario("metrics")
+            .whenScenarioStateIs("Retried")
+            .willReturn(aResponse()
+                .withHeader(CONTENT_TYPE_KEY, APP_JSON)
+                .withBody(body)
+                .withFixedDelay(100)
+                .withStatus(200)));
+
+        try {
+            client.execute(NamedUserListingRequest.newRequest());
+
+            assertEquals(1, reported.size());
+            RequestMetrics metrics = reported.get(0);
+            assertEquals(NamedUserListingRequest.class, metrics.getRequestClass());
+            assertEquals("/api/named_users/", metrics.getPathTemplate());
+            assertEquals(200, metrics.getStatusCode().get().intValue());
+            assertEquals(1, metrics.getRetryCount());
+            assertEquals(0L, metrics.getRequestBytes().get().longValue());
+            assertEquals(body.length(), metrics.getResponseBytes());
+            assertTrue(metrics.getTimeToFirstByte(TimeUnit.MILLISECONDS) >= 100);
+            assertTrue(metrics.getLatency(TimeUnit.MILLISECONDS) >= metrics.getTimeToFirstByte(TimeUnit.MILLISECONDS));
+            assertTrue(metrics.getParseTime(TimeUnit.NANOSECONDS) > 0);
+        } finally {
+            client.close();
+        }
+    }
+
+    @Test
+    public void testClientMetricsForFailedRequest() throws Exception {
+        HistogramClientMetrics metrics = HistogramClientMetrics.newBuilder().build();
+        client = UrbanAirshipClient.newBuilder()
+            .setBaseUri("http://localhost:8080")
+            .setKey("key")
+            .setSecret("secret")
+            .setClientMetrics(metrics)
+            .build();
+
+        stubFor(get(urlEqualTo("/api/channels/0a1b2c3d-9c36-47c0-9716-99fd3d4197d5"))
+            .willReturn(aResponse()
+                .withHeader(CONTENT_TYPE_KEY, APP_JSON)
+                .withBody("{\"ok\":false,\"error\":\"Not found\"}")
+                .withStatus(404)));
+
+        try {
+            client.execute(ChannelRequest.newRequest("0a1b2c3d-9c36-47c0-9716-99fd3d4197d5"));
+            fail("Expected the request to fail");
+        } catch (RuntimeException expected) {
+            // The 404 is still reported to the metrics listener.
+        } finally {
+            client.close();
+        }
+
+        HistogramClientMetrics.Snapshot snapshot = metrics.getSnapshots()
+            .get(new HistogramClientMetrics.Endpoint(ChannelRequest.class, "/api/channels/{id}"));
+        assertEquals(1, snapshot.getCount());
+        assertEquals(1L, snapshot.getStatusCounts().get(404).longValue());
+        assertEquals(1, snapshot.getLatency().getTotalCount());
+    }
+
+    @Test
+    public void testRequestTimings() throws Exception {
+        final List<RequestTimings> slow = new ArrayList<>();
+        client = UrbanAirshipClient.newBuilder()
+            .setBaseUri("http://localhost:8080")
+            .setKey("key")
+            .setSecret("secret")
+            .setSlowRequestListener(new SlowRequestListener() {
+                @Override
+                public synchronized void onSlowRequest(Request<?> request, URI uri, RequestTimings timings) {
+                    slow.add(timings);
+                }
+            }, 150, TimeUnit.MILLISECONDS)
+            .build();
+
+        stubFor(get(urlEqualTo("/api/named_users/"))
+            .willReturn(aResponse()
+                .withHeader(CONTENT_TYPE_KEY, APP_JSON)
+                .withBody("{\"ok\":true,\"named_users\":[]}")
+                .withFixedDelay(200)
+                .withStatus(200)));
+
+        stubFor(get(urlEqualTo("/api/channels/0a1b2c3d-9c36-47c0-9716-99fd3d4197d5"))
+            .willReturn(aResponse()
+                .withHeader(CONTENT_TYPE_KEY, "application/vnd.urbanairship+json")
+                .withBody("{\"ok\":false,\"operation_id\":\"operation id\",\"error\":\"Channel not found\",\"error_code\":40400}")
+                .withStatus(404)));
+
+        try {
+            Response<NamedUserListingResponse> response = client.execute(NamedUserListingRequest.newRequest());
+            RequestTimings timings = response.getTimings().get();
+
+            assertTrue(timings.getElapsed(RequestTimings.Phase.REQUEST_SENT, TimeUnit.MILLISECONDS).isPresent());
+            assertTrue(timings.getDuration(RequestTimings.Phase.REQUEST_SENT, RequestTimings.Phase.FIRST_BYTE, TimeUnit.MILLISECONDS).get() >= 200);
+            assertTrue(timings.getDuration(RequestTimings.Phase.PARSE_STARTED, RequestTimings.Phase.PARSE_COMPLETED, TimeUnit.NANOSECONDS).isPresent());
+            assertTrue(timings.getElapsed(RequestTimings.Phase.COMPLETED, TimeUnit.MILLISECONDS).get() >= 200);
+            assertFalse(timings.getElapsed(RequestTimings.Phase.TLS_HANDSHAKE_COMPLETED, TimeUnit.MILLISECONDS).isPresent());
+            assertEquals(1, slow.size());
+
+            final List<Throwable> errors = new ArrayList<>();
+            client.executeAsync(ChannelRequest.newRequest("0a1b2c3d-9c36-47c0-9716-99fd3d4197d5"), new ResponseCallback() {
+                @Override
+                public void completed(Response response) {
+                }
+
+                @Override
+                public void error(Throwable throwable) {
+                    errors.add(throwable);
+                }
+            }).get(5, TimeUnit.SECONDS);
+            fail("Expected the request to fail");
+        } catch (ExecutionException expected) {
+            assertTrue(expected.getCause() instanceof ClientException);
+            ClientException exception = (ClientException) expected.getCause();
+            assertEquals(404, exception.getStatusCode());
+            assertTrue(exception.getTimings().get().getElapsed(RequestTimings.Phase.FIRST_BYTE, TimeUnit.NANOSECONDS).isPresent());
+            // The failed request was fast, so only the first request was sampled.
+            assertEquals(1, slow.size());
+        } finally {
+            client.close();
+        }
+    }
+
+    @Test
+    public void testCloseCancelsPendingRetry() throws Exception {
+        client = UrbanAirshipClient.newBuilder()
+            .setBaseUri("http://localhost:8080")
+            .setKey("key")
+            .setSecret("secret")
+            .build();
+
+        stubFor(get(urlEqualTo("/api/named_users/"))
+            .willReturn(aResponse()
+                .withHeader("Retry-After", "10")
+                .withStatus(503)));
+
+        Future<Response> future = client.executeAsync(NamedUserListingRequest.newRequest());
+        for (int i = 0; i < 100 && findAll(getRequestedFor(urlEqualTo("/api/named_users/"))).isEmpty(); i++) {
+            Thread.sleep(20);
+        }
+        Thread.sleep(100);
+
+        assertFalse(future.isDone());
+        client.close();
+        assertTrue(future.isCancelled());
+        assertEquals(1, findAll(getRequestedFor(urlEqualTo("/api/named_users/"))).size());
+    }
+
+    @Test
+    public void testCloseDuringBackoffNotifiesCallback() throws Exception {
+        client = UrbanAirshipClient.newBuilder()
+            .setBaseUri("http://localhost:8080")
+            .setKey("key")
+            .setSecret("secret")
+            .build();
+
+        stubFor(get(urlEqualTo("/api/named_users/"))
+            .willReturn(aResponse()
+                .withHeader("Retry-After", "10")
+                .withStatus(503)));
+
+        final AtomicInteger completed = new AtomicInteger(0);
+        final List<Throwable> errors = new ArrayList<>();
+        Future<Response> future = client.executeAsync(NamedUserListingRequest.newRequest(), new ResponseCallback() {
+            @Override
+            public void completed(Response response) {
+                completed.incrementAndGet();
+            }
+
+            @Override
+            public void error(Throwable throwable) {
+                errors.add(throwable);
+            }
+        });
+        for (int i = 0; i < 100 && findAll(getRequestedFor(urlEqualTo("/api/named_users/"))).isEmpty(); i++) {
+            Thread.sleep(20);
+        }
+        Thread.sleep(100);
+
+        assertFalse(future.isDone());
+        assertTrue(errors.isEmpty());
+        client.close();
+
+        assertTrue(future.isCancelled());
+        assertEquals(0, completed.get());
+        assertEquals(1, errors.size());
+        assertTrue(errors.get(0) instanceof CancellationException);
+    }
+
+    @Test
+    public void testRetrySchedulerShutdownNotifiesCallback() throws Exception {
+        ScheduledExecutorService retryScheduler = new ScheduledThreadPoolExecutor(1);
+        retryScheduler.shutdown();
+
+        client = UrbanAirshipClient.newBuilder()
+            .setBaseUri("http://localhost:8080")
+            .setKey("key")
+            .setSecret("secret")
+            .setRetryScheduler(retryScheduler)
+            .build();
+
+        stubFor(get(urlEqualTo("/api/named_users/"))
+            .willReturn(aResponse()
+                .withHeader("Retry-After", "0")
+                .withStatus(503)));
+
+        final AtomicInteger completed = new AtomicInteger(0);
+        final List<Throwable> errors = new ArrayList<>();
+        try {
+            client.executeAsync(NamedUserListingRequest.newRequest(), new ResponseCallback() {
+                @Override
+                public void completed(Response response) {
+                    completed.incrementAndGet();
+                }
+
+                @Override
+                public void error(Throwable throwable) {
+                    errors.add(throwable);
+                }
+            }).get(5, TimeUnit.SECONDS);
+            fail("Expected the retry to be rejected");
+        } catch (ExecutionException expected) {
+            assertTrue(expected.getCause() instanceof CancellationException);
+            assertEquals(0, completed.get());
+            assertEquals(1, errors.size());
+            assertSame(expected.getCause(), errors.get(0));
+            assertEquals(1, findAll(getRequestedFor(urlEqualTo("/api/named_users/"))).size());
+        } finally {
+            client.close();
+        }
+    }
+
     @Test
     @SuppressWarnings("unchecked")
     public void testClientException() throws Exception {
@@ -3270,6 +3619,31 @@ public class UrbanAirshipClientTest {
         assertEquals(requests.size(), 1);
         assertNotNull(response);
         assertEquals(200, response.getStatus());
+        assertArrayEquals(Files.toByteArray(new File(csvFile)), requests.get(0).getBody());
+    }
+
+    @Test
+    public void testUploadGzippedStaticList() throws Exception {
+        File csvFile = new File("src/test/data/test.csv");
+        String listName = "testlist";
+        String queryPathString = "/api/lists/" + listName + "/csv";
+
+        stubFor(put(urlEqualTo(queryPathString))
+                .willReturn(aResponse()
+                        .withHeader(CONTENT_TYPE_KEY, APP_JSON)
+                        .withStatus(200)));
+
+        StaticListUploadRequest request = StaticListUploadRequest.newRequest(listName, csvFile)
+                .setGzipEnabled(true);
+        Response<String> response = client.execute(request);
+
+        List<LoggedRequest> requests = findAll(putRequestedFor(
+                urlEqualTo(queryPathString)));
+
+        assertEquals(requests.size(), 1);
+        assertEquals(200, response.getStatus());
+        assertEquals("gzip", requests.get(0).getHeader(HttpHeaders.CONTENT_ENCODING));
+        assertEquals("chunked", requests.get(0).getHeader(HttpHeaders.TRANSFER_ENCODING));
     }
 
     @Test
@@ -3296,6 +3670,42 @@ public class UrbanAirshipClientTest {
         assertEquals(200, response.getStatus());
     }
 
+    @Test
+    public void testStreamStaticListDownload() throws Exception {
+        Path outputPath = Paths.get("src/test/data/streamed.csv");
+        String listName = "testlist";
+        String queryPathString = "/api/lists/" + listName + "/csv";
+        String csv = "alias,stevenh\nalias,marianb\nnamed_user,\"gates,bill\"\n";
+
+        stubFor(get(urlEqualTo(queryPathString))
+                .willReturn(aResponse()
+                        .withHeader(CONTENT_TYPE_KEY, TEXT_CSV)
+                        .withBody(csv)
+                        .withStatus(200)));
+
+        final List<String[]> rows = new ArrayList<String[]>();
+        StaticListDownloadRequest request = StaticListDownloadRequest.newRequest(listName)
+                .setOutputPath(outputPath)
+                .setRowCallback(new CsvRowCallback() {
+                    @Override
+                    public void onRow(String[] row) {
+                        rows.add(row);
+                    }
+                });
+
+        try {
+            Response<String> response = client.execute(request);
+
+            assertEquals(200, response.getStatus());
+            assertFalse(response.getBody().isPresent());
+            assertEquals(csv, new String(java.nio.file.Files.readAllBytes(outputPath), "UTF-8"));
+            assertEquals(3, rows.size());
+            assertEquals("gates,bill", rows.get(2)[1]);
+        } finally {
+            java.nio.file.Files.deleteIfExists(outputPath);
+        }
+    }
+
     @Test
     public void testDeleteStaticList() throws Exception {
         String listName = "testlist";
@@ -0,0 +1,62 @@
+package com.urbanairship.api.push;
+
+import com.google.common.collect.ImmutableList;
+import com.urbanairship.api.client.Request;
+import com.urbanairship.api.push.model.DeviceType;
+import com.urbanairship.api.push.model.DeviceTypeData;
+import com.urbanairship.api.push.model.PushPayload;
+import com.urbanairship.api.push.model.audience.Selectors;
+import com.urbanairship.api.push.model.notification.Notifications;
+import com.urbanairship.api.push.parse.PushObjectMapper;
+import org.codehaus.jackson.JsonNode;
+import org.junit.Test;
+
+import java.net.URI;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class BatchPushRequestTest {
+
+    private final PushPayload first = PushPayload.newBuilder()
+        .setAudience(Selectors.namedUser("user-1"))
+        .setDeviceTypes(DeviceTypeData.of(DeviceType.IOS))
+        .setNotification(Notifications.alert("Hello user 1"))
+        .build();
+
+    private final PushPayload second = PushPayload.newBuilder()
+        .setAudience(Selectors.namedUser("user-2"))
+        .setDeviceTypes(DeviceTypeData.of(DeviceType.ANDROID))
+        .setNotification(Notifications.alert("Hello user 2"))
+        .build();
+
+    private final BatchPushRequest request = BatchPushRequest.newRequest(ImmutableList.of(first, second));
+
+    @Test
+    public void testBodyIsPayloadArray() throws Exception {
+        JsonNode body = PushObjectMapper.getInstance().readTree(request.getRequestBody());
+
+        assertTrue(body.isArray());
+        assertEquals(2, body.size());
+        assertEquals(PushObjectMapper.getInstance().readTree(first.toJSON()), body.get(0));
+        assertEquals(PushObjectMapper.getInstance().readTree(second.toJSON()), body.get(1));
+        assertEquals(BatchPushRequest.arraySize(2, first.toJSONBytes().length + second.toJSONBytes().length),
+            request.getRequestBodyBytes().length);
+    }
+
+    @Test
+    public void testRequest() throws Exception {
+        URI base = URI.create("https://go.urbanairship.com");
+
+        assertEquals(Request.HttpMethod.POST, request.getHttpMethod());
+        assertEquals(ImmutableList.of(first, second), request.getPayloads());
+        assertEquals(URI.create("https://go.urbanairship.com/api/push/"), request.getUri(base));
+        assertEquals(URI.create("https://go.urbanairship.com/api/push/validate/"),
+            BatchPushRequest.newRequest(ImmutableList.of(first)).setValidateOnly(true).getUri(base));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testEmptyBatch() throws Exception {
+        BatchPushRequest.newRequest(ImmutableList.<PushPayload>of());
+    }
+}
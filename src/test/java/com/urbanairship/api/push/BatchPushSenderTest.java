@@ -0,0 +1,228 @@
+package com.urbanairship.api.push;
+
+import com.github.tomakehurst.wiremock.junit.WireMockClassRule;
+import com.urbanairship.api.client.UrbanAirshipClient;
+import com.urbanairship.api.push.model.DeviceType;
+import com.urbanairship.api.push.model.DeviceTypeData;
+import com.urbanairship.api.push.model.PushPayload;
+import com.urbanairship.api.push.model.audience.Selectors;
+import com.urbanairship.api.push.model.notification.Notifications;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.ClassRule;
+import org.junit.Rule;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static com.github.tomakehurst.wiremock.client.WireMock.aResponse;
+import static com.github.tomakehurst.wiremock.client.WireMock.containing;
+import static com.github.tomakehurst.wiremock.client.WireMock.findAll;
+import static com.github.tomakehurst.wiremock.client.WireMock.post;
+import static com.github.tomakehurst.wiremock.client.WireMock.postRequestedFor;
+import static com.github.tomakehurst.wiremock.client.WireMock.stubFor;
+import static com.github.tomakehurst.wiremock.client.WireMock.urlEqualTo;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class BatchPushSenderTest {
+
+    @ClassRule
+    public static WireMockClassRule wireMockRule = new WireMockClassRule();
+
+    @Rule
+    public WireMockClassRule instanceRule = wireMockRule;
+
+    private UrbanAirshipClient client;
+
+    @Before
+    public void setup() {
+        client = UrbanAirshipClient.newBuilder()
+            .setBaseUri("http://localhost:8080")
+            .setKey("key")
+            .setSecret("secret")
+            .build();
+    }
+
+    @After
+    public void takeDown() {
+        client.close();
+    }
+
+    @Test
+    public void testPayloadsAreBatchedAndMapped() throws Exception {
+        List<PushPayload> payloads = payloads(5);
+        stubBatch("user-0", "push-0", "push-1");
+        stubBatch("user-2", "push-2", "push-3");
+        stubBatch("user-4", "push-4");
+
+        BatchPushResult result = BatchPushSender.newBuilder()
+            .setClient(client)
+            .setMaxPayloadsPerRequest(2)
+            .setMaxConcurrentRequests(2)
+            .build()
+            .send(payloads);
+
+        assertTrue(result.isSuccessful());
+        assertEquals(3, result.getResponses().size());
+        assertEquals(3, findAll(postRequestedFor(urlEqualTo("/api/push/"))).size());
+        assertEquals(5, result.getPayloadsByPushId().size());
+        for (int i = 0; i < 5; i++) {
+            assertEquals(payloads.get(i), result.getPayload("push-" + i).get());
+        }
+        assertFalse(result.getPayload("push-5").isPresent());
+    }
+
+    @Test
+    public void testBatchesAreBoundedBySize() throws Exception {
+        List<PushPayload> payloads = payloads(3);
+        long twoPayloads = BatchPushRequest.arraySize(2, payloads.get(0).toJSONBytes().length + payloads.get(1).toJSONBytes().length);
+        stubBatch("user-0", "push-0", "push-1");
+        stubBatch("user-2", "push-2");
+
+        BatchPushResult result = BatchPushSender.newBuilder()
+            .setClient(client)
+            .setMaxRequestBytes(twoPayloads)
+            .build()
+            .send(payloads);
+
+        assertTrue(result.isSuccessful());
+        assertEquals(2, findAll(postRequestedFor(urlEqualTo("/api/push/"))).size());
+        assertEquals(payloads.get(2), result.getPayload("push-2").get());
+    }
+
+    @Test
+    public void testFailedBatch() throws Exception {
+        List<PushPayload> payloads = payloads(4);
+        stubBatch("user-0", "push-0", "push-1");
+        stubFor(post(urlEqualTo("/api/push/"))
+            .withRequestBody(containing("user-2"))
+            .willReturn(aResponse()
+                .withHeader("Content-type", "application/json")
+                .withBody("{\"ok\":false,\"error\":\"Invalid payload\",\"error_code\":40001}")
+                .withStatus(400)));
+
+        BatchPushResult result = BatchPushSender.newBuilder()
+            .setClient(client)
+            .setMaxPayloadsPerRequest(2)
+            .build()
+            .send(payloads);
+
+        assertFalse(result.isSuccessful());
+        assertEquals(1, result.getFailures().size());
+        assertEquals(payloads.subList(2, 4), result.getFailures().get(0).getPayloads());
+        assertEquals(2, result.getPayloadsByPushId().size());
+    }
+
+    @Test
+    public void testEmptyResponseIsFailure() throws Exception {
+        List<PushPayload> payloads = payloads(4);
+        stubBatch("user-0", "push-0", "push-1");
+        stubFor(post(urlEqualTo("/api/push/"))
+            .withRequestBody(containing("\"user-2\""))
+            .willReturn(aResponse()
+                .withStatus(202)));
+
+        BatchPushResult result = BatchPushSender.newBuilder()
+            .setClient(client)
+            .setMaxPayloadsPerRequest(2)
+            .build()
+            .send(payloads);
+
+        assertFalse(result.isSuccessful());
+        assertEquals(1, result.getResponses().size());
+        assertEquals(1, result.getFailures().size());
+        assertEquals(payloads.subList(2, 4), result.getFailures().get(0).getPayloads());
+        assertTrue(result.getFailures().get(0).getCause() instanceof IllegalStateException);
+        assertEquals(2, result.getPayloadsByPushId().size());
+    }
+
+    @Test
+    public void testPushIdCountMismatchIsFailure() throws Exception {
+        List<PushPayload> payloads = payloads(4);
+        stubBatch("user-0", "push-0", "push-1");
+        stubBatch("user-2", "push-2");
+
+        BatchPushResult result = BatchPushSender.newBuilder()
+            .setClient(client)
+            .setMaxPayloadsPerRequest(2)
+            .build()
+            .send(payloads);
+
+        assertFalse(result.isSuccessful());
+        assertEquals(2, result.getResponses().size());
+        assertEquals(1, result.getFailures().size());
+        assertEquals(payloads.subList(2, 4), result.getFailures().get(0).getPayloads());
+        assertTrue(result.getFailures().get(0).getCause() instanceof IllegalStateException);
+        assertEquals(2, result.getPayloadsByPushId().size());
+        assertFalse(result.getPayload("push-2").isPresent());
+    }
+
+    @Test
+    public void testClosingClientReleasesBatches() throws Exception {
+        final List<PushPayload> payloads = payloads(2);
+        stubFor(post(urlEqualTo("/api/push/"))
+            .willReturn(aResponse()
+                .withHeader("Content-type", "application/json")
+                .withBody("{\"ok\":true,\"operation_id\":\"op\",\"push_ids\":[\"push-0\"]}")
+                .withStatus(201)
+                .withFixedDelay(2000)));
+
+        final BatchPushSender sender = BatchPushSender.newBuilder()
+            .setClient(client)
+            .setMaxPayloadsPerRequest(1)
+            .setMaxConcurrentRequests(1)
+            .build();
+        final AtomicReference<BatchPushResult> result = new AtomicReference<>();
+        Thread thread = new Thread(new Runnable() {
+            @Override
+            public void run() {
+                try {
+                    result.set(sender.send(payloads));
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+        });
+        thread.start();
+
+        for (int i = 0; i < 100 && findAll(postRequestedFor(urlEqualTo("/api/push/"))).isEmpty(); i++) {
+            Thread.sleep(20);
+        }
+        client.close();
+        thread.join(1000);
+
+        assertFalse(thread.isAlive());
+        assertFalse(result.get().isSuccessful());
+        assertEquals(2, result.get().getFailures().size());
+    }
+
+    private static List<PushPayload> payloads(int count) {
+        List<PushPayload> payloads = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            payloads.add(PushPayload.newBuilder()
+                .setAudience(Selectors.namedUser("user-" + i))
+                .setDeviceTypes(DeviceTypeData.of(DeviceType.IOS))
+                .setNotification(Notifications.alert("Hello user " + i))
+                .build());
+        }
+        return payloads;
+    }
+
+    private static void stubBatch(String firstUser, String... pushIds) {
+        StringBuilder ids = new StringBuilder();
+        for (String pushId : pushIds) {
+            ids.append(ids.length() == 0 ? "" : ",").append('"').append(pushId).append('"');
+        }
+
+        stubFor(post(urlEqualTo("/api/push/"))
+            .withRequestBody(containing("\"" + firstUser + "\""))
+            .willReturn(aResponse()
+                .withHeader("Content-type", "application/json")
+                .withBody("{\"ok\":true,\"operation_id\":\"op\",\"push_ids\":[" + ids + "]}")
+                .withStatus(201)));
+    }
+}
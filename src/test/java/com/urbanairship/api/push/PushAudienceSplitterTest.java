@@ -0,0 +1,170 @@
+package com.urbanairship.api.push;
+
+import com.github.tomakehurst.wiremock.junit.WireMockClassRule;
+import com.google.common.collect.ImmutableList;
+import com.urbanairship.api.client.UrbanAirshipClient;
+import com.urbanairship.api.push.model.DeviceType;
+import com.urbanairship.api.push.model.DeviceTypeData;
+import com.urbanairship.api.push.model.PushPayload;
+import com.urbanairship.api.push.model.PushResponse;
+import com.urbanairship.api.push.model.audience.Selector;
+import com.urbanairship.api.push.model.audience.Selectors;
+import com.urbanairship.api.push.model.notification.Notifications;
+import org.junit.ClassRule;
+import org.junit.Rule;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static com.github.tomakehurst.wiremock.client.WireMock.aResponse;
+import static com.github.tomakehurst.wiremock.client.WireMock.containing;
+import static com.github.tomakehurst.wiremock.client.WireMock.findAll;
+import static com.github.tomakehurst.wiremock.client.WireMock.post;
+import static com.github.tomakehurst.wiremock.client.WireMock.postRequestedFor;
+import static com.github.tomakehurst.wiremock.client.WireMock.stubFor;
+import static com.github.tomakehurst.wiremock.client.WireMock.urlEqualTo;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class PushAudienceSplitterTest {
+
+    @ClassRule
+    public static WireMockClassRule wireMockRule = new WireMockClassRule();
+
+    @Rule
+    public WireMockClassRule instanceRule = wireMockRule;
+
+    @Test
+    public void testSplitsDeviceTokens() {
+        PushPayload payload = payload(Selectors.deviceTokens(tokens(0, 5)));
+
+        ImmutableList<PushPayload> split = PushAudienceSplitter.newBuilder()
+            .setMaxValuesPerChunk(2)
+            .build()
+            .split(payload);
+
+        assertEquals(3, split.size());
+        assertEquals(Selectors.deviceTokens(tokens(0, 2)), split.get(0).getAudience());
+        assertEquals(Selectors.deviceTokens(tokens(2, 4)), split.get(1).getAudience());
+        assertEquals(Selectors.deviceTokens(tokens(4, 5)), split.get(2).getAudience());
+        for (PushPayload chunk : split) {
+            assertEquals(payload.getNotification(), chunk.getNotification());
+            assertEquals(payload.getDeviceTypes(), chunk.getDeviceTypes());
+        }
+    }
+
+    @Test
+    public void testSplitsByBytes() {
+        PushPayload payload = payload(Selectors.namedUsers("aaaa", "bbbb", "cccc"));
+        // {"named_user":"aaaa"}, is 23 bytes.
+        ImmutableList<PushPayload> split = PushAudienceSplitter.newBuilder()
+            .setMaxChunkBytes(46)
+            .build()
+            .split(payload);
+
+        assertEquals(2, split.size());
+        assertEquals(Selectors.namedUsers("aaaa", "bbbb"), split.get(0).getAudience());
+        assertEquals(Selectors.namedUsers("cccc"), split.get(1).getAudience());
+    }
+
+    @Test
+    public void testSplitsListNestedInAnd() {
+        Selector audience = Selectors.and(Selectors.tag("vip"), Selectors.iosChannels(tokens(0, 4)));
+
+        ImmutableList<PushPayload> split = PushAudienceSplitter.newBuilder()
+            .setMaxValuesPerChunk(2)
+            .build()
+            .split(payload(audience));
+
+        assertEquals(2, split.size());
+        assertEquals(Selectors.and(Selectors.tag("vip"), Selectors.iosChannels(tokens(0, 2))), split.get(0).getAudience());
+        assertEquals(Selectors.and(Selectors.tag("vip"), Selectors.iosChannels(tokens(2, 4))), split.get(1).getAudience());
+    }
+
+    @Test
+    public void testDuplicatesAreDropped() {
+        PushPayload payload = payload(Selectors.deviceTokens("a", "b", "a", "b"));
+
+        ImmutableList<PushPayload> split = PushAudienceSplitter.newBuilder()
+            .setMaxValuesPerChunk(1)
+            .build()
+            .split(payload);
+
+        assertEquals(2, split.size());
+    }
+
+    @Test
+    public void testUnsplittableAudiences() {
+        PushAudienceSplitter splitter = PushAudienceSplitter.newBuilder()
+            .setMaxValuesPerChunk(1)
+            .build();
+
+        // Tags overlap, so splitting would push twice to devices with several of them.
+        PushPayload tags = payload(Selectors.tags("a", "b", "c"));
+        // Splitting under a NOT or next to other OR branches would change or duplicate the audience.
+        PushPayload not = payload(Selectors.not(Selectors.deviceTokens("a", "b")));
+        PushPayload or = payload(Selectors.or(Selectors.tag("vip"), Selectors.deviceTokens("a", "b")));
+        PushPayload mixed = payload(Selectors.or(Selectors.deviceToken("a"), Selectors.apid("b")));
+        PushPayload small = payload(Selectors.deviceTokens("a"));
+
+        for (PushPayload payload : ImmutableList.of(tags, not, or, mixed, small)) {
+            assertEquals(ImmutableList.of(payload), splitter.split(payload));
+        }
+    }
+
+    @Test
+    public void testSendAggregatesResponses() throws Exception {
+        stubFor(post(urlEqualTo("/api/push/"))
+            .withRequestBody(containing("token-0"))
+            .willReturn(aResponse()
+                .withHeader("Content-type", "application/json")
+                .withBody("{\"ok\":true,\"operation_id\":\"op-1\",\"push_ids\":[\"push-1\"]}")
+                .withStatus(201)));
+        stubFor(post(urlEqualTo("/api/push/"))
+            .withRequestBody(containing("token-2"))
+            .willReturn(aResponse()
+                .withHeader("Content-type", "application/json")
+                .withBody("{\"ok\":true,\"operation_id\":\"op-2\",\"push_ids\":[\"push-2\"]}")
+                .withStatus(201)));
+
+        UrbanAirshipClient client = UrbanAirshipClient.newBuilder()
+            .setBaseUri("http://localhost:8080")
+            .setKey("key")
+            .setSecret("secret")
+            .build();
+
+        try {
+            BatchPushResult result = PushAudienceSplitter.newBuilder()
+                .setClient(client)
+                .setMaxValuesPerChunk(2)
+                .build()
+                .send(payload(Selectors.deviceTokens(tokens(0, 4))));
+
+            PushResponse response = result.getMergedResponse();
+            assertTrue(response.getOk());
+            assertTrue(response.getOperationId().isPresent());
+            assertEquals(2, response.getPushIds().get().size());
+            assertTrue(response.getPushIds().get().containsAll(ImmutableList.of("push-1", "push-2")));
+            assertEquals(2, findAll(postRequestedFor(urlEqualTo("/api/push/"))).size());
+        } finally {
+            client.close();
+        }
+    }
+
+    private static PushPayload payload(Selector audience) {
+        return PushPayload.newBuilder()
+            .setAudience(audience)
+            .setDeviceTypes(DeviceTypeData.of(DeviceType.IOS))
+            .setNotification(Notifications.alert("Hello"))
+            .build();
+    }
+
+    private static List<String> tokens(int from, int to) {
+        List<String> tokens = new ArrayList<>();
+        for (int i = from; i < to; i++) {
+            tokens.add("token-" + i);
+        }
+        return tokens;
+    }
+}
@@ -1,5 +1,6 @@
 package com.urbanairship.api.push;
 
+import com.google.common.base.Charsets;
 import com.google.common.net.HttpHeaders;
 import com.urbanairship.api.client.Request;
 import com.urbanairship.api.client.ResponseParser;
@@ -18,7 +19,9 @@ import java.net.URI;
 import java.util.HashMap;
 import java.util.Map;
 
+import static org.junit.Assert.assertArrayEquals;
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
 
 public class PushRequestTest {
 
@@ -49,6 +52,14 @@ public class PushRequestTest {
         assertEquals(validateRequest.getRequestBody(), payload.toJSON());
     }
 
+    @Test
+    public void testBodyBytesAreSerializedOnce() throws Exception {
+        byte[] body = pushRequest.getRequestBodyBytes();
+
+        assertArrayEquals(payload.toJSON().getBytes(Charsets.UTF_8), body);
+        assertSame(body, pushRequest.getRequestBodyBytes());
+    }
+
     @Test
     public void testHeaders() throws Exception {
         Map<String, String> headers = new HashMap<String, String>();
@@ -59,6 +70,11 @@ public class PushRequestTest {
         assertEquals(validateRequest.getRequestHeaders(), headers);
     }
 
+    @Test
+    public void testHeadersAreShared() throws Exception {
+        assertSame(pushRequest.getRequestHeaders(), validateRequest.getRequestHeaders());
+    }
+
     @Test
     public void testURI() throws Exception {
         URI baseURI = URI.create("https://go.urbanairship.com");
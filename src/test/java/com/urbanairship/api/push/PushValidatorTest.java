@@ -0,0 +1,133 @@
+package com.urbanairship.api.push;
+
+import com.google.common.base.Strings;
+import com.google.common.collect.ImmutableSet;
+import com.urbanairship.api.client.RequestErrorDetails;
+import com.urbanairship.api.push.model.DeviceType;
+import com.urbanairship.api.push.model.DeviceTypeData;
+import com.urbanairship.api.push.model.PushExpiry;
+import com.urbanairship.api.push.model.PushPayload;
+import com.urbanairship.api.push.model.audience.Selectors;
+import com.urbanairship.api.push.model.notification.Notification;
+import com.urbanairship.api.push.model.notification.Notifications;
+import com.urbanairship.api.push.model.notification.android.AndroidDevicePayload;
+import com.urbanairship.api.push.model.notification.ios.IOSDevicePayload;
+import com.urbanairship.api.schedule.model.Schedule;
+import com.urbanairship.api.schedule.model.SchedulePayload;
+import org.joda.time.DateTime;
+import org.junit.Test;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class PushValidatorTest {
+
+    private static final String IOS_CHANNEL = "9c36e8c7-5a73-47c0-9716-99fd3d4197d5";
+
+    private final PushValidator validator = PushValidator.newBuilder().build();
+
+    @Test
+    public void testValidPayload() {
+        PushPayload payload = PushPayload.newBuilder()
+            .setAudience(Selectors.or(Selectors.tag("sports"), Selectors.iosChannel(IOS_CHANNEL)))
+            .setDeviceTypes(DeviceTypeData.of(DeviceType.IOS, DeviceType.ANDROID))
+            .setNotification(Notification.newBuilder()
+                .setAlert("Goal!")
+                .addDeviceTypeOverride(DeviceType.IOS, IOSDevicePayload.newBuilder().setPriority(10).build())
+                .build())
+            .build();
+
+        assertTrue(validator.validate(payload).isEmpty());
+    }
+
+    @Test
+    public void testInvalidSelectors() {
+        PushPayload payload = PushPayload.newBuilder()
+            .setAudience(Selectors.or(Selectors.iosChannel("not-a-channel"), Selectors.androidChannel(IOS_CHANNEL)))
+            .setDeviceTypes(DeviceTypeData.of(DeviceType.IOS))
+            .setNotification(Notifications.alert("Hello"))
+            .build();
+
+        List<RequestErrorDetails> errors = validator.validate(payload);
+
+        assertEquals(2, errors.size());
+        assertEquals("audience.or[0].ios_channel", errors.get(0).getPath());
+        assertEquals("audience.or[1].android_channel", errors.get(1).getPath());
+    }
+
+    @Test
+    public void testFailFast() {
+        PushPayload payload = PushPayload.newBuilder()
+            .setAudience(Selectors.or(Selectors.iosChannel("not-a-channel"), Selectors.androidChannel(IOS_CHANNEL)))
+            .setDeviceTypes(DeviceTypeData.of(DeviceType.IOS))
+            .setNotification(Notifications.alert("Hello"))
+            .build();
+
+        List<RequestErrorDetails> errors = PushValidator.newBuilder().setFailFast(true).build().validate(payload);
+
+        assertEquals(1, errors.size());
+        assertEquals("audience.or[0].ios_channel", errors.get(0).getPath());
+    }
+
+    @Test
+    public void testPlatformFields() {
+        PushPayload payload = PushPayload.newBuilder()
+            .setAudience(Selectors.all())
+            .setDeviceTypes(DeviceTypeData.of(DeviceType.IOS))
+            .setNotification(Notification.newBuilder()
+                .addDeviceTypeOverride(DeviceType.IOS, IOSDevicePayload.newBuilder().setAlert("Hi").setPriority(7).build())
+                .addDeviceTypeOverride(DeviceType.ANDROID, AndroidDevicePayload.newBuilder()
+                    .setAlert("Hi")
+                    .setTimeToLive(PushExpiry.newBuilder().setExpirySeconds(PushValidator.MAX_ANDROID_TIME_TO_LIVE_SECONDS + 1).build())
+                    .build())
+                .build())
+            .build();
+
+        List<RequestErrorDetails> errors = validator.validate(payload);
+
+        Set<String> paths = new HashSet<>();
+        for (RequestErrorDetails error : errors) {
+            paths.add(error.getPath());
+        }
+        assertEquals(3, errors.size());
+        assertEquals(ImmutableSet.of("notification.ios.priority", "notification.android", "notification.android.time_to_live"), paths);
+    }
+
+    @Test
+    public void testPayloadSize() {
+        PushPayload payload = PushPayload.newBuilder()
+            .setAudience(Selectors.all())
+            .setDeviceTypes(DeviceTypeData.of(DeviceType.IOS, DeviceType.AMAZON))
+            .setNotification(Notifications.alert(Strings.repeat("a", 5000)))
+            .build();
+
+        List<RequestErrorDetails> errors = validator.validate(payload);
+
+        assertEquals(1, errors.size());
+        assertEquals("notification.ios", errors.get(0).getPath());
+    }
+
+    @Test
+    public void testSchedule() {
+        SchedulePayload payload = SchedulePayload.newBuilder()
+            .setSchedule(Schedule.newBuilder()
+                .setScheduledTimestamp(DateTime.now().minusDays(1))
+                .build())
+            .setPushPayload(PushPayload.newBuilder()
+                .setAudience(Selectors.iosChannel("not-a-channel"))
+                .setDeviceTypes(DeviceTypeData.of(DeviceType.IOS))
+                .setNotification(Notifications.alert("Hello"))
+                .build())
+            .build();
+
+        List<RequestErrorDetails> errors = validator.validate(payload);
+
+        assertEquals(2, errors.size());
+        assertEquals("schedule", errors.get(0).getPath());
+        assertEquals("push.audience.ios_channel", errors.get(1).getPath());
+    }
+}
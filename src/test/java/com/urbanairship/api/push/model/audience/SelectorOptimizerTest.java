@@ -0,0 +1,126 @@
+package com.urbanairship.api.push.model.audience;
+
+import com.google.common.collect.ImmutableList;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static com.urbanairship.api.push.model.audience.Selectors.and;
+import static com.urbanairship.api.push.model.audience.Selectors.not;
+import static com.urbanairship.api.push.model.audience.Selectors.or;
+import static com.urbanairship.api.push.model.audience.Selectors.segment;
+import static com.urbanairship.api.push.model.audience.Selectors.staticList;
+import static com.urbanairship.api.push.model.audience.Selectors.tag;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+public class SelectorOptimizerTest {
+
+    private static final List<Selector> LEAVES = ImmutableList.of(
+        tag("a"), tag("b"), tag("c"), segment("d"), staticList("e"), Selectors.tagWithGroup("a", "group"));
+
+    @Test
+    public void testFlatten() {
+        assertEquals(or(tag("a"), tag("b"), tag("c")), SelectorOptimizer.optimize(or(or(tag("a"), tag("b")), tag("c"))));
+        assertEquals(and(tag("a"), tag("b"), tag("c")), SelectorOptimizer.optimize(and(tag("a"), and(tag("b"), and(tag("c"))))));
+    }
+
+    @Test
+    public void testDedupeAndSingleton() {
+        assertEquals(or(tag("a"), tag("b")), SelectorOptimizer.optimize(or(tag("a"), tag("b"), tag("a"))));
+        assertEquals(tag("a"), SelectorOptimizer.optimize(and(or(tag("a"), tag("a")))));
+    }
+
+    @Test
+    public void testDoubleNegation() {
+        assertEquals(tag("a"), SelectorOptimizer.optimize(not(not(tag("a")))));
+        assertEquals(not(tag("a")), SelectorOptimizer.optimize(not(not(not(tag("a"))))));
+    }
+
+    @Test
+    public void testHoist() {
+        assertEquals(and(tag("a"), or(tag("b"), tag("c"))),
+            SelectorOptimizer.optimize(or(and(tag("a"), tag("b")), and(tag("c"), tag("a")))));
+        assertEquals(or(tag("a"), and(tag("b"), tag("c"))),
+            SelectorOptimizer.optimize(and(or(tag("a"), tag("b")), or(tag("a"), tag("c")))));
+    }
+
+    @Test
+    public void testAbsorption() {
+        assertEquals(tag("a"), SelectorOptimizer.optimize(or(tag("a"), and(tag("a"), tag("b")))));
+        assertEquals(and(tag("a"), tag("b")), SelectorOptimizer.optimize(or(and(tag("a"), tag("b")), and(tag("b"), tag("a"), tag("c")))));
+    }
+
+    @Test
+    public void testLeavesAreKept() {
+        Selector selector = tag("a");
+        assertSame(selector, SelectorOptimizer.optimize(selector));
+        assertEquals(Selectors.all(), SelectorOptimizer.optimize(Selectors.all()));
+    }
+
+    @Test
+    public void testRandomSelectorsArePreserved() {
+        Random random = new Random(20161018L);
+        for (int i = 0; i < 2000; i++) {
+            Selector selector = randomSelector(random, 4);
+            Selector optimized = SelectorOptimizer.optimize(selector);
+
+            // Every combination of leaves a device may match, so the selectors are equivalent.
+            for (int device = 0; device < 1 << LEAVES.size(); device++) {
+                assertEquals(selector + " -> " + optimized, matches(selector, device), matches(optimized, device));
+            }
+            assertTrue(size(optimized) <= size(selector));
+            assertEquals(optimized, SelectorOptimizer.optimize(optimized));
+        }
+    }
+
+    private static Selector randomSelector(Random random, int depth) {
+        if (depth == 0 || random.nextInt(4) == 0) {
+            return LEAVES.get(random.nextInt(LEAVES.size()));
+        }
+        switch (random.nextInt(3)) {
+            case 0:
+                return not(randomSelector(random, depth - 1));
+            default:
+                List<Selector> children = new ArrayList<>();
+                int count = 1 + random.nextInt(4);
+                for (int i = 0; i < count; i++) {
+                    children.add(randomSelector(random, depth - 1));
+                }
+                return Selectors.compound(random.nextBoolean() ? SelectorType.AND : SelectorType.OR, children);
+        }
+    }
+
+    /**
+     * Whether a device, given as the bit set of the leaves it matches, is selected.
+     */
+    private static boolean matches(Selector selector, int device) {
+        if (!(selector instanceof CompoundSelector)) {
+            return (device & 1 << LEAVES.indexOf(selector)) != 0;
+        }
+        boolean and = selector.getType() != SelectorType.OR;
+        for (Selector child : ((CompoundSelector) selector).getChildren()) {
+            boolean match = matches(child, device);
+            if (selector.getType() == SelectorType.NOT) {
+                return !match;
+            }
+            if (match != and) {
+                return match;
+            }
+        }
+        return and;
+    }
+
+    private static int size(Selector selector) {
+        int size = 1;
+        if (selector instanceof CompoundSelector) {
+            for (Selector child : ((CompoundSelector) selector).getChildren()) {
+                size += size(child);
+            }
+        }
+        return size;
+    }
+}
@@ -0,0 +1,113 @@
+package com.urbanairship.api.push.model.audience;
+
+import com.google.common.collect.ImmutableList;
+import com.urbanairship.api.common.parse.APIParsingException;
+import com.urbanairship.api.push.parse.PushObjectMapper;
+import org.codehaus.jackson.map.ObjectMapper;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static com.urbanairship.api.push.model.audience.Selectors.deviceToken;
+import static com.urbanairship.api.push.model.audience.Selectors.deviceTokens;
+import static com.urbanairship.api.push.model.audience.Selectors.or;
+import static com.urbanairship.api.push.model.audience.Selectors.tag;
+import static com.urbanairship.api.push.model.audience.Selectors.tagWithGroup;
+import static com.urbanairship.api.push.model.audience.Selectors.tags;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class ValueSetSelectorTest {
+
+    private static final ObjectMapper mapper = PushObjectMapper.getInstance();
+
+    @Test
+    public void testPackedLists() {
+        Selector selector = deviceTokens("a", "b", "c");
+        assertTrue(selector instanceof ValueSetSelector);
+
+        ValueSetSelector set = (ValueSetSelector) selector;
+        assertEquals(SelectorType.OR, set.getType());
+        assertEquals(SelectorType.DEVICE_TOKEN, set.getValueType());
+        assertEquals(ImmutableList.of("a", "b", "c"), set.getValues());
+        assertEquals(3, set.size());
+        assertEquals(ImmutableList.of(deviceToken("a"), deviceToken("b"), deviceToken("c")), ImmutableList.copyOf(set.getChildren()));
+
+        // ANDs of values are not packed.
+        assertTrue(Selectors.compound(SelectorType.AND, SelectorType.TAG, "a", "b") instanceof BasicCompoundSelector);
+    }
+
+    @Test
+    public void testEqualsBasicCompoundSelector() {
+        Selector packed = tags("a", "b");
+        Selector basic = BasicCompoundSelector.newBuilder()
+            .setType(SelectorType.OR)
+            .addSelector(tag("a"))
+            .addSelector(tag("b"))
+            .build();
+
+        assertEquals(basic, packed);
+        assertEquals(packed, basic);
+        assertEquals(basic.hashCode(), packed.hashCode());
+        assertFalse(packed.equals(tags("b", "a")));
+        assertFalse(packed.equals(Selectors.compound(SelectorType.AND, SelectorType.TAG, "a", "b")));
+    }
+
+    @Test
+    public void testVisitor() {
+        final List<Selector> visited = new ArrayList<>();
+        deviceTokens("a", "b").accept(new SelectorVisitor() {
+            @Override
+            public void enter(Selector s) {
+                visited.add(s);
+            }
+
+            @Override
+            public void exit(Selector s) {
+            }
+        });
+
+        assertEquals(ImmutableList.of(deviceTokens("a", "b"), deviceToken("a"), deviceToken("b")), visited);
+    }
+
+    @Test
+    public void testSerialization() throws Exception {
+        Selector selector = deviceTokens("a", "b");
+        String json = mapper.writeValueAsString(selector);
+        assertEquals("{\"device_token\":[\"a\",\"b\"]}", json);
+
+        Selector parsed = mapper.readValue(json, Selector.class);
+        assertTrue(parsed instanceof ValueSetSelector);
+        assertEquals(selector, parsed);
+
+        // Nested value sets are written in place.
+        assertEquals("{\"and\":[{\"tag\":[\"a\",\"b\"]},{\"tag\":\"c\"}]}",
+            mapper.writeValueAsString(Selectors.and(tags("a", "b"), tag("c"))));
+    }
+
+    @Test
+    public void testDeserializeHomogeneousOr() throws Exception {
+        Selector parsed = mapper.readValue("{\"or\":[{\"tag\":\"a\"},{\"tag\":\"b\"}]}", Selector.class);
+        assertTrue(parsed instanceof ValueSetSelector);
+        assertEquals(tags("a", "b"), parsed);
+
+        // Mixed types and attributes are kept as compound selectors.
+        parsed = mapper.readValue("{\"or\":[{\"tag\":\"a\"},{\"alias\":\"b\"}]}", Selector.class);
+        assertTrue(parsed instanceof BasicCompoundSelector);
+        parsed = mapper.readValue("{\"or\":[{\"tag\":\"a\"},{\"tag\":\"b\",\"group\":\"g\"}]}", Selector.class);
+        assertTrue(parsed instanceof BasicCompoundSelector);
+        assertEquals(or(tag("a"), tagWithGroup("b", "g")), parsed);
+    }
+
+    @Test(expected = APIParsingException.class)
+    public void testDeserializeValidatesValues() throws Exception {
+        mapper.readValue("{\"apid\":[\"0123456789abcdef\",\"short\"]}", Selector.class);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testEmptyValues() {
+        deviceTokens();
+    }
+}
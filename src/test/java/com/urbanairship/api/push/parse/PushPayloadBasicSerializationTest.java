@@ -1,5 +1,6 @@
 package com.urbanairship.api.push.parse;
 
+import com.google.common.base.Charsets;
 import com.urbanairship.api.common.parse.APIParsingException;
 import com.urbanairship.api.push.model.DeviceType;
 import com.urbanairship.api.push.model.DeviceTypeData;
@@ -8,6 +9,7 @@ import com.urbanairship.api.push.model.Position;
 import com.urbanairship.api.push.model.PushPayload;
 import com.urbanairship.api.push.model.audience.Selectors;
 import com.urbanairship.api.push.model.notification.Notification;
+import com.urbanairship.api.push.model.notification.Notifications;
 import com.urbanairship.api.push.model.notification.adm.ADMDevicePayload;
 import com.urbanairship.api.push.model.notification.android.AndroidDevicePayload;
 import com.urbanairship.api.push.model.notification.blackberry.BlackberryDevicePayload;
@@ -20,10 +22,12 @@ import org.codehaus.jackson.map.ObjectMapper;
 import org.codehaus.jackson.type.TypeReference;
 import org.junit.Test;
 
+import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.util.List;
 import java.util.Set;
 
+import static org.junit.Assert.assertArrayEquals;
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertNotNull;
@@ -53,6 +57,25 @@ public class PushPayloadBasicSerializationTest {
         assertEquals(2, pushes.size());
     }
 
+    @Test
+    public void testDirectByteSerialization() throws Exception {
+        PushPayload payload = PushPayload.newBuilder()
+                .setAudience(Selectors.tag("caf\u00e9"))
+                .setDeviceTypes(DeviceTypeData.of(DeviceType.IOS))
+                .setNotification(Notifications.alert("\u2603 snow"))
+                .build();
+        byte[] expected = payload.toJSON().getBytes(Charsets.UTF_8);
+
+        assertArrayEquals(expected, payload.toJSONBytes());
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        out.write('[');
+        payload.writeTo(out);
+        out.write(']');
+        assertEquals("[" + payload.toJSON() + "]", new String(out.toByteArray(), Charsets.UTF_8));
+        assertEquals(payload, mapper.readValue(payload.toJSONBytes(), PushPayload.class));
+    }
+
     @Test
     public void testSinglePushAsList() throws Exception {
         String json
@@ -1,5 +1,6 @@
 package com.urbanairship.api.schedule;
 
+import com.google.common.base.Charsets;
 import com.google.common.net.HttpHeaders;
 import com.urbanairship.api.client.Request;
 import com.urbanairship.api.client.ResponseParser;
@@ -22,7 +23,9 @@ import java.net.URI;
 import java.util.HashMap;
 import java.util.Map;
 
+import static org.junit.Assert.assertArrayEquals;
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
 
 public class ScheduleRequestTest {
 
@@ -63,6 +66,23 @@ public class ScheduleRequestTest {
         assertEquals(updateScheduleRequest.getRequestBody(), schedulePayload.toJSON());
     }
 
+    @Test
+    public void testBodyBytesAreSerializedOnce() throws Exception {
+        ScheduleRequest request = ScheduleRequest.newRequest(schedule, pushPayload);
+        byte[] body = request.getRequestBodyBytes();
+
+        assertArrayEquals(schedulePayload.toJSON().getBytes(Charsets.UTF_8), body);
+        assertSame(body, request.getRequestBodyBytes());
+
+        request.setName("name");
+        SchedulePayload namedPayload = SchedulePayload.newBuilder()
+            .setName("name")
+            .setSchedule(schedule)
+            .setPushPayload(pushPayload)
+            .build();
+        assertArrayEquals(namedPayload.toJSON().getBytes(Charsets.UTF_8), request.getRequestBodyBytes());
+    }
+
     @Test
     public void testHeaders() throws Exception {
         Map<String, String> headers = new HashMap<String, String>();
@@ -2,6 +2,7 @@ package com.urbanairship.api.staticlists;
 
 
 import com.google.common.net.HttpHeaders;
+import com.urbanairship.api.client.IncrementalResponseParser;
 import com.urbanairship.api.client.Request;
 import com.urbanairship.api.staticlists.parse.StaticListsObjectMapper;
 import org.codehaus.jackson.map.ObjectMapper;
@@ -10,18 +11,27 @@ import org.junit.Before;
 import org.junit.Test;
 
 import java.io.BufferedReader;
+import java.io.ByteArrayOutputStream;
 import java.io.File;
 import java.io.FileInputStream;
 import java.io.FileOutputStream;
 import java.io.IOException;
 import java.io.InputStreamReader;
 import java.net.URI;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 
+import static org.junit.Assert.assertArrayEquals;
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
 import static org.junit.Assert.assertTrue;
 
 public class StaticListDownloadRequestTest {
@@ -101,6 +111,54 @@ public class StaticListDownloadRequestTest {
         assertEquals(response, fileString.toString());
     }
 
+    @Test
+    public void testStreamToPath() throws Exception {
+        String response = "alias,stevenh\n" +
+                "named_user,\"gates,bill\"\n";
+        byte[] bytes = response.getBytes(StandardCharsets.UTF_8);
+
+        IncrementalResponseParser<String> parser = (IncrementalResponseParser<String>) StaticListDownloadRequest.newRequest(TEST_LIST_NAME)
+            .setOutputPath(Paths.get(OUTPUT_FILE_PATH))
+            .getResponseParser();
+        parser.write(ByteBuffer.wrap(bytes, 0, 7));
+        parser.write(ByteBuffer.wrap(bytes, 7, bytes.length - 7));
+
+        assertNull(parser.finish());
+        assertArrayEquals(bytes, Files.readAllBytes(Paths.get(OUTPUT_FILE_PATH)));
+    }
+
+    @Test
+    public void testRowCallback() throws Exception {
+        String response = "alias,st\u00e9venh\r\n" +
+                "named_user,\"gates,\nbill\"\n" +
+                "ios_channel,b64a5105-20a1-459e-a15d-6aa22f4365f5";
+        byte[] bytes = response.getBytes(StandardCharsets.UTF_8);
+
+        final List<String[]> rows = new ArrayList<String[]>();
+        ByteArrayOutputStream channelOutput = new ByteArrayOutputStream();
+        IncrementalResponseParser<String> parser = (IncrementalResponseParser<String>) StaticListDownloadRequest.newRequest(TEST_LIST_NAME)
+            .setOutputChannel(Channels.newChannel(channelOutput))
+            .setRowCallback(new CsvRowCallback() {
+                @Override
+                public void onRow(String[] row) {
+                    rows.add(row);
+                }
+            })
+            .getResponseParser();
+
+        // Deliver one byte at a time, splitting the multibyte character and the quoted field across parts.
+        for (byte b : bytes) {
+            parser.write(ByteBuffer.wrap(new byte[]{b}));
+        }
+        parser.finish();
+
+        assertEquals(3, rows.size());
+        assertEquals(Arrays.asList("alias", "st\u00e9venh"), Arrays.asList(rows.get(0)));
+        assertEquals(Arrays.asList("named_user", "gates,\nbill"), Arrays.asList(rows.get(1)));
+        assertEquals(Arrays.asList("ios_channel", "b64a5105-20a1-459e-a15d-6aa22f4365f5"), Arrays.asList(rows.get(2)));
+        assertArrayEquals(bytes, channelOutput.toByteArray());
+    }
+
     @After
     public void tearDown() {
         try {
@@ -1,6 +1,11 @@
 package com.urbanairship.api.staticlists;
 
+import com.google.common.io.ByteSource;
+import com.google.common.io.ByteStreams;
+import com.google.common.io.Files;
 import com.google.common.net.HttpHeaders;
+import com.ning.http.client.Body;
+import com.ning.http.client.generators.FileBodyGenerator;
 import com.urbanairship.api.client.Request;
 import com.urbanairship.api.staticlists.parse.StaticListsObjectMapper;
 import org.apache.http.entity.ContentType;
@@ -8,12 +13,19 @@ import org.codehaus.jackson.map.ObjectMapper;
 import org.junit.Before;
 import org.junit.Test;
 
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
 import java.io.File;
+import java.io.InputStream;
 import java.net.URI;
+import java.nio.ByteBuffer;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.zip.GZIPInputStream;
 
+import static org.junit.Assert.assertArrayEquals;
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
 
 public class StaticListUploadRequestTest {
     private static final ObjectMapper mapper = StaticListsObjectMapper.getInstance();
@@ -70,6 +82,56 @@ public class StaticListUploadRequestTest {
         assertEquals(expected, request.getRequestBody());
     }
 
+    @Test
+    public void testFileBodyIsSentFromDisk() throws Exception {
+        assertTrue(request.getRequestBodyGenerator() instanceof FileBodyGenerator);
+    }
+
+    @Test
+    public void testGzipBody() throws Exception {
+        request.setGzipEnabled(true);
+
+        byte[] compressed = readBody(request.getRequestBodyGenerator().createBody());
+        byte[] uncompressed = ByteStreams.toByteArray(new GZIPInputStream(new ByteArrayInputStream(compressed)));
+
+        assertArrayEquals(Files.toByteArray(new File(TEST_CSV_FILE)), uncompressed);
+    }
+
+    @Test
+    public void testStreamBody() throws Exception {
+        byte[] csv = Files.toByteArray(new File(TEST_CSV_FILE));
+        InputStream stream = new ByteArrayInputStream(csv);
+        StaticListUploadRequest streamRequest = StaticListUploadRequest.newRequest(TEST_LIST_NAME, stream);
+
+        assertArrayEquals(csv, readBody(streamRequest.getRequestBodyGenerator().createBody()));
+        assertEquals(request.getUri(URI.create("https://go.urbanairship.com")),
+                streamRequest.getUri(URI.create("https://go.urbanairship.com")));
+    }
+
+    @Test
+    public void testByteSourceBodyCanBeReplayed() throws Exception {
+        byte[] csv = Files.toByteArray(new File(TEST_CSV_FILE));
+        StaticListUploadRequest sourceRequest = StaticListUploadRequest.newRequest(TEST_LIST_NAME, ByteSource.wrap(csv));
+
+        assertArrayEquals(csv, readBody(sourceRequest.getRequestBodyGenerator().createBody()));
+        assertArrayEquals(csv, readBody(sourceRequest.getRequestBodyGenerator().createBody()));
+    }
+
+    private static byte[] readBody(Body body) throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        ByteBuffer buffer = ByteBuffer.allocate(256);
+        try {
+            while (body.read(buffer) >= 0) {
+                buffer.flip();
+                out.write(buffer.array(), 0, buffer.limit());
+                buffer.clear();
+            }
+        } finally {
+            body.close();
+        }
+        return out.toByteArray();
+    }
+
     @Test
     public void testParser() throws Exception {
         String response = "{\"ok\": true}";
@@ -0,0 +1,104 @@
+package com.urbanairship.api.templates;
+
+import com.urbanairship.api.push.model.DeviceType;
+import com.urbanairship.api.push.model.DeviceTypeData;
+import com.urbanairship.api.push.model.PushPayload;
+import com.urbanairship.api.push.model.audience.Selectors;
+import com.urbanairship.api.push.model.notification.Notification;
+import com.urbanairship.api.push.model.notification.android.AndroidDevicePayload;
+import com.urbanairship.api.push.parse.PushObjectMapper;
+import com.urbanairship.api.templates.model.PartialPushPayload;
+import com.urbanairship.api.templates.model.TemplatePushPayload;
+import com.urbanairship.api.templates.model.TemplateSelector;
+import com.urbanairship.api.templates.model.TemplateVariable;
+import com.urbanairship.api.templates.model.TemplateView;
+import org.joda.time.DateTime;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+
+public class TemplateRendererTest {
+
+    private static final TemplateView TEMPLATE = TemplateView.newBuilder()
+        .setId("template-id-123")
+        .setCreatedAt(new DateTime(2016, 1, 1, 0, 0))
+        .setModifiedAt(new DateTime(2016, 1, 1, 0, 0))
+        .setLastUsed(new DateTime(2016, 1, 1, 0, 0))
+        .setName("Welcome")
+        .addVariable(TemplateVariable.newBuilder().setKey("TITLE").setDefaultValue("").build())
+        .addVariable(TemplateVariable.newBuilder().setKey("FIRST_NAME").build())
+        .addVariable(TemplateVariable.newBuilder().setKey("UNUSED").build())
+        .setPushPayload(PartialPushPayload.newBuilder()
+            .setNotification(Notification.newBuilder()
+                .setAlert("Hello {{TITLE}} {{FIRST_NAME}}, {{UNKNOWN}}!")
+                .addDeviceTypeOverride(DeviceType.ANDROID, AndroidDevicePayload.newBuilder()
+                    .setAlert("Hi {{FIRST_NAME}}")
+                    .build())
+                .build())
+            .build())
+        .build();
+
+    @Test
+    public void testRender() throws Exception {
+        TemplateRenderer renderer = TemplateRenderer.compile(TEMPLATE);
+
+        PushPayload push = renderer.render(templatePush(TemplateSelector.newBuilder()
+            .setTemplateId("template-id-123")
+            .addSubstitution("TITLE", "Dr.")
+            .addSubstitution("FIRST_NAME", "Ada \"The Countess\"")
+            .build()));
+
+        PushPayload expected = PushPayload.newBuilder()
+            .setAudience(Selectors.namedUser("named-user"))
+            .setDeviceTypes(DeviceTypeData.of(DeviceType.ANDROID))
+            .setNotification(Notification.newBuilder()
+                .setAlert("Hello Dr. Ada \"The Countess\", {{UNKNOWN}}!")
+                .addDeviceTypeOverride(DeviceType.ANDROID, AndroidDevicePayload.newBuilder()
+                    .setAlert("Hi Ada \"The Countess\"")
+                    .build())
+                .build())
+            .build();
+
+        assertEquals(expected, push);
+        assertEquals(expected, PushObjectMapper.getInstance().readValue(
+            renderer.renderJson(templatePush(TemplateSelector.newBuilder()
+                .setTemplateId("template-id-123")
+                .addSubstitution("TITLE", "Dr.")
+                .addSubstitution("FIRST_NAME", "Ada \"The Countess\"")
+                .build())), PushPayload.class));
+    }
+
+    @Test
+    public void testDefaultValue() throws Exception {
+        PushPayload push = TemplateRenderer.compile(TEMPLATE).render(templatePush(TemplateSelector.newBuilder()
+            .setTemplateId("template-id-123")
+            .addSubstitution("FIRST_NAME", "Ada")
+            .build()));
+
+        assertEquals("Hello  Ada, {{UNKNOWN}}!", push.getNotification().get().getAlert().get());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testMissingValue() throws Exception {
+        TemplateRenderer.compile(TEMPLATE).renderJson(templatePush(TemplateSelector.newBuilder()
+            .setTemplateId("template-id-123")
+            .addSubstitution("TITLE", "Dr.")
+            .build()));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testOtherTemplate() throws Exception {
+        TemplateRenderer.compile(TEMPLATE).renderJson(templatePush(TemplateSelector.newBuilder()
+            .setTemplateId("template-id-456")
+            .addSubstitution("FIRST_NAME", "Ada")
+            .build()));
+    }
+
+    private static TemplatePushPayload templatePush(TemplateSelector mergeData) {
+        return TemplatePushPayload.newBuilder()
+            .setAudience(Selectors.namedUser("named-user"))
+            .setDeviceTypes(DeviceTypeData.of(DeviceType.ANDROID))
+            .setMergeData(mergeData)
+            .build();
+    }
+}